@@ -0,0 +1,566 @@
+/**
+ * BarSeries.java  v0.1  19 October 2026 5:12:40 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static java.util.Calendar.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Price and volume data of a symbol held in parallel primitive arrays, one
+ * bar per date in chronological order, so that it is sorted, merged, trimmed
+ * and resampled without parsing or comparing <code>String</code>s.
+ * <p>
+ * Immutable. Built with a <code>Builder</code>, typically from lines in
+ * MetaStock format, i.e. Symbol,YYYYMMDD,Open,High,Low,Close[,Volume], and
+ * written back in the same format in reverse chronological order. Prices
+ * some sources leave empty are held as <code>NaN</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class BarSeries {
+
+  private final String      symbol;
+  private final int[]       dates;     // YYYYMMDD
+  private final double[]    opens;
+  private final double[]    highs;
+  private final double[]    lows;
+  private final double[]    closes;
+  private final long[]      volumes;
+  private final int         size;
+
+  private static final char COMMA = ',';
+  private static final char LF    = '\n';
+
+  private BarSeries(final String symbol,
+                    final int[] dates,
+                    final double[] opens,
+                    final double[] highs,
+                    final double[] lows,
+                    final double[] closes,
+                    final long[] volumes,
+                    final int size) {
+    this.symbol = symbol;
+    this.dates = dates;
+    this.opens = opens;
+    this.highs = highs;
+    this.lows = lows;
+    this.closes = closes;
+    this.volumes = volumes;
+    this.size = size;
+  }
+
+  /**
+   * Parses lines in MetaStock format, skipping empty lines. Of several lines
+   * of the same date, the first is kept.
+   *
+   * @param symbol null to take the symbol of the first line
+   * @param lines in any order, though reverse chronological is the cheapest
+   * @return the bars in chronological order
+   * @throws IOException if a line cannot be parsed
+   */
+  public static BarSeries parse(final String symbol, final Iterable<String> lines) throws IOException {
+    return new Builder(symbol).addAll(lines).build();
+  }
+
+  public String symbol() {
+    return symbol;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int date(final int bar) {
+    return dates[check(bar)];
+  }
+
+  public double open(final int bar) {
+    return opens[check(bar)];
+  }
+
+  public double high(final int bar) {
+    return highs[check(bar)];
+  }
+
+  public double low(final int bar) {
+    return lows[check(bar)];
+  }
+
+  public double close(final int bar) {
+    return closes[check(bar)];
+  }
+
+  public long volume(final int bar) {
+    return volumes[check(bar)];
+  }
+
+  private final int check(final int bar) {
+    if (bar < 0 || bar >= size) {
+      throw new IndexOutOfBoundsException("Bar: " + bar + ", size: " + size);
+    }
+    return bar;
+  }
+
+  /**
+   * @return the earliest date, or 0 if empty
+   */
+  public int firstDate() {
+    return (size == 0) ? 0 : dates[0];
+  }
+
+  /**
+   * @return the latest date, or 0 if empty
+   */
+  public int latestDate() {
+    return (size == 0) ? 0 : dates[size - 1];
+  }
+
+  /**
+   * @param date YYYYMMDD
+   * @return index of the first bar on or after <code>date</code>, or
+   *         <code>size()</code> if none
+   */
+  public int lowerBound(final int date) {
+    final int found = Arrays.binarySearch(dates, 0, size, date);
+    return (found < 0) ? -(found + 1) : found;
+  }
+
+  /**
+   * @param from earliest date (YYYYMMDD) kept
+   * @param to latest date (YYYYMMDD) kept
+   * @return the bars from <code>from</code> to <code>to</code> inclusive
+   */
+  public BarSeries between(final int from, final int to) {
+    final int start = lowerBound(from);
+    final int end = Math.max(start, lowerBound(to + 1));
+    if (start == 0 && end == size) {
+      return this;
+    }
+    return new BarSeries(symbol,
+                         Arrays.copyOfRange(dates, start, end),
+                         Arrays.copyOfRange(opens, start, end),
+                         Arrays.copyOfRange(highs, start, end),
+                         Arrays.copyOfRange(lows, start, end),
+                         Arrays.copyOfRange(closes, start, end),
+                         Arrays.copyOfRange(volumes, start, end),
+                         end - start);
+  }
+
+  /**
+   * @param interval null dates being unbounded
+   * @return the bars from the start to the end of <code>interval</code>
+   *         inclusive
+   */
+  public BarSeries between(final Interval interval) {
+    return between((interval.start() == null) ? Integer.MIN_VALUE : date(interval.start()),
+                   (interval.end() == null) ? Integer.MAX_VALUE - 1 : date(interval.end()));
+  }
+
+  /**
+   * @return <code>calendar</code> as YYYYMMDD
+   */
+  public static int date(final Calendar calendar) {
+    return calendar.get(YEAR) * 10000 + (calendar.get(MONTH) + 1) * 100 + calendar.get(DATE);
+  }
+
+  /**
+   * Merges <code>updates</code> into these bars, replacing bars of the same
+   * dates.
+   *
+   * @param updates
+   * @return the bars merged, with the symbol of these
+   */
+  public BarSeries merge(final BarSeries updates) {
+    if (updates.size == 0) {
+      return this;
+    }
+    final Builder merged = new Builder(symbol, size + updates.size);
+    int i = 0;
+    int j = 0;
+    while (i < size || j < updates.size) {
+      if (j == updates.size || (i < size && dates[i] < updates.dates[j])) {
+        merged.add(this, i++);
+      }
+      else {
+        if (i < size && dates[i] == updates.dates[j]) { // replaced
+          ++i;
+        }
+        merged.add(updates, j++);
+      }
+    }
+    return merged.build();
+  }
+
+  /**
+   * Resamples daily bars to <code>frequency</code>, weeks running from Monday
+   * to Sunday. Each bar opens at the first open of its period, closes at the
+   * last close, spans its highest high and lowest low, sums volumes and is
+   * dated by the last date of its period with data.
+   *
+   * @param frequency
+   * @return these bars if <code>frequency</code> is daily
+   */
+  public BarSeries resample(final Frequencies frequency) {
+    if (frequency == Frequencies.DAILY || size == 0) {
+      return this;
+    }
+
+    final Builder resampled = new Builder(symbol);
+    int period = period(dates[0], frequency);
+    int first = 0;
+    for (int bar = 1; bar <= size; ++bar) {
+      final int next = (bar < size) ? period(dates[bar], frequency) : period + 1;
+      if (next != period) {
+        double high = highs[first];
+        double low = lows[first];
+        long volume = 0;
+        for (int i = first; i < bar; ++i) {
+          high = Math.max(high, highs[i]);
+          low = Math.min(low, lows[i]);
+          volume += volumes[i];
+        }
+        resampled.add(dates[bar - 1], opens[first], high, low, closes[bar - 1], volume);
+        period = next;
+        first = bar;
+      }
+    }
+    return resampled.build();
+  }
+
+  private static final int period(final int date, final Frequencies frequency) {
+    if (frequency == Frequencies.MONTHLY) {
+      return date / 100; // YYYYMM
+    }
+    // weeks since a Monday, day 5 being a Monday
+    return (day(date) + 2) / 7;
+  }
+
+  /**
+   * @return days since 1 March of year 0 of <code>date</code> (YYYYMMDD)
+   */
+  private static final int day(final int date) {
+    final int year = date / 10000;
+    final int month = (date / 100) % 100;
+    // years counted from March, so that leap days end them
+    final int y = (month <= 2) ? year - 1 : year;
+    final int era = y / 400;
+    final int yearOfEra = y - era * 400;
+    final int dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + date % 100 - 1;
+    return era * 146097 + yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+  }
+
+  /**
+   * Writes these bars in MetaStock format in reverse chronological order, a
+   * line feed ending each line.
+   *
+   * @param out
+   * @throws IOException if <code>out</code> cannot be appended to
+   */
+  public void writeTo(final Appendable out) throws IOException {
+    final StringBuilder line = new StringBuilder();
+    for (int bar = size - 1; bar >= 0; --bar) {
+      out.append(line(bar, line)).append(LF);
+    }
+  }
+
+  /**
+   * @return lines in MetaStock format in reverse chronological order
+   */
+  public List<String> toLines() {
+    final List<String> lines = new ArrayList<>(size);
+    final StringBuilder line = new StringBuilder();
+    for (int bar = size - 1; bar >= 0; --bar) {
+      lines.add(line(bar, line).toString());
+    }
+    return lines;
+  }
+
+  private final StringBuilder line(final int bar, final StringBuilder line) {
+    line.setLength(0);
+    line.append(symbol).append(COMMA).append(dates[bar]).append(COMMA);
+    append(line, opens[bar]).append(COMMA);
+    append(line, highs[bar]).append(COMMA);
+    append(line, lows[bar]).append(COMMA);
+    append(line, closes[bar]).append(COMMA);
+    return line.append(volumes[bar]);
+  }
+
+  /**
+   * Appends <code>price</code> in plain notation, without trailing zeroes.
+   */
+  private static final StringBuilder append(final StringBuilder line, final double price) {
+    if (Double.isNaN(price)) { // left empty
+      return line;
+    }
+    final long whole = (long) price;
+    if (whole == price && Math.abs(price) < 1e15) {
+      return line.append(whole);
+    }
+    final String text = Double.toString(price);
+    return (text.indexOf('E') < 0) ? line.append(text)
+                                   : line.append(BigDecimal.valueOf(price).stripTrailingZeros().toPlainString());
+  }
+
+  @Override
+  public String toString() {
+    return symbol + " (" + size + " bars, " + firstDate() + " to " + latestDate() + ")";
+  }
+
+  /**
+   * Builds a <code>BarSeries</code> from bars or lines added in any order,
+   * growing its arrays as needed. Of several bars of the same date, the first
+   * added is kept.
+   * <p>
+   * Not thread-safe.
+   */
+  public static class Builder {
+
+    private String            symbol;
+    private int[]             dates;
+    private double[]          opens;
+    private double[]          highs;
+    private double[]          lows;
+    private double[]          closes;
+    private long[]            volumes;
+    private int               size;
+    private boolean           ascending        = true;
+    private boolean           descending       = true;
+
+    private static final int  INITIAL_CAPACITY = 16;
+    private static final int  DATE_DIGITS      = 8;    // YYYYMMDD
+    private static final char HYPHEN           = '-';
+
+    /**
+     * @param symbol null to take the symbol of the first line added
+     */
+    public Builder(final String symbol) {
+      this(symbol, INITIAL_CAPACITY);
+    }
+
+    public Builder(final String symbol, final int initialCapacity) {
+      this.symbol = symbol;
+      final int capacity = Math.max(initialCapacity, 1);
+      dates = new int[capacity];
+      opens = new double[capacity];
+      highs = new double[capacity];
+      lows = new double[capacity];
+      closes = new double[capacity];
+      volumes = new long[capacity];
+    }
+
+    public Builder add(final int date,
+                       final double open,
+                       final double high,
+                       final double low,
+                       final double close,
+                       final long volume) {
+      if (size == dates.length) {
+        grow();
+      }
+      if (size > 0) {
+        ascending &= date > dates[size - 1];
+        descending &= date < dates[size - 1];
+      }
+      dates[size] = date;
+      opens[size] = open;
+      highs[size] = high;
+      lows[size] = low;
+      closes[size] = close;
+      volumes[size] = volume;
+      ++size;
+      return this;
+    }
+
+    private final Builder add(final BarSeries bars, final int bar) {
+      return add(bars.dates[bar], bars.opens[bar], bars.highs[bar], bars.lows[bar], bars.closes[bar], bars.volumes[bar]);
+    }
+
+    /**
+     * Parses a line in MetaStock format, skipping it if empty.
+     *
+     * @param line
+     * @return this
+     * @throws IOException if <code>line</code> cannot be parsed
+     */
+    public Builder add(final CharSequence line) throws IOException {
+      final int length = line.length();
+      if (length == 0) {
+        return this;
+      }
+      try {
+        final int symbolEnd = indexOf(line, 0);
+        int start = symbolEnd + 1;
+        int end = indexOf(line, start);
+        final int date = parseDate(line, start, end);
+        final double open = parseDouble(line, start = end + 1, end = indexOf(line, start));
+        final double high = parseDouble(line, start = end + 1, end = indexOf(line, start));
+        final double low = parseDouble(line, start = end + 1, end = indexOf(line, start));
+        end = indexOf(line, start = end + 1);
+        final double close;
+        final long volume;
+        if (end < 0) { // no volume
+          close = parseDouble(line, start, length);
+          volume = 0;
+        }
+        else {
+          close = parseDouble(line, start, end);
+          final int volumeEnd = indexOf(line, end + 1); // e.g. open interest follows
+          volume = parseVolume(line, end + 1, (volumeEnd < 0) ? length : volumeEnd);
+        }
+        if (symbol == null) {
+          symbol = line.subSequence(0, symbolEnd).toString();
+        }
+        return add(date, open, high, low, close, volume);
+      }
+      catch (final NumberFormatException | IndexOutOfBoundsException e) {
+        throw new IOException("Unparseable line: " + line, e);
+      }
+    }
+
+    /**
+     * @param lines in MetaStock format
+     * @return this
+     * @throws IOException if a line cannot be parsed
+     */
+    public Builder addAll(final Iterable<String> lines) throws IOException {
+      for (final String line : lines) {
+        add(line);
+      }
+      return this;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    /**
+     * @return the bars added in chronological order, the first of several of
+     *         the same date kept
+     */
+    public BarSeries build() {
+      if (ascending) {
+        return new BarSeries(symbol,
+                             Arrays.copyOf(dates, size),
+                             Arrays.copyOf(opens, size),
+                             Arrays.copyOf(highs, size),
+                             Arrays.copyOf(lows, size),
+                             Arrays.copyOf(closes, size),
+                             Arrays.copyOf(volumes, size),
+                             size);
+      }
+
+      final int[] bars = new int[size];
+      if (descending) {
+        for (int i = 0; i < size; ++i) {
+          bars[i] = size - 1 - i;
+        }
+      }
+      else {
+        final Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+          sorted[i] = i;
+        }
+        // stable, so that the first of several bars of the same date comes first
+        Arrays.sort(sorted, new Comparator<Integer>() {
+          @Override
+          public int compare(final Integer bar1, final Integer bar2) {
+            return Integer.compare(dates[bar1], dates[bar2]);
+          }
+        });
+        for (int i = 0; i < size; ++i) {
+          bars[i] = sorted[i];
+        }
+      }
+
+      final Builder built = new Builder(symbol, size);
+      for (final int bar : bars) {
+        if (built.size == 0 || built.dates[built.size - 1] != dates[bar]) {
+          built.add(dates[bar], opens[bar], highs[bar], lows[bar], closes[bar], volumes[bar]);
+        }
+      }
+      return new BarSeries(symbol,
+                           built.dates,
+                           built.opens,
+                           built.highs,
+                           built.lows,
+                           built.closes,
+                           built.volumes,
+                           built.size);
+    }
+
+    private final void grow() {
+      final int capacity = dates.length << 1;
+      dates = Arrays.copyOf(dates, capacity);
+      opens = Arrays.copyOf(opens, capacity);
+      highs = Arrays.copyOf(highs, capacity);
+      lows = Arrays.copyOf(lows, capacity);
+      closes = Arrays.copyOf(closes, capacity);
+      volumes = Arrays.copyOf(volumes, capacity);
+    }
+
+    private static final int indexOf(final CharSequence line, final int from) {
+      for (int i = from; i < line.length(); ++i) {
+        if (line.charAt(i) == COMMA) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Parses YYYYMMDD, or YYYY-MM-DD followed by any time of day.
+     */
+    private static final int parseDate(final CharSequence line, final int start, final int end) {
+      int date = 0;
+      int digits = 0;
+      int i = start;
+      for (; i < end && digits < DATE_DIGITS; ++i) {
+        final char c = line.charAt(i);
+        if (c >= '0' && c <= '9') {
+          date = date * 10 + (c - '0');
+          ++digits;
+        }
+        else if (c != HYPHEN) {
+          break;
+        }
+      }
+      if (digits < DATE_DIGITS || (i < end && line.charAt(i) >= '0' && line.charAt(i) <= '9')) {
+        throw new NumberFormatException("Not a date: " + line.subSequence(start, end));
+      }
+      return date;
+    }
+
+    private static final double parseDouble(final CharSequence line, final int start, final int end) {
+      return (end == start) ? Double.NaN : Double.parseDouble(line.subSequence(start, end).toString());
+    }
+
+    private static final long parseVolume(final CharSequence line, final int start, final int end) {
+      long volume = 0;
+      for (int i = start; i < end; ++i) {
+        final int digit = line.charAt(i) - '0';
+        if (digit < 0 || digit > 9) { // e.g. 1234.5 or 1.2E7
+          return (long) parseDouble(line, start, end);
+        }
+        volume = volume * 10 + digit;
+      }
+      return volume; // 0 if empty
+    }
+
+  }
+
+}
@@ -0,0 +1,303 @@
+/**
+ * Catalog.java  v0.1  19 October 2026 12:21:05 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.ikankechil.eod3.FilenameConvention.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.ikankechil.eod3.io.LineScanner;
+import org.ikankechil.eod3.io.LineTally;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the data files in a directory, recording for each its symbol,
+ * exchange, frequency, first and last dates, row count, size and last
+ * modified time, so that the latest date of a file can be learnt without
+ * opening it.
+ * <p>
+ * Entries are recorded as files are written, from the lines tallied by their
+ * writers rather than by reading the files back, and are valid only while the
+ * size and last modified time of their file are unchanged. The catalog is
+ * kept in a tab-separated file in the directory, rewritten atomically when
+ * saved.
+ * <p>
+ * Thread-safe.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+class Catalog {
+
+  private final File                         file;
+  private final Path                         directory;
+  private final ConcurrentMap<String, Entry> entries;  // Map<Filename, Entry>
+  private volatile boolean                   dirty;
+
+  static final String                        FILENAME  = ".catalog";
+
+  private static final String                TEMPORARY = ".tmp";
+  private static final char                  TAB       = '\t';
+  private static final char                  COMMA     = ',';
+  private static final int                   FIELDS    = 9;
+
+  private static final Logger                logger    = LoggerFactory.getLogger(Catalog.class);
+
+  /**
+   * Opens the catalog of <code>directory</code>, reading its entries if it
+   * was saved before.
+   *
+   * @param directory
+   * @throws IOException if the catalog cannot be read
+   */
+  Catalog(final File directory) throws IOException {
+    this.directory = directory.getAbsoluteFile().toPath();
+    file = new File(directory, FILENAME);
+    entries = read(file);
+  }
+
+  private static final ConcurrentMap<String, Entry> read(final File file) throws IOException {
+    final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    if (!file.isFile()) {
+      return entries;
+    }
+
+    try (final LineScanner scanner = LineScanner.open(file.toPath())) {
+      final String[] fields = new String[FIELDS];
+      while (scanner.next()) {
+        // filename, symbol, exchange, frequency, first, last, rows, size, last modified
+        if (split(scanner, fields)) {
+          try {
+            entries.put(fields[0], new Entry(fields[1],
+                                             fields[2].isEmpty() ? null : fields[2],
+                                             Frequencies.valueOf(fields[3]),
+                                             fields[4],
+                                             fields[5],
+                                             Integer.parseInt(fields[6]),
+                                             Long.parseLong(fields[7]),
+                                             Long.parseLong(fields[8])));
+          }
+          catch (final IllegalArgumentException iaE) {
+            logger.debug("Skipping malformed entry: {}", scanner);
+          }
+        }
+        else if (!scanner.isEmpty()) {
+          logger.debug("Skipping malformed entry: {}", scanner);
+        }
+      }
+    }
+    logger.debug("Catalog read: {} ({} entries)", file, entries.size());
+    return entries;
+  }
+
+  /**
+   * Splits the line scanned into exactly <code>fields.length</code>
+   * tab-separated fields, decoding each from UTF-8.
+   *
+   * @return false if the line has fewer or more fields
+   */
+  private static final boolean split(final LineScanner scanner, final String[] fields) {
+    final byte[] bytes = scanner.array();
+    int from = scanner.start();
+    for (int field = 0; field < fields.length; ++field) {
+      if (from > scanner.end()) { // fewer fields
+        return false;
+      }
+      final int to = scanner.fieldEnd(from, (byte) TAB);
+      fields[field] = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+      from = to + 1;
+    }
+    return from > scanner.end(); // no more fields
+  }
+
+  /**
+   * @param dataFile
+   * @return the entry of <code>dataFile</code>, or null if it has none or has
+   *         changed since it was recorded
+   * @throws IOException if <code>dataFile</code> cannot be stat'ed
+   */
+  Entry get(final Path dataFile) throws IOException {
+    final Entry entry = entries.get(dataFile.getFileName().toString());
+    if (entry == null) {
+      return null;
+    }
+    try {
+      final BasicFileAttributes attributes = Files.readAttributes(dataFile, BasicFileAttributes.class);
+      if (attributes.size() == entry.size && attributes.lastModifiedTime().toMillis() == entry.lastModified) {
+        return entry;
+      }
+    }
+    catch (final NoSuchFileException nsfE) {
+      // deleted since
+    }
+    logger.debug("Stale entry: {}", dataFile);
+    return null;
+  }
+
+  /**
+   * Records <code>dataFile</code> after it was written, from the lines its
+   * writer tallied.
+   *
+   * @param dataFile in reverse chronological order
+   * @param exchange null if unknown, in which case any exchange recorded
+   *          before is kept
+   * @param tally of the lines written to <code>dataFile</code>
+   * @return the entry recorded
+   * @throws IOException if <code>dataFile</code> cannot be stat'ed or nothing
+   *           was written
+   */
+  Entry record(final File dataFile, final String exchange, final LineTally tally) throws IOException {
+    final String latest = tally.first();
+    final String earliest = tally.last();
+    if (latest == null) {
+      throw new IOException("Nothing written: " + dataFile);
+    }
+    final String filename = dataFile.getName();
+    final BasicFileAttributes attributes = Files.readAttributes(dataFile.toPath(), BasicFileAttributes.class);
+
+    final Entry previous = entries.get(filename);
+    final Entry entry = new Entry(latest.substring(0, latest.indexOf(COMMA)),
+                                  (exchange == null && previous != null) ? previous.exchange : exchange,
+                                  getFrequencyFrom(filename),
+                                  date(earliest),
+                                  date(latest),
+                                  tally.lines(),
+                                  attributes.size(),
+                                  attributes.lastModifiedTime().toMillis());
+    entries.put(filename, entry);
+    dirty = true;
+    return entry;
+  }
+
+  /**
+   * Moves the entry of <code>source</code>, if any, to <code>target</code>
+   * after <code>source</code> was renamed <code>target</code>.
+   *
+   * @param source
+   * @param target
+   */
+  void rename(final File source, final File target) {
+    final Entry entry = entries.remove(source.getName());
+    if (entry != null) {
+      entries.put(target.getName(), entry);
+      dirty = true;
+    }
+  }
+
+  private static final String date(final String line) {
+    final int comma = line.indexOf(COMMA) + 1;
+    return line.substring(comma, line.indexOf(COMMA, comma));
+  }
+
+  /**
+   * @param dataFile deleted or renamed
+   */
+  void remove(final File dataFile) {
+    if (entries.remove(dataFile.getName()) != null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Writes this catalog to its file, if changed since it was read or last
+   * saved.
+   *
+   * @throws IOException
+   */
+  synchronized void save() throws IOException {
+    if (!dirty) {
+      return;
+    }
+    dirty = false;
+
+    final Path temporary = Files.createTempFile(directory, FILENAME, TEMPORARY);
+    try {
+      try (final BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+        for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+          writer.append(entry.getKey()).append(TAB).append(entry.getValue().toString()).append('\n');
+        }
+      }
+      Files.move(temporary, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      logger.debug("Catalog saved: {} ({} entries)", file, entries.size());
+    }
+    catch (final IOException | RuntimeException e) {
+      dirty = true;
+      throw e;
+    }
+    finally {
+      Files.deleteIfExists(temporary); // unless moved
+    }
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  File file() {
+    return file;
+  }
+
+  /**
+   * Summary of a data file as of its size and last modified time.
+   */
+  static final class Entry {
+
+    final String      symbol;
+    final String      exchange;     // null if unknown
+    final Frequencies frequency;
+    final String      first;        // yyyyMMdd
+    final String      last;         // yyyyMMdd
+    final int         rows;
+    final long        size;         // bytes
+    final long        lastModified; // milliseconds since the epoch
+
+    Entry(final String symbol,
+          final String exchange,
+          final Frequencies frequency,
+          final String first,
+          final String last,
+          final int rows,
+          final long size,
+          final long lastModified) {
+      this.symbol = symbol;
+      this.exchange = exchange;
+      this.frequency = frequency;
+      this.first = first;
+      this.last = last;
+      this.rows = rows;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public String toString() {
+      return new StringBuilder(symbol).append(TAB)
+                                      .append((exchange == null) ? "" : exchange).append(TAB)
+                                      .append(frequency).append(TAB)
+                                      .append(first).append(TAB)
+                                      .append(last).append(TAB)
+                                      .append(rows).append(TAB)
+                                      .append(size).append(TAB)
+                                      .append(lastModified)
+                                      .toString();
+    }
+
+  }
+
+}
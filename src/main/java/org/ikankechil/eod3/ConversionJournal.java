@@ -0,0 +1,320 @@
+/**
+ * ConversionJournal.java  v0.1  18 October 2026 2:07:31 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only record of the symbols completed by a conversion or download job,
+ * so that an interrupted job can be resumed without redoing them.
+ * <p>
+ * The first line identifies the job by action and interval, and for intervals
+ * without an end date, by day. A journal left behind by a different job is
+ * discarded. Each subsequent line records the exchange, symbol, interval, file,
+ * file size and last-modified time of a completed symbol. The size and time
+ * are checked on resumption rather than the contents, so that neither
+ * recording nor resuming reads the files. Records are forced to disk in
+ * batches, so a crash loses at most the last batch, whose symbols are then
+ * redone.
+ * <p>
+ * Workers sharing a job through leases each write their own journal, named
+ * after the worker, so that no two processes append to the same file. A
+ * worker resumes from the journals of every worker of the same job.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+class ConversionJournal implements Closeable {
+
+  private final File                file;
+  private final List<File>          others;           // journals of other workers
+  private final Path                directory;
+  private final String              interval;
+  private final Map<String, String> completed;        // Map<File, Stamp>
+  private final FileChannel         channel;
+
+  private int                       unforced;         // records not yet forced to disk
+  private long                      lastForced;
+
+  private static final String       JOURNAL_EXTENSION = ".journal";
+
+  private static final char         DOT               = '.';
+  private static final char         TAB               = '\t';
+  private static final char         LF                = '\n';
+  private static final char         SPACE             = ' ';
+  private static final int          FIELDS            = 6;
+
+  // batched forcing
+  private static final int          FORCE_BATCH       = 256;
+  private static final long         FORCE_INTERVAL    = TimeUnit.SECONDS.toNanos(1);
+
+  private static final Logger       logger            = LoggerFactory.getLogger(ConversionJournal.class);
+
+  /**
+   * Opens the journal of <code>action</code> over <code>interval</code> in
+   * <code>directory</code>, resuming the job if it was interrupted.
+   *
+   * @param directory where files of the job are written
+   * @param action e.g. convert or download
+   * @param interval
+   * @throws IOException if the journal cannot be read or opened for writing
+   */
+  ConversionJournal(final File directory, final String action, final Interval interval)
+      throws IOException {
+    this(directory, action, null, interval);
+  }
+
+  /**
+   * Opens the journal of <code>worker</code> in the job <code>name</code> over
+   * <code>interval</code> in <code>directory</code>, resuming the job from the
+   * journals of all its workers if it was interrupted.
+   *
+   * @param directory where files of the job are written
+   * @param name of the job, e.g. convert.NYSE.0 for a shard
+   * @param worker writing this journal; null if the job has only one
+   * @param interval
+   * @throws IOException if the journal cannot be read or opened for writing
+   */
+  ConversionJournal(final File directory, final String name, final String worker, final Interval interval)
+      throws IOException {
+    file = new File(directory, (worker == null) ? name + JOURNAL_EXTENSION
+                                                : name + DOT + worker + JOURNAL_EXTENSION);
+    others = (worker == null) ? Collections.<File> emptyList() : others(directory, name, file);
+    this.directory = directory.getAbsoluteFile().toPath();
+    this.interval = interval.toString();
+
+    final StringBuilder job = new StringBuilder(name).append(SPACE).append(interval);
+    if (interval.end() == null) { // open-ended intervals change daily
+      job.append(SPACE).append(new SimpleDateFormat("yyyyMMdd", Locale.US).format(new Date()));
+    }
+
+    completed = new HashMap<>();
+    for (final File other : others) {
+      if (read(other, job.toString(), completed)) {
+        logger.info("Resuming from journal: {}", other);
+      }
+    }
+    if (!read(file, job.toString(), completed)) { // new job
+      channel = FileChannel.open(file.toPath(),
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.WRITE,
+                                 StandardOpenOption.TRUNCATE_EXISTING);
+      append(job.append(LF).toString());
+      force();
+      logger.info("New journal: {}", file);
+    }
+    else {
+      channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+      terminate();
+      logger.info("Resuming journal: {} ({} completed)", file, completed.size());
+    }
+  }
+
+  /**
+   * Positions the channel at the end of the journal, terminating any torn
+   * record left by a crash so that it is not merged with the next record.
+   */
+  private final void terminate() throws IOException {
+    final long size = channel.size();
+    final ByteBuffer last = ByteBuffer.allocate(1);
+    if (size > 0 && channel.read(last, size - 1) > 0 && last.get(0) != LF) {
+      channel.position(size);
+      append(String.valueOf(LF));
+    }
+    channel.position(channel.size());
+  }
+
+  /**
+   * @return the journals of other workers of the job <code>name</code>
+   */
+  private static final List<File> others(final File directory, final String name, final File file) {
+    final String prefix = name + DOT;
+    final File[] journals = directory.listFiles(new FileFilter() {
+      @Override
+      public boolean accept(final File journal) {
+        final String filename = journal.getName();
+        return filename.startsWith(prefix) && filename.endsWith(JOURNAL_EXTENSION) && !journal.equals(file);
+      }
+    });
+    return (journals == null) ? Collections.<File> emptyList() : Arrays.asList(journals);
+  }
+
+  /**
+   * Reads the records of <code>file</code> into <code>completed</code>.
+   *
+   * @return true if <code>file</code> is a journal of <code>job</code>
+   */
+  private static final boolean read(final File file, final String job, final Map<String, String> completed)
+      throws IOException {
+    if (!file.isFile()) {
+      return false;
+    }
+
+    try (final BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      final String header = reader.readLine();
+      if (!job.equals(header)) {
+        logger.info("Discarding journal of another job: {}", header);
+        return false;
+      }
+
+      String line;
+      while ((line = reader.readLine()) != null) {
+        // exchange, symbol, interval, file, size, last-modified time
+        final String[] fields = line.split(String.valueOf(TAB));
+        if (fields.length == FIELDS) {
+          completed.put(fields[3], fields[4] + TAB + fields[5]);
+        }
+        else {
+          logger.debug("Skipping torn record: {}", line);
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * @param destination
+   * @return true if <code>destination</code> was recorded as completed and
+   *         its size and last-modified time are unchanged since
+   */
+  boolean isCompleted(final File destination) {
+    final String stamp = completed.get(relativise(destination));
+    if (stamp == null || !destination.isFile()) {
+      return false;
+    }
+    try {
+      return stamp.equals(stamp(destination));
+    }
+    catch (final IOException ioE) {
+      logger.debug("Cannot verify: {}", destination, ioE);
+      return false;
+    }
+  }
+
+  /**
+   * Records a completed symbol, forcing records to disk once enough have
+   * accumulated or enough time has passed since they were last forced.
+   *
+   * @param exchange
+   * @param symbol
+   * @param destination
+   * @throws IOException
+   */
+  void record(final String exchange, final String symbol, final File destination)
+      throws IOException {
+    final String path = relativise(destination);
+    final String stamp = stamp(destination);
+    append(new StringBuilder(exchange).append(TAB)
+                                      .append(symbol).append(TAB)
+                                      .append(interval).append(TAB)
+                                      .append(path).append(TAB)
+                                      .append(stamp).append(LF)
+                                      .toString());
+    completed.put(path, stamp);
+
+    if (++unforced >= FORCE_BATCH || System.nanoTime() - lastForced >= FORCE_INTERVAL) {
+      force();
+    }
+  }
+
+  private final void append(final String record) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private final void force() throws IOException {
+    channel.force(false);
+    unforced = 0;
+    lastForced = System.nanoTime();
+  }
+
+  private final String relativise(final File destination) {
+    return directory.relativize(destination.getAbsoluteFile().toPath()).toString().replace(File.separatorChar, '/');
+  }
+
+  /**
+   * @return size and last-modified time of <code>file</code> in hexadecimal,
+   *         separated by a tab
+   */
+  static final String stamp(final File file) throws IOException {
+    final BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+    return Long.toHexString(attributes.size()) + TAB + Long.toHexString(attributes.lastModifiedTime().toMillis());
+  }
+
+  /**
+   * @return the number of symbols completed, including those of an earlier
+   *         attempt
+   */
+  int completed() {
+    return completed.size();
+  }
+
+  File file() {
+    return file;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel.isOpen()) {
+      try {
+        if (unforced > 0) {
+          force();
+        }
+      }
+      finally {
+        channel.close();
+      }
+    }
+  }
+
+  /**
+   * Closes and deletes this journal, and those of other workers read when
+   * resuming, once its job has completed without failures.
+   *
+   * @throws IOException if this journal cannot be deleted
+   */
+  void delete() throws IOException {
+    close();
+    Files.deleteIfExists(file.toPath());
+    logger.info("Journal deleted: {}", file);
+    for (final File other : others) {
+      try {
+        Files.deleteIfExists(other.toPath());
+      }
+      catch (final IOException ioE) { // still open by an abandoning worker
+        logger.warn("Cannot delete journal: {}", other, ioE);
+      }
+    }
+  }
+
+}
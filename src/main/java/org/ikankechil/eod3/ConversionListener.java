@@ -0,0 +1,91 @@
+/**
+ * ConversionListener.java  v0.1  18 October 2026 12:20:44 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.ikankechil.eod3.sources.Exchanges;
+
+/**
+ * Receives the outcome of each symbol as soon as it is converted or
+ * downloaded, rather than after the whole run completes, so that downstream
+ * work can be pipelined with the run.
+ * <p>
+ * Listeners are called from the thread retrieving results, one symbol at a
+ * time, and should hand off long-running work to avoid delaying retrieval.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public interface ConversionListener {
+
+  /**
+   * A symbol has been converted or downloaded.
+   *
+   * @param symbol
+   * @param exchange null if none was specified
+   * @param file the destination <code>File</code>
+   * @param timings
+   */
+  void onSuccess(final String symbol, final Exchanges exchange, final File file, final Timings timings);
+
+  /**
+   * A symbol could not be converted or downloaded.
+   *
+   * @param symbol
+   * @param exchange null if none was specified
+   * @param cause the reason for failure
+   * @param timings
+   */
+  void onFailure(final String symbol, final Exchanges exchange, final Throwable cause, final Timings timings);
+
+  /**
+   * Time spent by a task waiting to run and running.
+   */
+  final class Timings {
+
+    private final long queued;  // nanoseconds
+    private final long running; // nanoseconds
+
+    Timings(final long queued, final long running) {
+      this.queued = queued;
+      this.running = running;
+    }
+
+    /**
+     * @param unit
+     * @return time spent queued before running
+     */
+    public long queued(final TimeUnit unit) {
+      return unit.convert(queued, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit
+     * @return time spent running, or zero if never started
+     */
+    public long running(final TimeUnit unit) {
+      return unit.convert(running, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit
+     * @return time elapsed since submission
+     */
+    public long total(final TimeUnit unit) {
+      return unit.convert(queued + running, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return "Timings [queued: " + queued(TimeUnit.MILLISECONDS) +
+             " ms, running: " + running(TimeUnit.MILLISECONDS) + " ms]";
+    }
+
+  }
+
+}
@@ -6,7 +6,7 @@
 package org.ikankechil.eod3;
 
 import static java.util.Calendar.*;
-import static org.ikankechil.eod3.Converter.PoolSize.*;
+import static org.ikankechil.eod3.ExecutorStrategy.PoolSize.*;
 import static org.ikankechil.eod3.FilenameConvention.*;
 
 import java.io.BufferedReader;
@@ -15,13 +15,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.channels.Channels;
-import java.nio.channels.FileChannel;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -29,33 +25,46 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.ikankechil.eod3.ConversionListener.Timings;
+import org.ikankechil.eod3.ExecutorStrategy.PoolSize;
+import org.ikankechil.eod3.Pipeline.Output;
+import org.ikankechil.eod3.ShardLeases.Lease;
+import org.ikankechil.eod3.ShardLeases.Shard;
+import org.ikankechil.eod3.io.FileDownloader;
+import org.ikankechil.eod3.io.LineTally;
+import org.ikankechil.eod3.io.StreamingMerger;
 import org.ikankechil.eod3.io.SymbolsReader;
+import org.ikankechil.eod3.io.Transport;
+import org.ikankechil.eod3.store.BarFile;
 import org.ikankechil.eod3.sources.Exchanges;
 import org.ikankechil.eod3.sources.Source;
 import org.ikankechil.io.CompletionServiceFileVisitor;
 import org.ikankechil.io.TextReader;
 import org.ikankechil.io.TextWriter;
-import org.ikankechil.io.URLInputStreamFactory;
 import org.ikankechil.synchronous.TaskHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,12 +95,19 @@ public class Converter {
   // 13. Retry on failure
 
   private final Source                         source;
-  private final TextReader                     reader;
   private final TextWriter                     writer;
+  private final StreamingMerger                merger         = new StreamingMerger();
+  private final Transport                      transport;
+  private final FileDownloader                 downloader;
+  private final Pipeline                       pipeline;
 
   private final SymbolsReader                  symbolsReader;
 
+  private final ExecutorStrategy               strategy;
   private final Map<PoolSize, ExecutorService> threadPools    = new EnumMap<>(PoolSize.class);
+  private final Map<File, Catalog>             catalogs       = new HashMap<>(); // Map<Directory, Catalog>
+
+  private final List<ConversionListener>       listeners      = new CopyOnWriteArrayList<>();
 
   // Actions
   private final Action<File>                   convert        = new Action<File>() {
@@ -100,6 +116,11 @@ public class Converter {
         throws IOException {
       return convert(symbol, exchange, interval, outputParentDirectory);
     }
+
+    @Override
+    public String toString() {
+      return "convert";
+    }
   };
   private final Action<File>                   download       = new Action<File>() {
     @Override
@@ -107,6 +128,23 @@ public class Converter {
         throws IOException {
       return download(symbol, exchange, interval, outputParentDirectory);
     }
+
+    @Override
+    public String toString() {
+      return "download";
+    }
+  };
+  private final Action<File>                   mergeUpdate    = new Action<File>() {
+    @Override
+    public File execute(final String symbol, final Exchanges exchange, final Interval interval, final File target)
+        throws IOException {
+      return mergeUpdate(symbol, exchange, interval, target);
+    }
+
+    @Override
+    public String toString() {
+      return "merge update";
+    }
   };
 
   private final DateFormat                     dateFormat     = new SimpleDateFormat("yyyyMMdd", Locale.US);
@@ -124,19 +162,15 @@ public class Converter {
   // File-related constants
   private static final String                  SYNTAX         = "regex:";
 
-  // Multi-threading constants
-  private static final int                     TIME_OUT       = Short.MAX_VALUE;
-  private static final TimeUnit                TIME_OUT_UNIT  = TimeUnit.MILLISECONDS;
-  private static final int                     PROCESSORS     = Runtime.getRuntime().availableProcessors();
+  // Sharding constants
+  private static final int                     SHARD_SIZE     = 1000; // symbols
 
-  private static final Comparator<String>      REVERSE_CHRONO = new Comparator<String>() { // reverse chronological order
-    @Override
-    public int compare(final String o1, final String o2) {
-      final String date1 = extractSymbolAndDate(o1).getValue();
-      final String date2 = extractSymbolAndDate(o2).getValue();
-      return date2.compareTo(date1);
-    }
-  };
+  // Download constants
+  private static final int                     RANGES         = 4;       // per archive
+  private static final long                    MIN_RANGE      = 1 << 20; // bytes
+
+  // Output constants
+  private static final boolean                 COLUMNAR       = Boolean.getBoolean(Converter.class.getName() + ".columnar");
 
   private static final Logger                  logger         = LoggerFactory.getLogger(Converter.class);
 
@@ -150,27 +184,131 @@ public class Converter {
   }
 
   public Converter(final Source source, final TextReader reader) {
-    if (source == null) {
+    this(source, reader, null);
+  }
+
+  /**
+   * @param source
+   * @param reader if null, the <code>TextReader</code> specified by
+   *          <code>source</code>
+   * @param strategy creates thread pools on demand; if null,
+   *          <code>ExecutorStrategies.DEFAULT</code>
+   */
+  public Converter(final Source source, final TextReader reader, final ExecutorStrategy strategy) {
+    this(Collections.singletonList(source), reader, strategy);
+  }
+
+  /**
+   * Converts from a ranked chain of sources. Conversions are read from the
+   * first (primary) source, and hedged to the next source in the chain
+   * supporting the exchange when the primary is slower than usual or fails.
+   * Files are written to the primary source's directory, while downloads,
+   * which are in source format, are from the primary source only.
+   * <p>
+   * System property: org.ikankechil.eod3.Converter.hedgePercentile
+   * <p>
+   * default: 95
+   * <p>
+   * System property: org.ikankechil.eod3.Converter.columnar, which writes
+   * conversions to memory-mapped binary <code>BarFile</code>s instead of CSV
+   * files, and updates them in place
+   * <p>
+   * default: false
+   * <p>
+   * System property: org.ikankechil.eod3.Converter.maxInFlight, which bounds
+   * tasks in flight when the strategy's fetch threads are unbounded, as with
+   * virtual threads; otherwise tasks in flight are bounded by twice the fetch
+   * threads
+   * <p>
+   * default: 100000
+   *
+   * @param sources primary source first
+   * @param reader if null, the <code>TextReader</code> specified by the
+   *          primary source; other sources use their own
+   * @param strategy creates thread pools on demand; if null,
+   *          <code>ExecutorStrategies.DEFAULT</code>
+   */
+  public Converter(final List<? extends Source> sources, final TextReader reader, final ExecutorStrategy strategy) {
+    if (sources == null) {
+      throw new NullPointerException("Null sources");
+    }
+    if (sources.isEmpty()) {
+      throw new IllegalArgumentException("No sources");
+    }
+    if (sources.contains(null)) {
       throw new NullPointerException("Null source");
     }
     logger.debug("Initialising...");
 
-    this.source = source;
-    this.reader = (reader == null) ? source.newReader() : reader;
+    source = sources.get(0);
     writer = new TextWriter();
+    transport = source.newTransport();
 
     // use a different TextReader instance as source data might be encoded
     symbolsReader = new SymbolsReader();
 
-    // initialise thread pools
-    for (final PoolSize size : PoolSize.values()) {
-      threadPools.put(size, Executors.newFixedThreadPool(PROCESSORS * size.loadMultiplier));
-    }
-    logger.debug("Thread pools created: {}", threadPools.size());
+    // thread pools are created on first use
+    this.strategy = (strategy == null) ? ExecutorStrategies.DEFAULT : strategy;
+    logger.debug("Executor strategy: {}", this.strategy);
+
+    // staged pipeline: fetches run on the strategy's large thread pool and
+    // hedges on its elastic one
+    pipeline = new Pipeline(sources,
+                            (reader == null) ? source.newReader() : reader,
+                            transport,
+                            this.strategy,
+                            new Executor() {
+                              @Override
+                              public void execute(final Runnable command) {
+                                threadPool(LARGE).execute(command);
+                              }
+                            },
+                            new Executor() {
+                              @Override
+                              public void execute(final Runnable command) {
+                                threadPool(ELASTIC).execute(command);
+                              }
+                            });
+
+    // archives are downloaded in byte ranges alongside the download task
+    downloader = new FileDownloader(transport, new Executor() {
+      @Override
+      public void execute(final Runnable command) {
+        threadPool(ELASTIC).execute(command);
+      }
+    }, RANGES, MIN_RANGE);
 
     logger.info("Initialisation completed");
   }
 
+  private final ExecutorService threadPool(final PoolSize size) {
+    synchronized (threadPools) {
+      ExecutorService threadPool;
+      if ((threadPool = threadPools.get(size)) == null) {
+        threadPools.put(size, threadPool = strategy.newExecutor(size));
+        logger.debug("Thread pool created: {}", size);
+      }
+      return threadPool;
+    }
+  }
+
+  /**
+   * Registers a listener to be notified as each symbol is converted or
+   * downloaded.
+   *
+   * @param listener
+   */
+  public void addListener(final ConversionListener listener) {
+    if (listener == null) {
+      throw new NullPointerException("Null listener");
+    }
+    listeners.add(listener);
+  }
+
+  public void removeListener(final ConversionListener listener) {
+    listeners.remove(listener);
+  }
+
   /**
    * Converts data of all symbols specified in <code>symbolsFile</code> from
    * source format to target format.
@@ -210,10 +348,45 @@ public class Converter {
     return execute(symbolsFile, interval, outputParentDirectory, convert);
   }
 
-  private <V> File execute(final File symbolsFile,
-                           final Interval interval,
-                           final File outputParentDirectory,
-                           final Action<V> action)
+  /**
+   * Converts data of all symbols specified in <code>symbolsFile</code> as one
+   * of several workers, in this or other processes or machines, sharing
+   * <code>outputParentDirectory</code>. Workers lease shards of up to
+   * <code>SHARD_SIZE</code> symbols of an exchange through lease files in the
+   * source's directory, and take over shards whose leases have expired,
+   * resuming from the shard's journal. Returns once every shard is done.
+   * <p>
+   * Shards done are not redone by later runs of the same job on the same day.
+   *
+   * @param symbolsFile
+   * @param interval start date, end date and frequency
+   * @param outputParentDirectory shared by all workers
+   * @return the destination directory where all <code>File</code>s are written
+   *         to, which is a child of <code>outputParentDirectory</code>
+   * @throws FileNotFoundException
+   * @throws IOException
+   * @throws InterruptedException
+   * @see ShardLeases
+   */
+  public File convertSharded(final File symbolsFile, final Interval interval, final File outputParentDirectory)
+      throws FileNotFoundException, IOException, InterruptedException {
+    return executeSharded(symbolsFile, interval, outputParentDirectory, convert);
+  }
+
+  private final File directory(final File outputParentDirectory) {
+    final String provider = source.directory();
+    final File directory = new File(outputParentDirectory, provider);
+    if (!directory.exists()) {
+      directory.mkdir();
+    }
+    logger.info("Writing for source: {}", provider);
+    return directory;
+  }
+
+  private <V extends File> File execute(final File symbolsFile,
+                                        final Interval interval,
+                                        final File outputParentDirectory,
+                                        final Action<V> action)
       throws FileNotFoundException, IOException, InterruptedException {
     if (interval == null) {
       throw new NullPointerException("Null interval");
@@ -224,47 +397,148 @@ public class Converter {
     final Map<String, Set<String>> markets = symbolsReader.read(symbolsFile); // Map<Exchange, Set<Symbol>>
 
     // create root directory
-    final String provider = source.directory();
-    final File directory = new File(outputParentDirectory, provider);
-    if (!directory.exists()) {
-      directory.mkdir();
-    }
-    logger.info("Writing for source: {}", provider);
+    final File directory = directory(outputParentDirectory);
+
+    // resume an interrupted job, if any
+    final ConversionJournal journal = new ConversionJournal(directory, action.toString(), interval);
 
-    // submit tasks
-    final Map<Future<V>, String> futures = new HashMap<>();
-    final CompletionService<V> completionService = new ExecutorCompletionService<>(threadPools.get(LARGE));
-    for (final Entry<String, Set<String>> market : markets.entrySet()) { // Map<Exchange, Set<Symbol>>
-      // create sub-directory for each exchange
-      final String exchange = market.getKey();
-      final File subdir = new File(directory, exchange);
-      subdir.mkdir();
-      logger.debug("Created folder: {}", subdir);
-
-      // create and submit tasks
-      final Set<String> symbols = market.getValue();
-      final Map<Future<V>, String> tasks = submitTasks(completionService,
-                                                       symbols,
-                                                       Exchanges.toExchange(exchange),
-                                                       interval,
-                                                       subdir,
-                                                       action);
-      futures.putAll(tasks);
-      logger.info("Tasks submitted for {}: {}", exchange, tasks.size());
-    }
-    final int numberOfTasks = futures.size();
-    logger.info("Tasks submitted: {}", numberOfTasks);
-
-    // retrieve results
-    final Map<String, Throwable> failures = newMap(numberOfTasks);
-    final List<V> destinations = retriveResults(completionService, futures, failures);
+    // submit tasks lazily, exchange by exchange, and retrieve results
+    final Map<String, Throwable> failures = new TreeMap<>();
+    final int passes;
+    try {
+      passes = execute(new Tasks<>(markets, directory, interval, action), null, failures, journal);
+    }
+    finally {
+      journal.close();
+    }
+    if (failures.isEmpty()) { // nothing left to resume
+      journal.delete();
+    }
 
     logger.info("Conversion completed: {}", symbolsFile);
-    report(destinations, failures);
+    report(passes, failures);
 
     return directory;
   }
 
+  private <V extends File> File executeSharded(final File symbolsFile,
+                                               final Interval interval,
+                                               final File outputParentDirectory,
+                                               final Action<V> action)
+      throws FileNotFoundException, IOException, InterruptedException {
+    if (interval == null) {
+      throw new NullPointerException("Null interval");
+    }
+    logger.info("Sharded conversion commencing: {}", symbolsFile);
+
+    // read symbols and exchanges
+    final Map<String, Set<String>> markets = symbolsReader.read(symbolsFile); // Map<Exchange, Set<Symbol>>
+    final List<Shard> shards = ShardLeases.shards(markets, SHARD_SIZE);
+
+    // create root directory
+    final File directory = directory(outputParentDirectory);
+
+    // every worker of a job must identify it the same way
+    final StringBuilder job = new StringBuilder(action.toString()).append(SPACE)
+                                                                  .append(symbolsFile.getName())
+                                                                  .append(SPACE)
+                                                                  .append(interval);
+    if (interval.end() == null) { // open-ended intervals change daily
+      job.append(SPACE).append(new SimpleDateFormat("yyyyMMdd", Locale.US).format(new Date()));
+    }
+
+    final Map<String, Throwable> failures = new TreeMap<>();
+    int passes = 0;
+    try (final ShardLeases leases = new ShardLeases(directory, job.toString())) {
+      // revisit shards leased by other workers until done, in case they fail
+      boolean pending = true;
+      while (pending) {
+        pending = false;
+        for (final Shard shard : shards) {
+          if (leases.isDone(shard)) {
+            continue;
+          }
+          final Lease lease = leases.acquire(shard);
+          if (lease == null) {
+            pending = true;
+            continue;
+          }
+          passes += execute(lease, directory, interval, action, failures);
+          pending |= lease.isLost();
+        }
+        if (pending) {
+          Thread.sleep(leases.heartbeat());
+        }
+      }
+    }
+
+    logger.info("Sharded conversion completed: {}", symbolsFile);
+    report(passes, failures);
+
+    return directory;
+  }
+
+  /**
+   * Executes the tasks of a leased shard, journalling them so that a worker
+   * taking over the shard does not redo them. Stops submitting should the
+   * lease be lost.
+   *
+   * @return the number of successful tasks, including those skipped
+   */
+  private final <V extends File> int execute(final Lease lease,
+                                             final File directory,
+                                             final Interval interval,
+                                             final Action<V> action,
+                                             final Map<String, Throwable> failures)
+      throws IOException, InterruptedException {
+    final Shard shard = lease.shard();
+    final Iterator<Task<V>> tasks = new Tasks<>(Collections.singletonMap(shard.exchange, shard.symbols),
+                                                directory,
+                                                interval,
+                                                action);
+    final Iterator<Task<V>> leased = new Iterator<Task<V>>() {
+      @Override
+      public boolean hasNext() {
+        return !lease.isLost() && tasks.hasNext();
+      }
+
+      @Override
+      public Task<V> next() {
+        return tasks.next();
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    final ConversionJournal journal = new ConversionJournal(directory,
+                                                            action.toString() + DOT + shard,
+                                                            lease.worker(),
+                                                            interval);
+    final Map<String, Throwable> shardFailures = new TreeMap<>();
+    final int passes;
+    try (final Lease held = lease) {
+      try {
+        passes = execute(leased, null, shardFailures, journal);
+      }
+      finally {
+        journal.close();
+      }
+      failures.putAll(shardFailures);
+      if (held.isLost()) {
+        logger.warn("Shard abandoned: {}", shard);
+        return passes;
+      }
+      if (shardFailures.isEmpty()) { // nothing left to resume
+        journal.delete();
+      }
+      held.complete();
+    }
+    return passes;
+  }
+
   /**
    * Conversion of a series of symbols.
    *
@@ -283,104 +557,486 @@ public class Converter {
     return execute(symbols, exchange, interval, outputParentDirectory, convert);
   }
 
-  private <V> List<V> execute(final Collection<String> symbols,
-                              final Exchanges exchange,
-                              final Interval interval,
-                              final File outputParentDirectory,
-                              final Action<V> action)
+  private <V extends File> List<V> execute(final Collection<String> symbols,
+                                           final Exchanges exchange,
+                                           final Interval interval,
+                                           final File outputParentDirectory,
+                                           final Action<V> action)
       throws InterruptedException {
     if (interval == null) {
       throw new NullPointerException("Null interval");
     }
     logger.info("Conversion commencing");
-    final CompletionService<V> completionService = new ExecutorCompletionService<>(threadPools.get(LARGE));
-
-    // create and submit tasks
-    final Map<Future<V>, String> futures = submitTasks(completionService,
-                                                       symbols,
-                                                       exchange,
-                                                       interval,
-                                                       outputParentDirectory,
-                                                       action);
-    final int numberOfTasks = futures.size();
-    logger.info("Tasks submitted: {}", numberOfTasks);
-
-    // retrieve results
-    final Map<String, Throwable> failures = newMap(numberOfTasks);
-    final List<V> destinations = retriveResults(completionService, futures, failures);
+
+    // submit tasks lazily and retrieve results
+    final List<V> destinations = newList(symbols.size());
+    final Map<String, Throwable> failures = new TreeMap<>();
+    execute(new Tasks<>(symbols, exchange, outputParentDirectory, interval, action), destinations, failures, null);
 
     logger.info("Conversion completed");
-    report(destinations, failures);
+    report(destinations.size(), failures);
 
     return destinations;
   }
 
-  private static final <V> Map<Future<V>, String> submitTasks(final CompletionService<V> completionService,
-                                                              final Collection<String> symbols,
-                                                              final Exchanges exchange,
-                                                              final Interval interval,
-                                                              final File outputParentDirectory,
-                                                              final Action<V> action) {
-    final Map<Future<V>, String> futures = newMap(symbols.size());
+  /**
+   * Creates tasks on demand, one exchange at a time, so that only tasks in
+   * flight are held in memory.
+   */
+  private final class Tasks<V> implements Iterator<Task<V>> {
+
+    private final Iterator<Entry<String, Set<String>>> markets;   // Map<Exchange, Set<Symbol>>
+    private final File                                 directory; // null if writing to subdir
+    private final Interval                             interval;
+    private final Action<V>                            action;
+
+    private Iterator<String>                           symbols;
+    private Exchanges                                  exchange;
+    private File                                       subdir;
+
+    /**
+     * Tasks for each exchange are written to its own sub-directory of
+     * <code>directory</code>.
+     */
+    Tasks(final Map<String, Set<String>> markets, final File directory, final Interval interval, final Action<V> action) {
+      this.markets = markets.entrySet().iterator();
+      this.directory = directory;
+      this.interval = interval;
+      this.action = action;
+      symbols = Collections.emptyIterator();
+    }
 
-    final String exchangeString = (exchange != null) ? exchange.toString() : NO_EXCHANGE;
-    for (final String symbol : symbols) {
-      final Future<V> future = completionService.submit(new Callable<V>() {
-        @Override
-        public V call() throws Exception {
-          return action.execute(symbol, exchange, interval, outputParentDirectory);
+    /**
+     * Tasks are written to <code>subdir</code>.
+     */
+    Tasks(final Collection<String> symbols,
+          final Exchanges exchange,
+          final File subdir,
+          final Interval interval,
+          final Action<V> action) {
+      markets = Collections.emptyIterator();
+      directory = null;
+      this.interval = interval;
+      this.action = action;
+      this.symbols = symbols.iterator();
+      this.exchange = exchange;
+      this.subdir = subdir;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!symbols.hasNext() && markets.hasNext()) {
+        // create sub-directory for each exchange
+        final Entry<String, Set<String>> market = markets.next();
+        final String exchangeString = market.getKey();
+        subdir = new File(directory, exchangeString);
+        subdir.mkdir();
+        logger.debug("Created folder: {}", subdir);
+
+        exchange = Exchanges.toExchange(exchangeString);
+        symbols = market.getValue().iterator();
+        logger.info("Tasks for {}: {}", exchangeString, market.getValue().size());
+      }
+      return symbols.hasNext();
+    }
+
+    @Override
+    public Task<V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return new Task<>(action, symbols.next(), exchange, interval, subdir);
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+  /**
+   * Executes an <code>Action</code> on a symbol, recording when it was
+   * submitted, started and completed, and which thread is running it.
+   */
+  private final class Task<V> implements Callable<V> {
+
+    private final Action<V>     action;
+    private final String        symbol;
+    private final Exchanges     exchange;
+    private final Interval      interval;
+    private final File          outputParentDirectory;
+
+    private final long          submitted = System.nanoTime();
+    private volatile Long       started;   // null if not started
+    private volatile Long       completed; // null if not completed
+    private volatile Thread     thread;    // null unless running
+
+    Task(final Action<V> action,
+         final String symbol,
+         final Exchanges exchange,
+         final Interval interval,
+         final File outputParentDirectory) {
+      this.action = action;
+      this.symbol = symbol;
+      this.exchange = exchange;
+      this.interval = interval;
+      this.outputParentDirectory = outputParentDirectory;
+    }
+
+    @Override
+    public V call() throws Exception {
+      thread = Thread.currentThread();
+      started = System.nanoTime();
+      try {
+        return throttle(action, symbol, exchange, interval, outputParentDirectory);
+      }
+      finally {
+        completed = System.nanoTime();
+        thread = null;
+      }
+    }
+
+    /**
+     * @param deadline nanoseconds allowed from start to completion
+     * @return nanoseconds left until <code>deadline</code> passes, negative
+     *         once passed, or <code>deadline</code> if not started
+     */
+    long remaining(final long deadline) {
+      final Long start = started;
+      return (start == null || completed != null) ? deadline : start + deadline - System.nanoTime();
+    }
+
+    /**
+     * Aborts the connection the task is reading from, if any.
+     */
+    void abort() {
+      final Thread running = thread;
+      if (running != null) {
+        pipeline.abort(running);
+      }
+    }
+
+    String exchange() {
+      return (exchange != null) ? exchange.toString() : NO_EXCHANGE;
+    }
+
+    /**
+     * @return the file written on success, as journalled
+     */
+    File destination() {
+      final File destination = new File(outputParentDirectory, getFilename(symbol, interval));
+      return (COLUMNAR && action == convert) ? barFile(destination) : destination;
+    }
+
+    Timings timings() {
+      final long now = System.nanoTime();
+      final Long start = started;
+      final Long end = completed;
+      return (start == null) ? new Timings(now - submitted, 0)
+                             : new Timings(start - submitted, ((end == null) ? now : end) - start);
+    }
+
+    @Override
+    public String toString() {
+      return exchange() + SLASH + symbol;
+    }
+
+  }
+
+  private final <V> V throttle(final Action<V> action,
+                               final String symbol,
+                               final Exchanges exchange,
+                               final Interval interval,
+                               final File outputParentDirectory)
+      throws IOException, InterruptedException {
+    // hedged conversions throttle each attempt against its own source's host
+    if ((action == convert || action == mergeUpdate) && pipeline.isHedged()) {
+      return action.execute(symbol, exchange, interval, outputParentDirectory);
+    }
+    return pipeline.throttle(new Pipeline.Request<V>() {
+      @Override
+      public V execute() throws IOException {
+        return action.execute(symbol, exchange, interval, outputParentDirectory);
+      }
+    }, symbol);
+  }
+
+  /**
+   * @return the bar file converted to in place of <code>destination</code>
+   */
+  private static final File barFile(final File destination) {
+    final String filename = destination.getName();
+    return new File(destination.getParentFile(),
+                    filename.substring(0, filename.length() - FILE_EXTENSION.length()) + BarFile.EXTENSION);
+  }
+
+  private final Catalog catalog(final File directory) throws IOException {
+    synchronized (catalogs) {
+      Catalog catalog;
+      if ((catalog = catalogs.get(directory)) == null) {
+        catalogs.put(directory, catalog = new Catalog(directory));
+        logger.debug("Catalog opened: {} ({} entries)", catalog.file(), catalog.size());
+      }
+      return catalog;
+    }
+  }
+
+  /**
+   * Records <code>dataFile</code> in the catalog of its directory after it was
+   * written.
+   *
+   * @param exchange null if unknown
+   * @param tally of the lines written to <code>dataFile</code>
+   */
+  private final void catalogue(final File dataFile, final Exchanges exchange, final LineTally tally) {
+    final File file = dataFile.getAbsoluteFile();
+    try {
+      catalog(file.getParentFile()).record(file, (exchange == null) ? null : exchange.toString(), tally);
+    }
+    catch (final IOException ioE) { // file will be read by the next update
+      logger.warn("Cannot catalogue: {}", dataFile, ioE);
+    }
+  }
+
+  private final void saveCatalogs() {
+    synchronized (catalogs) {
+      for (final Catalog catalog : catalogs.values()) {
+        try {
+          catalog.save();
         }
-      });
-      futures.put(future, exchangeString + SLASH + symbol);
+        catch (final IOException ioE) {
+          logger.warn("Cannot save catalog: {}", catalog.file(), ioE);
+        }
+      }
     }
+  }
 
-    return futures;
+  /**
+   * @return the current concurrency limit of each host contacted so far
+   */
+  public Map<String, Integer> concurrencyLimits() {
+    return pipeline.concurrencyLimits();
   }
 
-  private static final <V> List<V> retriveResults(final CompletionService<V> completionService,
-                                                  final Map<Future<V>, String> futures,
-                                                  final Map<String, Throwable> failures)
+  /**
+   * @return the number of requests to each host contacted so far that overran
+   *         the source's deadline
+   */
+  public Map<String, Integer> timeouts() {
+    return pipeline.timeouts();
+  }
+
+  /**
+   * @return the cumulative request timings of each source's transport
+   */
+  public Map<String, Transport.Timings> transportTimings() {
+    return pipeline.transportTimings();
+  }
+
+  /**
+   * @return the number of tasks waiting for a thread in each pipeline stage
+   */
+  public Map<String, Integer> queueDepths() {
+    return pipeline.queueDepths();
+  }
+
+  /**
+   * @return the fraction of thread time each pipeline stage has spent running
+   *         tasks since its first task
+   */
+  public Map<String, Double> utilisations() {
+    return pipeline.utilisations();
+  }
+
+  /**
+   * Submits tasks as capacity frees up, keeping no more than
+   * <code>maxInFlight</code> tasks submitted but not yet retrieved, and
+   * retrieves results as they complete. Tasks still running once the deadlines
+   * of every source they may fail over to have passed are cancelled, so that
+   * waiting for results never hangs.
+   *
+   * @param tasks
+   * @param destinations collects results; if null, results are only counted
+   * @param failures collects failures by exchange and symbol
+   * @param journal records successful tasks and skips those already recorded;
+   *          null if not journalling
+   * @return the number of successful tasks, including those skipped
+   * @throws InterruptedException
+   */
+  private final <V extends File> int execute(final Iterator<Task<V>> tasks,
+                                             final List<V> destinations,
+                                             final Map<String, Throwable> failures,
+                                             final ConversionJournal journal)
       throws InterruptedException {
-    final int numberOfTasks = futures.size();
-    final List<V> destinations = newList(numberOfTasks);
+    final CompletionService<V> completionService = new ExecutorCompletionService<>(pipeline.fetchStage());
+    final Map<Future<V>, Task<V>> futures = new HashMap<>(); // in-flight tasks only
+    final int maxInFlight = pipeline.maxInFlight();
+    final long deadline = pipeline.deadline();
+
+    int submitted = 0;
+    int skipped = 0;
+    int passes = 0;
+    try {
+      while (true) {
+        // top up
+        while (futures.size() < maxInFlight && tasks.hasNext()) {
+          final Task<V> task = tasks.next();
+          if (journal != null && journal.isCompleted(task.destination())) {
+            ++skipped;
+            continue;
+          }
+          futures.put(completionService.submit(task), task);
+          ++submitted;
+        }
+        if (futures.isEmpty()) {
+          break;
+        }
 
-    for (int t = 0; t < numberOfTasks; ++t) {
-      final Future<V> future = completionService.poll(TIME_OUT, TIME_OUT_UNIT); // TODO match Futures to those at submission
-      final String symbol = futures.get(future);
-      try {
+        final Future<V> future = completionService.poll(untilOverdue(futures, deadline), TimeUnit.NANOSECONDS);
         if (future == null) {
-          throw new TimeoutException("Task timed out after " + TIME_OUT + SPACE + TIME_OUT_UNIT.toString().toLowerCase());
+          cancelOverdue(futures, deadline, failures);
+          continue;
+        }
+        final Task<V> task = futures.remove(future);
+        if (task == null) { // cancelled when overdue
+          continue;
         }
-        destinations.add(future.get());
+
+        final String symbol = task.toString();
+        try {
+          final V destination = future.get();
+          if (destinations != null) {
+            destinations.add(destination);
+          }
+          ++passes;
+          if (journal != null) {
+            record(journal, task, destination);
+          }
+          notifySuccess(task, destination);
+        }
+        catch (final ExecutionException eE) {
+          failures.put(symbol, eE);
+          logger.warn("Task failed.  Cause: {}", eE.getCause(), eE);
+          notifyFailure(task, eE.getCause());
+        }
+        catch (final CancellationException cE) {
+          failures.put(symbol, cE);
+          logger.info("Task cancelled.  Cause: {}", cE.getCause(), cE);
+          notifyFailure(task, cE);
+        }
+      }
+    }
+    finally {
+      if (!futures.isEmpty()) { // abandoned, e.g. interrupted
+        cancel(futures);
       }
-      catch (final ExecutionException eE) {
-        failures.put(symbol, eE);
-        logger.warn("Task failed.  Cause: {}", eE.getCause(), eE);
+    }
+    logger.info("Results retrieved: {}", submitted);
+    if (skipped > 0) {
+      logger.info("Tasks skipped (completed previously): {}", skipped);
+    }
+
+    return passes + skipped;
+  }
+
+  private static final void record(final ConversionJournal journal, final Task<? extends File> task, final File destination) {
+    try {
+      journal.record(task.exchange(), task.symbol, destination);
+    }
+    catch (final IOException ioE) { // symbol will be redone on resumption
+      logger.warn("Cannot journal: {}", task, ioE);
+    }
+  }
+
+  /**
+   * @return nanoseconds until the first of <code>futures</code> is overdue
+   */
+  private static final <V> long untilOverdue(final Map<Future<V>, Task<V>> futures, final long deadline) {
+    long remaining = deadline;
+    for (final Task<V> task : futures.values()) {
+      remaining = Math.min(remaining, task.remaining(deadline));
+    }
+    return remaining;
+  }
+
+  /**
+   * Cancels tasks overrunning <code>deadline</code>, aborting their
+   * connections, and fails them with a <code>TimeoutException</code>.
+   */
+  private final <V extends File> void cancelOverdue(final Map<Future<V>, Task<V>> futures,
+                                                     final long deadline,
+                                                     final Map<String, Throwable> failures) {
+    final Iterator<Entry<Future<V>, Task<V>>> overdue = futures.entrySet().iterator();
+    while (overdue.hasNext()) {
+      final Entry<Future<V>, Task<V>> future = overdue.next();
+      final Task<V> task = future.getValue();
+      if (task.remaining(deadline) <= 0 && future.getKey().cancel(true)) { // not completed meanwhile
+        overdue.remove();
+        task.abort();
+        final TimeoutException tE = new TimeoutException("Deadline of " + TimeUnit.NANOSECONDS.toMillis(deadline) + " ms exceeded: " + task);
+        failures.put(task.toString(), new ExecutionException(tE)); // as reported
+        logger.warn("Task overdue: {}", task);
+        notifyFailure(task, tE);
       }
-      catch (final CancellationException cE) {
-        failures.put(symbol, cE);
-        logger.info("Task cancelled.  Cause: {}", cE.getCause(), cE);
+    }
+  }
+
+  /**
+   * Cancels all outstanding tasks, exchange by exchange. Tasks blocked on
+   * network reads are interrupted, which also closes their sockets when
+   * running on virtual threads.
+   *
+   * @param futures tasks mapped to their exchanges and symbols
+   */
+  private static final <V> void cancel(final Map<Future<V>, Task<V>> futures) {
+    final Map<String, Integer> cancellations = new TreeMap<>(); // Map<Exchange, Count>
+    for (final Entry<Future<V>, Task<V>> future : futures.entrySet()) {
+      if (future.getKey().cancel(true)) {
+        final String exchange = future.getValue().exchange();
+        final Integer count = cancellations.get(exchange);
+        cancellations.put(exchange, (count == null) ? 1 : count + 1);
       }
-      catch (final TimeoutException tE) {
-        failures.put(symbol, tE);
-        logger.info("Task timed out.  Cause: {}", tE.getCause(), tE);
+    }
+    logger.warn("Tasks cancelled: {}", cancellations);
+  }
+
+  private final void notifySuccess(final Task<? extends File> task, final File destination) {
+    for (final ConversionListener listener : listeners) {
+      try {
+        listener.onSuccess(task.symbol, task.exchange, destination, task.timings());
       }
-      finally {
-        if (future != null) {
-          future.cancel(true);
-        }
+      catch (final RuntimeException rE) {
+        logger.warn("Listener failed: {}", listener, rE);
       }
     }
-    logger.info("Results retrieved: {}", numberOfTasks);
+  }
 
-    return destinations;
+  private final void notifyFailure(final Task<? extends File> task, final Throwable cause) {
+    for (final ConversionListener listener : listeners) {
+      try {
+        listener.onFailure(task.symbol, task.exchange, cause, task.timings());
+      }
+      catch (final RuntimeException rE) {
+        logger.warn("Listener failed: {}", listener, rE);
+      }
+    }
   }
 
-  private static final <V, W> void report(final List<V> passes, final Map<W, Throwable> failures) {
+  private final <W> void report(final int passes, final Map<W, Throwable> failures) {
+    saveCatalogs();
     logger.info("Total: {}\tPass: {}\tFail: {}",
-                passes.size() + failures.size(),
-                passes.size(),
+                passes + failures.size(),
+                passes,
                 failures.size());
+    logger.info("Concurrency limits: {}", concurrencyLimits());
+    logger.info("Timeouts: {}", timeouts());
+    logger.info("Shared fetches: {}", pipeline.sharedFetches());
+    logger.info("Transport timings: {}", transportTimings());
+    logger.info("Stage queue depths: {}\tUtilisation: {}", queueDepths(), utilisations());
+    if (pipeline.isHedged()) {
+      logger.info("Hedges: {}\tWon by fallbacks: {}", pipeline.hedges(), pipeline.fallbacksWon());
+    }
 
     if (!failures.isEmpty()) {
       int i = 0;
@@ -399,19 +1055,6 @@ public class Converter {
     }
   }
 
-  enum PoolSize {
-    TINY(1),
-    SMALL(5),
-    LARGE(25);
-
-    final int loadMultiplier;
-
-    private PoolSize(final int loadMultiplier) {
-      this.loadMultiplier = loadMultiplier;
-    }
-
-  }
-
   /**
    * Converts data of a single symbol.
    *
@@ -431,35 +1074,113 @@ public class Converter {
       throws IOException, MalformedURLException {
     logger.info("Converting: {} (Exchange: {})", symbol, exchange);
 
-    // read
-    final URL url = source.url(symbol,
-                               exchange,
-                               interval.start(),
-                               interval.end(),
-                               interval.frequency());
-    // leave column header skipping to transformer
-    final List<String> lines = reader.read(url);
-
-    // transform
-    source.newTransformer(source.newTransform(symbol)).transform(lines);
-    if (lines.isEmpty()) {
-      logger.warn("Empty URL: {}", url);
-      throw new IOException("Empty URL: " + url);
+    final File destination = new File(outputParentDirectory, getFilename(symbol, interval));
+    if (COLUMNAR) {
+      final File barFile = barFile(destination);
+      final BarSeries bars = pipeline.read(symbol, exchange, interval, Output.BARS);
+      pipeline.write(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          BarFile.write(barFile, bars);
+          return null;
+        }
+      });
+      logger.info("Symbol converted: {} (Exchange: {})", symbol, exchange);
+      return barFile;
+    }
+    if (pipeline.isStreamable()) {
+      catalogue(destination, exchange, pipeline.stream(symbol, exchange, interval, destination));
+      logger.info("Symbol converted: {} (Exchange: {})", symbol, exchange);
+      return destination;
     }
 
+    // read and transform
+    final List<String> lines = pipeline.read(symbol, exchange, interval, Output.LINES);
+
     // write
-    final File destination = new File(outputParentDirectory, getFilename(symbol, interval));
-    writer.write(lines, destination);
+    pipeline.write(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        writer.write(lines, destination);
+        return null;
+      }
+    });
+    catalogue(destination, exchange, new LineTally(lines));
 
     logger.info("Symbol converted: {} (Exchange: {})", symbol, exchange);
     return destination;
   }
 
+  /**
+   * Converts data of a single symbol over <code>interval</code> and merges it
+   * straight into <code>target</code>, without writing a separate update
+   * file.
+   *
+   * @param target the symbol's file, which need not exist
+   * @return <code>target</code>
+   * @throws IOException if the symbol cannot be read or its file merged
+   */
+  public File mergeUpdate(final String symbol,
+                          final Exchanges exchange,
+                          final Interval interval,
+                          final File target)
+      throws IOException {
+    logger.info("Converting and merging: {} (Exchange: {})", symbol, exchange);
+
+    final boolean columnar = target.getName().endsWith(BarFile.EXTENSION);
+    final List<String> lines = columnar ? null : pipeline.read(symbol, exchange, interval, Output.LINES);
+    final BarSeries bars = columnar ? pipeline.read(symbol, exchange, interval, Output.BARS) : null;
+    if (columnar ? bars.isEmpty() : lines.isEmpty()) {
+      logger.info("No updates: {} (Exchange: {})", symbol, exchange);
+      return target;
+    }
+
+    final LineTally tally = new LineTally();
+    pipeline.write(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        if (!columnar) {
+          merger.merge(lines, target, tally);
+          return null;
+        }
+
+        // dates outside the interval, which some sources ignore, left as they are
+        final BarSeries updates = bars.between(interval);
+        if (target.exists()) { // in place
+          try (final BarFile barFile = BarFile.open(target)) {
+            barFile.merge(updates);
+          }
+        }
+        else {
+          BarFile.write(target, updates);
+        }
+        return null;
+      }
+    });
+    if (!columnar) {
+      catalogue(target, exchange, tally);
+    }
+
+    logger.info("Symbol converted and merged: {} (Exchange: {})", symbol, exchange);
+    return target;
+  }
+
   public File download(final File symbolsFile, final Interval interval, final File outputParentDirectory)
       throws FileNotFoundException, IOException, InterruptedException {
     return execute(symbolsFile, interval, outputParentDirectory, download);
   }
 
+  /**
+   * Downloads data of all symbols specified in <code>symbolsFile</code> as one
+   * of several workers sharing <code>outputParentDirectory</code>.
+   *
+   * @see #convertSharded(File, Interval, File)
+   */
+  public File downloadSharded(final File symbolsFile, final Interval interval, final File outputParentDirectory)
+      throws FileNotFoundException, IOException, InterruptedException {
+    return executeSharded(symbolsFile, interval, outputParentDirectory, download);
+  }
+
   public List<File> download(final Collection<String> symbols,
                              final Exchanges exchange,
                              final Interval interval,
@@ -481,15 +1202,8 @@ public class Converter {
                                interval.end(),
                                interval.frequency());
     final File destination = new File(outputParentDirectory, getFilename(symbol, interval));
-    try (
-      final ReadableByteChannel rbc = Channels.newChannel(URLInputStreamFactory.newInputStream(url));
-      final FileChannel fc = FileChannel.open(destination.toPath(),
-                                              StandardOpenOption.CREATE,
-                                              StandardOpenOption.WRITE);
-    ) {
-      final long transferred = fc.transferFrom(rbc, 0, Long.MAX_VALUE); // ~8 exabytes (8 x 1024^6)
-      logger.debug("Bytes transferred for {}: {}", symbol, transferred);
-    }
+    final long transferred = downloader.download(url, destination, source.isArchive());
+    logger.debug("Bytes transferred for {}: {}", symbol, transferred);
 
     logger.info("Symbol downloaded: {}", symbol);
     return destination;
@@ -518,11 +1232,46 @@ public class Converter {
    */
   public File update(final File outputParentDirectory, final Frequencies frequency)
       throws IOException {
+    // bar files are updated in place
+    return update(outputParentDirectory, frequency, COLUMNAR ? mergeUpdate : convert);
+  }
+
+  /**
+   * Updates all files in <code>outputParentDirectory</code>, merging updates
+   * straight into each file rather than writing them to separate update files
+   * to be merged afterwards.
+   *
+   * @param outputParentDirectory the file directory to be updated
+   * @return outputParentDirectory
+   * @throws IOException if an I/O error is thrown by the file visitor
+   */
+  public File updateAndMerge(final File outputParentDirectory) throws IOException {
+    return updateAndMerge(outputParentDirectory, null);
+  }
+
+  /**
+   * Updates only those files in <code>outputParentDirectory</code> belonging to
+   * <code>frequency</code>, merging updates straight into each file.
+   *
+   * @param outputParentDirectory the file directory to be updated
+   * @param frequency if null, updates all <code>Frequencies</code>
+   * @return outputParentDirectory
+   * @throws IOException if an I/O error is thrown by the file visitor
+   */
+  public File updateAndMerge(final File outputParentDirectory, final Frequencies frequency)
+      throws IOException {
+    return update(outputParentDirectory, frequency, mergeUpdate);
+  }
+
+  private final File update(final File outputParentDirectory, final Frequencies frequency, final Action<File> action)
+      throws IOException {
     // Algorithm
     // 1. find data files (assume some are in directories while others are not)
-    // 2. read first line in each data file, assuming it the latest
+    // 2. look up symbol and latest date in the directory's catalog, or failing
+    //    that, read first line in each data file, assuming it the latest
     // 3. extract symbol and date, and store date in a dictionary
-    // 4. download, convert and write to a separate update file
+    // 4. download, convert and write to a separate update file, or merge
+    //    into the data file
 
     if (!outputParentDirectory.isDirectory()) {
       throw new IllegalArgumentException("Not a directory: " + outputParentDirectory);
@@ -531,11 +1280,13 @@ public class Converter {
     logger.info("Updating files in: {}", outputParentDirectory);
 
     final CompletionServiceFileVisitor<File> visitor =
-        new CompletionServiceFileVisitor<>(SYNTAX + getFilenameRegex(false, frequency),
-                                           new UpdateFile(convert),
-                                           threadPools.get(LARGE));
+        new CompletionServiceFileVisitor<>(SYNTAX + getFilenameRegex(false,
+                                                                     frequency,
+                                                                     COLUMNAR ? BarFile.EXTENSION : FILE_EXTENSION),
+                                           new UpdateFile(action),
+                                           threadPool(LARGE));
     Files.walkFileTree(outputParentDirectory.toPath(), visitor);
-    report(visitor.results(), visitor.failures());
+    report(visitor.results().size(), visitor.failures());
 
     logger.info("Updated files in: {}", outputParentDirectory);
     return outputParentDirectory;
@@ -656,23 +1407,41 @@ public class Converter {
       return new Callable<File>() {
         @Override
         public File call() throws Exception {
-          // read most recent entry
-          final String latest = readLatestLine(file);
-
-          // extract symbol and date
-          final Entry<String, String> symbolAndDate = extractSymbolAndDate(latest);
-          final String symbol = symbolAndDate.getKey();
-          final String date = symbolAndDate.getValue();
+          // look up or read most recent entry
+          final Path parent = file.getParent();
+          final String filename = file.getFileName().toString();
+          final String symbol;
+          final String date;
+          if (COLUMNAR) { // from the header and last row
+            symbol = getSymbolFrom(filename);
+            try (final BarFile bars = BarFile.open(file.toFile())) {
+              if (bars.size() == 0) {
+                throw new IOException("Empty file: " + file);
+              }
+              date = String.valueOf(bars.latestDate());
+            }
+          }
+          else {
+            final Catalog.Entry catalogued = catalog(parent.toFile().getAbsoluteFile()).get(file);
+            if (catalogued != null) {
+              symbol = catalogued.symbol;
+              date = catalogued.last;
+            }
+            else {
+              // extract symbol and date
+              final Entry<String, String> symbolAndDate = extractSymbolAndDate(readLatestLine(file));
+              symbol = symbolAndDate.getKey();
+              date = symbolAndDate.getValue();
+            }
+          }
 
           // form update interval
-          final String filename = file.getFileName().toString();
           final Frequencies frequency = getFrequencyFrom(filename);
           final Interval interval = getUpdateInterval(date, frequency);
           final String startYYYYMMDD = getYYYYMMDD(interval.start());
           final String endYYYYMMDD = getYYYYMMDD(interval.end());
 
           // extract exchange
-          final Path parent = file.getParent();
           final Exchanges exchange = extractExchange(parent);
 
           logger.info("{} current as of: {}.  Updating from {} to {}",
@@ -681,10 +1450,12 @@ public class Converter {
                       startYYYYMMDD,
                       endYYYYMMDD);
 
-          return action.execute(symbol,
-                                exchange,
-                                interval,
-                                parent.toFile());
+          // updates are merged straight into the file or written alongside it
+          return throttle(action,
+                          symbol,
+                          exchange,
+                          interval,
+                          (action == mergeUpdate) ? file.toFile() : parent.toFile());
         }
       };
     }
@@ -732,9 +1503,9 @@ public class Converter {
     final CompletionServiceFileVisitor<File> visitor =
         new CompletionServiceFileVisitor<>(SYNTAX + getFilenameRegex(true, frequency),
                                            new MergeFile(),
-                                           threadPools.get(TINY));
+                                           threadPool(TINY));
     Files.walkFileTree(outputParentDirectory.toPath(), visitor);
-    report(visitor.results(), visitor.failures());
+    report(visitor.results().size(), visitor.failures());
 
     logger.info("Merged files in: {}", outputParentDirectory);
     return outputParentDirectory;
@@ -765,7 +1536,9 @@ public class Converter {
             // rename update file as target if latter is absent
             Files.move(src, target.toPath());
             logger.info("File renamed after merging: {} -> {}", src, target);
+            catalog(target.getAbsoluteFile().getParentFile()).rename(src.toFile(), target);
           }
+          catalog(target.getAbsoluteFile().getParentFile()).remove(src.toFile());
           return target;
         }
       };
@@ -790,18 +1563,13 @@ public class Converter {
       logger.warn("Empty source file: {}", name);
       throw new IOException("Empty source file: " + name);
     }
-    // remove duplicates
-    // sort in descending / reverse chronological order
-    final Set<String> lines = new TreeSet<>(REVERSE_CHRONO);
-
-    // append target to source
-    lines.addAll(reader.read(src));
-    lines.addAll(reader.read(target));
+    // merge in a single pass, both being in reverse chronological order, with
+    // source lines replacing target lines of the same date
+    final LineTally tally = new LineTally();
+    final int lines = merger.merge(src, target, tally);
+    catalogue(target, null, tally);
 
-    // write merged lines to target
-    writer.write(lines, target);
-
-    logger.info("Files merged");
+    logger.info("Files merged: {} lines", lines);
     return target;
   }
 
@@ -829,10 +1597,14 @@ public class Converter {
    * @throws InterruptedException if interrupted while waiting
    */
   public void stop() throws InterruptedException {
-    for (final ExecutorService threadPool : threadPools.values()) {
-      threadPool.shutdown();
-      threadPool.awaitTermination(Short.MAX_VALUE, TimeUnit.MILLISECONDS);
+    saveCatalogs();
+    synchronized (threadPools) {
+      for (final ExecutorService threadPool : threadPools.values()) {
+        threadPool.shutdown();
+        threadPool.awaitTermination(Short.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
     }
+    pipeline.stop();
     logger.info("Shutdown requested");
   }
 
@@ -15,6 +15,7 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -22,7 +23,6 @@ import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -30,12 +30,21 @@ import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
+import org.ikankechil.eod3.ExecutorStrategy.PoolSize;
+import org.ikankechil.eod3.io.CachingTransport;
+import org.ikankechil.eod3.io.DiskCache;
+import org.ikankechil.eod3.io.HtmlTableTransformer;
+import org.ikankechil.eod3.io.JsonTransformer;
 import org.ikankechil.eod3.io.SymbolsReader;
 import org.ikankechil.eod3.io.SymbolsWriter;
+import org.ikankechil.eod3.io.Transport;
+import org.ikankechil.eod3.io.Transport.Response;
+import org.ikankechil.eod3.io.Transport.Validators;
+import org.ikankechil.eod3.io.URLConnector;
 import org.ikankechil.eod3.sources.Exchanges;
 import org.ikankechil.io.TextReader;
 import org.ikankechil.io.TextTransform;
@@ -56,6 +65,8 @@ import org.slf4j.LoggerFactory;
 public class ExchangeSymbolsDownloader {
 
   private final TextReader                           reader;
+  private final Transport                            transport;
+  private final DiskCache                            cache;
   private final SymbolsReader                        symbolsReader;
   private final SymbolsWriter                        symbolsWriter;
   private final File                                 destination;
@@ -104,13 +115,16 @@ public class ExchangeSymbolsDownloader {
   private static final char                          COMMA         = ',';
   private static final char                          QUOTE         = '"';
   private static final char                          UNDERSCORE    = '_';
-  private static final char                          COLON         = ':';
   private static final char                          SEMI_COLON    = ';';
   private static final char                          TAB           = '\t';
   private static final char                          LESS_THAN     = '<';
-  private static final char                          SPACE         = ' ';
   private static final String                        EMPTY         = "";
 
+  private static final int                           TIMEOUT       = (int) TimeUnit.MINUTES.toMillis(1);
+  private static final long                          CACHE_TTL     = TimeUnit.DAYS.toMillis(1); // listings change slowly
+  private static final String                        PARSED        = "#symbols"; // cache key of transformed symbols
+  private static final char                          LINE_FEED     = '\n';
+
   // collate already-merged files only and not update files
   private static final Pattern                       OHLCV_FILE    = Pattern.compile(FILENAME_REGEX);
   private static final Pattern                       PUNCTUATION   = Pattern.compile("\\p{Punct}"); // !"#$%&'()*+,-./:;<=>?@[\]^_`{|}~
@@ -153,16 +167,17 @@ public class ExchangeSymbolsDownloader {
       // other exchanges around the world
       SOURCES.put(ASX, new SymbolsSource(3, ASX_BASE, new TextTransformer(new SymbolsTransform(COMMA, 2))));
       final XMLTagTextTransform xmlTagTextTransform = new XMLTagTextTransform();
-      SOURCES.put(ISE, new SymbolsSource(ZERO, ISE_BASE, new ISETextTransformer(xmlTagTextTransform)));
-      SOURCES.put(ATHEX, new SymbolsSource(ZERO, ATHEX_BASE, new BreakLongLinesTextTransformer(xmlTagTextTransform, "<td class=\"ticker-symbol\">", "</td>")));
-      SOURCES.put(BET, new SymbolsSource(ZERO, BET_BASE, new FilterTextTransformer(new AsymmetricalDelimiterTextTransform(UNDERSCORE, QUOTE), "<tr id=\"P_")));
+      final TextTransform symbolCell = new SymbolCellTextTransform();
+      SOURCES.put(ISE, new SymbolsSource(ZERO, ISE_BASE, new HtmlTableTransformer(symbolCell, null, "class=\"equityName\"", -1)));
+      SOURCES.put(ATHEX, new SymbolsSource(ZERO, ATHEX_BASE, new HtmlTableTransformer(symbolCell, null, "class=\"ticker-symbol\"", 0)));
+      SOURCES.put(BET, new SymbolsSource(ZERO, BET_BASE, HtmlTableTransformer.rowAttribute(new SuffixTextTransform(UNDERSCORE), "id=\"P_", "id")));
       SOURCES.put(BVB, new SymbolsSource(1, BVB_BASE, new TextTransformer(new SymbolsTransform(SEMI_COLON, 1))));
 //      SOURCES.put(QSE, new SymbolsSource(ZERO, QSE_BASE, new FilterTextTransformer(xmlTagTextTransform, "/web/guest/company-profile-page?CompanyCode=")));
-      SOURCES.put(NGSE, new SymbolsSource(ZERO, NGSE_BASE, new BreakLongLinesTextTransformer(new SymbolsTransform(COLON, 2), "\"SYMBOL\":\"", "\"")));
+      SOURCES.put(NGSE, new SymbolsSource(ZERO, NGSE_BASE, new JsonTransformer(symbolCell, false, "SYMBOL")));
       SOURCES.put(BVC, new SymbolsSource(ZERO, BVC_BASE, new FilterTextTransformer(new SymbolsTransform(TAB, 2), "/pps/tibco/portalbvc/Home/Empresas/Emisores+BVC/Listado+de+Emisores?com.tibco.ps.pagesvc.action=portletAction&action=link&emisorId=", 1)));
 
       // Middle-Eastern exchanges
-      final AsymmetricalDelimiterTextTransform asmaTextTransform = new AsymmetricalDelimiterTextTransform(SPACE, LESS_THAN);
+      final TextTransformer asmaTextTransformer = new HtmlTableTransformer(symbolCell, "onmouseover", null, -2);
       final Map<Exchanges, String> meExchanges = new EnumMap<>(Exchanges.class);
       meExchanges.put(TADAWUL, "Saudi");
       meExchanges.put(QSE, "Qatar");
@@ -174,7 +189,7 @@ public class ExchangeSymbolsDownloader {
         SOURCES.put(meExchange.getKey(),
                     new SymbolsSource(ZERO,
                                       String.format(ASMA_BASE, meExchange.getValue()),
-                                      new AsmaTextTransformer(asmaTextTransform)));
+                                      asmaTextTransformer));
       }
 
       // exchanges sourced from Google (via Quandl)
@@ -272,6 +287,18 @@ public class ExchangeSymbolsDownloader {
   }
 
   public ExchangeSymbolsDownloader(final File destination, final boolean isRFC2396Compliant) {
+    this(destination, isRFC2396Compliant, null);
+  }
+
+  /**
+   * @param destination symbols file
+   * @param isRFC2396Compliant filter non-RFC2396 compliant symbols
+   * @param strategy creates the thread pool on which each exchange is
+   *          downloaded; if null, <code>ExecutorStrategies.DEFAULT</code>
+   */
+  public ExchangeSymbolsDownloader(final File destination,
+                                   final boolean isRFC2396Compliant,
+                                   final ExecutorStrategy strategy) {
     if (destination.isDirectory()) {
       throw new IllegalArgumentException("Destination is a directory: " + destination);
     }
@@ -283,11 +310,14 @@ public class ExchangeSymbolsDownloader {
     }
     this.destination = destination;
     reader = new TextReader();
+    cache = DiskCache.DEFAULT;
+    transport = (cache == null) ? new URLConnector(TIMEOUT)
+                                : new CachingTransport(new URLConnector(TIMEOUT), cache, CACHE_TTL);
     symbolsReader = new SymbolsReader();
     symbolsWriter = new SymbolsWriter();
 
     this.isRFC2396Compliant = isRFC2396Compliant;
-    executor = new TaskExecutor(Executors.newCachedThreadPool());
+    executor = new TaskExecutor(((strategy == null) ? ExecutorStrategies.DEFAULT : strategy).newExecutor(PoolSize.ELASTIC));
     symbolsTaskHelper = new SymbolsTaskHelper();
     ohlcvFilenameFilter = new PatternFilenameFilter(OHLCV_FILE);
   }
@@ -402,11 +432,11 @@ public class ExchangeSymbolsDownloader {
       throws IOException, InterruptedException {
     logger.info("Downloading symbols for exchange(s): {}", (Object) exchanges);
 
-    // read from URLs
-    final Map<Exchanges, List<String>> lines = read(exchanges);
+    // read from URLs and transform
+    final Map<Exchanges, List<String>> symbols = read(exchanges);
 
-    // transform into Map<Exchange, Set<Symbol>>
-    final Map<String, Set<String>> markets = transform(lines);
+    // collect into Map<Exchange, Set<Symbol>>
+    final Map<String, Set<String>> markets = deduplicate(symbols);
 
     // filter if required
     if (isRFC2396Compliant) {
@@ -473,34 +503,79 @@ public class ExchangeSymbolsDownloader {
 
   }
 
+  /**
+   * Downloads and transforms the symbols of <code>exchange</code>. If cached,
+   * the symbols last transformed are reused when their source is unchanged.
+   */
   private final List<String> download(final Exchanges exchange) throws IOException {
-    List<String> lines = null;
+    List<String> symbols = null;
     final SymbolsSource source = SOURCES.get(exchange);
     if (source != null) {
       logger.info("Downloading symbols for: {}", exchange);
-      lines = reader.read(source.url);
-      while (lines.remove(EMPTY)) { /* remove all empty lines */ }
-      // skip rows
-      lines = lines.subList(source.skippedRows, lines.size());
-      logger.info("Rows downloaded for {}: {}",
-                  exchange,
-                  lines.size());
+      final URL parsed = new URL(source.url, PARSED);
+      List<String> previous = null;
+      Validators validators = Validators.NONE;
+      if (cache != null) {
+        try (final Response cached = cache.get(parsed, Long.MAX_VALUE)) {
+          if (cached != null) {
+            previous = reader.read(cached);
+            validators = cached.validators();
+          }
+        }
+      }
+
+      try (final Response response = transport.open(source.url, validators)) {
+        if (response == null || (!validators.isEmpty() && validators.equals(response.validators()))) {
+          logger.info("Symbols unchanged for {}: {}", exchange, previous.size());
+          return previous;
+        }
+        List<String> lines = reader.read(response);
+        while (lines.remove(EMPTY)) { /* remove all empty lines */ }
+        // skip rows
+        lines = lines.subList(source.skippedRows, lines.size());
+        logger.info("Rows downloaded for {}: {}",
+                    exchange,
+                    lines.size());
+
+        try {
+          symbols = source.transformer.transform(lines);
+        }
+        catch (final RuntimeException rE) { // not to be served again
+          transport.discard(source.url);
+          throw rE;
+        }
+        if (cache != null && !response.validators().isEmpty()) {
+          store(parsed, symbols, response.validators());
+        }
+      }
     }
     else {
       logger.warn("Symbol source unavailable for: {}", exchange);
     }
-    return lines;
+    return symbols;
+  }
+
+  private final void store(final URL parsed, final List<String> symbols, final Validators validators) {
+    final StringBuilder content = new StringBuilder();
+    for (final String symbol : symbols) {
+      content.append(symbol).append(LINE_FEED);
+    }
+    try {
+      cache.put(parsed, content.toString().getBytes(StandardCharsets.UTF_8), validators);
+    }
+    catch (final IOException ioE) {
+      logger.warn("Cannot cache symbols: {}", parsed, ioE);
+    }
   }
 
-  private static final Map<String, Set<String>> transform(final Map<Exchanges, List<String>> lines) {
+  private static final Map<String, Set<String>> deduplicate(final Map<Exchanges, List<String>> markets) {
     int total = ZERO;
     int extracted = ZERO;
-    final Map<String, Set<String>> markets = new LinkedHashMap<>(lines.size());
-    for (final Exchanges exchange : lines.keySet()) {
-      final TextTransformer transformer = SOURCES.get(exchange).transformer;
-      final List<String> symbols = transformer.transform(lines.get(exchange));
+    final Map<String, Set<String>> uniqueMarkets = new LinkedHashMap<>(markets.size());
+    for (final Exchanges exchange : markets.keySet()) {
+      final List<String> symbols = markets.get(exchange);
       final Set<String> uniqueSymbols = new TreeSet<>(symbols);
-      markets.put(exchange.toString(), uniqueSymbols);
+      uniqueMarkets.put(exchange.toString(), uniqueSymbols);
 
       logger.info("Duplicate symbols removed for {}: {}",
                   exchange,
@@ -511,7 +586,7 @@ public class ExchangeSymbolsDownloader {
     logger.info("Symbols extracted: {} (Duplicates removed: {})",
                 extracted,
                 total - extracted);
-    return markets;
+    return uniqueMarkets;
   }
 
   private static final void filter(final Map<String, Set<String>> markets) {
@@ -548,6 +623,10 @@ public class ExchangeSymbolsDownloader {
     return urls;
   }
 
+  static final SymbolsSource source(final Exchanges exchange) {
+    return SOURCES.get(exchange);
+  }
+
   public Map<String, Set<String>> merge(final File... symbolsFiles) throws IOException {
     final Map<String, Set<String>> mergedMarkets = new LinkedHashMap<>();
 
@@ -663,20 +742,32 @@ public class ExchangeSymbolsDownloader {
 
   }
 
-  private static class AsymmetricalDelimiterTextTransform implements TextTransform {
+  /**
+   * Symbols following a delimiter, e.g. in row ids such as P_MTELEKOM.
+   */
+  private static class SuffixTextTransform implements TextTransform {
 
-    private final char startDelimiter;
-    private final char endDelimiter;
+    private final char delimiter;
 
-    AsymmetricalDelimiterTextTransform(final char start, final char end) {
-      startDelimiter = start;
-      endDelimiter = end;
+    SuffixTextTransform(final char delimiter) {
+      this.delimiter = delimiter;
     }
 
     @Override
     public String transform(final String line) {
-      final int start = line.indexOf(startDelimiter) + 1;
-      return line.substring(start, line.indexOf(endDelimiter, start)).trim();
+      return line.substring(line.indexOf(delimiter) + 1).trim();
+    }
+
+  }
+
+  /**
+   * Symbols already extracted from cells or fields, returned as is.
+   */
+  private static class SymbolCellTextTransform implements TextTransform {
+
+    @Override
+    public String transform(final String line) {
+      return line;
     }
 
   }
@@ -718,43 +809,6 @@ public class ExchangeSymbolsDownloader {
 
   }
 
-  private static class ISETextTransformer extends TextTransformer {
-
-    private final TextTransform transform;
-
-    private static final String DATA_START_TAG = "<td class=\"equityName\">";
-    private static final String DATA_END_TAG   = "</tr>";
-
-    public ISETextTransformer(final TextTransform transform) {
-      super(transform);
-      this.transform = transform;
-    }
-
-    @Override
-    public List<String> transform(final List<String> lines) {
-      final List<String> symbols = new ArrayList<>();
-
-      final ListIterator<String> iterator = lines.listIterator();
-      while (iterator.hasNext()) {
-        String line = iterator.next();
-        if (line.contains(DATA_END_TAG)) {
-          iterator.previous();
-          line = iterator.previous(); // lookback
-          if (line.contains(DATA_START_TAG)) {
-            symbols.add(transform.transform(line));
-          }
-          iterator.next();
-          iterator.next();
-        }
-      }
-
-      lines.clear();
-      lines.addAll(symbols);
-      return lines;
-    }
-
-  }
-
   private static class FilterTextTransformer extends TextTransformer {
 
     private final TextTransform transform;
@@ -829,91 +883,4 @@ public class ExchangeSymbolsDownloader {
 
   }
 
-  private static class BreakLongLinesTextTransformer extends TextTransformer {
-
-    private final String dataStartTag;
-    private final String dataEndTag;
-
-    public BreakLongLinesTextTransformer(final TextTransform transform, final String dataStartTag, final String dataEndTag) {
-      super(transform);
-
-      this.dataStartTag = dataStartTag;
-      this.dataEndTag = dataEndTag;
-
-      // e.g.
-      // ATHEX
-      // <tr> <th class="ticker-symbol">Symbol</th> <th class="isin">ISIN</th> <th class="instrument-name">Name</th> <th class="closing-price">Price 03/09/2017</th> <th class="snapshot-url">Snapshot</th> <th class="historic-url">Historic</th> </tr> <tr> <td class="ticker-symbol">AAAK</td> <td class="isin">GRS059063008 </td> <td class="instrument-name">"WOOL INDUSTRY TRIA ALFA" S.A. (CR)</td> <td class="closing-price">2.59</td> <td class="snapshot-url"> <a class="snapshot-icon-url" href="http://www.helex.gr/web/guest/stock-snapshot/-/select-stock/136">&nbsp;</a> </td> <td class="historic-url"> <a class="historic-icon-url" href="http://www.helex.gr/web/guest/stock-historic/-/select-stock/136">&nbsp;</a> </td> </tr> <tr> <td class="ticker-symbol">AAAP</td> <td class="isin">GRS059064006 </td> <td class="instrument-name">"WOOL INDUSTRY TRIA ALFA" S.A. (PR)</td> <td class="closing-price">1.63</td> <td class="snapshot-url"> <a class="snapshot-icon-url" href="http://www.helex.gr/web/guest/stock-snapshot/-/select-stock/137">&nbsp;</a> </td> <td class="historic-url"> <a class="historic-icon-url" href="http://www.helex.gr/web/guest/stock-historic/-/select-stock/137">&nbsp;</a> </td> </tr>
-      //
-      // NGSE
-      // [{"$id":"1","Id":167,"SYMBOL":"7UP","Value":86.000000,"PercChange":0.000000,"TickerType":"EQUITIES","SYMBOL2":"7UP "},{"$id":"2","Id":82,"SYMBOL":"ABBEYBDS","Value":1.250000,"PercChange":0.000000,"TickerType":"EQUITIES","SYMBOL2":"ABBEYBDS "},{"$id":"3","Id":128,"SYMBOL":"ABCTRANS","Value":0.500000,"PercChange":0.000000,"TickerType":"EQUITIES","SYMBOL2":"ABCTRANS "}]
-    }
-
-    @Override
-    public List<String> transform(final List<String> lines) {
-      final List<String> shorterLines = new ArrayList<>();
-
-      // break long lines
-      for (final String line : lines) {
-        final StringBuilder longLine = new StringBuilder(line);
-        int currentPosition = ZERO;
-        while (currentPosition < longLine.length()) {
-          final int start = longLine.indexOf(dataStartTag, currentPosition);
-          final int end = longLine.indexOf(dataEndTag, start + dataStartTag.length());
-          if (start < ZERO || end < ZERO) {
-            break;
-          }
-          shorterLines.add(longLine.substring(start, currentPosition = end + dataEndTag.length()));
-        }
-      }
-
-      lines.clear();
-      lines.addAll(shorterLines);
-      return super.transform(lines);
-    }
-
-  }
-
-  private static class AsmaTextTransformer extends TextTransformer {
-
-    private final TextTransform transform;
-
-    private static final String DATA_START_TAG = "onmouseover";
-    private static final String DATA_END_TAG   = "</tr>";
-
-    public AsmaTextTransformer(final TextTransform transform) {
-      super(transform);
-      this.transform = transform;
-    }
-
-    @Override
-    public List<String> transform(final List<String> lines) {
-      final List<String> symbols = new ArrayList<>();
-
-      final ListIterator<String> iterator = lines.listIterator();
-      while (iterator.hasNext()) {
-        String line = iterator.next();
-        if (line.contains(DATA_START_TAG)) {
-          while (iterator.hasNext()) {
-            line = iterator.next();
-            if (line.contains(DATA_END_TAG)) {
-              iterator.previous();
-              iterator.previous();
-              line = iterator.previous(); // backtrack
-              symbols.add(transform.transform(line));
-              iterator.next();
-              iterator.next();
-              iterator.next();
-              break;
-            }
-          }
-        }
-      }
-
-      lines.clear();
-      lines.addAll(symbols);
-      return lines;
-    }
-
-  }
-
 }
@@ -0,0 +1,136 @@
+/**
+ * ExecutorStrategies.java  v0.1  18 October 2026 11:12:06 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Built-in <code>ExecutorStrategy</code>s.
+ * <p>
+ * System property: org.ikankechil.eod3.ExecutorStrategies.default
+ * <p>
+ * default strategy: PLATFORM_THREADS
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public enum ExecutorStrategies implements ExecutorStrategy {
+
+  /**
+   * Fixed-size platform thread pools sized by <code>PoolSize</code>, and a
+   * cached thread pool for <code>PoolSize.ELASTIC</code>.
+   */
+  PLATFORM_THREADS {
+    @Override
+    public ExecutorService newExecutor(final PoolSize size) {
+      return (size == PoolSize.ELASTIC) ? Executors.newCachedThreadPool()
+                                        : Executors.newFixedThreadPool(size.threads());
+    }
+
+    @Override
+    public int maxConcurrency(final PoolSize size) {
+      return (size == PoolSize.ELASTIC) ? Integer.MAX_VALUE : size.threads();
+    }
+  },
+
+  /**
+   * One virtual thread per task for network-bound tasks, so that blocked
+   * reads do not pin platform threads. CPU- and disk-bound
+   * (<code>PoolSize.TINY</code>) tasks still run on a fixed-size platform
+   * thread pool. Falls back to <code>PLATFORM_THREADS</code> on Java runtimes
+   * without virtual threads.
+   */
+  VIRTUAL_THREADS {
+    @Override
+    public ExecutorService newExecutor(final PoolSize size) {
+      ExecutorService executor = null;
+      if (size != PoolSize.TINY && NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+        try {
+          executor = (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        }
+        catch (final ReflectiveOperationException roE) {
+          logger.warn("Cannot create virtual thread executor", roE);
+        }
+      }
+      return (executor != null) ? executor : PLATFORM_THREADS.newExecutor(size);
+    }
+
+    @Override
+    public int maxConcurrency(final PoolSize size) {
+      return (size != PoolSize.TINY && virtualThreadsSupported()) ? Integer.MAX_VALUE
+                                                                  : PLATFORM_THREADS.maxConcurrency(size);
+    }
+  };
+
+  /**
+   * Strategy used when none is specified, as set by system property
+   * <code>org.ikankechil.eod3.ExecutorStrategies.default</code>.
+   */
+  public static final ExecutorStrategy DEFAULT;
+
+  // Executors.newVirtualThreadPerTaskExecutor() (Java 21+)
+  private static final Method          NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+
+  private static final Logger          logger = LoggerFactory.getLogger(ExecutorStrategies.class);
+
+  static {
+    Method method;
+    try {
+      method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    }
+    catch (final NoSuchMethodException nsmE) {
+      method = null;
+      logger.debug("Virtual threads unsupported by Java {}", System.getProperty("java.version"));
+    }
+    NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = method;
+
+    final String strategy = System.getProperty(ExecutorStrategies.class.getName() + ".default",
+                                               PLATFORM_THREADS.name());
+    ExecutorStrategy defaultStrategy;
+    try {
+      defaultStrategy = valueOf(strategy);
+    }
+    catch (final IllegalArgumentException iaE) {
+      defaultStrategy = PLATFORM_THREADS;
+      logger.warn("No such executor strategy: {}, using {}", strategy, defaultStrategy, iaE);
+    }
+    DEFAULT = defaultStrategy;
+  }
+
+  /**
+   * @return true if this Java runtime supports virtual threads
+   */
+  public static final boolean virtualThreadsSupported() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * A single daemon platform thread, whichever the strategy, as timer tasks
+   * are few and brief. Cancelled tasks are removed at once.
+   */
+  @Override
+  public ScheduledExecutorService newScheduler(final String name) {
+    final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    scheduler.setRemoveOnCancelPolicy(true);
+    return scheduler;
+  }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * ExecutorStrategy.java  v0.1  18 October 2026 11:05:52 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Creates the <code>ExecutorService</code>s on which download, conversion,
+ * update and merge tasks run, and the schedulers timing them.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public interface ExecutorStrategy {
+
+  /**
+   * Creates a new <code>ExecutorService</code> for tasks of the given load.
+   *
+   * @param size the expected concurrency of the tasks to be executed
+   * @return a new <code>ExecutorService</code>
+   */
+  ExecutorService newExecutor(final PoolSize size);
+
+  /**
+   * @param size the expected concurrency of the tasks to be executed
+   * @return the number of tasks an executor created for <code>size</code>
+   *         runs at once, or <code>Integer.MAX_VALUE</code> if unbounded
+   */
+  int maxConcurrency(final PoolSize size);
+
+  /**
+   * Creates a new <code>ScheduledExecutorService</code> for short timer
+   * tasks, e.g. aborting requests overrunning their deadlines, whose threads
+   * do not keep the JVM alive.
+   *
+   * @param name of the scheduler's threads
+   * @return a new <code>ScheduledExecutorService</code>
+   */
+  ScheduledExecutorService newScheduler(final String name);
+
+  /**
+   * Concurrency of a class of tasks, as a multiple of available processors.
+   */
+  enum PoolSize {
+    /** CPU- or disk-bound tasks, e.g. merging */
+    TINY(1),
+    SMALL(5),
+    /** network-bound tasks, e.g. downloading */
+    LARGE(25),
+    /** a handful of long-running tasks, e.g. one per exchange */
+    ELASTIC(0);
+
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    final int                loadMultiplier;
+
+    private PoolSize(final int loadMultiplier) {
+      this.loadMultiplier = loadMultiplier;
+    }
+
+    /**
+     * @return number of threads for a fixed-size pool, or zero if unbounded
+     */
+    public int threads() {
+      return PROCESSORS * loadMultiplier;
+    }
+
+  }
+
+}
@@ -103,7 +103,10 @@ public class FilenameConvention {
    *           string
    */
   public static final Frequencies getFrequencyFrom(final String filename) {
-    final int fileExt = filename.indexOf(FILE_EXTENSION);
+    int fileExt = filename.indexOf(FILE_EXTENSION);
+    if (fileExt < 0) { // another format
+      fileExt = filename.lastIndexOf(DOT);
+    }
     if (fileExt < 0) {
       throw new IndexOutOfBoundsException();
     }
@@ -254,6 +257,18 @@ public class FilenameConvention {
   }
 
   public static final String getFilenameRegex(final boolean hasDates, final Frequencies frequency) {
+    return getFilenameRegex(hasDates, frequency, FILE_EXTENSION);
+  }
+
+  /**
+   * @param hasDates
+   * @param frequency if null, any or no frequency
+   * @param extension filename extension, e.g. of files in another format
+   * @return regex matching filenames with <code>extension</code>
+   */
+  public static final String getFilenameRegex(final boolean hasDates,
+                                              final Frequencies frequency,
+                                              final String extension) {
     final StringBuilder regex = new StringBuilder(SYMBOL);
     if (hasDates) {
       regex.append(UNDERSCORE).append(DATES).append(DASH).append(DATES);
@@ -264,7 +279,7 @@ public class FilenameConvention {
     else {
       regex.append(UNDERSCORE).append(frequency.frequency());
     }
-    return regex.append(FILE_EXTENSION).toString();
+    return regex.append(extension).toString();
   }
 
 }
@@ -0,0 +1,286 @@
+/**
+ * HostLimiter.java  v0.1  18 October 2026 9:12:40 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.ikankechil.eod3.io.HttpStatusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An adaptive concurrency limit for requests to a single host.
+ * <p>
+ * The limit follows an additive-increase / multiplicative-decrease (AIMD)
+ * scheme: it grows by roughly one permit per limit's worth of fast, successful
+ * requests and is cut back whenever the host throttles (HTTP 429 / 503), fails
+ * (HTTP 5xx), times out or responds markedly slower than its best observed
+ * latency.
+ * <p>
+ * Waiting requests park on a lock rather than a monitor, so that virtual
+ * threads waiting for permits do not pin their carrier threads.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class HostLimiter {
+
+  private final String         host;
+  private final int            minLimit;
+  private final int            maxLimit;
+  private final ReentrantLock  lock              = new ReentrantLock();
+  private final Condition      released          = lock.newCondition();
+
+  private double               limit;
+  private int                  inFlight;
+  private int                  timeouts;
+
+  private long                 minLatency        = Long.MAX_VALUE;         // best observed, in nanoseconds
+  private long                 smoothedLatency;                            // exponentially-weighted moving average
+  private long                 lastDecrease;
+
+  // AIMD parameters
+  private static final double  BACKOFF           = 0.5;  // on throttling, errors and timeouts
+  private static final double  LATENCY_BACKOFF   = 0.9;  // on latency degradation
+  private static final double  LATENCY_TOLERANCE = 2.0;  // multiple of best observed latency
+  private static final double  SMOOTHING         = 0.2;
+
+  private static final int     TOO_MANY_REQUESTS = 429;
+  private static final int     UNAVAILABLE       = 503;
+  private static final int     SERVER_ERROR      = 500;
+
+  private static final Logger  logger            = LoggerFactory.getLogger(HostLimiter.class);
+
+  /**
+   * Outcome of a request, as far as host congestion is concerned.
+   */
+  public enum Outcome {
+    /** completed normally */
+    SUCCESS,
+    /** host asked for fewer requests (HTTP 429 / 503) */
+    THROTTLED,
+    /** host failed to serve the request (HTTP 5xx) */
+    ERROR,
+    /** host did not respond in time */
+    TIMEOUT,
+    /** failed for reasons unrelated to host load (e.g. HTTP 404, bad data) */
+    IGNORED;
+  }
+
+  /**
+   * @param host the host whose requests are limited
+   * @param initialLimit starting number of concurrent requests
+   * @param maxLimit upper bound of concurrent requests
+   */
+  public HostLimiter(final String host, final int initialLimit, final int maxLimit) {
+    if (host == null) {
+      throw new NullPointerException("Null host");
+    }
+    if (initialLimit < 1 || maxLimit < initialLimit) {
+      throw new IllegalArgumentException("Illegal limits: " + initialLimit + " / " + maxLimit);
+    }
+    this.host = host;
+    minLimit = 1;
+    this.maxLimit = maxLimit;
+    limit = initialLimit;
+    lastDecrease = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+  }
+
+  /**
+   * Blocks until a request may be sent to the host.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void acquire() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (inFlight >= (int) limit) {
+        released.await();
+      }
+      ++inFlight;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Blocks until a request may be sent to the host or <code>timeout</code>
+   * elapses.
+   *
+   * @param timeout maximum time to wait
+   * @param unit unit of <code>timeout</code>
+   * @return true if a request may be sent, false if <code>timeout</code>
+   *         elapsed first
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+    long remaining = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (inFlight >= (int) limit) {
+        if (remaining <= 0) {
+          return false;
+        }
+        remaining = released.awaitNanos(remaining);
+      }
+      ++inFlight;
+      return true;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns a permit obtained by {@link #acquire()} or
+   * {@link #tryAcquire(long, TimeUnit)} and adapts the limit to the
+   * request's latency and outcome.
+   *
+   * @param latency request latency in nanoseconds
+   * @param outcome request outcome
+   */
+  public void release(final long latency, final Outcome outcome) {
+    lock.lock();
+    try {
+      adapt(latency, outcome);
+      released.signalAll();
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  private final void adapt(final long latency, final Outcome outcome) {
+    --inFlight;
+
+    final double previous = limit;
+    switch (outcome) {
+      case SUCCESS:
+        smoothedLatency = (smoothedLatency == 0) ?
+                          latency :
+                          (long) ((SMOOTHING * latency) + ((1 - SMOOTHING) * smoothedLatency));
+        if (latency < minLatency) {
+          minLatency = latency;
+        }
+        if (smoothedLatency > (LATENCY_TOLERANCE * minLatency)) {
+          decrease(LATENCY_BACKOFF);
+        }
+        else if ((inFlight + 1) * 2 >= limit) { // only grow while the limit is being used
+          limit = Math.min(maxLimit, limit + (1 / limit));
+        }
+        break;
+
+      case TIMEOUT:
+        ++timeouts;
+        decrease(BACKOFF);
+        break;
+
+      case THROTTLED:
+      case ERROR:
+        decrease(BACKOFF);
+        break;
+
+      case IGNORED:
+      default:
+        break;
+    }
+
+    if ((int) previous != (int) limit) {
+      logger.debug("Concurrency limit for {}: {} -> {} ({})", host, (int) previous, (int) limit, outcome);
+    }
+  }
+
+  private final void decrease(final double factor) {
+    // back off at most once per round trip, as requests already in flight
+    // were sent under the old limit
+    final long now = System.nanoTime();
+    if ((now - lastDecrease) >= smoothedLatency) {
+      limit = Math.max(minLimit, limit * factor);
+      lastDecrease = now;
+    }
+  }
+
+  /**
+   * @return current number of concurrent requests allowed
+   */
+  public int limit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return current number of requests in flight
+   */
+  public int inFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of requests that timed out so far
+   */
+  public int timeouts() {
+    lock.lock();
+    try {
+      return timeouts;
+    }
+    finally {
+      lock.unlock();
+    }
+  }
+
+  public String host() {
+    return host;
+  }
+
+  /**
+   * Classifies a request failure.
+   *
+   * @param throwable the cause of failure
+   * @return <code>Outcome.TIMEOUT</code> for timeouts,
+   *         <code>Outcome.THROTTLED</code> for HTTP 429 and 503,
+   *         <code>Outcome.ERROR</code> for other HTTP 5xx and
+   *         <code>Outcome.IGNORED</code> otherwise
+   */
+  public static final Outcome classify(final Throwable throwable) {
+    Outcome outcome = Outcome.IGNORED;
+    if (throwable instanceof SocketTimeoutException ||
+        throwable instanceof TimeoutException) {
+      outcome = Outcome.TIMEOUT;
+    }
+    else if (throwable instanceof HttpStatusException) {
+      final int statusCode = ((HttpStatusException) throwable).statusCode();
+      if (statusCode == TOO_MANY_REQUESTS || statusCode == UNAVAILABLE) {
+        outcome = Outcome.THROTTLED;
+      }
+      else if (statusCode >= SERVER_ERROR) {
+        outcome = Outcome.ERROR;
+      }
+    }
+    return outcome;
+  }
+
+  @Override
+  public String toString() {
+    return host + " [limit: " + limit() + ", in flight: " + inFlight() + "]";
+  }
+
+}
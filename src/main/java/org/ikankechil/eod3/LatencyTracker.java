@@ -0,0 +1,86 @@
+/**
+ * LatencyTracker.java  v0.1  18 October 2026 4:48:12 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.util.Arrays;
+
+/**
+ * Percentiles over a sliding window of the most recent latencies.
+ * <p>
+ * Requests cut short, by cancellation, failure or a deadline, are recorded
+ * as censored samples at their elapsed time, a lower bound of their latency,
+ * so that slow requests are not left out of the percentiles.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+class LatencyTracker {
+
+  private final long[] samples; // ring buffer, in nanoseconds
+  private int          count;
+  private int          next;
+
+  /**
+   * @param capacity number of most recent latencies to keep
+   */
+  LatencyTracker(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Non-positive capacity: " + capacity);
+    }
+    samples = new long[capacity];
+  }
+
+  /**
+   * @param latency in nanoseconds
+   */
+  void record(final long latency) {
+    add(latency);
+  }
+
+  /**
+   * Records a request cut short after <code>elapsed</code> nanoseconds, whose
+   * latency is at least that.
+   *
+   * @param elapsed in nanoseconds
+   */
+  void recordCensored(final long elapsed) {
+    add(elapsed);
+  }
+
+  private final synchronized void add(final long latency) {
+    samples[next] = latency;
+    next = (next + 1) % samples.length;
+    if (count < samples.length) {
+      ++count;
+    }
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the latency below which <code>percentile</code> percent of recent
+   *         latencies fall, or -1 if none were recorded
+   */
+  synchronized long percentile(final double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Invalid percentile: " + percentile);
+    }
+    if (count == 0) {
+      return -1;
+    }
+    final long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    final int rank = (int) Math.ceil((percentile / 100) * count) - 1;
+    return sorted[Math.max(0, rank)];
+  }
+
+  /**
+   * @return number of latencies in the window
+   */
+  synchronized int count() {
+    return count;
+  }
+
+}
@@ -0,0 +1,1025 @@
+/**
+ * Pipeline.java  v0.1  19 October 2026 4:37:12 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.ikankechil.eod3.ExecutorStrategy.PoolSize.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ikankechil.eod3.ExecutorStrategy.PoolSize;
+import org.ikankechil.eod3.HostLimiter.Outcome;
+import org.ikankechil.eod3.io.LineTally;
+import org.ikankechil.eod3.io.StreamingTransformer;
+import org.ikankechil.eod3.io.Transport;
+import org.ikankechil.eod3.sources.Exchanges;
+import org.ikankechil.eod3.sources.Source;
+import org.ikankechil.io.TextReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads symbols from a ranked chain of sources through a staged pipeline:
+ * network-bound fetches hand off to CPU-bound transforms and disk-bound
+ * writes, each on threads sized for its load. Requests are throttled per host
+ * and bounded by each source's deadline, and reads are hedged to the next
+ * source in the chain when the primary is slower than usual or fails.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+final class Pipeline {
+
+  private final List<Endpoint>           endpoints;     // primary first
+  private final SingleFlight<Object>     fetches        = new SingleFlight<>(); // keyed by URL, symbol and output
+  private final SingleFlight<Streamed>   streams        = new SingleFlight<>(); // keyed by URL and symbol
+
+  private final ExecutorStrategy         strategy;
+  private final Executor                 hedgers;       // race attempts across sources
+  private final Map<String, HostLimiter> limiters       = new HashMap<>(); // Map<Host, HostLimiter>
+  private ScheduledExecutorService       deadlines;     // created on first use
+  private final LazyThreadPool           transformers   = new LazyThreadPool("transformers", TINY);
+  private final LazyThreadPool           writers        = new LazyThreadPool("writers", TINY);
+  private final int                      maxInFlight;   // tasks submitted but not yet retrieved
+  private final Stage                    fetchStage;
+  private final Stage                    transformStage;
+  private final Stage                    writeStage;
+  private final AtomicInteger            hedges         = new AtomicInteger();
+  private final AtomicInteger            fallbacksWon   = new AtomicInteger();
+
+  private static final char              SPACE          = ' ';
+
+  // File-related constants
+  private static final String            SPOOL          = ".spool"; // of responses streamed
+
+  // Multi-threading constants
+  private static final int               INITIAL_LIMIT  = SMALL.threads();
+  private static final int               MAX_LIMIT      = LARGE.threads();
+  private static final int               MAX_IN_FLIGHT  = Integer.getInteger(Converter.class.getName() + ".maxInFlight", 100000);
+  private static final int               TRANSFORMERS   = TINY.threads();
+  private static final int               WRITERS        = 2;
+
+  // Hedging constants
+  private static final double            HEDGE_PERCENTILE;
+  private static final int               LATENCY_WINDOW = 256;
+  private static final int               MIN_LATENCIES  = 20; // before hedging on latency
+
+  private static final Logger            logger         = LoggerFactory.getLogger(Pipeline.class);
+
+  static {
+    // hedge requests slower than this percentile of the primary source's latencies
+    final String percentile = System.getProperty(Converter.class.getName() + ".hedgePercentile", "95");
+    double hedgePercentile;
+    try {
+      hedgePercentile = Double.parseDouble(percentile);
+      if (hedgePercentile < 0 || hedgePercentile > 100) {
+        throw new NumberFormatException(percentile);
+      }
+    }
+    catch (final NumberFormatException nfE) {
+      hedgePercentile = 95;
+      logger.warn("Invalid hedge percentile: {}, using {}", percentile, hedgePercentile, nfE);
+    }
+    HEDGE_PERCENTILE = hedgePercentile;
+  }
+
+  /**
+   * A request to a source, throttled against the source's host.
+   */
+  interface Request<V> {
+    V execute() throws IOException;
+  }
+
+  /**
+   * @param sources primary source first
+   * @param reader reads the primary source; other sources use their own
+   * @param transport of the primary source; other sources use their own
+   * @param strategy creates the pipeline's own thread pools on demand
+   * @param fetchers runs fetches, <code>strategy</code>'s
+   *          <code>LARGE</code> threads at most
+   * @param hedgers runs attempts raced across sources
+   */
+  Pipeline(final List<? extends Source> sources,
+           final TextReader reader,
+           final Transport transport,
+           final ExecutorStrategy strategy,
+           final Executor fetchers,
+           final Executor hedgers) {
+    final Source primary = sources.get(0);
+    final List<Endpoint> chain = new ArrayList<>(sources.size());
+    chain.add(new Endpoint(primary, reader, transport));
+    for (final Source fallback : sources.subList(1, sources.size())) {
+      chain.add(new Endpoint(fallback, fallback.newReader(), fallback.newTransport()));
+    }
+    endpoints = Collections.unmodifiableList(chain);
+    logger.debug("Sources: {}", endpoints);
+
+    this.strategy = strategy;
+    this.hedgers = hedgers;
+
+    final int threads = strategy.maxConcurrency(LARGE);
+    maxInFlight = (threads == Integer.MAX_VALUE) ? MAX_IN_FLIGHT : 2 * threads;
+    fetchStage = new Stage("fetch", fetchers, Math.min(threads, maxInFlight), maxInFlight);
+    logger.debug("Tasks in flight: {}", maxInFlight);
+    transformStage = new Stage("transform", transformers, TRANSFORMERS, 2 * TRANSFORMERS);
+    writeStage = new Stage("write", writers, WRITERS, 2 * WRITERS);
+  }
+
+  /**
+   * Aborts requests overrunning the source's deadline.
+   */
+  private final synchronized ScheduledExecutorService deadlines() {
+    if (deadlines == null) {
+      deadlines = strategy.newScheduler("Deadlines-" + endpoints.get(0));
+      logger.debug("Scheduler created: deadlines");
+    }
+    return deadlines;
+  }
+
+  /**
+   * A thread pool of a stage's own, created by the strategy on first use.
+   */
+  private final class LazyThreadPool implements Executor {
+
+    private final String    name;
+    private final PoolSize  size;
+    private ExecutorService threadPool;
+
+    LazyThreadPool(final String name, final PoolSize size) {
+      this.name = name;
+      this.size = size;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+      threadPool(true).execute(command);
+    }
+
+    /**
+     * @param create whether to create the thread pool if not yet created
+     * @return the thread pool, or null if neither created nor to be
+     */
+    synchronized ExecutorService threadPool(final boolean create) {
+      if (threadPool == null && create) {
+        threadPool = strategy.newExecutor(size);
+        logger.debug("Thread pool created: {} ({})", name, size);
+      }
+      return threadPool;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+
+  }
+
+  /**
+   * @return true if reads are hedged across several sources
+   */
+  final boolean isHedged() {
+    return endpoints.size() > 1;
+  }
+
+  /**
+   * Aborts the connection <code>thread</code> is reading from, if any, on
+   * every source.
+   */
+  final void abort(final Thread thread) {
+    for (final Endpoint endpoint : endpoints) {
+      endpoint.transport.abort(thread);
+    }
+  }
+
+  /**
+   * @return the stage tasks are fetched in
+   */
+  final Stage fetchStage() {
+    return fetchStage;
+  }
+
+  /**
+   * @return the maximum number of tasks submitted but not yet retrieved
+   */
+  final int maxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * @return nanoseconds a task may take to read from the primary source and
+   *         fail over to each fallback source in turn
+   */
+  final long deadline() {
+    long deadline = 0;
+    for (final Endpoint endpoint : endpoints) {
+      deadline += TimeUnit.MILLISECONDS.toNanos(endpoint.source.deadline());
+    }
+    return deadline;
+  }
+
+  /**
+   * Executes <code>request</code> against the primary source.
+   *
+   * @see #throttle(Endpoint, Request, String)
+   */
+  final <V> V throttle(final Request<V> request, final String symbol) throws IOException, InterruptedException {
+    return throttle(endpoints.get(0), request, symbol);
+  }
+
+  /**
+   * Executes <code>request</code> once the source's host admits another
+   * concurrent request, feeding the request's latency and outcome back into the
+   * host's concurrency limit. Requests overrunning the source's deadline,
+   * including any wait for the host to admit them, are aborted and fail with a
+   * <code>SocketTimeoutException</code>.
+   */
+  private final <V> V throttle(final Endpoint endpoint, final Request<V> request, final String symbol)
+      throws IOException, InterruptedException {
+    final Deadline deadline = new Deadline(endpoint);
+    final HostLimiter limiter = limiter(endpoint.source.host());
+    boolean admitted = false;
+    try {
+      admitted = limiter.tryAcquire(deadline.remaining(), TimeUnit.NANOSECONDS);
+    }
+    finally {
+      if (!admitted) {
+        deadline.cancel();
+      }
+    }
+    if (!admitted) {
+      throw new SocketTimeoutException("Deadline of " + endpoint.source.deadline() + " ms exceeded awaiting " + limiter + ": " + symbol);
+    }
+
+    Outcome outcome = Outcome.IGNORED;
+    final long start = System.nanoTime();
+    try {
+      final V result = request.execute();
+      outcome = Outcome.SUCCESS;
+      return result;
+    }
+    catch (final IOException ioE) {
+      if (deadline.cancel()) {
+        outcome = Outcome.TIMEOUT;
+        final SocketTimeoutException stE = new SocketTimeoutException("Deadline of " + endpoint.source.deadline() + " ms exceeded: " + symbol);
+        stE.initCause(ioE);
+        throw stE;
+      }
+      outcome = HostLimiter.classify(ioE);
+      throw ioE;
+    }
+    finally {
+      deadline.cancel();
+      final long latency = System.nanoTime() - start;
+      if (outcome == Outcome.SUCCESS) {
+        endpoint.latencies.record(latency);
+      }
+      else { // cancelled, failed or overran the deadline
+        endpoint.latencies.recordCensored(latency);
+      }
+      limiter.release(latency, outcome);
+    }
+  }
+
+  /**
+   * Aborts the connection of the thread that created it should the source's
+   * deadline pass before it is cancelled.
+   */
+  private final class Deadline implements Runnable {
+
+    private final Thread             thread = Thread.currentThread();
+    private final Transport          transport;
+    private final long               expiry;   // System.nanoTime()
+    private final ScheduledFuture<?> future;
+    private boolean                  expired;
+    private boolean                  cancelled;
+
+    Deadline(final Endpoint endpoint) {
+      transport = endpoint.transport;
+      final long deadline = TimeUnit.MILLISECONDS.toNanos(endpoint.source.deadline());
+      expiry = System.nanoTime() + deadline;
+      future = deadlines().schedule(this, deadline, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized void run() {
+      if (!cancelled) {
+        expired = true;
+        transport.abort(thread);
+      }
+    }
+
+    /**
+     * @return nanoseconds until the deadline passes, negative once passed
+     */
+    long remaining() {
+      return expiry - System.nanoTime();
+    }
+
+    /**
+     * @return true if the deadline passed
+     */
+    synchronized boolean cancel() {
+      if (!cancelled) {
+        cancelled = true;
+        future.cancel(false);
+      }
+      return expired;
+    }
+
+  }
+
+  private final HostLimiter limiter(final String host) {
+    synchronized (limiters) {
+      HostLimiter limiter;
+      if ((limiter = limiters.get(host)) == null) {
+        limiters.put(host, limiter = new HostLimiter(host, INITIAL_LIMIT, MAX_LIMIT));
+        logger.debug("New host limiter: {}", limiter);
+      }
+      return limiter;
+    }
+  }
+
+  /**
+   * @return the current concurrency limit of each host contacted so far
+   */
+  Map<String, Integer> concurrencyLimits() {
+    final Map<String, Integer> limits = new TreeMap<>();
+    synchronized (limiters) {
+      for (final HostLimiter limiter : limiters.values()) {
+        limits.put(limiter.host(), limiter.limit());
+      }
+    }
+    return limits;
+  }
+
+  /**
+   * @return the number of requests to each host contacted so far that overran
+   *         the source's deadline
+   */
+  Map<String, Integer> timeouts() {
+    final Map<String, Integer> timeouts = new TreeMap<>();
+    synchronized (limiters) {
+      for (final HostLimiter limiter : limiters.values()) {
+        timeouts.put(limiter.host(), limiter.timeouts());
+      }
+    }
+    return timeouts;
+  }
+
+  /**
+   * @return the cumulative request timings of each source's transport
+   */
+  Map<String, Transport.Timings> transportTimings() {
+    final Map<String, Transport.Timings> timings = new LinkedHashMap<>();
+    for (final Endpoint endpoint : endpoints) {
+      timings.put(endpoint.toString(), endpoint.transport.timings());
+    }
+    return timings;
+  }
+
+  /**
+   * @return the number of tasks waiting for a thread in each pipeline stage
+   */
+  Map<String, Integer> queueDepths() {
+    final Map<String, Integer> depths = new LinkedHashMap<>();
+    for (final Stage stage : stages()) {
+      depths.put(stage.toString(), stage.queued());
+    }
+    return depths;
+  }
+
+  /**
+   * @return the fraction of thread time each pipeline stage has spent running
+   *         tasks since its first task
+   */
+  Map<String, Double> utilisations() {
+    final Map<String, Double> utilisations = new LinkedHashMap<>();
+    for (final Stage stage : stages()) {
+      utilisations.put(stage.toString(), stage.utilisation());
+    }
+    return utilisations;
+  }
+
+  private final List<Stage> stages() {
+    return Arrays.asList(fetchStage, transformStage, writeStage);
+  }
+
+  /**
+   * @return the number of fetches and streams shared with concurrent reads
+   */
+  final int sharedFetches() {
+    return fetches.shared() + streams.shared();
+  }
+
+  /**
+   * @return the number of hedge and fail-over requests sent
+   */
+  final int hedges() {
+    return hedges.get();
+  }
+
+  /**
+   * @return the number of reads won by fallback sources
+   */
+  final int fallbacksWon() {
+    return fallbacksWon.get();
+  }
+
+  /**
+   * Reads and transforms <code>symbol</code>, hedging across sources if there
+   * are several.
+   *
+   * @param output what the response is transformed into
+   */
+  final <T> T read(final String symbol,
+                   final Exchanges exchange,
+                   final Interval interval,
+                   final Output<T> output)
+      throws IOException {
+    if (endpoints.size() > 1) {
+      try {
+        return hedge(symbol, exchange, interval, output);
+      }
+      catch (final InterruptedException iE) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted converting: " + symbol);
+      }
+    }
+    return read(endpoints.get(0), symbol, exchange, interval, output);
+  }
+
+  /**
+   * Reads and transforms <code>symbol</code>, sharing the response and
+   * transformation with concurrent reads of the same symbol from the same
+   * <code>URL</code>, e.g. when several exchanges map to one.
+   *
+   * @return the lines or bars transformed, which must not be modified
+   */
+  private final <T> T read(final Endpoint endpoint,
+                           final String symbol,
+                           final Exchanges exchange,
+                           final Interval interval,
+                           final Output<T> output)
+      throws IOException {
+    final URL url = endpoint.source.url(symbol,
+                                        exchange,
+                                        interval.start(),
+                                        interval.end(),
+                                        interval.frequency());
+    try {
+      // some sources serve many symbols from one URL
+      return output.cast(fetches.execute(url.toExternalForm() + SPACE + symbol + SPACE + output, new Callable<Object>() {
+        @Override
+        public Object call() throws Exception {
+          return read(endpoint, symbol, url, output);
+        }
+      }));
+    }
+    catch (final ExecutionException eE) {
+      throw unwrap(eE);
+    }
+    catch (final InterruptedException iE) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted reading: " + url);
+    }
+  }
+
+  private final <T> T read(final Endpoint endpoint, final String symbol, final URL url, final Output<T> output)
+      throws IOException {
+    if (endpoint.parsed) {
+      return parse(endpoint, symbol, url, output);
+    }
+
+    // leave column header skipping to transformer
+    final List<String> lines;
+    try (final InputStream stream = endpoint.transport.open(url)) {
+      lines = endpoint.reader.read(stream);
+    }
+
+    // transform off the fetching thread
+    final Source source = endpoint.source;
+    final T transformed;
+    try {
+      transformed = call(transformStage, new Callable<T>() {
+        @Override
+        public T call() throws Exception {
+          return output.transform(source, symbol, lines);
+        }
+      });
+      if (output.isEmpty(transformed)) {
+        logger.warn("Empty URL: {}", url);
+        throw new IOException("Empty URL: " + url);
+      }
+    }
+    catch (final IOException | RuntimeException e) { // not to be served again
+      endpoint.transport.discard(url);
+      throw e;
+    }
+    return transformed;
+  }
+
+  /**
+   * Parses the response as it is read from the transport, without reading it
+   * into lines first. The fetching thread waits while the transform stage
+   * reads and parses the response.
+   */
+  private final <T> T parse(final Endpoint endpoint, final String symbol, final URL url, final Output<T> output)
+      throws IOException {
+    final Source source = endpoint.source;
+    final InputStream stream = endpoint.transport.open(url);
+    final T parsed;
+    try {
+      try {
+        parsed = call(transformStage, new Callable<T>() {
+          @Override
+          public T call() throws Exception {
+            return output.parse(source, symbol, new InputStreamReader(stream, StandardCharsets.UTF_8));
+          }
+        });
+      }
+      finally {
+        stream.close();
+      }
+      if (output.isEmpty(parsed)) {
+        logger.warn("Empty URL: {}", url);
+        throw new IOException("Empty URL: " + url);
+      }
+    }
+    catch (final IOException | RuntimeException e) { // not to be served again
+      endpoint.transport.discard(url);
+      throw e;
+    }
+    return parsed;
+  }
+
+  /**
+   * @return true if conversions from the primary source, when it is the only
+   *         source, are streamed rather than read whole
+   */
+  final boolean isStreamable() {
+    return endpoints.size() == 1 && endpoints.get(0).streamable;
+  }
+
+  /**
+   * Streams <code>symbol</code> from the primary source to
+   * <code>destination</code>.
+   *
+   * @see #stream(Endpoint, String, Exchanges, Interval, File)
+   */
+  final LineTally stream(final String symbol, final Exchanges exchange, final Interval interval, final File destination)
+      throws IOException {
+    return stream(endpoints.get(0), symbol, exchange, interval, destination);
+  }
+
+  /**
+   * Reads, transforms and writes <code>symbol</code> a line at a time, so that
+   * memory does not grow with the length of its history. Concurrent
+   * conversions of the same symbol from the same <code>URL</code> share the
+   * file written, copying it to their own destinations.
+   * <p>
+   * The fetching thread only spools the response to a file beside the
+   * destination, and the transform stage streams the spool through the
+   * transform. Lines are written as they are transformed, in the transform
+   * stage rather than the write stage, as handing them over would hold them
+   * all in memory.
+   *
+   * @return the tally of the lines written
+   */
+  private final LineTally stream(final Endpoint endpoint,
+                                 final String symbol,
+                                 final Exchanges exchange,
+                                 final Interval interval,
+                                 final File destination)
+      throws IOException {
+    final URL url = endpoint.source.url(symbol,
+                                        exchange,
+                                        interval.start(),
+                                        interval.end(),
+                                        interval.frequency());
+    final Streamed streamed;
+    try {
+      streamed = streams.execute(url.toExternalForm() + SPACE + symbol, new Callable<Streamed>() {
+        @Override
+        public Streamed call() throws Exception {
+          final Path spool = Files.createTempFile(destination.getAbsoluteFile().getParentFile().toPath(),
+                                                  destination.getName(),
+                                                  SPOOL);
+          try {
+            try (final InputStream stream = endpoint.transport.open(url)) {
+              Files.copy(stream, spool, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // transform off the fetching thread
+            final Source source = endpoint.source;
+            final LineTally tally = new LineTally();
+            try {
+              final int lines = Pipeline.call(transformStage, new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                  final StreamingTransformer transformer = new StreamingTransformer(source.newBufferTransform(symbol),
+                                                                                    source.headerRows(),
+                                                                                    source.isReversed());
+                  try (final InputStream stream = Files.newInputStream(spool)) {
+                    return transformer.transform(stream, destination, tally);
+                  }
+                }
+              });
+              if (lines == 0) {
+                logger.warn("Empty URL: {}", url);
+                throw new IOException("Empty URL: " + url);
+              }
+            }
+            catch (final IOException | RuntimeException e) { // not to be served again
+              endpoint.transport.discard(url);
+              throw e;
+            }
+            return new Streamed(destination, tally);
+          }
+          finally {
+            Files.deleteIfExists(spool);
+          }
+        }
+      });
+    }
+    catch (final ExecutionException eE) {
+      throw unwrap(eE);
+    }
+    catch (final InterruptedException iE) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted reading: " + url);
+    }
+
+    if (!streamed.file.equals(destination)) {
+      Files.copy(streamed.file.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    return streamed.tally;
+  }
+
+  /**
+   * A file streamed and the tally of its lines, shared by concurrent
+   * conversions of the same symbol from the same <code>URL</code>.
+   */
+  private static final class Streamed {
+
+    final File      file;
+    final LineTally tally;
+
+    Streamed(final File file, final LineTally tally) {
+      this.file = file;
+      this.tally = tally;
+    }
+
+  }
+
+  /**
+   * Writes in the write stage, waiting for the write to complete.
+   */
+  final <V> V write(final Callable<V> write) throws IOException {
+    return call(writeStage, write);
+  }
+
+  /**
+   * Executes <code>call</code> on <code>stage</code> and waits for it to
+   * complete.
+   */
+  private static final <V> V call(final Stage stage, final Callable<V> call) throws IOException {
+    try {
+      return stage.call(call);
+    }
+    catch (final ExecutionException eE) {
+      throw unwrap(eE);
+    }
+    catch (final InterruptedException iE) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted in stage: " + stage);
+    }
+  }
+
+  /**
+   * @return the cause of <code>eE</code> as an <code>IOException</code>
+   * @throws RuntimeException if the cause of <code>eE</code> is one
+   * @throws Error if the cause of <code>eE</code> is one
+   */
+  private static final IOException unwrap(final ExecutionException eE) {
+    final Throwable cause = eE.getCause();
+    if (cause instanceof IOException) {
+      return (IOException) cause;
+    }
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new IOException(cause);
+  }
+
+  /**
+   * Reads from the primary source, sending a hedge request to the next source
+   * in the chain whenever no response arrives within the primary's
+   * <code>HEDGE_PERCENTILE</code> latency, and failing over immediately on
+   * failure. The first valid response wins and the others are cancelled.
+   */
+  private final <T> T hedge(final String symbol,
+                            final Exchanges exchange,
+                            final Interval interval,
+                            final Output<T> output)
+      throws IOException, InterruptedException {
+    final Iterator<Endpoint> chain = chain(exchange).iterator();
+    final CompletionService<T> race = new ExecutorCompletionService<>(hedgers);
+    final Map<Future<T>, Attempt<T>> attempts = new HashMap<>();
+    final long delay = hedgeDelay();
+
+    IOException failure = null;
+    try {
+      final Attempt<T> primary = new Attempt<>(chain.next(), symbol, exchange, interval, output);
+      attempts.put(race.submit(primary), primary);
+      while (!attempts.isEmpty()) {
+        final Future<T> future = chain.hasNext() ? race.poll(delay, TimeUnit.NANOSECONDS)
+                                                    : race.take();
+        if (future == null) { // slower than usual
+          final Attempt<T> hedge = new Attempt<>(chain.next(), symbol, exchange, interval, output);
+          attempts.put(race.submit(hedge), hedge);
+          hedges.incrementAndGet();
+          logger.debug("Hedging {} with {}", symbol, hedge);
+          continue;
+        }
+
+        final Attempt<T> attempt = attempts.remove(future);
+        try {
+          final T transformed = future.get();
+          if (attempt != primary) {
+            fallbacksWon.incrementAndGet();
+            logger.info("{} read from fallback: {}", symbol, attempt);
+          }
+          return transformed;
+        }
+        catch (final ExecutionException eE) {
+          final Throwable cause = eE.getCause();
+          failure = (cause instanceof IOException) ? (IOException) cause : new IOException(cause);
+          logger.debug("{} failed to read {}", attempt, symbol, cause);
+          if (chain.hasNext()) { // fail over
+            final Attempt<T> fallback = new Attempt<>(chain.next(), symbol, exchange, interval, output);
+            attempts.put(race.submit(fallback), fallback);
+            hedges.incrementAndGet();
+          }
+        }
+      }
+      throw failure;
+    }
+    finally {
+      // cancel losers
+      for (final Entry<Future<T>, Attempt<T>> loser : attempts.entrySet()) {
+        loser.getKey().cancel(true);
+        loser.getValue().abort();
+      }
+    }
+  }
+
+  /**
+   * @return the primary source followed by those fallback sources supporting
+   *         <code>exchange</code>
+   */
+  private final List<Endpoint> chain(final Exchanges exchange) {
+    final List<Endpoint> chain = new ArrayList<>(endpoints.size());
+    chain.add(endpoints.get(0));
+    for (final Endpoint endpoint : endpoints.subList(1, endpoints.size())) {
+      if (exchange == null || endpoint.source.exchanges().contains(exchange)) {
+        chain.add(endpoint);
+      }
+    }
+    return chain;
+  }
+
+  /**
+   * @return nanoseconds to wait for the primary source before hedging
+   */
+  private final long hedgeDelay() {
+    final Endpoint primary = endpoints.get(0);
+    // until latencies are known, only fail over
+    return (primary.latencies.count() < MIN_LATENCIES) ?
+           TimeUnit.MILLISECONDS.toNanos(primary.source.deadline()) :
+           primary.latencies.percentile(HEDGE_PERCENTILE);
+  }
+
+  /**
+   * A source in the chain, with its own reader, connections and latencies.
+   * Responses are streamed or parsed as read only if the source is streamable
+   * or parsed and read as plain text, since other readers, e.g. of archives,
+   * decode whole responses.
+   */
+  private static final class Endpoint {
+
+    final Source         source;
+    final TextReader     reader;
+    final Transport      transport;
+    final boolean        streamable;
+    final boolean        parsed;
+    final LatencyTracker latencies = new LatencyTracker(LATENCY_WINDOW);
+
+    Endpoint(final Source source, final TextReader reader, final Transport transport) {
+      this.source = source;
+      this.reader = reader;
+      this.transport = transport;
+      streamable = source.isStreamable() && reader.getClass() == TextReader.class;
+      parsed = source.isParsed() && reader.getClass() == TextReader.class;
+    }
+
+    @Override
+    public String toString() {
+      return source.directory();
+    }
+
+  }
+
+  /**
+   * What responses are transformed into: lines, written to text files and
+   * merged verbatim, or bars, for bar files only.
+   */
+  abstract static class Output<T> {
+
+    static final Output<List<String>> LINES = new Output<List<String>>("lines") {
+      @Override
+      List<String> transform(final Source source, final String symbol, final List<String> lines) {
+        source.newTransformer(source.newTransform(symbol)).transform(lines);
+        return Collections.unmodifiableList(lines);
+      }
+
+      @Override
+      List<String> parse(final Source source, final String symbol, final Reader in) throws IOException {
+        return Collections.unmodifiableList(source.parse(symbol, in));
+      }
+
+      @Override
+      boolean isEmpty(final List<String> lines) {
+        return lines.isEmpty();
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      List<String> cast(final Object lines) {
+        return (List<String>) lines;
+      }
+    };
+
+    static final Output<BarSeries>    BARS  = new Output<BarSeries>("bars") {
+      @Override
+      BarSeries transform(final Source source, final String symbol, final List<String> lines) throws IOException {
+        return source.newBarSeries(symbol, lines);
+      }
+
+      @Override
+      BarSeries parse(final Source source, final String symbol, final Reader in) throws IOException {
+        return source.newBarSeries(symbol, in);
+      }
+
+      @Override
+      boolean isEmpty(final BarSeries bars) {
+        return bars.isEmpty();
+      }
+
+      @Override
+      BarSeries cast(final Object bars) {
+        return (BarSeries) bars;
+      }
+    };
+
+    private final String              name;
+
+    Output(final String name) {
+      this.name = name;
+    }
+
+    abstract T transform(final Source source, final String symbol, final List<String> lines) throws IOException;
+
+    abstract T parse(final Source source, final String symbol, final Reader in) throws IOException;
+
+    abstract boolean isEmpty(final T transformed);
+
+    /**
+     * @return a result shared through <code>fetches</code>
+     */
+    abstract T cast(final Object transformed);
+
+    @Override
+    public String toString() {
+      return name;
+    }
+
+  }
+
+  /**
+   * A read of a symbol from a single source, which can be aborted while in
+   * flight.
+   */
+  private final class Attempt<T> implements Callable<T> {
+
+    private final Endpoint  endpoint;
+    private final String    symbol;
+    private final Exchanges exchange;
+    private final Interval  interval;
+    private final Output<T> output;
+
+    private Thread          thread;   // null unless running
+
+    Attempt(final Endpoint endpoint,
+            final String symbol,
+            final Exchanges exchange,
+            final Interval interval,
+            final Output<T> output) {
+      this.endpoint = endpoint;
+      this.symbol = symbol;
+      this.exchange = exchange;
+      this.interval = interval;
+      this.output = output;
+    }
+
+    @Override
+    public T call() throws Exception {
+      synchronized (this) {
+        thread = Thread.currentThread();
+      }
+      try {
+        return throttle(endpoint, new Request<T>() {
+          @Override
+          public T execute() throws IOException {
+            return read(endpoint, symbol, exchange, interval, output);
+          }
+        }, symbol);
+      }
+      finally {
+        synchronized (this) {
+          thread = null;
+        }
+      }
+    }
+
+    synchronized void abort() {
+      if (thread != null) {
+        endpoint.transport.abort(thread);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return endpoint.toString();
+    }
+
+  }
+
+  /**
+   * Shuts down the pipeline's own thread pools once the threads feeding it
+   * have terminated.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  final void stop() throws InterruptedException {
+    synchronized (this) {
+      if (deadlines != null) {
+        deadlines.shutdownNow();
+      }
+    }
+    for (final LazyThreadPool stagePool : Arrays.asList(transformers, writers)) {
+      final ExecutorService threadPool = stagePool.threadPool(false);
+      if (threadPool != null) {
+        threadPool.shutdown();
+        threadPool.awaitTermination(Short.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,404 @@
+/**
+ * ShardLeases.java  v0.1  18 October 2026 7:05:44 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Leases on the shards of a job, held as files in a directory shared by the
+ * workers of the job, so that workers in different processes or on different
+ * machines can divide the job between themselves without a coordinator.
+ * <p>
+ * A worker leases a shard by creating its lease file, which fails if another
+ * worker holds it, and keeps the lease alive by touching the file. Lease files
+ * are numbered by generation. A lease not touched within its time-to-live has
+ * expired, and is taken over by creating the file of the next generation,
+ * which only one worker can do, as a compare-and-swap on the generation. The
+ * file of a live lease is never moved or replaced, so its holder never finds
+ * it missing by mistake. A holder detects the loss of its lease on the next
+ * heartbeat, by the next generation's file appearing or its own file being
+ * removed. Completed shards are marked by a done file.
+ * <p>
+ * Expiry relies on the clocks of the workers and the shared storage agreeing
+ * to within a fraction of the time-to-live.
+ * <p>
+ * System property: org.ikankechil.eod3.ShardLeases.ttl
+ * <p>
+ * default: 60000 milliseconds
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+class ShardLeases implements Closeable {
+
+  private final Path                     directory;
+  private final String                   worker;
+  private final long                     ttl;     // milliseconds
+  private final List<Lease>              held    = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService heartbeats;
+
+  private static final String            SHARDS  = ".shards";
+  private static final String            LEASE   = ".lease";
+  private static final String            DONE    = ".done";
+  private static final char              DOT     = '.';
+
+  static final long                      TTL;
+
+  private static final Logger            logger  = LoggerFactory.getLogger(ShardLeases.class);
+
+  static {
+    final String ttl = System.getProperty(ShardLeases.class.getName() + ".ttl", "60000");
+    long leaseTtl;
+    try {
+      leaseTtl = Long.parseLong(ttl);
+      if (leaseTtl <= 0) {
+        throw new NumberFormatException(ttl);
+      }
+    }
+    catch (final NumberFormatException nfE) {
+      leaseTtl = TimeUnit.MINUTES.toMillis(1);
+      logger.warn("Invalid lease time-to-live: {}, using {}", ttl, leaseTtl, nfE);
+    }
+    TTL = leaseTtl;
+  }
+
+  ShardLeases(final File directory, final String job) throws IOException {
+    this(directory, job, TTL);
+  }
+
+  /**
+   * @param directory shared by the workers of the job
+   * @param job identifies the job, e.g. by action, symbols file and interval
+   * @param ttl lease time-to-live in milliseconds
+   * @throws IOException if the lease directory cannot be created
+   */
+  ShardLeases(final File directory, final String job, final long ttl) throws IOException {
+    if (ttl <= 0) {
+      throw new IllegalArgumentException("Non-positive time-to-live: " + ttl);
+    }
+    this.directory = Files.createDirectories(new File(directory,
+                                                      Integer.toHexString(job.hashCode()) + SHARDS).toPath());
+    worker = ManagementFactory.getRuntimeMXBean().getName() + DOT + UUID.randomUUID();
+    this.ttl = ttl;
+
+    heartbeats = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "Heartbeats-" + ShardLeases.this.directory.getFileName());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    final long period = heartbeat();
+    heartbeats.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        for (final Lease lease : held) {
+          lease.renew();
+        }
+      }
+    }, period, period, TimeUnit.MILLISECONDS);
+    logger.info("Worker {} leasing shards in {}", worker, this.directory);
+  }
+
+  /**
+   * Divides the symbols of each exchange into shards of up to
+   * <code>size</code> symbols, in the same way for every worker.
+   *
+   * @param markets symbols by exchange
+   * @param size
+   * @return shards ordered by exchange and symbol
+   */
+  static final List<Shard> shards(final Map<String, Set<String>> markets, final int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Non-positive shard size: " + size);
+    }
+    final List<Shard> shards = new ArrayList<>();
+    for (final Entry<String, Set<String>> market : new TreeMap<>(markets).entrySet()) {
+      final Iterator<String> symbols = new TreeSet<>(market.getValue()).iterator();
+      for (int index = 0; symbols.hasNext(); ++index) {
+        final Set<String> shard = new TreeSet<>();
+        while (shard.size() < size && symbols.hasNext()) {
+          shard.add(symbols.next());
+        }
+        shards.add(new Shard(market.getKey(), index, shard));
+      }
+    }
+    return shards;
+  }
+
+  /**
+   * @return milliseconds between heartbeats
+   */
+  long heartbeat() {
+    return Math.max(1, ttl / 4);
+  }
+
+  boolean isDone(final Shard shard) {
+    return Files.exists(file(shard, DONE));
+  }
+
+  /**
+   * Leases <code>shard</code> unless it is done or another worker holds an
+   * unexpired lease on it.
+   *
+   * @param shard
+   * @return the lease, or null if not available
+   * @throws IOException
+   */
+  Lease acquire(final Shard shard) throws IOException {
+    if (isDone(shard)) {
+      return null;
+    }
+
+    final int current = generation(shard);
+    if (current >= 0 && isLive(lease(shard, current))) {
+      return null;
+    }
+    final int generation = current + 1;
+    final Path file = lease(shard, generation);
+    if (!create(file)) { // taken by another worker first
+      return null;
+    }
+    if (current >= 0) {
+      final Path expired = lease(shard, current);
+      // the lease may have been renewed since it was checked
+      if (isLive(expired)) {
+        Files.deleteIfExists(file);
+        return null;
+      }
+      Files.deleteIfExists(expired);
+      logger.info("Expired lease taken over: {} (generation {})", shard, generation);
+    }
+    // the shard may have been completed while its lease was being released
+    if (isDone(shard)) {
+      Files.deleteIfExists(file);
+      return null;
+    }
+
+    final Lease lease = new Lease(shard, generation, file);
+    held.add(lease);
+    logger.info("Shard leased: {} {}", shard, shard.symbols.size());
+    return lease;
+  }
+
+  private final boolean create(final Path file) throws IOException {
+    try {
+      Files.write(file, worker.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+      return true;
+    }
+    catch (final FileAlreadyExistsException faeE) {
+      return false;
+    }
+  }
+
+  /**
+   * @return the latest generation of the lease files of <code>shard</code>,
+   *         or -1 if there are none
+   */
+  private final int generation(final Shard shard) throws IOException {
+    final String prefix = shard.toString() + DOT;
+    int generation = -1;
+    try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (final Path file : files) {
+        final String name = file.getFileName().toString();
+        if (name.startsWith(prefix) && name.endsWith(LEASE)) {
+          try {
+            generation = Math.max(generation,
+                                  Integer.parseInt(name.substring(prefix.length(), name.length() - LEASE.length())));
+          }
+          catch (final NumberFormatException nfE) {
+            logger.debug("Not a lease file: {}", file);
+          }
+        }
+      }
+    }
+    return generation;
+  }
+
+  /**
+   * @return true if <code>file</code> exists and was touched within the
+   *         time-to-live
+   */
+  private final boolean isLive(final Path file) throws IOException {
+    try {
+      return System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() <= ttl;
+    }
+    catch (final NoSuchFileException nsfE) { // released or taken over
+      return false;
+    }
+  }
+
+  private final Path lease(final Shard shard, final int generation) {
+    return file(shard, DOT + Integer.toString(generation) + LEASE);
+  }
+
+  private final Path file(final Shard shard, final String extension) {
+    return directory.resolve(shard.toString() + extension);
+  }
+
+  /**
+   * Releases all leases held and stops renewing them.
+   */
+  @Override
+  public void close() throws IOException {
+    heartbeats.shutdownNow();
+    for (final Lease lease : held) {
+      lease.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return worker;
+  }
+
+  /**
+   * A range of the symbols of an exchange.
+   */
+  static final class Shard {
+
+    final String      exchange;
+    final int         index;
+    final Set<String> symbols;
+
+    Shard(final String exchange, final int index, final Set<String> symbols) {
+      this.exchange = exchange;
+      this.index = index;
+      this.symbols = Collections.unmodifiableSet(symbols);
+    }
+
+    @Override
+    public String toString() {
+      return exchange + DOT + index;
+    }
+
+  }
+
+  /**
+   * A lease on a shard, renewed by heartbeats until completed, released or
+   * lost to another worker.
+   */
+  final class Lease implements Closeable {
+
+    private final Shard      shard;
+    private final int        generation;
+    private final Path       file;
+    private volatile boolean lost;
+
+    Lease(final Shard shard, final int generation, final Path file) {
+      this.shard = shard;
+      this.generation = generation;
+      this.file = file;
+    }
+
+    Shard shard() {
+      return shard;
+    }
+
+    /**
+     * @return the worker holding this lease
+     */
+    String worker() {
+      return worker;
+    }
+
+    /**
+     * @return true if another worker took over this lease
+     */
+    boolean isLost() {
+      return lost;
+    }
+
+    synchronized void renew() {
+      if (!lost) {
+        try {
+          if (isOwned()) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return;
+          }
+        }
+        catch (final NoSuchFileException nsfE) { // removed by the worker taking over
+          logger.debug("Lease file removed: {}", file);
+        }
+        catch (final IOException ioE) {
+          logger.warn("Cannot renew lease: {}", shard, ioE);
+          return;
+        }
+        lost = true;
+        held.remove(this);
+        logger.warn("Lease lost: {}", shard);
+      }
+    }
+
+    /**
+     * @return true if the lease file of this generation still exists and that
+     *         of the next does not
+     */
+    private final boolean isOwned() {
+      return Files.exists(file) && !Files.exists(lease(shard, generation + 1));
+    }
+
+    /**
+     * Marks the shard done and releases this lease.
+     *
+     * @throws IOException if the shard cannot be marked done
+     */
+    synchronized void complete() throws IOException {
+      if (!lost) {
+        Files.write(file(shard, DONE), worker.getBytes(StandardCharsets.UTF_8));
+        logger.info("Shard done: {}", shard);
+      }
+      close();
+    }
+
+    /**
+     * Releases this lease, unless lost.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+      if (held.remove(this) && !lost && isOwned()) {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return shard.toString();
+    }
+
+  }
+
+}
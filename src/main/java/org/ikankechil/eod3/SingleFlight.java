@@ -0,0 +1,63 @@
+/**
+ * SingleFlight.java  v0.1  18 October 2026 5:40:03 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * De-duplicates concurrent calls with the same key: the first caller executes
+ * the call, while callers arriving before it completes wait for and share its
+ * result or failure. Results are not retained once the call completes.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+class SingleFlight<V> {
+
+  private final ConcurrentMap<String, FutureTask<V>> flights = new ConcurrentHashMap<>();
+  private final AtomicInteger                        shared  = new AtomicInteger();
+
+  /**
+   * Executes <code>call</code> in the current thread unless a call with the
+   * same key is already in flight, in which case its outcome is shared.
+   *
+   * @param key
+   * @param call
+   * @return the result of <code>call</code> or of the call in flight
+   * @throws ExecutionException if the call throws an exception
+   * @throws InterruptedException if interrupted while waiting for a call in
+   *           flight
+   */
+  V execute(final String key, final Callable<V> call) throws ExecutionException, InterruptedException {
+    final FutureTask<V> task = new FutureTask<>(call);
+    final FutureTask<V> flight = flights.putIfAbsent(key, task);
+    if (flight != null) {
+      shared.incrementAndGet();
+      return flight.get();
+    }
+
+    try {
+      task.run();
+      return task.get();
+    }
+    finally {
+      flights.remove(key, task);
+    }
+  }
+
+  /**
+   * @return number of calls that shared the outcome of another call in flight
+   */
+  int shared() {
+    return shared.get();
+  }
+
+}
@@ -0,0 +1,162 @@
+/**
+ * Stage.java  v0.1  18 October 2026 6:21:37 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pipeline stage running tasks on its own <code>Executor</code>, with a
+ * bounded number of tasks queued or running. Submitters block while the stage
+ * is full, pushing back on upstream stages.
+ * <p>
+ * Queue depth and utilisation are tracked so that bottlenecks are visible.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+class Stage implements Executor {
+
+  private final String        name;
+  private final Executor      executor;
+  private final int           threads;
+  private final Semaphore     capacity;
+
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger active = new AtomicInteger();
+  private final AtomicLong    busy   = new AtomicLong();   // nanoseconds
+  private final AtomicLong    start  = new AtomicLong(-1); // first submission
+
+  /**
+   * @param name
+   * @param executor runs tasks
+   * @param threads number of tasks <code>executor</code> runs concurrently
+   * @param capacity maximum number of tasks queued or running
+   */
+  Stage(final String name, final Executor executor, final int threads, final int capacity) {
+    if (executor == null) {
+      throw new NullPointerException("Null executor");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Non-positive threads: " + threads);
+    }
+    if (capacity < threads) {
+      throw new IllegalArgumentException("Capacity below threads: " + capacity);
+    }
+    this.name = name;
+    this.executor = executor;
+    this.threads = threads;
+    this.capacity = new Semaphore(capacity);
+  }
+
+  /**
+   * Executes <code>command</code>, blocking while the stage is full.
+   *
+   * @throws RejectedExecutionException if interrupted while blocked or
+   *           rejected by the underlying <code>Executor</code>
+   */
+  @Override
+  public void execute(final Runnable command) {
+    try {
+      capacity.acquire();
+    }
+    catch (final InterruptedException iE) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted submitting to " + name, iE);
+    }
+    start.compareAndSet(-1, System.nanoTime());
+    queued.incrementAndGet();
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          queued.decrementAndGet();
+          active.incrementAndGet();
+          final long begin = System.nanoTime();
+          try {
+            command.run();
+          }
+          finally {
+            busy.addAndGet(System.nanoTime() - begin);
+            active.decrementAndGet();
+            capacity.release();
+          }
+        }
+      });
+    }
+    catch (final RuntimeException rE) {
+      queued.decrementAndGet();
+      capacity.release();
+      throw rE;
+    }
+  }
+
+  /**
+   * Executes <code>call</code> on this stage and waits for its result.
+   *
+   * @param call
+   * @return the result of <code>call</code>
+   * @throws ExecutionException if <code>call</code> throws an exception
+   * @throws InterruptedException if interrupted while waiting, in which case
+   *           <code>call</code> is cancelled
+   */
+  <V> V call(final Callable<V> call) throws ExecutionException, InterruptedException {
+    final FutureTask<V> task = new FutureTask<>(call);
+    try {
+      execute(task);
+      return task.get();
+    }
+    catch (final RejectedExecutionException reE) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException(reE.getMessage());
+      }
+      throw reE;
+    }
+    catch (final InterruptedException iE) {
+      task.cancel(true);
+      throw iE;
+    }
+  }
+
+  /**
+   * @return number of tasks waiting for a thread
+   */
+  int queued() {
+    return queued.get();
+  }
+
+  /**
+   * @return number of tasks running
+   */
+  int active() {
+    return active.get();
+  }
+
+  /**
+   * @return fraction of thread time spent running completed tasks since the
+   *         first submission, between 0 and 1
+   */
+  double utilisation() {
+    final long since = start.get();
+    if (since < 0) {
+      return 0;
+    }
+    final long elapsed = System.nanoTime() - since;
+    return (elapsed <= 0) ? 0 : Math.min(1, (double) busy.get() / elapsed / threads);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+}
@@ -0,0 +1,34 @@
+/**
+ * BufferTransform.java  v0.1  19 October 2026 3:02:26 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.nio.CharBuffer;
+
+/**
+ * Transforms a line read into a reusable buffer, appending the result to a
+ * buffer supplied by the caller, so that lines are transformed without
+ * allocating a <code>String</code> for either.
+ * <p>
+ * A companion to <code>TextTransform</code>, which
+ * <code>BufferTransforms</code> adapts to and from.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public interface BufferTransform {
+
+  /**
+   * Transforms <code>line</code>, appending the result to <code>out</code>.
+   *
+   * @param line the line without its terminator, indexed from its position
+   *          as a <code>CharSequence</code>; overwritten once this returns
+   * @param out the caller's buffer, to which nothing need be appended if the
+   *          line is dropped
+   * @return false if the line is dropped
+   */
+  boolean transform(final CharBuffer line, final StringBuilder out);
+
+}
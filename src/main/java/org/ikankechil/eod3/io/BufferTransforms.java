@@ -0,0 +1,122 @@
+/**
+ * BufferTransforms.java  v0.1  19 October 2026 3:09:51 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.nio.CharBuffer;
+
+import org.ikankechil.io.TextTransform;
+
+/**
+ * Adapters between <code>BufferTransform</code> and <code>TextTransform</code>,
+ * and searches over lines that, unlike those of
+ * <code>org.ikankechil.util.StringUtility</code>, take any
+ * <code>CharSequence</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public final class BufferTransforms {
+
+  private BufferTransforms() { /* not instantiable */ }
+
+  /**
+   * Adapts a legacy <code>TextTransform</code>, which allocates a
+   * <code>String</code> for each line read and transformed.
+   *
+   * @param transform
+   * @return a <code>BufferTransform</code> dropping lines
+   *         <code>transform</code> returns null for, or the one
+   *         <code>transform</code> was adapted from by
+   *         <code>text(BufferTransform)</code>
+   */
+  public static BufferTransform adapt(final TextTransform transform) {
+    if (transform == null) {
+      throw new NullPointerException("Null transform");
+    }
+    if (transform instanceof TextAdapter) {
+      return ((TextAdapter) transform).transform;
+    }
+    return new BufferTransform() {
+      @Override
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
+        final String transformed = transform.transform(line.toString());
+        if (transformed == null) {
+          return false;
+        }
+        out.append(transformed);
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Adapts <code>transform</code> for <code>TextTransformer</code>s, which
+   * transform lines held in memory. Not thread-safe.
+   *
+   * @param transform
+   * @return a <code>TextTransform</code> returning null for lines
+   *         <code>transform</code> drops
+   */
+  public static TextTransform text(final BufferTransform transform) {
+    if (transform == null) {
+      throw new NullPointerException("Null transform");
+    }
+    return new TextAdapter(transform);
+  }
+
+  private static final class TextAdapter implements TextTransform {
+
+    final BufferTransform       transform;
+    private final StringBuilder out = new StringBuilder();
+
+    TextAdapter(final BufferTransform transform) {
+      this.transform = transform;
+    }
+
+    @Override
+    public String transform(final String line) {
+      out.setLength(0);
+      return transform.transform(CharBuffer.wrap(line), out) ? out.toString() : null;
+    }
+
+  }
+
+  /**
+   * @param c
+   * @param line
+   * @param n
+   * @param from
+   * @return index of the <code>n</code>th <code>c</code> at or after
+   *         <code>from</code>, or -1 if there are fewer
+   */
+  public static int findNth(final char c, final CharSequence line, final int n, final int from) {
+    int found = 0;
+    for (int i = Math.max(from, 0); i < line.length(); ++i) {
+      if (line.charAt(i) == c && ++found == n) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param c
+   * @param line
+   * @param n
+   * @return index of the <code>n</code>th last <code>c</code>, or -1 if there
+   *         are fewer
+   */
+  public static int findNthLast(final char c, final CharSequence line, final int n) {
+    int found = 0;
+    for (int i = line.length() - 1; i >= 0; --i) {
+      if (line.charAt(i) == c && ++found == n) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+}
@@ -0,0 +1,201 @@
+/**
+ * CachingTransport.java  v0.1  18 October 2026 9:20:47 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves responses from a <code>DiskCache</code> while fresh, and caches
+ * responses fetched by another <code>Transport</code>. Expired responses are
+ * revalidated with conditional requests, and served from the cache again if
+ * not modified. In offline mode, all responses are served from the cache.
+ * Responses are cached once read to the end, and removed again if their
+ * content is then rejected through <code>discard(URL)</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class CachingTransport implements Transport {
+
+  private final Transport     transport;
+  private final DiskCache     cache;
+  private final long          ttl;           // milliseconds
+
+  private final AtomicInteger hits          = new AtomicInteger();
+  private final AtomicInteger misses        = new AtomicInteger();
+  private final AtomicInteger revalidations = new AtomicInteger();
+
+  private static final Logger logger        = LoggerFactory.getLogger(CachingTransport.class);
+
+  /**
+   * @param transport fetches responses not cached
+   * @param cache
+   * @param ttl time-to-live of cached responses in milliseconds; if zero,
+   *          responses are only served from the cache when offline
+   */
+  public CachingTransport(final Transport transport, final DiskCache cache, final long ttl) {
+    if (transport == null) {
+      throw new NullPointerException("Null transport");
+    }
+    if (cache == null) {
+      throw new NullPointerException("Null cache");
+    }
+    if (ttl < 0) {
+      throw new IllegalArgumentException("Negative time-to-live: " + ttl);
+    }
+    this.transport = transport;
+    this.cache = cache;
+    this.ttl = ttl;
+  }
+
+  /**
+   * @throws FileNotFoundException if offline and <code>url</code> is not
+   *           cached
+   */
+  @Override
+  public Response open(final URL url) throws IOException {
+    return open(url, null);
+  }
+
+  /**
+   * Expired responses are revalidated with their own validators; only
+   * responses not cached are requested conditionally on
+   * <code>validators</code>.
+   *
+   * @throws FileNotFoundException if offline and <code>url</code> is not
+   *           cached
+   */
+  @Override
+  public Response open(final URL url, final Validators validators) throws IOException {
+    if (ttl > 0 || cache.isOffline()) {
+      final Response cached = cache.get(url, ttl);
+      if (cached != null) {
+        hits.incrementAndGet();
+        return cached;
+      }
+      if (cache.isOffline()) {
+        throw new FileNotFoundException("Not cached: " + url);
+      }
+      misses.incrementAndGet();
+
+      final Response expired = cache.get(url, Long.MAX_VALUE);
+      final Response response;
+      try {
+        response = transport.open(url, (expired == null) ? validators : expired.validators());
+      }
+      catch (final IOException | RuntimeException e) {
+        close(expired);
+        throw e;
+      }
+      if (response == null) { // not modified
+        if (expired != null) {
+          cache.refresh(url);
+          revalidations.incrementAndGet();
+        }
+        return expired;
+      }
+      close(expired);
+      try {
+        return new Response(cache.put(url, response, response.validators()), response.validators());
+      }
+      catch (final IOException ioE) {
+        logger.warn("Cannot cache: {}", url, ioE);
+        return response;
+      }
+    }
+    return transport.open(url, validators);
+  }
+
+  private static final void close(final Response response) {
+    if (response != null) {
+      try {
+        response.close();
+      }
+      catch (final IOException ioE) {
+        logger.debug("Cannot close cached response", ioE);
+      }
+    }
+  }
+
+  /**
+   * Byte ranges are neither served from nor stored in the cache.
+   */
+  @Override
+  public InputStream open(final URL url, final long first, final long last) throws IOException {
+    if (cache.isOffline()) {
+      throw new FileNotFoundException("Not cached: " + url);
+    }
+    return transport.open(url, first, last);
+  }
+
+  /**
+   * @return -1 if offline
+   */
+  @Override
+  public long rangeLength(final URL url) throws IOException {
+    return cache.isOffline() ? -1 : transport.rangeLength(url);
+  }
+
+  @Override
+  public boolean abort(final Thread thread) {
+    return transport.abort(thread);
+  }
+
+  /**
+   * Removes the cached response of <code>url</code>, unless offline, when it
+   * could not be fetched again.
+   */
+  @Override
+  public void discard(final URL url) {
+    if (!cache.isOffline()) {
+      try {
+        if (cache.remove(url)) {
+          logger.info("Rejected response removed from cache: {}", url);
+        }
+      }
+      catch (final IOException ioE) {
+        logger.warn("Cannot remove from cache: {}", url, ioE);
+      }
+    }
+    transport.discard(url);
+  }
+
+  /**
+   * @return timings of requests not served from the cache
+   */
+  @Override
+  public Timings timings() {
+    return transport.timings();
+  }
+
+  public int hits() {
+    return hits.get();
+  }
+
+  public int misses() {
+    return misses.get();
+  }
+
+  /**
+   * @return number of misses served from the cache once revalidated
+   */
+  public int revalidations() {
+    return revalidations.get();
+  }
+
+  @Override
+  public String toString() {
+    return "Cache [" + cache + ", hits: " + hits + ", misses: " + misses + ", revalidations: " + revalidations + "]";
+  }
+
+}
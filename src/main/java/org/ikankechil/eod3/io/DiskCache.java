@@ -0,0 +1,449 @@
+/**
+ * DiskCache.java  v0.1  18 October 2026 8:52:19 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ikankechil.eod3.io.Transport.Response;
+import org.ikankechil.eod3.io.Transport.Validators;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A local cache of response bodies, one file per <code>URL</code> named by
+ * the SHA-256 hash of the <code>URL</code>. Each file begins with the ETag and
+ * Last-Modified validators of the response, one line each and empty if
+ * absent, so that expired entries can be revalidated rather than fetched
+ * again.
+ * <p>
+ * Responses are cached as they are read, and only once read to the end.
+ * Entries are written to temporary files and atomically moved into place, so
+ * that tasks and processes sharing the cache never see partial entries. Once
+ * the cache exceeds its maximum size, least recently used entries are evicted.
+ * In offline mode, entries never expire and nothing new is cached.
+ * <p>
+ * System properties: org.ikankechil.eod3.io.DiskCache.directory,
+ * org.ikankechil.eod3.io.DiskCache.maxSize and
+ * org.ikankechil.eod3.io.DiskCache.offline
+ * <p>
+ * defaults: none (not cached), 1 GiB and false
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class DiskCache {
+
+  private final Path               directory;
+  private final long               maxSize;     // bytes
+  private final boolean            offline;
+  private final AtomicLong         size;        // bytes, estimated
+
+  /**
+   * Cache shared by all sources, as set by the system properties; null if no
+   * directory is set.
+   */
+  public static final DiskCache    DEFAULT;
+
+  private static final String      ENTRY        = ".body";
+  private static final String      TEMPORARY    = ".tmp";
+  private static final long        DEFAULT_SIZE = 1L << 30;
+  private static final int         BUFFER_SIZE  = 8192;
+  private static final char[]      HEX          = "0123456789abcdef".toCharArray();
+  private static final char        LINE_FEED    = '\n';
+  private static final String      EMPTY        = "";
+
+  private static final Logger      logger       = LoggerFactory.getLogger(DiskCache.class);
+
+  static {
+    final String prefix = DiskCache.class.getName();
+    final String directory = System.getProperty(prefix + ".directory");
+    DiskCache cache = null;
+    if (directory != null && !directory.trim().isEmpty()) {
+      long maxSize;
+      final String size = System.getProperty(prefix + ".maxSize", String.valueOf(DEFAULT_SIZE));
+      try {
+        maxSize = Long.parseLong(size.trim());
+      }
+      catch (final NumberFormatException nfE) {
+        maxSize = DEFAULT_SIZE;
+        logger.warn("Invalid cache size: {}, using {}", size, maxSize, nfE);
+      }
+      try {
+        cache = new DiskCache(new File(directory.trim()), maxSize, Boolean.getBoolean(prefix + ".offline"));
+      }
+      catch (final IOException | IllegalArgumentException e) {
+        logger.warn("Cannot open cache: {}", directory, e);
+      }
+    }
+    DEFAULT = cache;
+  }
+
+  /**
+   * @param directory where entries are kept, created if necessary
+   * @param maxSize in bytes
+   * @param offline if true, entries never expire and nothing new is cached
+   * @throws IOException if <code>directory</code> cannot be created or read
+   */
+  public DiskCache(final File directory, final long maxSize, final boolean offline) throws IOException {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Non-positive cache size: " + maxSize);
+    }
+    this.directory = Files.createDirectories(directory.toPath());
+    this.maxSize = maxSize;
+    this.offline = offline;
+    size = new AtomicLong(scan(null));
+    logger.info("Cache: {} ({} of {} bytes{})", directory, size.get(), maxSize, offline ? ", offline" : "");
+  }
+
+  public boolean isOffline() {
+    return offline;
+  }
+
+  /**
+   * Opens the cached response of <code>url</code>, if not older than
+   * <code>ttl</code>, marking it as recently used.
+   *
+   * @param url
+   * @param ttl time-to-live in milliseconds, ignored if offline
+   * @return the cached response and its validators, or null if not cached or
+   *         expired
+   * @throws IOException
+   */
+  public Response get(final URL url, final long ttl) throws IOException {
+    final Path entry = entry(url);
+    try {
+      final BasicFileAttributeView view = Files.getFileAttributeView(entry, BasicFileAttributeView.class);
+      final long now = System.currentTimeMillis();
+      if (!offline && now - view.readAttributes().lastModifiedTime().toMillis() > ttl) {
+        return null;
+      }
+      view.setTimes(null, FileTime.fromMillis(now), null); // last used
+      final InputStream stream = new BufferedInputStream(Files.newInputStream(entry), BUFFER_SIZE);
+      try {
+        return new Response(stream, new Validators(readLine(stream), readLine(stream)));
+      }
+      catch (final IOException ioE) {
+        stream.close();
+        throw ioE;
+      }
+    }
+    catch (final NoSuchFileException nsfE) { // not cached or evicted
+      return null;
+    }
+  }
+
+  /**
+   * Renews the cached response of <code>url</code>, once revalidated, as if
+   * it had just been cached.
+   *
+   * @param url
+   * @return false if not cached or evicted
+   * @throws IOException
+   */
+  public boolean refresh(final URL url) throws IOException {
+    try {
+      Files.setLastModifiedTime(entry(url), FileTime.fromMillis(System.currentTimeMillis()));
+      return true;
+    }
+    catch (final NoSuchFileException nsfE) {
+      return false;
+    }
+  }
+
+  /**
+   * Removes the cached response of <code>url</code>, e.g. once its content is
+   * found to be unusable.
+   *
+   * @param url
+   * @return false if not cached or evicted
+   * @throws IOException
+   */
+  public boolean remove(final URL url) throws IOException {
+    final Path entry = entry(url);
+    try {
+      final long bytes = Files.size(entry);
+      Files.delete(entry);
+      size.addAndGet(-bytes);
+      logger.debug("Removed: {} ({} bytes)", entry, bytes);
+      return true;
+    }
+    catch (final NoSuchFileException nsfE) {
+      return false;
+    }
+  }
+
+  public InputStream put(final URL url, final InputStream response) throws IOException {
+    return put(url, response, null);
+  }
+
+  /**
+   * Caches <code>response</code> as it is read, once it is read to the end.
+   * Failing to cache does not fail reading <code>response</code>.
+   *
+   * @param url
+   * @param response
+   * @param validators of <code>response</code>, or null
+   * @return an <code>InputStream</code> over <code>response</code>
+   * @throws IOException if the entry cannot be created
+   */
+  public InputStream put(final URL url, final InputStream response, final Validators validators)
+      throws IOException {
+    if (offline) {
+      return response;
+    }
+
+    final Path entry = entry(url);
+    final Path temporary = Files.createTempFile(directory, entry.getFileName().toString(), TEMPORARY);
+    final OutputStream out;
+    try {
+      out = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE);
+      writeHeader(out, validators);
+    }
+    catch (final IOException ioE) {
+      Files.deleteIfExists(temporary);
+      throw ioE;
+    }
+
+    return new FilterInputStream(response) {
+      private boolean complete;
+      private boolean closed;
+
+      @Override
+      public int read() throws IOException {
+        final int b = super.read();
+        if (b < 0) {
+          complete = true;
+        }
+        else {
+          out.write(b);
+        }
+        return b;
+      }
+
+      @Override
+      public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        final int read = super.read(buffer, offset, length);
+        if (read < 0) {
+          complete = true;
+        }
+        else {
+          out.write(buffer, offset, read);
+        }
+        return read;
+      }
+
+      @Override
+      public long skip(final long n) throws IOException {
+        // skipped bytes must be cached too
+        final byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+        final int read = read(buffer, 0, buffer.length);
+        return Math.max(read, 0);
+      }
+
+      @Override
+      public boolean markSupported() {
+        return false;
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        try {
+          super.close();
+        }
+        finally {
+          try {
+            out.close();
+            if (complete) {
+              commit(temporary, entry);
+            }
+          }
+          catch (final IOException ioE) {
+            logger.warn("Cannot cache: {}", url, ioE);
+          }
+          finally {
+            Files.deleteIfExists(temporary); // unless committed
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * Caches <code>content</code> derived from the response of <code>url</code>,
+   * e.g. parsed from it under a <code>URL</code> with a fragment.
+   *
+   * @param url
+   * @param content
+   * @param validators of the response, or null
+   * @throws IOException if the entry cannot be written
+   */
+  public void put(final URL url, final byte[] content, final Validators validators) throws IOException {
+    if (offline) {
+      return;
+    }
+
+    final Path entry = entry(url);
+    final Path temporary = Files.createTempFile(directory, entry.getFileName().toString(), TEMPORARY);
+    try {
+      try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+        writeHeader(out, validators);
+        out.write(content);
+      }
+      commit(temporary, entry);
+    }
+    finally {
+      Files.deleteIfExists(temporary); // unless committed
+    }
+  }
+
+  private static final void writeHeader(final OutputStream out, final Validators validators) throws IOException {
+    final Validators header = (validators == null) ? Validators.NONE : validators;
+    final String etag = (header.etag() == null) ? EMPTY : header.etag();
+    final String lastModified = (header.lastModified() == null) ? EMPTY : header.lastModified();
+    out.write((etag + LINE_FEED + lastModified + LINE_FEED).getBytes(StandardCharsets.ISO_8859_1)); // charset of HTTP headers
+  }
+
+  /**
+   * @return the header line, or null if empty
+   */
+  private static final String readLine(final InputStream stream) throws IOException {
+    final StringBuilder line = new StringBuilder();
+    int b;
+    while ((b = stream.read()) != LINE_FEED) {
+      if (b < 0) {
+        throw new IOException("Truncated cache entry");
+      }
+      line.append((char) b); // ISO-8859-1
+    }
+    return (line.length() > 0) ? line.toString() : null;
+  }
+
+  private final void commit(final Path temporary, final Path entry) throws IOException {
+    final long bytes = Files.size(temporary);
+    Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    logger.debug("Cached: {} ({} bytes)", entry, bytes);
+    if (size.addAndGet(bytes) > maxSize) {
+      evict();
+    }
+  }
+
+  /**
+   * Deletes least recently used entries until the cache is three quarters
+   * full, accounting for entries written by other processes.
+   */
+  private synchronized void evict() throws IOException {
+    final List<Entry> entries = new ArrayList<>();
+    long total = scan(entries);
+    if (total > maxSize) {
+      Collections.sort(entries, new Comparator<Entry>() {
+        @Override
+        public int compare(final Entry e1, final Entry e2) {
+          return Long.compare(e1.lastUsed, e2.lastUsed);
+        }
+      });
+      final long target = maxSize / 4 * 3;
+      int evicted = 0;
+      for (final Entry entry : entries) {
+        if (total <= target) {
+          break;
+        }
+        if (Files.deleteIfExists(entry.path)) {
+          total -= entry.size;
+          ++evicted;
+        }
+      }
+      logger.info("Cache entries evicted: {}", evicted);
+    }
+    size.set(total);
+  }
+
+  /**
+   * @param entries collects entries; if null, entries are only sized
+   * @return total size of entries in bytes
+   */
+  private final long scan(final List<Entry> entries) throws IOException {
+    long total = 0;
+    try (final DirectoryStream<Path> paths = Files.newDirectoryStream(directory, "*" + ENTRY)) {
+      for (final Path path : paths) {
+        try {
+          final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+          total += attributes.size();
+          if (entries != null) {
+            entries.add(new Entry(path, attributes.size(), attributes.lastAccessTime().toMillis()));
+          }
+        }
+        catch (final NoSuchFileException nsfE) { // evicted by another process
+          logger.debug("Entry gone: {}", path);
+        }
+      }
+    }
+    return total;
+  }
+
+  final Path entry(final URL url) {
+    try {
+      final byte[] hash = MessageDigest.getInstance("SHA-256")
+                                       .digest(url.toExternalForm().getBytes(StandardCharsets.UTF_8));
+      final char[] hex = new char[hash.length * 2];
+      for (int i = 0; i < hash.length; ++i) {
+        hex[2 * i] = HEX[(hash[i] >> 4) & 0x0F];
+        hex[2 * i + 1] = HEX[hash[i] & 0x0F];
+      }
+      return directory.resolve(new String(hex) + ENTRY);
+    }
+    catch (final NoSuchAlgorithmException nsaE) { // every Java platform supports SHA-256
+      throw new IllegalStateException(nsaE);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return directory.toString();
+  }
+
+  private static final class Entry {
+
+    final Path path;
+    final long size;
+    final long lastUsed;
+
+    Entry(final Path path, final long size, final long lastUsed) {
+      this.path = path;
+      this.size = size;
+      this.lastUsed = lastUsed;
+    }
+
+  }
+
+}
@@ -0,0 +1,200 @@
+/**
+ * FileDownloader.java  v0.1  18 October 2026 11:52:40 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads the content of <code>URL</code>s to files, fetching large content
+ * in byte ranges concurrently where the server supports them.
+ * <p>
+ * Ranges are written in place to a file preallocated to the length of the
+ * content. Content is downloaded to a temporary file in the same directory as
+ * the destination, which replaces the destination only once all bytes are
+ * written.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class FileDownloader {
+
+  private final Transport     transport;
+  private final Executor      executor;    // fetches ranges
+  private final int           ranges;      // maximum
+  private final long          minRange;    // bytes
+
+  private static final int    BUFFER_SIZE = 1 << 16;
+  private static final String TEMPORARY   = ".tmp";
+
+  private static final Logger logger      = LoggerFactory.getLogger(FileDownloader.class);
+
+  /**
+   * @param transport
+   * @param executor runs range fetches, other than those of the calling thread
+   * @param ranges maximum number of ranges fetched concurrently per download
+   * @param minRange minimum length of a range in bytes, below which content
+   *          is not split
+   */
+  public FileDownloader(final Transport transport, final Executor executor, final int ranges, final long minRange) {
+    if (transport == null) {
+      throw new NullPointerException("Null transport");
+    }
+    if (executor == null) {
+      throw new NullPointerException("Null executor");
+    }
+    if (ranges < 1) {
+      throw new IllegalArgumentException("Non-positive ranges: " + ranges);
+    }
+    if (minRange < 1) {
+      throw new IllegalArgumentException("Non-positive minimum range: " + minRange);
+    }
+    this.transport = transport;
+    this.executor = executor;
+    this.ranges = ranges;
+    this.minRange = minRange;
+  }
+
+  /**
+   * Downloads the content of <code>url</code> to <code>destination</code>.
+   *
+   * @param url
+   * @param destination replaced once all bytes are written
+   * @param ranged probes whether the content can be fetched in byte ranges,
+   *          which is worth a request only for large content
+   * @return number of bytes downloaded
+   * @throws IOException if <code>url</code> cannot be read or
+   *           <code>destination</code> written
+   */
+  public long download(final URL url, final File destination, final boolean ranged) throws IOException {
+    final Path target = destination.toPath().toAbsolutePath();
+    final Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMPORARY);
+    try {
+      final long length = ranged ? transport.rangeLength(url) : -1;
+      final int parts = (int) Math.min(ranges, length / minRange);
+      final long transferred;
+      if (parts > 1) {
+        logger.debug("Downloading {} bytes in {} ranges: {}", length, parts, url);
+        transferred = download(url, temporary, length, parts);
+      }
+      else {
+        try (final ReadableByteChannel rbc = Channels.newChannel(transport.open(url));
+             final FileChannel fc = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+          transferred = fc.transferFrom(rbc, 0, Long.MAX_VALUE); // ~8 exabytes (8 x 1024^6)
+        }
+      }
+      Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      return transferred;
+    }
+    finally {
+      Files.deleteIfExists(temporary); // unless moved
+    }
+  }
+
+  private final long download(final URL url, final Path temporary, final long length, final int parts)
+      throws IOException {
+    try (final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+      // preallocate so that ranges are written in place
+      channel.write(ByteBuffer.allocate(1), length - 1);
+
+      final List<FutureTask<Long>> tasks = new ArrayList<>(parts);
+      try {
+        for (int part = 0; part < parts; ++part) {
+          final long first = part * length / parts;
+          final long last = (part + 1) * length / parts - 1;
+          final FutureTask<Long> task = new FutureTask<>(new Callable<Long>() {
+            @Override
+            public Long call() throws IOException {
+              return range(url, channel, first, last);
+            }
+          });
+          tasks.add(task);
+          if (part < parts - 1) {
+            executor.execute(task);
+          }
+          else {
+            task.run(); // rather than wait idle
+          }
+        }
+
+        long transferred = 0;
+        for (final FutureTask<Long> task : tasks) {
+          transferred += task.get();
+        }
+        return transferred;
+      }
+      catch (final InterruptedException iE) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted downloading: " + url);
+      }
+      catch (final ExecutionException eE) {
+        final Throwable cause = eE.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new IOException(cause);
+      }
+      finally {
+        for (final FutureTask<Long> task : tasks) {
+          task.cancel(true); // unless done
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes bytes <code>first</code> to <code>last</code> of the content of
+   * <code>url</code> to the same positions in <code>channel</code>.
+   */
+  private final long range(final URL url, final FileChannel channel, final long first, final long last)
+      throws IOException {
+    try (final InputStream stream = transport.open(url, first, last)) {
+      final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      final byte[] bytes = buffer.array();
+      long position = first;
+      int read;
+      while (position <= last &&
+             (read = stream.read(bytes, 0, (int) Math.min(bytes.length, last - position + 1))) > -1) {
+        buffer.clear().limit(read);
+        while (buffer.hasRemaining()) {
+          position += channel.write(buffer, position);
+        }
+      }
+      if (position <= last) {
+        throw new EOFException("Range truncated: " + url + " bytes " + first + '-' + last + " at " + position);
+      }
+      return position - first;
+    }
+  }
+
+}
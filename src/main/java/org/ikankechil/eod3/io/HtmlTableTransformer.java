@@ -0,0 +1,528 @@
+/**
+ * HtmlTableTransformer.java  v0.1  19 October 2026 7:55:02 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.ikankechil.io.TextTransform;
+import org.ikankechil.io.TextTransformer;
+
+/**
+ * Transforms the rows of HTML tables into lines, scanning tags and cells in a
+ * single pass over the page, whether as lines read or straight from a
+ * <code>Reader</code>.
+ * <p>
+ * Rows are selected by text within their <code>tr</code> start tags, and
+ * cells by text within their <code>td</code> start tags, an empty selector
+ * selecting all. The cells at the indices given are joined by commas in the
+ * order given and passed to the transform, a non-negative index counting
+ * from the first cell selected in a row and a negative index counting back
+ * from the last cell of the row, which must itself be selected. Rows lacking
+ * any of those cells, or with all of them empty, are skipped. The text of a
+ * cell has its tags removed, character references resolved and whitespace
+ * collapsed.
+ * <p>
+ * Alternatively, the value of an attribute of each selected row's start tag,
+ * such as its <code>id</code>, is passed to the transform.
+ * <p>
+ * Only a row at a time is held in memory. Thread-safe if the transform is.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class HtmlTableTransformer extends TextTransformer {
+
+  private final BufferTransform recordTransform;
+  private final String          rowSelector;
+  private final String          cellSelector;
+  private final int[]           cells;
+  private final String          rowAttribute;  // null if transforming cells
+
+  private static final String   EMPTY       = "";
+  private static final char     COMMA       = ',';
+  private static final char     SPACE       = ' ';
+  private static final char     NBSP        = '\u00a0';
+  private static final int      BUFFER_SIZE = 1 << 13;
+  private static final int      EOF         = -1;
+
+  /**
+   * @param transform of records, unwrapped if adapted from a
+   *          <code>BufferTransform</code>
+   * @param rowSelector text within the start tag of each row of interest, or
+   *          null or empty for all rows
+   * @param cellSelector text within the start tag of each cell of interest,
+   *          or null or empty for all cells
+   * @param cells zero-based indices of the cells of each record, negative
+   *          ones counting back from the last
+   */
+  public HtmlTableTransformer(final TextTransform transform,
+                              final String rowSelector,
+                              final String cellSelector,
+                              final int... cells) {
+    this(transform, rowSelector, cellSelector, checked(cells), null);
+  }
+
+  private HtmlTableTransformer(final TextTransform transform,
+                               final String rowSelector,
+                               final String cellSelector,
+                               final int[] cells,
+                               final String rowAttribute) {
+    super(transform);
+    recordTransform = BufferTransforms.adapt(transform);
+    this.rowSelector = (rowSelector == null) ? EMPTY : rowSelector;
+    this.cellSelector = (cellSelector == null) ? EMPTY : cellSelector;
+    this.cells = cells;
+    this.rowAttribute = rowAttribute;
+  }
+
+  private static final int[] checked(final int... cells) {
+    if (cells.length == 0) {
+      throw new IllegalArgumentException("No cells");
+    }
+    return cells.clone();
+  }
+
+  /**
+   * @param transform of attribute values, unwrapped if adapted from a
+   *          <code>BufferTransform</code>
+   * @param rowSelector text within the start tag of each row of interest, or
+   *          null or empty for all rows
+   * @param attribute name of the attribute of each row of interest, e.g.
+   *          <code>id</code>
+   * @return a transformer of the value of <code>attribute</code> in each row
+   *         of interest, skipping rows without it or with it empty
+   */
+  public static HtmlTableTransformer rowAttribute(final TextTransform transform,
+                                                  final String rowSelector,
+                                                  final String attribute) {
+    if (attribute == null || attribute.isEmpty()) {
+      throw new IllegalArgumentException("No attribute");
+    }
+    return new HtmlTableTransformer(transform, rowSelector, null, new int[0], attribute);
+  }
+
+  @Override
+  public List<String> transform(final List<String> lines) {
+    final List<String> newLines = new ArrayList<>();
+    try {
+      new Extraction(new LinesReader(lines), newLines).run();
+    }
+    catch (final IOException ioE) { // lines are in memory
+      throw new IllegalStateException(ioE);
+    }
+
+    lines.clear();
+    lines.addAll(newLines);
+
+    return lines;
+  }
+
+  /**
+   * Transforms the page read from <code>in</code> without reading it into
+   * lines first.
+   *
+   * @param in
+   * @return the lines transformed
+   * @throws IOException if <code>in</code> cannot be read
+   */
+  public List<String> transform(final Reader in) throws IOException {
+    final List<String> newLines = new ArrayList<>();
+    new Extraction(in, newLines).run();
+    return newLines;
+  }
+
+  /**
+   * State of a single pass over a page.
+   */
+  private final class Extraction {
+
+    private final Reader              in;
+    private final List<String>        newLines;
+    private final char[]              buffer     = new char[BUFFER_SIZE];
+    private int                       position;                           // in buffer
+    private int                       limit;                              // of buffer
+    private final StringBuilder       tag        = new StringBuilder();   // between angle brackets
+    private final StringBuilder       entity     = new StringBuilder();
+    private final List<StringBuilder> texts      = new ArrayList<>();     // of cells selected in the row
+    private int[]                     positions  = new int[16];           // in the row of cells selected
+    private int                       count;                              // of cells selected in the row
+    private int                       cellsInRow;
+    private String                    attribute;                          // of the row, if transforming it
+    private StringBuilder             text;                               // of the open cell, if selected
+    private boolean                   space;                              // whitespace pending in text
+    private boolean                   row;                                // in a selected row
+    private final StringBuilder       record     = new StringBuilder();
+    private final StringBuilder       out        = new StringBuilder();
+
+    Extraction(final Reader in, final List<String> newLines) {
+      this.in = in;
+      this.newLines = newLines;
+    }
+
+    void run() throws IOException {
+      for (int c = read(); c != EOF; c = read()) {
+        if (c == '<') {
+          markup();
+        }
+        else if (text != null) {
+          if (c == '&') {
+            reference();
+          }
+          else {
+            append((char) c);
+          }
+        }
+      }
+      endRow();
+    }
+
+    private final void markup() throws IOException {
+      final int next = peek();
+      if (next == '!' || next == '?') { // comment, declaration or processing instruction
+        read();
+        if (next == '!' && peek() == '-') {
+          skipComment();
+        }
+        else {
+          skipTo('>');
+        }
+        return;
+      }
+
+      final boolean end = (next == '/');
+      if (end) {
+        read();
+      }
+      if (!Character.isLetter(peek())) { // not a tag
+        if (text != null) {
+          append('<');
+          if (end) {
+            append('/');
+          }
+        }
+        return;
+      }
+
+      readTag();
+      if (isTag("tr")) {
+        if (end) {
+          endRow();
+        }
+        else {
+          startRow();
+        }
+      }
+      else if (isTag("td")) {
+        if (end) {
+          text = null;
+        }
+        else {
+          startCell();
+        }
+      }
+      else if (isTag("th")) {
+        text = null;
+      }
+      else if (isTag("table")) {
+        if (end) {
+          endRow();
+        }
+      }
+      else if (!end && (isTag("script") || isTag("style"))) {
+        skipRawText();
+      }
+      else if (isTag("br") || isTag("p") || isTag("div") || isTag("li")) {
+        space = true; // line breaks and blocks within cells separate words
+      }
+    }
+
+    private final void readTag() throws IOException {
+      tag.setLength(0);
+      char quote = 0;
+      for (int c = read(); c != EOF; c = read()) {
+        if (quote != 0) {
+          if (c == quote) {
+            quote = 0;
+          }
+        }
+        else if (c == '"' || c == '\'') {
+          quote = (char) c;
+        }
+        else if (c == '>') {
+          return;
+        }
+        tag.append((char) c);
+      }
+    }
+
+    private final boolean isTag(final String name) {
+      if (tag.length() < name.length()) {
+        return false;
+      }
+      for (int i = 0; i < name.length(); ++i) {
+        if (Character.toLowerCase(tag.charAt(i)) != name.charAt(i)) {
+          return false;
+        }
+      }
+      if (tag.length() == name.length()) {
+        return true;
+      }
+      final char next = tag.charAt(name.length());
+      return Character.isWhitespace(next) || next == '/';
+    }
+
+    private final boolean isSelected(final String selector) {
+      return selector.isEmpty() || tag.indexOf(selector) >= 0;
+    }
+
+    private final void startRow() {
+      endRow();
+      row = isSelected(rowSelector);
+      if (row && rowAttribute != null) {
+        attribute = attribute(rowAttribute);
+      }
+    }
+
+    private final void startCell() {
+      text = null;
+      if (!row) {
+        return;
+      }
+      final int position = cellsInRow++;
+      if (rowAttribute == null && isSelected(cellSelector)) {
+        if (count == texts.size()) {
+          texts.add(new StringBuilder());
+        }
+        if (count == positions.length) {
+          positions = Arrays.copyOf(positions, 2 * count);
+        }
+        positions[count] = position;
+        text = texts.get(count++);
+        text.setLength(0);
+        space = false;
+      }
+    }
+
+    private final void endRow() {
+      text = null;
+      if (row) {
+        row = false;
+        emit();
+      }
+      count = 0;
+      cellsInRow = 0;
+      attribute = null;
+    }
+
+    private final void emit() {
+      record.setLength(0);
+      boolean empty = true;
+      if (rowAttribute != null) {
+        if (attribute == null) {
+          return;
+        }
+        record.append(attribute);
+        empty = attribute.isEmpty();
+      }
+      for (int i = 0; i < cells.length; ++i) {
+        final int cell = (cells[i] < 0) ? selected(cellsInRow + cells[i]) : cells[i];
+        if (cell < 0 || cell >= count) {
+          return;
+        }
+        if (i > 0) {
+          record.append(COMMA);
+        }
+        final StringBuilder cellText = texts.get(cell);
+        empty &= (cellText.length() == 0);
+        record.append(cellText);
+      }
+
+      out.setLength(0);
+      if (!empty && recordTransform.transform(CharBuffer.wrap(record), out)) {
+        newLines.add(out.toString());
+      }
+    }
+
+    /**
+     * @return the index among the cells selected of the cell at
+     *         <code>position</code> in the row, or -1 if not selected
+     */
+    private final int selected(final int position) {
+      for (int cell = count - 1; cell >= 0 && positions[cell] >= position; --cell) {
+        if (positions[cell] == position) {
+          return cell;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * @return the value of attribute <code>name</code> of the tag read last,
+     *         or null if absent
+     */
+    private final String attribute(final String name) {
+      final int length = tag.length();
+      for (int i = tag.indexOf(name); i > 0; i = tag.indexOf(name, i + 1)) {
+        if (!Character.isWhitespace(tag.charAt(i - 1))) { // part of another name or value
+          continue;
+        }
+        int j = skipWhitespace(i + name.length());
+        if (j == length || tag.charAt(j) != '=') {
+          continue;
+        }
+        j = skipWhitespace(j + 1);
+        if (j < length && (tag.charAt(j) == '"' || tag.charAt(j) == '\'')) {
+          final int end = tag.indexOf(String.valueOf(tag.charAt(j)), j + 1);
+          return tag.substring(j + 1, (end < 0) ? length : end).trim();
+        }
+        int end = j;
+        while (end < length && !Character.isWhitespace(tag.charAt(end)) && tag.charAt(end) != '/') {
+          ++end;
+        }
+        return tag.substring(j, end);
+      }
+      return null;
+    }
+
+    private final int skipWhitespace(final int from) {
+      int i = from;
+      while (i < tag.length() && Character.isWhitespace(tag.charAt(i))) {
+        ++i;
+      }
+      return i;
+    }
+
+    private final void append(final char c) {
+      if (Character.isWhitespace(c) || c == NBSP) {
+        space = true;
+      }
+      else {
+        if (space && text.length() > 0) {
+          text.append(SPACE);
+        }
+        space = false;
+        text.append(c);
+      }
+    }
+
+    /**
+     * Resolves a character reference, or appends it as is if unknown.
+     */
+    private final void reference() throws IOException {
+      entity.setLength(0);
+      while (entity.length() < 10 && (Character.isLetterOrDigit(peek()) || peek() == '#')) {
+        entity.append((char) read());
+      }
+      if (peek() == ';') {
+        read();
+        final int c = resolve();
+        if (c >= 0) {
+          append((char) c);
+          return;
+        }
+        entity.append(';');
+      }
+      append('&');
+      for (int i = 0; i < entity.length(); ++i) {
+        append(entity.charAt(i));
+      }
+    }
+
+    private final int resolve() {
+      final String name = entity.toString();
+      switch (name) {
+        case "nbsp":
+          return SPACE;
+        case "amp":
+          return '&';
+        case "lt":
+          return '<';
+        case "gt":
+          return '>';
+        case "quot":
+          return '"';
+        case "apos":
+          return '\'';
+        default:
+          if (name.length() > 1 && name.charAt(0) == '#') {
+            try {
+              final boolean hex = (name.charAt(1) == 'x' || name.charAt(1) == 'X');
+              final int c = Integer.parseInt(name.substring(hex ? 2 : 1), hex ? 16 : 10);
+              return Character.isBmpCodePoint(c) ? c : -1;
+            }
+            catch (final NumberFormatException nfE) {
+              return -1;
+            }
+          }
+          return -1;
+      }
+    }
+
+    private final void skipComment() throws IOException {
+      int dashes = 0;
+      for (int c = read(); c != EOF; c = read()) {
+        if (c == '>' && dashes >= 2) {
+          return;
+        }
+        dashes = (c == '-') ? dashes + 1 : 0;
+      }
+    }
+
+    private final void skipTo(final char end) throws IOException {
+      for (int c = read(); c != EOF && c != end; c = read()) { /* skip */ }
+    }
+
+    /**
+     * Skips the content of a <code>script</code> or <code>style</code>
+     * element, which may hold angle brackets, up to and including its end
+     * tag.
+     */
+    private final void skipRawText() throws IOException {
+      final String name = (isTag("script") ? "script" : "style");
+      for (int c = read(); c != EOF; c = read()) {
+        if (c == '<' && peek() == '/') {
+          read();
+          int i = 0;
+          while (i < name.length() && Character.toLowerCase(peek()) == name.charAt(i)) {
+            read();
+            ++i;
+          }
+          if (i == name.length()) {
+            skipTo('>');
+            return;
+          }
+        }
+      }
+    }
+
+    private final int read() throws IOException {
+      final int c = peek();
+      if (c != EOF) {
+        ++position;
+      }
+      return c;
+    }
+
+    private final int peek() throws IOException {
+      if (position == limit) {
+        position = limit = 0;
+        final int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+          return EOF;
+        }
+        limit = read;
+      }
+      return buffer[position];
+    }
+
+  }
+
+}
@@ -0,0 +1,49 @@
+/**
+ * HttpStatusException.java  v0.1  19 October 2026 2:14:06 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Signals that a server answered a request with an HTTP error status, so that
+ * callers can act on the status code rather than on the message text.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class HttpStatusException extends IOException {
+
+  private final URL         url;
+  private final int         statusCode;
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * @param url requested
+   * @param statusCode HTTP status code returned, e.g. 429
+   */
+  public HttpStatusException(final URL url, final int statusCode) {
+    super("Server returned HTTP response code: " + statusCode + " for URL: " + url);
+    this.url = url;
+    this.statusCode = statusCode;
+  }
+
+  /**
+   * @return URL requested
+   */
+  public URL url() {
+    return url;
+  }
+
+  /**
+   * @return HTTP status code returned
+   */
+  public int statusCode() {
+    return statusCode;
+  }
+
+}
@@ -0,0 +1,318 @@
+/**
+ * JsonParser.java  v0.1  19 October 2026 6:10:17 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Pulls the tokens of JSON text one at a time as its characters are read, in
+ * a single pass and without building a tree.
+ * <p>
+ * The text of names, strings and numbers is unescaped into a buffer reused
+ * from token to token, so that each is valid only until the next is pulled.
+ * Commas and colons separate tokens but are not checked strictly, so some
+ * malformed text is accepted.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class JsonParser implements Closeable {
+
+  private final Reader        in;
+  private final char[]        buffer;
+  private int                 position;             // in buffer
+  private int                 limit;                // of buffer
+  private long                offset;               // of buffer in the text
+  private final StringBuilder text        = new StringBuilder();
+  private boolean[]           objects     = new boolean[16]; // by depth, true if an object
+  private int                 depth;
+  private boolean             expectName;           // next string in an object is a name
+  private Token               token;
+
+  private static final int    BUFFER_SIZE = 1 << 13;
+  private static final int    EOF         = -1;
+
+  public enum Token {
+    START_OBJECT, END_OBJECT, START_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END
+  }
+
+  public JsonParser(final Reader in) {
+    if (in == null) {
+      throw new NullPointerException("Null reader");
+    }
+    this.in = in;
+    buffer = new char[BUFFER_SIZE];
+  }
+
+  /**
+   * @param lines of JSON text, such as those read by <code>TextReader</code>,
+   *          each followed by a line feed
+   */
+  public JsonParser(final Iterable<? extends CharSequence> lines) {
+    this(new LinesReader(lines));
+  }
+
+  /**
+   * Pulls the next token.
+   *
+   * @return <code>Token.END</code> at the end of the text
+   * @throws IOException if the text cannot be read or is not JSON
+   */
+  public Token next() throws IOException {
+    while (true) {
+      final int c = read();
+      switch (c) {
+        case ' ':
+        case '\t':
+        case '\n':
+        case '\r':
+        case ':':
+          continue;
+
+        case ',':
+          expectName = depth > 0 && objects[depth - 1];
+          continue;
+
+        case '{':
+          push(true);
+          expectName = true;
+          return token = Token.START_OBJECT;
+
+        case '}':
+          pop(true, c);
+          return token = Token.END_OBJECT;
+
+        case '[':
+          push(false);
+          return token = Token.START_ARRAY;
+
+        case ']':
+          pop(false, c);
+          return token = Token.END_ARRAY;
+
+        case '"':
+          readString();
+          if (expectName && objects[depth - 1]) {
+            expectName = false;
+            return token = Token.NAME;
+          }
+          return token = Token.STRING;
+
+        case 't':
+          readLiteral("rue");
+          return token = Token.TRUE;
+
+        case 'f':
+          readLiteral("alse");
+          return token = Token.FALSE;
+
+        case 'n':
+          readLiteral("ull");
+          return token = Token.NULL;
+
+        case EOF:
+          if (depth > 0) {
+            throw malformed("Unexpected end");
+          }
+          return token = Token.END;
+
+        default:
+          if (c == '-' || (c >= '0' && c <= '9')) {
+            readNumber(c);
+            return token = Token.NUMBER;
+          }
+          throw malformed("Unexpected character '" + (char) c + "'");
+      }
+    }
+  }
+
+  /**
+   * @return the token last pulled, or null if none
+   */
+  public Token token() {
+    return token;
+  }
+
+  /**
+   * @return the unescaped text of the last name, string or number, valid
+   *         until the next token is pulled
+   */
+  public CharSequence text() {
+    return text;
+  }
+
+  /**
+   * @param name
+   * @return true if the last token is the name <code>name</code>
+   */
+  public boolean isName(final String name) {
+    return token == Token.NAME && contentEquals(name);
+  }
+
+  private final boolean contentEquals(final String string) {
+    if (text.length() != string.length()) {
+      return false;
+    }
+    for (int i = 0; i < string.length(); ++i) {
+      if (text.charAt(i) != string.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return number of objects and arrays enclosing the next token
+   */
+  public int depth() {
+    return depth;
+  }
+
+  /**
+   * Skips the value following the name last pulled, or if the last token
+   * starts an object or array, the rest of it.
+   *
+   * @throws IOException if the text cannot be read or is not JSON
+   */
+  public void skipValue() throws IOException {
+    final Token start = (token == Token.NAME) ? next() : token;
+    if (start == Token.START_OBJECT || start == Token.START_ARRAY) {
+      final int enclosing = depth - 1;
+      while (depth > enclosing) {
+        if (next() == Token.END) {
+          throw malformed("Unexpected end");
+        }
+      }
+    }
+  }
+
+  private final void push(final boolean object) {
+    if (depth == objects.length) {
+      objects = Arrays.copyOf(objects, depth << 1);
+    }
+    objects[depth++] = object;
+  }
+
+  private final void pop(final boolean object, final int c) throws IOException {
+    if (depth == 0 || objects[depth - 1] != object) {
+      throw malformed("Unexpected '" + (char) c + "'");
+    }
+    --depth;
+    expectName = false;
+  }
+
+  private final void readString() throws IOException {
+    text.setLength(0);
+    while (true) {
+      final int c = read();
+      if (c == '"') {
+        return;
+      }
+      if (c == EOF) {
+        throw malformed("Unterminated string");
+      }
+      if (c != '\\') {
+        text.append((char) c);
+        continue;
+      }
+
+      final int escaped = read();
+      switch (escaped) {
+        case '"':
+        case '\\':
+        case '/':
+          text.append((char) escaped);
+          break;
+        case 'b':
+          text.append('\b');
+          break;
+        case 'f':
+          text.append('\f');
+          break;
+        case 'n':
+          text.append('\n');
+          break;
+        case 'r':
+          text.append('\r');
+          break;
+        case 't':
+          text.append('\t');
+          break;
+        case 'u':
+          int unicode = 0;
+          for (int i = 0; i < 4; ++i) {
+            final int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+              throw malformed("Bad unicode escape");
+            }
+            unicode = (unicode << 4) | digit;
+          }
+          text.append((char) unicode);
+          break;
+        default:
+          throw malformed("Bad escape");
+      }
+    }
+  }
+
+  private final void readNumber(final int first) throws IOException {
+    text.setLength(0);
+    text.append((char) first);
+    while (true) {
+      final int c = peek();
+      if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+        text.append((char) read());
+      }
+      else {
+        return;
+      }
+    }
+  }
+
+  private final void readLiteral(final String rest) throws IOException {
+    for (int i = 0; i < rest.length(); ++i) {
+      if (read() != rest.charAt(i)) {
+        throw malformed("Bad literal");
+      }
+    }
+  }
+
+  private final int read() throws IOException {
+    final int c = peek();
+    if (c != EOF) {
+      ++position;
+    }
+    return c;
+  }
+
+  private final int peek() throws IOException {
+    if (position == limit) {
+      offset += limit;
+      position = limit = 0;
+      final int read = in.read(buffer, 0, buffer.length);
+      if (read <= 0) {
+        return EOF;
+      }
+      limit = read;
+    }
+    return buffer[position];
+  }
+
+  private final IOException malformed(final String message) {
+    return new IOException(message + " at character " + (offset + position));
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+}
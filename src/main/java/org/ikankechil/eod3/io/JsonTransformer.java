@@ -0,0 +1,186 @@
+/**
+ * JsonTransformer.java  v0.1  19 October 2026 6:41:05 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.ikankechil.eod3.io.JsonParser.Token;
+import org.ikankechil.io.TextTransform;
+import org.ikankechil.io.TextTransformer;
+
+/**
+ * Transforms JSON text into lines, pulling its tokens with a
+ * <code>JsonParser</code> in a single pass.
+ * <p>
+ * Each object holding all the fields named is a record, whose values are
+ * joined by commas in the order named and passed to the transform. A null
+ * field names the object itself, as when records are keyed by date. Values
+ * are taken from the innermost object only, and a null value is empty.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class JsonTransformer extends TextTransformer {
+
+  private final BufferTransform recordTransform;
+  private final boolean         reversed;
+  private final String[]        fields;
+  private final int             nameField;      // naming the object, or -1
+
+  private static final char     COMMA = ',';
+
+  /**
+   * @param transform of records, unwrapped if adapted from a
+   *          <code>BufferTransform</code>
+   * @param reversed true if records are in chronological order and must be
+   *          reversed
+   * @param fields names of the fields of each record, in order
+   */
+  public JsonTransformer(final TextTransform transform, final boolean reversed, final String... fields) {
+    super(transform);
+    if (fields.length == 0) {
+      throw new IllegalArgumentException("No fields");
+    }
+    recordTransform = BufferTransforms.adapt(transform);
+    this.reversed = reversed;
+    this.fields = fields.clone();
+    nameField = Arrays.asList(fields).indexOf(null);
+  }
+
+  /**
+   * @throws IllegalArgumentException if <code>lines</code> are not JSON
+   */
+  @Override
+  public List<String> transform(final List<String> lines) {
+    final List<String> newLines;
+    try {
+      newLines = transform(new JsonParser(lines));
+    }
+    catch (final IOException ioE) {
+      throw new IllegalArgumentException("Malformed JSON", ioE);
+    }
+
+    lines.clear();
+    lines.addAll(newLines);
+
+    return lines;
+  }
+
+  /**
+   * Transforms the JSON text read from <code>in</code> as it is read, without
+   * reading it into lines first.
+   *
+   * @param in
+   * @return the lines transformed
+   * @throws IOException if <code>in</code> cannot be read or is not JSON
+   */
+  public List<String> transform(final Reader in) throws IOException {
+    return transform(new JsonParser(in));
+  }
+
+  private final List<String> transform(final JsonParser parser) throws IOException {
+    final List<String> newLines = new ArrayList<>();
+    transform(parser, newLines);
+    if (reversed) {
+      Collections.reverse(newLines);
+    }
+    return newLines;
+  }
+
+  private final void transform(final JsonParser parser, final List<String> newLines) throws IOException {
+    final StringBuilder[] values = new StringBuilder[fields.length];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = new StringBuilder();
+    }
+    final boolean[] found = new boolean[fields.length];
+    final StringBuilder name = new StringBuilder();    // of the latest member
+    final StringBuilder record = new StringBuilder();
+    final StringBuilder out = new StringBuilder();
+    int recordDepth = -1;                               // of the innermost object
+    int field = -1;                                     // whose value is next
+    int count = 0;                                      // of fields found
+    boolean named = false;                              // next value is a member
+
+    for (Token token = parser.next(); token != Token.END; token = parser.next()) {
+      switch (token) {
+        case START_OBJECT:
+          recordDepth = parser.depth();
+          Arrays.fill(found, false);
+          count = 0;
+          if (named && nameField >= 0) {
+            values[nameField].setLength(0);
+            values[nameField].append(name);
+            found[nameField] = true;
+            ++count;
+          }
+          break;
+
+        case END_OBJECT:
+          if (parser.depth() == recordDepth - 1 && count == fields.length) {
+            record.setLength(0);
+            for (int i = 0; i < values.length; ++i) {
+              if (i > 0) {
+                record.append(COMMA);
+              }
+              record.append(values[i]);
+            }
+            out.setLength(0);
+            if (recordTransform.transform(CharBuffer.wrap(record), out)) {
+              newLines.add(out.toString());
+            }
+          }
+          recordDepth = -1;
+          break;
+
+        case NAME:
+          name.setLength(0);
+          name.append(parser.text());
+          field = (parser.depth() == recordDepth) ? indexOf(parser, found) : -1;
+          named = true;
+          continue;
+
+        case STRING:
+        case NUMBER:
+        case TRUE:
+        case FALSE:
+        case NULL:
+          if (field >= 0) {
+            values[field].setLength(0);
+            if (token == Token.TRUE || token == Token.FALSE) {
+              values[field].append(token == Token.TRUE);
+            }
+            else if (token != Token.NULL) {
+              values[field].append(parser.text());
+            }
+            found[field] = true;
+            ++count;
+          }
+          break;
+
+        default:
+          break;
+      }
+      field = -1;
+      named = false;
+    }
+  }
+
+  private final int indexOf(final JsonParser parser, final boolean[] found) {
+    for (int i = 0; i < fields.length; ++i) {
+      if (!found[i] && fields[i] != null && parser.isName(fields[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+}
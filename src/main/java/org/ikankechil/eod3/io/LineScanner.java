@@ -0,0 +1,288 @@
+/**
+ * LineScanner.java  v0.1  19 October 2026 4:21:38 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Scans lines and their fields straight from the bytes read from a channel,
+ * without decoding them into characters.
+ * <p>
+ * Suited to ASCII text, and to UTF-8, in which line terminators and
+ * delimiters are always single bytes. Lines are ended by a line feed,
+ * carriage return or both, and are read into a buffer reused from line to
+ * line, so that each is valid only until the next is scanned. Indices are of
+ * the bytes of <code>array()</code>.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class LineScanner implements Closeable {
+
+  private final ReadableByteChannel channel;
+  private byte[]                    bytes;
+  private ByteBuffer                buffer;               // reads into bytes
+  private ByteBuffer                view;                 // of the line
+  private int                       start;                // of the line
+  private int                       end;                  // of the line
+  private int                       next;                 // start of the next line
+  private int                       limit;                // of the bytes read
+  private boolean                   skipLF;               // after a carriage return
+  private boolean                   eof;
+
+  private static final int          BUFFER_SIZE = 1 << 16;
+  private static final byte         LF          = '\n';
+  private static final byte         CR          = '\r';
+
+  /**
+   * @param in read through a channel of its own, which closes it when this
+   *          is closed
+   */
+  public LineScanner(final InputStream in) {
+    this(Channels.newChannel(in));
+  }
+
+  public LineScanner(final ReadableByteChannel channel) {
+    this(channel, BUFFER_SIZE);
+  }
+
+  LineScanner(final ReadableByteChannel channel, final int bufferSize) {
+    if (channel == null) {
+      throw new NullPointerException("Null channel");
+    }
+    this.channel = channel;
+    bytes = new byte[bufferSize];
+    buffer = ByteBuffer.wrap(bytes);
+    view = ByteBuffer.wrap(bytes);
+  }
+
+  /**
+   * @param file
+   * @return a <code>LineScanner</code> reading <code>file</code> through a
+   *         <code>FileChannel</code>
+   * @throws IOException if <code>file</code> cannot be opened
+   */
+  public static LineScanner open(final Path file) throws IOException {
+    return new LineScanner(FileChannel.open(file, StandardOpenOption.READ));
+  }
+
+  /**
+   * Scans the next line, which may be empty.
+   *
+   * @return false at the end
+   * @throws IOException if the channel cannot be read
+   */
+  public boolean next() throws IOException {
+    int i = next;
+    while (true) {
+      if (i == limit) {
+        if (!eof) {
+          final int scanned = i - next;
+          fill();
+          i = next + scanned;
+          continue;
+        }
+        if (next == limit) {
+          start = end = next;
+          return false;
+        }
+        return line(limit, limit);
+      }
+
+      final byte b = bytes[i];
+      if (skipLF) {
+        skipLF = false;
+        if (b == LF) {
+          i = ++next;
+          continue;
+        }
+      }
+      if (b == LF || b == CR) {
+        skipLF = (b == CR);
+        return line(i, i + 1);
+      }
+      ++i;
+    }
+  }
+
+  private final boolean line(final int lineEnd, final int nextLine) {
+    start = next;
+    end = lineEnd;
+    next = nextLine;
+    return true;
+  }
+
+  /**
+   * Reads more bytes after those of the line being scanned, compacting or
+   * growing the buffer to make room.
+   */
+  private final void fill() throws IOException {
+    if (next > 0) {
+      System.arraycopy(bytes, next, bytes, 0, limit - next);
+      limit -= next;
+      next = 0;
+    }
+    if (limit == bytes.length) {
+      bytes = Arrays.copyOf(bytes, bytes.length << 1);
+      buffer = ByteBuffer.wrap(bytes);
+      view = ByteBuffer.wrap(bytes);
+    }
+    buffer.limit(bytes.length).position(limit);
+    final int read = channel.read(buffer);
+    if (read < 0) {
+      eof = true;
+    }
+    else {
+      limit += read;
+    }
+  }
+
+  /**
+   * @return the buffer holding the line, valid until the next is scanned
+   */
+  public byte[] array() {
+    return bytes;
+  }
+
+  public int start() {
+    return start;
+  }
+
+  public int end() {
+    return end;
+  }
+
+  public int length() {
+    return end - start;
+  }
+
+  public boolean isEmpty() {
+    return end == start;
+  }
+
+  /**
+   * @return a view of the line from its position to its limit, valid until
+   *         the next is scanned
+   */
+  public ByteBuffer line() {
+    view.limit(end).position(start);
+    return view;
+  }
+
+  /**
+   * @return true if the line is ASCII, and so its bytes are its characters
+   */
+  public boolean isAscii() {
+    for (int i = start; i < end; ++i) {
+      if (bytes[i] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param b
+   * @param from index at which to start searching
+   * @return index of the first <code>b</code> in the line at or after
+   *         <code>from</code>, or -1 if none
+   */
+  public int indexOf(final byte b, final int from) {
+    for (int i = Math.max(from, start); i < end; ++i) {
+      if (bytes[i] == b) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param n zero-based
+   * @param delimiter
+   * @return index of the start of field <code>n</code>, or -1 if the line
+   *         has fewer
+   */
+  public int field(final int n, final byte delimiter) {
+    int i = start;
+    for (int field = 0; field < n; ++field) {
+      final int found = indexOf(delimiter, i);
+      if (found < 0) {
+        return -1;
+      }
+      i = found + 1;
+    }
+    return i;
+  }
+
+  /**
+   * @param from index of the start of a field
+   * @param delimiter
+   * @return index of the end of the field, i.e. of the next
+   *         <code>delimiter</code> or the end of the line
+   */
+  public int fieldEnd(final int from, final byte delimiter) {
+    final int found = indexOf(delimiter, from);
+    return (found < 0) ? end : found;
+  }
+
+  /**
+   * Compares <code>bytes1</code> from <code>from1</code> to <code>to1</code>
+   * with <code>bytes2</code> from <code>from2</code> to <code>to2</code>
+   * lexicographically, as unsigned bytes.
+   */
+  public static int compare(final byte[] bytes1,
+                            final int from1,
+                            final int to1,
+                            final byte[] bytes2,
+                            final int from2,
+                            final int to2) {
+    for (int i = from1, j = from2; i < to1 && j < to2; ++i, ++j) {
+      final int difference = (bytes1[i] & 0xFF) - (bytes2[j] & 0xFF);
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return (to1 - from1) - (to2 - from2);
+  }
+
+  /**
+   * Writes the line followed by a line feed.
+   *
+   * @param out
+   * @throws IOException
+   */
+  public void writeTo(final OutputStream out) throws IOException {
+    out.write(bytes, start, end - start);
+    out.write(LF);
+  }
+
+  /**
+   * @return the line decoded from UTF-8
+   */
+  @Override
+  public String toString() {
+    return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * LineTally.java  v0.1  19 October 2026 9:42:18 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.util.List;
+
+/**
+ * The number of lines written to a file and the first and last of them, as
+ * counted by the writer, so that the file can be summarised without reading
+ * it back.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class LineTally {
+
+  private int    lines;
+  private String first;
+  private String last;
+
+  /**
+   * A tally to be filled in by a writer.
+   */
+  public LineTally() {
+  }
+
+  /**
+   * @param lines as written, in order
+   */
+  public LineTally(final List<String> lines) {
+    if (!lines.isEmpty()) {
+      set(lines.size(), lines.get(0), lines.get(lines.size() - 1));
+    }
+  }
+
+  final void set(final int lines, final String first, final String last) {
+    this.lines = lines;
+    this.first = first;
+    this.last = last;
+  }
+
+  /**
+   * @return number of lines written
+   */
+  public int lines() {
+    return lines;
+  }
+
+  /**
+   * @return the first line written, or null if none
+   */
+  public String first() {
+    return first;
+  }
+
+  /**
+   * @return the last line written, or null if none
+   */
+  public String last() {
+    return last;
+  }
+
+  @Override
+  public String toString() {
+    return "LineTally [lines: " + lines + ", first: " + first + ", last: " + last + "]";
+  }
+
+}
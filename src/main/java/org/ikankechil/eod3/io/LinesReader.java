@@ -0,0 +1,57 @@
+/**
+ * LinesReader.java  v0.1  19 October 2026 7:48:20 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.Reader;
+import java.util.Iterator;
+
+/**
+ * Reads lines, such as those read by <code>TextReader</code>, as a single
+ * text with each followed by a line feed, without copying them.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+class LinesReader extends Reader {
+
+  private final Iterator<? extends CharSequence> lines;
+  private CharSequence                           line;
+  private int                                    index; // in line, or its length for the line feed
+
+  private static final int                       EOF = -1;
+
+  LinesReader(final Iterable<? extends CharSequence> lines) {
+    this.lines = lines.iterator();
+  }
+
+  @Override
+  public int read(final char[] chars, final int offset, final int length) {
+    int read = 0;
+    while (read < length) {
+      if (line == null) {
+        if (!lines.hasNext()) {
+          break;
+        }
+        line = lines.next();
+        index = 0;
+      }
+      if (index < line.length()) {
+        chars[offset + read++] = line.charAt(index++);
+      }
+      else {
+        chars[offset + read++] = '\n';
+        line = null;
+      }
+    }
+    return (read == 0 && length > 0) ? EOF : read;
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+
+}
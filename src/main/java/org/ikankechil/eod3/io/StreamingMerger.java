@@ -0,0 +1,378 @@
+/**
+ * StreamingMerger.java  v0.1  19 October 2026 1:06:52 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges updates into a file of price and volume data in a single pass over
+ * both, holding no more than a line of each in memory, and copying lines as
+ * bytes without decoding them.
+ * <p>
+ * Lines of both are expected in reverse chronological order, as written by
+ * <code>Converter</code>, and are ordered by the date in their second field,
+ * which is compared byte by byte in place. An update replaces any line of the same date,
+ * and of several lines of the same date in one file, the first is kept.
+ * Files found out of order are merged in memory instead.
+ * <p>
+ * Merged lines are written to a temporary file in the same directory as the
+ * target, which replaces the target only once all lines are written.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class StreamingMerger {
+
+  private static final int    BUFFER_SIZE = 1 << 16;
+  private static final int    DATE_SIZE   = 8;       // YYYYMMDD
+  private static final byte   COMMA       = ',';
+  private static final byte   LF          = '\n';
+  private static final String TEMPORARY   = ".tmp";
+
+  private static final Logger logger      = LoggerFactory.getLogger(StreamingMerger.class);
+
+  /**
+   * Merges <code>updates</code> into <code>target</code>, which need not
+   * exist.
+   *
+   * @param updates
+   * @param target replaced once all lines are written, unless there are none
+   * @return number of lines written
+   * @throws IOException if either file cannot be read or <code>target</code>
+   *           written
+   */
+  public int merge(final File updates, final File target) throws IOException {
+    return merge(updates, null, target, null);
+  }
+
+  /**
+   * Merges <code>updates</code> into <code>target</code>, which need not
+   * exist, tallying the lines written.
+   *
+   * @param updates
+   * @param target replaced once all lines are written, unless there are none
+   * @param tally of the lines written to <code>target</code>
+   * @return number of lines written
+   * @throws IOException if either file cannot be read or <code>target</code>
+   *           written
+   */
+  public int merge(final File updates, final File target, final LineTally tally) throws IOException {
+    return merge(updates, null, target, tally);
+  }
+
+  /**
+   * Merges <code>updates</code> into <code>target</code>, which need not
+   * exist, without writing <code>updates</code> to a file of their own.
+   *
+   * @param updates iterated again if either is out of order
+   * @param target replaced once all lines are written, unless there are none
+   * @return number of lines written
+   * @throws IOException if <code>target</code> cannot be read or written
+   */
+  public int merge(final Iterable<String> updates, final File target) throws IOException {
+    return merge(null, updates, target, null);
+  }
+
+  /**
+   * Merges <code>updates</code> into <code>target</code>, which need not
+   * exist, without writing <code>updates</code> to a file of their own, and
+   * tallying the lines written.
+   *
+   * @param updates iterated again if either is out of order
+   * @param target replaced once all lines are written, unless there are none
+   * @param tally of the lines written to <code>target</code>
+   * @return number of lines written
+   * @throws IOException if <code>target</code> cannot be read or written
+   */
+  public int merge(final Iterable<String> updates, final File target, final LineTally tally) throws IOException {
+    return merge(null, updates, target, tally);
+  }
+
+  private final int merge(final File file, final Iterable<String> updates, final File target, final LineTally tally)
+      throws IOException {
+    final Path destination = target.toPath().toAbsolutePath();
+    final Path temporary = Files.createTempFile(destination.getParent(), destination.getFileName().toString(), TEMPORARY);
+    try {
+      int lines;
+      try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+        lines = merge(lines(file, updates), lines(target, null), out, tally);
+      }
+      if (lines < 0) {
+        logger.warn("Not in reverse chronological order, merging in memory: {} -> {}",
+                    (file == null) ? "updates" : file,
+                    target);
+        try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+          lines = sort(lines(file, updates), lines(target, null), out, tally);
+        }
+      }
+      if (lines > 0) {
+        Files.move(temporary, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return lines;
+    }
+    finally {
+      Files.deleteIfExists(temporary); // unless moved
+    }
+  }
+
+  /**
+   * @return the lines of <code>file</code>, or if null, <code>lines</code>
+   */
+  private static final Lines lines(final File file, final Iterable<String> lines) throws IOException {
+    if (file == null) {
+      final Iterator<String> iterator = lines.iterator();
+      return new Lines() {
+        @Override
+        boolean read() {
+          if (!iterator.hasNext()) {
+            return false;
+          }
+          bytes = iterator.next().getBytes(StandardCharsets.UTF_8);
+          start = 0;
+          end = bytes.length;
+          return true;
+        }
+      };
+    }
+    if (!file.exists()) {
+      return new Lines() {
+        @Override
+        boolean read() {
+          return false;
+        }
+      };
+    }
+    final LineScanner scanner = LineScanner.open(file.toPath());
+    return new Lines() {
+      @Override
+      boolean read() throws IOException {
+        if (!scanner.next()) {
+          return false;
+        }
+        bytes = scanner.array();
+        start = scanner.start();
+        end = scanner.end();
+        return true;
+      }
+
+      @Override
+      public void close() throws IOException {
+        scanner.close();
+      }
+    };
+  }
+
+  /**
+   * @return number of lines written, or -1 if either is out of order
+   */
+  private static final int merge(final Lines updates,
+                                 final Lines existing,
+                                 final OutputStream out,
+                                 final LineTally tally)
+      throws IOException {
+    try (final Lines u = updates; final Lines e = existing) {
+      boolean update = u.next();
+      boolean current = e.next();
+      byte[] last = new byte[DATE_SIZE]; // date of the last line written
+      int lastLength = -1;
+      String firstLine = null;
+      byte[] lastLine = new byte[BUFFER_SIZE >> 8];
+      int lastLineLength = 0;
+      int lines = 0;
+      while (update || current) {
+        final Lines line;
+        if (!current) {
+          line = u;
+        }
+        else if (!update) {
+          line = e;
+        }
+        else {
+          final int comparison = compareDates(u, e);
+          // update first, replacing a line of the same date
+          line = (comparison >= 0) ? u : e;
+          if (comparison == 0) {
+            current = e.next();
+          }
+        }
+
+        final int date = date(line);
+        final int dateEnd = dateEnd(line, date);
+        final int comparison = (lastLength < 0) ? -1
+                                                : LineScanner.compare(line.bytes, date, dateEnd, last, 0, lastLength);
+        if (comparison > 0) {
+          return -1;
+        }
+        if (comparison < 0) {
+          out.write(line.bytes, line.start, line.end - line.start);
+          out.write(LF);
+          if (last.length < dateEnd - date) {
+            last = new byte[dateEnd - date];
+          }
+          System.arraycopy(line.bytes, date, last, 0, lastLength = dateEnd - date);
+          if (tally != null) {
+            lastLineLength = line.end - line.start;
+            if (firstLine == null) {
+              firstLine = new String(line.bytes, line.start, lastLineLength, StandardCharsets.UTF_8);
+            }
+            if (lastLine.length < lastLineLength) {
+              lastLine = new byte[Math.max(lastLine.length << 1, lastLineLength)];
+            }
+            System.arraycopy(line.bytes, line.start, lastLine, 0, lastLineLength);
+          }
+          ++lines;
+        }
+        // duplicates skipped
+
+        if (line == u) {
+          update = u.next();
+        }
+        else {
+          current = e.next();
+        }
+      }
+      if (tally != null && lines > 0) {
+        tally.set(lines, firstLine, new String(lastLine, 0, lastLineLength, StandardCharsets.UTF_8));
+      }
+      return lines;
+    }
+  }
+
+  /**
+   * Merges in memory, for files out of order.
+   */
+  private static final int sort(final Lines updates,
+                                final Lines existing,
+                                final OutputStream out,
+                                final LineTally tally)
+      throws IOException {
+    final TreeMap<String, String> lines = new TreeMap<>(); // Map<Date, Line>
+    for (final Lines source : Arrays.asList(existing, updates)) { // updates last to replace
+      try (final Lines s = source) {
+        final Map<String, String> read = new TreeMap<>();
+        while (s.next()) {
+          final int date = date(s);
+          final String key = new String(s.bytes, date, dateEnd(s, date) - date, StandardCharsets.UTF_8);
+          if (!read.containsKey(key)) { // first of a date kept
+            read.put(key, new String(s.bytes, s.start, s.end - s.start, StandardCharsets.UTF_8));
+          }
+        }
+        lines.putAll(read);
+      }
+    }
+    for (final String line : lines.descendingMap().values()) {
+      out.write(line.getBytes(StandardCharsets.UTF_8));
+      out.write(LF);
+    }
+    if (tally != null && !lines.isEmpty()) {
+      tally.set(lines.size(), lines.lastEntry().getValue(), lines.firstEntry().getValue());
+    }
+    return lines.size();
+  }
+
+  /**
+   * Lines of updates or of the target, as bytes.
+   */
+  private abstract static class Lines implements Closeable {
+
+    byte[] bytes;
+    int    start;
+    int    end;
+
+    /**
+     * Reads the next line into <code>bytes</code> from <code>start</code> to
+     * <code>end</code>.
+     *
+     * @return false at the end
+     */
+    abstract boolean read() throws IOException;
+
+    /**
+     * Reads the next non-empty line.
+     *
+     * @return false at the end
+     */
+    final boolean next() throws IOException {
+      while (read()) {
+        if (end > start) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      // nothing to release
+    }
+
+  }
+
+  private static final int compareDates(final Lines lines1, final Lines lines2) {
+    return compareDates(lines1.bytes, lines1.start, lines1.end, lines2.bytes, lines2.start, lines2.end);
+  }
+
+  /**
+   * Compares the dates in the second fields of two lines byte by byte,
+   * without decoding either.
+   */
+  static final int compareDates(final byte[] line1,
+                                final int start1,
+                                final int end1,
+                                final byte[] line2,
+                                final int start2,
+                                final int end2) {
+    final int date1 = date(line1, start1, end1);
+    final int date2 = date(line2, start2, end2);
+    return LineScanner.compare(line1, date1, dateEnd(line1, date1, end1), line2, date2, dateEnd(line2, date2, end2));
+  }
+
+  private static final int date(final Lines line) {
+    return date(line.bytes, line.start, line.end);
+  }
+
+  private static final int dateEnd(final Lines line, final int date) {
+    return dateEnd(line.bytes, date, line.end);
+  }
+
+  /**
+   * @return index of the date in the second field, or of the start of a line
+   *         of a single field
+   */
+  private static final int date(final byte[] line, final int start, final int end) {
+    for (int i = start; i < end; ++i) {
+      if (line[i] == COMMA) {
+        return i + 1;
+      }
+    }
+    return start;
+  }
+
+  private static final int dateEnd(final byte[] line, final int date, final int end) {
+    for (int i = date; i < end; ++i) {
+      if (line[i] == COMMA) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+}
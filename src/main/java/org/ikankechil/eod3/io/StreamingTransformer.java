@@ -0,0 +1,435 @@
+/**
+ * StreamingTransformer.java  v0.1  18 October 2026 11:07:32 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.ikankechil.io.TextTransform;
+
+/**
+ * Transforms text a line at a time as it is read, writing each line as it is
+ * transformed, so that memory does not grow with the length of the text.
+ * <p>
+ * Lines are read into, transformed in and written from buffers reused from
+ * line to line, so that a <code>BufferTransform</code> transforms them without
+ * allocating, and ASCII lines are read without decoding. Lines to be reversed
+ * are held in memory up to a limit, beyond which they are spilled to a
+ * temporary file and read back from its end. Lines are written to a temporary
+ * file in the same directory as the destination, which replaces the
+ * destination only once all lines are written.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class StreamingTransformer {
+
+  private final BufferTransform transform;
+  private final int             headerRows;
+  private final boolean         reverse;
+  private final int             spillThreshold; // chars
+
+  private static final int      BUFFER_SIZE     = 1 << 16;
+  private static final int      LINE_SIZE       = 1 << 8;
+  private static final int      SPILL_THRESHOLD = 1 << 20;
+  private static final byte     LF              = '\n';
+  private static final String   TEMPORARY       = ".tmp";
+  private static final String   SPILL           = ".spill";
+
+  /**
+   * @param transform applied to each line
+   * @param headerRows number of lines skipped before transforming
+   * @param reverse reverses the order of lines, e.g. into reverse
+   *          chronological order
+   */
+  public StreamingTransformer(final BufferTransform transform, final int headerRows, final boolean reverse) {
+    this(transform, headerRows, reverse, SPILL_THRESHOLD);
+  }
+
+  /**
+   * @param transform a legacy transform, allocating a <code>String</code> for
+   *          each line read and transformed
+   * @param headerRows number of lines skipped before transforming
+   * @param reverse reverses the order of lines
+   */
+  public StreamingTransformer(final TextTransform transform, final int headerRows, final boolean reverse) {
+    this(BufferTransforms.adapt(transform), headerRows, reverse);
+  }
+
+  StreamingTransformer(final TextTransform transform,
+                       final int headerRows,
+                       final boolean reverse,
+                       final int spillThreshold) {
+    this(BufferTransforms.adapt(transform), headerRows, reverse, spillThreshold);
+  }
+
+  StreamingTransformer(final BufferTransform transform,
+                       final int headerRows,
+                       final boolean reverse,
+                       final int spillThreshold) {
+    if (transform == null) {
+      throw new NullPointerException("Null transform");
+    }
+    if (headerRows < 0) {
+      throw new IllegalArgumentException("Negative header rows: " + headerRows);
+    }
+    this.transform = transform;
+    this.headerRows = headerRows;
+    this.reverse = reverse;
+    this.spillThreshold = spillThreshold;
+  }
+
+  /**
+   * Transforms lines read from <code>source</code> and writes them to
+   * <code>destination</code>, skipping empty lines. <code>source</code> is
+   * left open.
+   *
+   * @param source UTF-8 text
+   * @param destination replaced once all lines are written, unless there are
+   *          none
+   * @return number of lines written
+   * @throws IOException if <code>source</code> cannot be read or
+   *           <code>destination</code> written
+   */
+  public int transform(final InputStream source, final File destination) throws IOException {
+    return transform(source, destination, null);
+  }
+
+  /**
+   * Transforms lines read from <code>source</code> and writes them to
+   * <code>destination</code>, skipping empty lines and tallying the lines
+   * written. <code>source</code> is left open.
+   *
+   * @param source UTF-8 text
+   * @param destination replaced once all lines are written, unless there are
+   *          none
+   * @param tally of the lines written to <code>destination</code>
+   * @return number of lines written
+   * @throws IOException if <code>source</code> cannot be read or
+   *           <code>destination</code> written
+   */
+  public int transform(final InputStream source, final File destination, final LineTally tally)
+      throws IOException {
+    final Path target = destination.toPath().toAbsolutePath();
+    final Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMPORARY);
+    try {
+      final int lines;
+      try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+        lines = transform(new LineReader(new LineScanner(source)),
+                          new LineWriter(out),
+                          out,
+                          target,
+                          tally);
+      }
+      if (lines > 0) {
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return lines;
+    }
+    finally {
+      Files.deleteIfExists(temporary); // unless moved
+    }
+  }
+
+  private final int transform(final LineReader reader,
+                              final LineWriter writer,
+                              final OutputStream out,
+                              final Path target,
+                              final LineTally tally)
+      throws IOException {
+    for (int row = 0; row < headerRows; ++row) {
+      if (reader.next() == null) {
+        return 0;
+      }
+    }
+
+    final StringBuilder transformed = new StringBuilder(LINE_SIZE);
+    final StringBuilder last = (tally == null) ? null : new StringBuilder(LINE_SIZE); // last transformed
+    String first = null;                                                               // first transformed
+    final Held held = reverse ? new Held() : null; // lines to be reversed
+    Path spill = null;
+    OutputStream spilled = null;
+    LineWriter spillWriter = null;
+    int lines = 0;
+    try {
+      CharBuffer line;
+      while ((line = reader.next()) != null) {
+        if (!line.hasRemaining()) {
+          continue;
+        }
+        transformed.setLength(0);
+        if (!transform.transform(line, transformed)) {
+          continue;
+        }
+        ++lines;
+        if (tally != null) {
+          if (first == null) {
+            first = transformed.toString();
+          }
+          last.setLength(0);
+          last.append(transformed);
+        }
+        if (!reverse) {
+          writer.write(transformed, 0, transformed.length());
+          continue;
+        }
+
+        held.add(transformed);
+        if (held.length > spillThreshold) {
+          if (spill == null) {
+            spill = Files.createTempFile(target.getParent(), target.getFileName().toString(), SPILL);
+            spilled = new BufferedOutputStream(Files.newOutputStream(spill), BUFFER_SIZE);
+            spillWriter = new LineWriter(spilled);
+          }
+          for (int i = 0; i < held.lines; ++i) {
+            spillWriter.write(held.view, held.start(i), held.ends[i]);
+          }
+          held.clear();
+        }
+      }
+
+      if (reverse) {
+        // latest first: those held, then those spilled
+        for (int i = held.lines - 1; i >= 0; --i) {
+          writer.write(held.view, held.start(i), held.ends[i]);
+        }
+        writer.flush();
+        if (spill != null) {
+          spillWriter.flush();
+          spilled.close();
+          reverse(spill, out);
+        }
+      }
+      else {
+        writer.flush();
+      }
+      if (tally != null && lines > 0) {
+        tally.set(lines, reverse ? last.toString() : first, reverse ? first : last.toString());
+      }
+      return lines;
+    }
+    finally {
+      if (spill != null) {
+        spilled.close();
+        Files.deleteIfExists(spill);
+      }
+    }
+  }
+
+  /**
+   * Writes the lines of <code>spill</code> to <code>out</code> in reverse
+   * order, reading <code>spill</code> a block at a time from its end.
+   */
+  private static final void reverse(final Path spill, final OutputStream out) throws IOException {
+    try (final FileChannel channel = FileChannel.open(spill, StandardOpenOption.READ)) {
+      final ByteBuffer block = ByteBuffer.allocate(BUFFER_SIZE);
+      final byte[] bytes = block.array();
+      byte[] pending = new byte[BUFFER_SIZE]; // start of a line continued in the next block, filled from the end
+      int start = pending.length;
+
+      long position = Math.max(0, channel.size() - 1); // excluding the line feed ending the last line
+      while (position > 0) {
+        final int length = (int) Math.min(bytes.length, position);
+        position -= length;
+        block.clear().limit(length);
+        while (block.hasRemaining()) {
+          if (channel.read(block, position + block.position()) < 0) {
+            throw new EOFException("Spill truncated: " + spill);
+          }
+        }
+
+        int end = length;
+        for (int i = length - 1; i >= 0; --i) {
+          if (bytes[i] == LF) {
+            out.write(bytes, i + 1, end - i - 1);
+            out.write(pending, start, pending.length - start);
+            out.write(LF);
+            start = pending.length;
+            end = i;
+          }
+        }
+
+        // prepend the rest of the block to the line continued
+        final int used = pending.length - start;
+        if (end > start) {
+          final byte[] larger = new byte[Math.max(2 * pending.length, used + end)];
+          System.arraycopy(pending, start, larger, larger.length - used, used);
+          pending = larger;
+          start = larger.length - used;
+        }
+        start -= end;
+        System.arraycopy(bytes, 0, pending, start, end);
+      }
+
+      // first line
+      if (start < pending.length) {
+        out.write(pending, start, pending.length - start);
+        out.write(LF);
+      }
+    }
+  }
+
+  /**
+   * Reads lines through a <code>LineScanner</code> into a buffer of characters
+   * reused from line to line, widening the bytes of ASCII lines rather than
+   * decoding them.
+   */
+  private static final class LineReader {
+
+    private final LineScanner    scanner;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                                                                 .onMalformedInput(CodingErrorAction.REPLACE)
+                                                                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[]               chars   = new char[LINE_SIZE];
+    private CharBuffer           line    = CharBuffer.wrap(chars);
+
+    LineReader(final LineScanner scanner) {
+      this.scanner = scanner;
+    }
+
+    /**
+     * @return the next line, valid until the next call, or null at the end
+     */
+    CharBuffer next() throws IOException {
+      if (!scanner.next()) {
+        return null;
+      }
+      final int length = scanner.length();
+      if (length > chars.length) {
+        chars = new char[Math.max(chars.length << 1, length)];
+        line = CharBuffer.wrap(chars);
+      }
+      line.clear();
+
+      final byte[] bytes = scanner.array();
+      final int start = scanner.start();
+      for (int i = 0; i < length; ++i) {
+        final byte b = bytes[start + i];
+        if (b < 0) { // not ASCII
+          decoder.reset();
+          decoder.decode(scanner.line(), line, true);
+          decoder.flush(line);
+          line.flip();
+          return line;
+        }
+        chars[i] = (char) b;
+      }
+      line.limit(length);
+      return line;
+    }
+
+  }
+
+  /**
+   * Encodes lines into UTF-8 through a buffer reused from line to line.
+   */
+  private static final class LineWriter {
+
+    private final OutputStream out;
+    private final byte[]       bytes = new byte[BUFFER_SIZE];
+    private int                length;
+
+    LineWriter(final OutputStream out) {
+      this.out = out;
+    }
+
+    /**
+     * Writes the characters of <code>line</code> from <code>start</code> to
+     * <code>end</code>, followed by a line feed.
+     */
+    void write(final CharSequence line, final int start, final int end) throws IOException {
+      for (int i = start; i < end; ++i) {
+        if (length > bytes.length - 4) {
+          flush();
+        }
+        final char c = line.charAt(i);
+        if (c < 0x80) {
+          bytes[length++] = (byte) c;
+        }
+        else if (c < 0x800) {
+          bytes[length++] = (byte) (0xC0 | (c >> 6));
+          bytes[length++] = (byte) (0x80 | (c & 0x3F));
+        }
+        else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(line.charAt(i + 1))) {
+          final int codePoint = Character.toCodePoint(c, line.charAt(++i));
+          bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+          bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+          bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+          bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        else if (Character.isSurrogate(c)) { // unpaired
+          bytes[length++] = '?';
+        }
+        else {
+          bytes[length++] = (byte) (0xE0 | (c >> 12));
+          bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+          bytes[length++] = (byte) (0x80 | (c & 0x3F));
+        }
+      }
+      if (length == bytes.length) {
+        flush();
+      }
+      bytes[length++] = LF;
+    }
+
+    void flush() throws IOException {
+      out.write(bytes, 0, length);
+      length = 0;
+    }
+
+  }
+
+  /**
+   * Lines held end to end in a buffer, to be reversed.
+   */
+  private static final class Held {
+
+    char[]     chars = new char[BUFFER_SIZE];
+    CharBuffer view  = CharBuffer.wrap(chars);
+    int[]      ends  = new int[BUFFER_SIZE / LINE_SIZE];
+    int        lines;
+    int        length;                                  // chars
+
+    void add(final StringBuilder line) {
+      final int size = line.length();
+      if (length + size > chars.length) {
+        chars = Arrays.copyOf(chars, Math.max(chars.length << 1, length + size));
+        view = CharBuffer.wrap(chars);
+      }
+      if (lines == ends.length) {
+        ends = Arrays.copyOf(ends, ends.length << 1);
+      }
+      line.getChars(0, size, chars, length);
+      ends[lines++] = length += size;
+    }
+
+    int start(final int line) {
+      return (line == 0) ? 0 : ends[line - 1];
+    }
+
+    void clear() {
+      lines = 0;
+      length = 0;
+    }
+
+  }
+
+}
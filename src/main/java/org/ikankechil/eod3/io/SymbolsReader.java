@@ -10,6 +10,8 @@ import static org.ikankechil.util.StringUtility.*;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +26,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Reads stock symbols from a proprietary format.
+ * <p>
+ * Unless read by a given <code>TextReader</code>, lines are scanned as bytes,
+ * and only those that are not ASCII are decoded.
  *
  * @author Daniel Kuan
  * @version 2.0
@@ -34,8 +39,11 @@ public class SymbolsReader {
 
   private final TextReader      reader;
   private final TextTransformer transformer;
+  private final boolean         scan;     // lines as bytes
 
   private static final String   EMPTY  = "";
+  private static final byte     COMMA  = ',';
+  private static final byte     SPACE  = ' ';
 
   static final Logger           logger = LoggerFactory.getLogger(SymbolsReader.class);
 
@@ -46,6 +54,7 @@ public class SymbolsReader {
   public SymbolsReader(final TextReader reader) {
     this.reader = (reader == null) ? new TextReader() : reader;
     transformer = new TextTransformer(new SymbolsTransform());
+    scan = (reader == null);
   }
 
   /**
@@ -63,8 +72,13 @@ public class SymbolsReader {
     logger.info("Reading symbols from: {}", source);
     markets = new HashMap<>();
 
-    final List<String> lines = reader.read(source);
-    transformer.transform(lines);
+    if (scan) {
+      scan(source);
+    }
+    else {
+      final List<String> lines = reader.read(source);
+      transformer.transform(lines);
+    }
     logger.info("Markets populated: {}", markets.size());
 
     sort();
@@ -73,6 +87,62 @@ public class SymbolsReader {
     return markets; // Map<Exchange, Set<Symbol>>
   }
 
+  private void scan(final File source) throws FileNotFoundException, IOException {
+    if (!source.isFile()) {
+      throw new FileNotFoundException(source + " (not a file)");
+    }
+
+    final SymbolsTransform transform = new SymbolsTransform();
+    final StringBuilder field = new StringBuilder();
+    try (final LineScanner scanner = LineScanner.open(source.toPath())) {
+      while (scanner.next()) {
+        if (!scanner.isAscii()) {
+          transform.transform(scanner.toString());
+          continue;
+        }
+
+        // remove spaces and split, as SymbolsTransform does
+        final byte[] bytes = scanner.array();
+        final List<String> symbols = new ArrayList<>();
+        for (int i = scanner.start(); i <= scanner.end(); ++i) {
+          if (i == scanner.end() || bytes[i] == COMMA) {
+            if (field.length() > 0 || symbols.isEmpty()) { // empty symbols ignored
+              symbols.add(field.toString());
+              field.setLength(0);
+            }
+          }
+          else if (bytes[i] != SPACE) {
+            field.append(Character.toUpperCase((char) bytes[i]));
+          }
+        }
+        add(symbols.get(0), symbols.subList(1, symbols.size()));
+      }
+    }
+  }
+
+  private void add(final String exchange, final List<String> symbols) {
+    // ignore empty exchange and symbols
+    if (exchange.isEmpty()) {
+      logger.debug("Empty exchange omitted: {}", exchange);
+    }
+    else if (symbols.isEmpty()) {
+      logger.debug("Member-less exchange omitted: {}", exchange);
+    }
+    else {
+      final Set<String> incumbents = markets.get(exchange);
+      if (incumbents == null) {
+        // Map<Exchange, Set<Symbol>>
+        markets.put(exchange, new TreeSet<>(symbols)); // remove duplicates
+        logger.debug("New exchange added: {}", exchange);
+      }
+      else {
+        final int count = incumbents.size();
+        incumbents.addAll(symbols);
+        logger.debug("New symbols added: {}", (incumbents.size() - count));
+      }
+    }
+  }
+
   private void sort() {
     int count = 0;
     for (final Set<String> symbols : markets.values()) {
@@ -105,27 +175,7 @@ public class SymbolsReader {
                                    COMMA);
       final String exchange = symbols.get(0);
       symbols = symbols.subList(1, symbols.size());
-
-      // ignore empty exchange and symbols
-      if (exchange.isEmpty()) {
-        logger.debug("Empty exchange omitted: {}", exchange);
-      }
-      else if (symbols.isEmpty()) {
-        logger.debug("Member-less exchange omitted: {}", exchange);
-      }
-      else {
-        final Set<String> incumbents = markets.get(exchange);
-        if (incumbents == null) {
-          // Map<Exchange, Set<Symbol>>
-          markets.put(exchange, new TreeSet<>(symbols)); // remove duplicates
-          logger.debug("New exchange added: {}", exchange);
-        }
-        else {
-          final int count = incumbents.size();
-          incumbents.addAll(symbols);
-          logger.debug("New symbols added: {}", (incumbents.size() - count));
-        }
-      }
+      add(exchange, symbols);
 
       return exchange;
     }
@@ -0,0 +1,253 @@
+/**
+ * Transport.java  v0.1  18 October 2026 8:14:52 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches the content of <code>URL</code>s for a source, sharing connections
+ * across the tasks reading from it. Content can be fetched conditionally on
+ * having changed since it was last read.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public interface Transport {
+
+  /**
+   * Opens <code>url</code> for reading by the current thread until the
+   * returned stream is closed.
+   *
+   * @param url
+   * @return an <code>InputStream</code> over the content of <code>url</code>
+   * @throws FileNotFoundException if the content is missing
+   * @throws HttpStatusException if the server answers with another error status
+   * @throws IOException if the connection cannot be opened or is aborted
+   */
+  InputStream open(final URL url) throws IOException;
+
+  /**
+   * Opens <code>url</code> for reading by the current thread, unless its
+   * content has not changed since <code>validators</code> were received with
+   * it.
+   *
+   * @param url
+   * @param validators received with the content last read, or null
+   * @return the response and its validators, or null if not modified
+   * @throws FileNotFoundException if the content is missing
+   * @throws HttpStatusException if the server answers with another error status
+   * @throws IOException if the connection cannot be opened or is aborted
+   */
+  Response open(final URL url, final Validators validators) throws IOException;
+
+  /**
+   * Opens bytes <code>first</code> to <code>last</code>, inclusive, of the
+   * content of <code>url</code>, as stored and not compressed for transfer.
+   *
+   * @param url
+   * @param first offset of the first byte
+   * @param last offset of the last byte
+   * @return an <code>InputStream</code> over the range
+   * @throws IOException if the range is not served
+   */
+  InputStream open(final URL url, final long first, final long last) throws IOException;
+
+  /**
+   * Probes whether the content of <code>url</code> can be fetched in byte
+   * ranges.
+   *
+   * @param url
+   * @return length of the content in bytes, or -1 if unknown or byte ranges
+   *         are not supported
+   * @throws IOException if the probe fails
+   */
+  long rangeLength(final URL url) throws IOException;
+
+  /**
+   * Aborts the connection <code>thread</code> is reading from, if it can be,
+   * causing its blocked reads to fail. Not every connection can be aborted at
+   * every stage of a request, so reads must still be bounded otherwise, e.g.
+   * by a read time-out.
+   *
+   * @param thread
+   * @return true if a connection was aborted
+   */
+  boolean abort(final Thread thread);
+
+  /**
+   * Discards any copy kept of the response of <code>url</code>, once its
+   * content has been rejected, e.g. by failing to transform, so that it is
+   * fetched again rather than served from the copy.
+   *
+   * @param url
+   */
+  void discard(final URL url);
+
+  /**
+   * @return cumulative timings of the requests completed so far
+   */
+  Timings timings();
+
+  /**
+   * Time spent by requests connecting, waiting for the first byte of the
+   * response and reading the response body.
+   */
+  final class Timings {
+
+    private final long requests;
+    private final long connections;
+    private final long connectNanos;   // total
+    private final long firstByteNanos; // total
+    private final long bodyNanos;      // total
+
+    /**
+     * @param requests number of requests
+     * @param connections number of new connections, the rest being reused
+     * @param connectNanos total time spent connecting
+     * @param firstByteNanos total time from connecting to the first byte
+     * @param bodyNanos total time from the first byte to the last
+     */
+    public Timings(final long requests,
+                   final long connections,
+                   final long connectNanos,
+                   final long firstByteNanos,
+                   final long bodyNanos) {
+      this.requests = requests;
+      this.connections = connections;
+      this.connectNanos = connectNanos;
+      this.firstByteNanos = firstByteNanos;
+      this.bodyNanos = bodyNanos;
+    }
+
+    public long requests() {
+      return requests;
+    }
+
+    public long connections() {
+      return connections;
+    }
+
+    /**
+     * @param unit
+     * @return mean time spent connecting, which is next to none for reused
+     *         connections
+     */
+    public long connect(final TimeUnit unit) {
+      return mean(connectNanos, unit);
+    }
+
+    /**
+     * @param unit
+     * @return mean time to first byte after connecting
+     */
+    public long firstByte(final TimeUnit unit) {
+      return mean(firstByteNanos, unit);
+    }
+
+    /**
+     * @param unit
+     * @return mean time reading the response body
+     */
+    public long body(final TimeUnit unit) {
+      return mean(bodyNanos, unit);
+    }
+
+    private final long mean(final long nanos, final TimeUnit unit) {
+      return (requests == 0) ? 0 : unit.convert(nanos / requests, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return "Timings [requests: " + requests +
+             ", connections: " + connections +
+             ", connect: " + connect(TimeUnit.MILLISECONDS) +
+             " ms, first byte: " + firstByte(TimeUnit.MILLISECONDS) +
+             " ms, body: " + body(TimeUnit.MILLISECONDS) + " ms]";
+    }
+
+  }
+
+  /**
+   * Identifies the version of the content of a <code>URL</code> by the ETag
+   * and Last-Modified headers of its response, either of which may be absent.
+   */
+  final class Validators {
+
+    private final String            etag;
+    private final String            lastModified;
+
+    public static final Validators  NONE = new Validators(null, null);
+
+    public Validators(final String etag, final String lastModified) {
+      this.etag = etag;
+      this.lastModified = lastModified;
+    }
+
+    public String etag() {
+      return etag;
+    }
+
+    public String lastModified() {
+      return lastModified;
+    }
+
+    /**
+     * @return true if neither header was received, in which case the content
+     *         cannot be revalidated
+     */
+    public boolean isEmpty() {
+      return etag == null && lastModified == null;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+      if (this == object) {
+        return true;
+      }
+      if (!(object instanceof Validators)) {
+        return false;
+      }
+      final Validators that = (Validators) object;
+      return Objects.equals(etag, that.etag) && Objects.equals(lastModified, that.lastModified);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(etag, lastModified);
+    }
+
+    @Override
+    public String toString() {
+      return "Validators [ETag: " + etag + ", Last-Modified: " + lastModified + "]";
+    }
+
+  }
+
+  /**
+   * A response and the validators received with it.
+   */
+  class Response extends FilterInputStream {
+
+    private final Validators validators;
+
+    public Response(final InputStream response, final Validators validators) {
+      super(response);
+      this.validators = (validators == null) ? Validators.NONE : validators;
+    }
+
+    public Validators validators() {
+      return validators;
+    }
+
+  }
+
+}
@@ -0,0 +1,442 @@
+/**
+ * URLConnector.java  v0.1  18 October 2026 3:26:58 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opens <code>URL</code>s with connect and read time-outs, keeping track of the
+ * connection each thread is reading from so that it can be aborted from
+ * another thread.
+ * <p>
+ * Connections are kept alive and pooled per host by the Java runtime, and are
+ * returned to the pool once responses, including error responses, are read
+ * to the end. Unless set, system property <code>http.maxConnections</code> is
+ * raised so that the pool keeps as many idle connections per host as there
+ * may be tasks reading from it. Only new HTTPS connections are counted in
+ * <code>timings()</code>.
+ * <p>
+ * HTTP responses are requested compressed, and gzip- or deflate-encoded
+ * responses are decompressed as they are read. Conditional requests send the
+ * validators of the content last read as If-None-Match and If-Modified-Since
+ * headers. Error statuses are thrown as <code>HttpStatusException</code>s,
+ * except for missing content, which is thrown as a
+ * <code>FileNotFoundException</code>.
+ * <p>
+ * Interrupting a thread blocked on a socket read does not unblock it, whereas
+ * closing its socket does. Sockets are tracked for HTTPS connections as they
+ * are created. Any other connection, over plain HTTP or reused from the pool,
+ * is aborted while awaiting its response by disconnecting its
+ * <code>HttpURLConnection</code>, which closes its socket. Disconnecting no
+ * longer closes the socket once the response body is being read, so such
+ * reads cannot be aborted and are bounded by the read time-out instead.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class URLConnector implements Transport {
+
+  private final int                                      timeout;  // milliseconds
+  private final ConcurrentMap<Thread, Socket>            sockets  = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Thread, HttpURLConnection> awaiting = new ConcurrentHashMap<>(); // a response
+  private final SSLSocketFactory                         socketFactory;
+
+  // timings
+  private final AtomicLong                   requests        = new AtomicLong();
+  private final AtomicLong                   connections     = new AtomicLong();
+  private final AtomicLong                   connectNanos    = new AtomicLong();
+  private final AtomicLong                   firstByteNanos  = new AtomicLong();
+  private final AtomicLong                   bodyNanos       = new AtomicLong();
+
+  private static final String                MAX_CONNECTIONS = "http.maxConnections";
+  private static final int                   KEEP_ALIVE      = 25 * Runtime.getRuntime().availableProcessors(); // largest thread pool
+  private static final int                   BUFFER_SIZE     = 8192;
+
+  // content encodings
+  private static final String                ACCEPT_ENCODING = "Accept-Encoding";
+  private static final String                ENCODINGS       = "gzip, deflate";
+  private static final String                GZIP            = "gzip";
+  private static final String                X_GZIP          = "x-gzip";
+  private static final String                DEFLATE         = "deflate";
+
+  // byte ranges
+  private static final String                RANGE           = "Range";
+  private static final String                ACCEPT_RANGES   = "Accept-Ranges";
+  private static final String                BYTES           = "bytes";
+  private static final String                IDENTITY        = "identity";
+  private static final String                HEAD            = "HEAD";
+
+  // conditional requests
+  private static final String                IF_NONE_MATCH   = "If-None-Match";
+  private static final String                IF_MODIFIED     = "If-Modified-Since";
+  private static final String                ETAG            = "ETag";
+  private static final String                LAST_MODIFIED   = "Last-Modified";
+
+  private static final Logger                logger          = LoggerFactory.getLogger(URLConnector.class);
+
+  static {
+    // read once, when the first connection is kept alive
+    if (System.getProperty(MAX_CONNECTIONS) == null) {
+      System.setProperty(MAX_CONNECTIONS, String.valueOf(KEEP_ALIVE));
+    }
+  }
+
+  /**
+   * @param timeout connect and read time-out in milliseconds
+   */
+  public URLConnector(final int timeout) {
+    if (timeout <= 0) {
+      throw new IllegalArgumentException("Non-positive timeout: " + timeout);
+    }
+    this.timeout = timeout;
+    socketFactory = new TrackingSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory());
+  }
+
+  @Override
+  public Response open(final URL url) throws IOException {
+    return open(url, null);
+  }
+
+  @Override
+  public Response open(final URL url, final Validators validators) throws IOException {
+    final long start = System.nanoTime();
+    final URLConnection connection = connection(url);
+    if (connection instanceof HttpURLConnection) {
+      connection.setRequestProperty(ACCEPT_ENCODING, ENCODINGS);
+      if (validators != null) {
+        if (validators.etag() != null) {
+          connection.setRequestProperty(IF_NONE_MATCH, validators.etag());
+        }
+        if (validators.lastModified() != null) {
+          connection.setRequestProperty(IF_MODIFIED, validators.lastModified());
+        }
+      }
+    }
+    return open(connection, start, false);
+  }
+
+  @Override
+  public Response open(final URL url, final long first, final long last) throws IOException {
+    final long start = System.nanoTime();
+    final URLConnection connection = connection(url);
+    if (!(connection instanceof HttpURLConnection)) {
+      throw new IOException("Byte ranges not supported: " + url);
+    }
+    connection.setRequestProperty(ACCEPT_ENCODING, IDENTITY);
+    connection.setRequestProperty(RANGE, BYTES + '=' + first + '-' + last);
+    return open(connection, start, true);
+  }
+
+  @Override
+  public long rangeLength(final URL url) throws IOException {
+    final URLConnection connection = connection(url);
+    if (!(connection instanceof HttpURLConnection)) {
+      return -1;
+    }
+    final HttpURLConnection http = (HttpURLConnection) connection;
+    http.setRequestMethod(HEAD);
+    http.setRequestProperty(ACCEPT_ENCODING, IDENTITY);
+    awaiting.put(Thread.currentThread(), http);
+    try {
+      if (http.getResponseCode() != HttpURLConnection.HTTP_OK) {
+        release(http);
+        return -1;
+      }
+      http.getInputStream().close(); // no body, returns the connection to the pool
+      final String acceptRanges = http.getHeaderField(ACCEPT_RANGES);
+      return (acceptRanges != null && BYTES.equalsIgnoreCase(acceptRanges.trim())) ? http.getContentLengthLong() : -1;
+    }
+    finally {
+      awaiting.remove(Thread.currentThread());
+      sockets.remove(Thread.currentThread());
+    }
+  }
+
+  private final URLConnection connection(final URL url) throws IOException {
+    final URLConnection connection = url.openConnection();
+    connection.setConnectTimeout(timeout);
+    connection.setReadTimeout(timeout);
+    if (connection instanceof HttpsURLConnection) {
+      ((HttpsURLConnection) connection).setSSLSocketFactory(socketFactory);
+    }
+    return connection;
+  }
+
+  /**
+   * @param range true if a byte range is requested, which must be served
+   */
+  private final Response open(final URLConnection connection, final long start, final boolean range)
+      throws IOException {
+    final URL url = connection.getURL();
+    final Thread thread = Thread.currentThread();
+    if (connection instanceof HttpURLConnection) {
+      awaiting.put(thread, (HttpURLConnection) connection);
+    }
+    try {
+      connection.connect(); // or reuse a pooled connection
+      final long connected = System.nanoTime();
+      final boolean opened = sockets.containsKey(thread);
+      if (connection instanceof HttpURLConnection) {
+        final int responseCode = ((HttpURLConnection) connection).getResponseCode();
+        if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST &&
+            responseCode != HttpURLConnection.HTTP_NOT_FOUND &&
+            responseCode != HttpURLConnection.HTTP_GONE) { // FileNotFoundException, as before
+          throw new HttpStatusException(url, responseCode);
+        }
+      }
+      if (range) {
+        final int responseCode = ((HttpURLConnection) connection).getResponseCode();
+        if (responseCode != HttpURLConnection.HTTP_PARTIAL) {
+          if (responseCode == HttpURLConnection.HTTP_OK) {
+            ((HttpURLConnection) connection).disconnect(); // rather than read the whole content
+          }
+          throw new IOException("Byte range not served: " + url + " (" + responseCode + ")");
+        }
+      }
+      if (isNotModified(connection)) {
+        connection.getInputStream().close(); // no body, returns the connection to the pool
+        awaiting.remove(thread);
+        sockets.remove(thread);
+        record(opened, connected - start, System.nanoTime() - connected, 0);
+        logger.debug("Not modified: {}", url);
+        return null;
+      }
+      final InputStream stream = decode(connection.getContentEncoding(), connection.getInputStream());
+      awaiting.remove(thread); // disconnecting no longer closes the socket
+      final long firstByte = System.nanoTime();
+      final Validators received = new Validators(connection.getHeaderField(ETAG),
+                                                 connection.getHeaderField(LAST_MODIFIED));
+      return new Response(stream, received) {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          }
+          finally {
+            sockets.remove(thread);
+            if (!closed) {
+              closed = true;
+              record(opened, connected - start, firstByte - connected, System.nanoTime() - firstByte);
+            }
+          }
+        }
+      };
+    }
+    catch (final IOException | RuntimeException e) {
+      awaiting.remove(thread);
+      sockets.remove(thread);
+      release(connection);
+      throw e;
+    }
+  }
+
+  private static final boolean isNotModified(final URLConnection connection) throws IOException {
+    return connection instanceof HttpURLConnection &&
+           ((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED;
+  }
+
+  /**
+   * @return <code>stream</code> decompressed according to
+   *         <code>encoding</code>
+   */
+  static final InputStream decode(final String encoding, final InputStream stream) throws IOException {
+    if (encoding != null) {
+      try {
+        switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+          case GZIP:
+          case X_GZIP:
+            return new GZIPInputStream(stream, BUFFER_SIZE);
+          case DEFLATE:
+            return inflate(stream);
+          default: // identity
+            break;
+        }
+      }
+      catch (final IOException ioE) {
+        stream.close();
+        throw ioE;
+      }
+    }
+    return stream;
+  }
+
+  /**
+   * Inflates zlib-wrapped deflate, as specified for HTTP, or raw deflate, as
+   * sent by some servers.
+   */
+  private static final InputStream inflate(final InputStream stream) throws IOException {
+    final BufferedInputStream buffered = new BufferedInputStream(stream, BUFFER_SIZE);
+    buffered.mark(2);
+    final int cmf = buffered.read();
+    final int flg = buffered.read();
+    buffered.reset();
+    final boolean zlib = (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0; // zlib header
+
+    return new InflaterInputStream(buffered, new Inflater(!zlib), BUFFER_SIZE) {
+      // release native memory, as only default inflaters are ended on close
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        }
+        finally {
+          inf.end();
+        }
+      }
+    };
+  }
+
+  /**
+   * Reads the error response, if any, to the end so that the connection can
+   * be reused.
+   */
+  private static final void release(final URLConnection connection) {
+    if (connection instanceof HttpURLConnection) {
+      try (final InputStream error = ((HttpURLConnection) connection).getErrorStream()) {
+        if (error != null) {
+          final byte[] buffer = new byte[BUFFER_SIZE];
+          while (error.read(buffer) > -1) {
+            // discard
+          }
+        }
+      }
+      catch (final IOException ioE) {
+        logger.debug("Cannot read error response: {}", connection.getURL(), ioE);
+      }
+    }
+  }
+
+  private final void record(final boolean opened, final long connect, final long firstByte, final long body) {
+    requests.incrementAndGet();
+    if (opened) {
+      connections.incrementAndGet();
+    }
+    connectNanos.addAndGet(connect);
+    firstByteNanos.addAndGet(firstByte);
+    bodyNanos.addAndGet(body);
+  }
+
+  @Override
+  public Timings timings() {
+    return new Timings(requests.get(), connections.get(), connectNanos.get(), firstByteNanos.get(), bodyNanos.get());
+  }
+
+  /**
+   * Nothing is kept of responses.
+   */
+  @Override
+  public void discard(final URL url) {
+    // nothing to discard
+  }
+
+  @Override
+  public boolean abort(final Thread thread) {
+    final Socket socket = sockets.remove(thread);
+    final HttpURLConnection connection = awaiting.remove(thread);
+    if (socket != null) {
+      try {
+        socket.close();
+        logger.info("Connection aborted: {}", socket);
+        return true;
+      }
+      catch (final IOException ioE) {
+        logger.warn("Cannot abort connection: {}", socket, ioE);
+      }
+    }
+    if (connection != null) {
+      connection.disconnect();
+      logger.info("Connection aborted: {}", connection.getURL());
+      return true;
+    }
+    return false;
+  }
+
+  final Socket track(final Socket socket) {
+    sockets.put(Thread.currentThread(), socket);
+    return socket;
+  }
+
+  /**
+   * Records the socket created for each thread.
+   */
+  private final class TrackingSocketFactory extends SSLSocketFactory {
+
+    private final SSLSocketFactory delegate;
+
+    TrackingSocketFactory(final SSLSocketFactory delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Socket createSocket(final Socket socket, final String host, final int port, final boolean autoClose)
+        throws IOException {
+      // closing the underlying socket does not wait on TLS locks
+      track(socket);
+      return delegate.createSocket(socket, host, port, autoClose);
+    }
+
+    @Override
+    public Socket createSocket(final String host, final int port) throws IOException {
+      return track(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(final String host, final int port, final InetAddress localHost, final int localPort)
+        throws IOException {
+      return track(delegate.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(final InetAddress host, final int port) throws IOException {
+      return track(delegate.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(final InetAddress address, final int port, final InetAddress localAddress, final int localPort)
+        throws IOException {
+      return track(delegate.createSocket(address, port, localAddress, localPort));
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+      return track(delegate.createSocket());
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+      return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+      return delegate.getSupportedCipherSuites();
+    }
+
+  }
+
+}
@@ -131,6 +131,11 @@ public class FXHistoricalData extends Source {
     }
   }
 
+  @Override
+  public boolean isStreamable() {
+    return false;
+  }
+
   @Override
   public TextTransformer newTransformer(final TextTransform transform) {
     // already sorted in descending / reverse chronological order
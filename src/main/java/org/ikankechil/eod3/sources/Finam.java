@@ -12,6 +12,7 @@ import static org.ikankechil.util.StringUtility.*;
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.EnumMap;
@@ -21,9 +22,10 @@ import java.util.ListIterator;
 import java.util.Map;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextReader;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -238,16 +240,21 @@ public class Finam extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
+  public boolean isReversed() {
     // sort in descending / reverse chronological order
-    return new TextTransformer(transform, ONE, true);
+    return true;
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Finam CSV format
         // <DATE>,<TIME>,<OPEN>,<HIGH>,<LOW>,<CLOSE>,<VOL>
         // 20150608,000000,128.9400000,129.2100000,126.8400000,127.7700000,3399563
@@ -259,16 +266,10 @@ public class Finam extends Source {
         // MetaStock CSV format
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
-        final char[] characters = new char[line.length() - SIX + symbol.length()];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-        // copy date
-        i = getChars(line, ZERO, EIGHT, characters, ++i);
-        // copy rest of line
-        line.getChars(FIFTEEN, line.length(), characters, i);
-
-        return String.valueOf(characters);
+        out.append(symbol).append(COMMA)
+           .append(line, ZERO, EIGHT)             // date
+           .append(line, FIFTEEN, line.length()); // rest of line
+        return true;
       }
     };
   }
@@ -5,15 +5,15 @@
  */
 package org.ikankechil.eod3.sources;
 
-import static org.ikankechil.util.StringUtility.*;
-
 import java.net.MalformedURLException;
+import java.nio.CharBuffer;
 import java.util.Calendar;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextReader;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.ikankechil.io.ZipTextReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -80,15 +80,26 @@ class Forexite extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, ONE, true);
+  public boolean isArchive() {
+    return true;
+  }
+
+  @Override
+  public boolean isReversed() {
+    // sort in descending / reverse chronological order
+    return true;
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Forexite CSV format
         // <TICKER>,<PER>,<DTYYYYMMDD>,<OPEN>,<HIGH>,<LOW>,<CLOSE>
         // EURUSD,D,20130101,1.3184,1.3222,1.3180,1.3204
@@ -104,13 +115,10 @@ class Forexite extends Source {
         // MetaStock CSV format
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
-        final char[] characters = new char[line.length() - TWO];
-        // set row name
-        final int i = getChars(symbol, ZERO, SIX, characters, ZERO); // TODO other symbols present!
-        // copy rest of line
-        line.getChars(EIGHT, line.length(), characters, i);
-
-        return String.valueOf(characters);
+        // TODO other symbols present!
+        out.append(symbol, ZERO, SIX)            // row name
+           .append(line, EIGHT, line.length()); // rest of line
+        return true;
       }
     };
   }
@@ -14,7 +14,6 @@ import java.util.Calendar;
 import org.ikankechil.eod3.Frequencies;
 import org.ikankechil.io.TextReader;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.ikankechil.io.ZipTextReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -80,9 +79,14 @@ class GainCapital extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
+  public boolean isArchive() {
+    return true;
+  }
+
+  @Override
+  public boolean isReversed() {
     // sort in descending / reverse chronological order
-    return new TextTransformer(transform, ONE, true);
+    return true;
   }
 
   @Override
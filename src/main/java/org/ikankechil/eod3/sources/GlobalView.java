@@ -6,9 +6,10 @@
 package org.ikankechil.eod3.sources;
 
 import static org.ikankechil.eod3.Frequencies.*;
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
@@ -19,8 +20,9 @@ import java.util.Locale;
 import java.util.Map;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -116,15 +118,26 @@ public class GlobalView extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, EIGHT, true);
+  public int headerRows() {
+    return EIGHT;
+  }
+
+  @Override
+  public boolean isReversed() {
+    // sort in descending / reverse chronological order
+    return true;
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Results,EUR/USD Close,EUR/USD High,EUR/USD Low
         // Average,  1.269,  1.275,  1.264
         // Minimum,   1.048,   1.059,   1.046
@@ -155,22 +168,16 @@ public class GlobalView extends Source {
         // MetaStock CSV format
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
-        final char[] characters = new char[symbol.length() + line.length()];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-
-        // copy date
-        i = getChars(line, ZERO, FOUR, characters, ++i);  // year
-        i = getChars(line, FIVE, SEVEN, characters, i);   // month
-        i = getChars(line, EIGHT, ELEVEN, characters, i); // date
-
-        // copy OHLCV
         final int highPosition = findNth(COMMA, line, ONE, ELEVEN);
-        i = getChars(line, highPosition, line.length(), characters, i); // high and low
-        i = getChars(line, TEN, highPosition, characters, i);           // close
-
-        return String.valueOf(characters);
+        out.append(symbol).append(COMMA)
+           // copy date
+           .append(line, ZERO, FOUR)                  // year
+           .append(line, FIVE, SEVEN)                 // month
+           .append(line, EIGHT, ELEVEN)               // date
+           // copy OHLCV
+           .append(line, highPosition, line.length()) // high and low
+           .append(line, TEN, highPosition);          // close
+        return true;
       }
     };
   }
@@ -6,14 +6,15 @@
 package org.ikankechil.eod3.sources;
 
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.util.Calendar;
 import java.util.EnumSet;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,15 +78,21 @@ public class IEX extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, ONE, true);
+  public boolean isReversed() {
+    // sort in descending / reverse chronological order
+    return true;
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // IEX CSV format
         // date,open,high,low,close,volume
         // 2013-02-25,64.8356,65.0171,63.2242,63.2571,92899597
@@ -97,18 +104,11 @@ public class IEX extends Source {
         // MetaStock CSV format
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
-        final char[] characters = new char[symbol.length() + line.length() - ONE];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-        // copy year
-        i = getChars(line, ZERO, FOUR, characters, ++i);
-        // copy month
-        i = getChars(line, FIVE, SEVEN, characters, i);
-        // copy rest of line
-        line.getChars(EIGHT, line.length(), characters, i);
-
-        return String.valueOf(characters);
+        out.append(symbol).append(COMMA)
+           .append(line, ZERO, FOUR)            // year
+           .append(line, FIVE, SEVEN)           // month
+           .append(line, EIGHT, line.length()); // rest of line
+        return true;
       }
     };
   }
@@ -8,18 +8,19 @@ package org.ikankechil.eod3.sources;
 import static org.ikankechil.eod3.sources.Exchanges.*;
 import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
+import org.ikankechil.eod3.io.HtmlTableTransformer;
 import org.ikankechil.io.TextTransform;
 import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
@@ -37,8 +38,6 @@ public class Investopedia extends Source {
 
   private final DateFormat                 dateFormat         = new SimpleDateFormat("MM/dd/yyyy", Locale.US);
 
-  private static final String              DIVIDEND           = "Dividend";
-
   // Date-related URL parameters
   private static final String              START_DATE         = "&StartDate=";
   private static final String              END_DATE           = "&EndDate=";
@@ -118,88 +117,55 @@ public class Investopedia extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform) {
-
-      private static final String DATA_START_TAG = "<td class=\"date\">";
-      private static final String DATA_END_TAG   = "</tr>";
-      private static final String CELL_END_TAG   = "</td>";
-
-      @Override
-      public List<String> transform(final List<String> lines) {
-        final List<String> newLines = new ArrayList<>(lines.size() >> THREE);
-
-        final Iterator<String> linesIterator = lines.iterator();
-        while (linesIterator.hasNext()) {
-          String line = linesIterator.next();
-
-          // data block
-          if (line.contains(DATA_START_TAG)) {
-            final StringBuilder newLine = new StringBuilder(extract(line)).append(COMMA); // date
-            while (linesIterator.hasNext()) {
-              line = linesIterator.next();
-
-              if (line.contains(DIVIDEND)) { // early termination
-                break;
-              }
-              else if (line.contains(DATA_END_TAG)) { // EOL
-                final String transformedLine = transform.transform(newLine.toString());
-                newLines.add(transformedLine);
-                break;
-              }
-
-              newLine.append(extract(line)).append(COMMA); // individual values
-            }
-          }
-        }
-
-        lines.clear();
-        lines.addAll(newLines);
-        logger.info("Transformation complete");
-
-        return lines;
-      }
-
-      private String extract(final String line) {
-        String value = EMPTY;
-        final int valueEnd = line.lastIndexOf(CELL_END_TAG);
-        if (valueEnd > -ONE) {
-          final int valueStart = ONE + line.lastIndexOf(MORE_THAN, valueEnd);
-          if ((valueStart > ZERO) && (valueStart < valueEnd)) {
-            value = line.substring(valueStart, valueEnd);
-          }
-        }
-        return value;
-      }
+  public boolean isStreamable() {
+    return false;
+  }
 
-    };
+  @Override
+  public TextTransformer newTransformer(final TextTransform transform) {
+    // date, open, high, low, close and volume cells of each row, dividend rows
+    // lacking them
+    return new HtmlTableTransformer(transform, null, null, ZERO, ONE, TWO, THREE, FOUR, FIVE);
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Investopedia HTML format
         // <th class="date">Date</th><th class="num">Open</th><th class="num">High</th><th class="num">Low</th><th class="num">Adj. Close</th><th class="num">Volume</th>
         // <td class="date">Feb 08, 2019</td><td class="num">168.99</td><td class="num">170.66</td><td class="num">168.42</td><td class="num">170.41</td><td class="num">23,819,966</td>
 
+        // HtmlTableTransformer record format
+        // Feb 08, 2019,168.99,170.66,168.42,170.41,23,819,966
+
         // MetaStock CSV format
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
-        // concatenate segments
-        final StringBuilder builder = new StringBuilder(symbol).append(COMMA);
-        final int dateEnd = TWELVE;
-        builder.append(line.substring(EIGHT, dateEnd))          // year
-               .append(MONTHS.get(line.substring(ZERO, THREE))) // month
-               .append(line.substring(FOUR, SIX));              // date
-
-        final int volumeStart = ONE + findNth(COMMA, line, FIVE, dateEnd);
-        builder.append(line.substring(dateEnd, volumeStart));   // OHLC
-        builder.append(line.substring(volumeStart)              // volume
-                           .replaceAll(String.valueOf(COMMA), EMPTY));
-
-        return builder.toString();
+        final String month = MONTHS.get(line.subSequence(ZERO, THREE).toString());
+        if (month == null) {
+          return false;
+        }
+        out.append(symbol).append(COMMA)
+           .append(line, EIGHT, TWELVE)  // year
+           .append(month)                // month
+           .append(line, FOUR, SIX);     // date
+
+        final int volumeStart = ONE + BufferTransforms.findNth(COMMA, line, FIVE, TWELVE);
+        out.append(line, TWELVE, volumeStart); // OHLC
+        for (int i = volumeStart; i < line.length(); ++i) {
+          final char c = line.charAt(i);
+          if (c != COMMA) {
+            out.append(c);                     // volume
+          }
+        }
+        return true;
       }
     };
   }
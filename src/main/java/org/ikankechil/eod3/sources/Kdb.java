@@ -6,14 +6,16 @@
 package org.ikankechil.eod3.sources;
 
 import static java.util.Calendar.*;
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.util.Calendar;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 
 /**
  * A <code>Source</code> representing k-db.com.
@@ -67,15 +69,20 @@ public class Kdb extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, TWO, false);
+  public int headerRows() {
+    return TWO;
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // 6502-T,xxx,yyy
         // YYYY-MM-DD,Open,High,Low,Close,Volume,Value
         // 2015-12-29,229.0,234.8,223.1,232.1,73080000,16789443700
@@ -88,18 +95,11 @@ public class Kdb extends Source {
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
         final int comma = findNth(COMMA, line, SIX, TEN);
-        final char[] characters = new char[(symbol.length() + comma) - ONE];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-        // copy year
-        i = getChars(line, ZERO, FOUR, characters, ++i);
-        // copy month
-        i = getChars(line, FIVE, SEVEN, characters, i);
-        // copy rest of line
-        line.getChars(EIGHT, comma, characters, i);
-
-        return String.valueOf(characters);
+        out.append(symbol).append(COMMA)
+           .append(line, ZERO, FOUR)    // year
+           .append(line, FIVE, SEVEN)   // month
+           .append(line, EIGHT, comma); // rest of line
+        return true;
       }
     };
   }
@@ -7,9 +7,15 @@ package org.ikankechil.eod3.sources;
 
 import static org.ikankechil.eod3.sources.Exchanges.*;
 
+import java.nio.CharBuffer;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
+import org.ikankechil.eod3.io.JsonTransformer;
 import org.ikankechil.io.TextTransform;
 import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
@@ -82,6 +88,10 @@ public class MSNMoney extends Source {
 
   private static final String DEFAULT_EXCHANGE = NYS;
 
+  // Date-related constants
+  private static final long   MILLENNIUM       = 15778080L; // 1 January 2000 in minutes since the Unix epoch
+  private static final long   MINUTE           = 60000L;    // in milliseconds
+
   private static final Logger logger           = LoggerFactory.getLogger(MSNMoney.class);
 
   public MSNMoney() {
@@ -191,20 +201,88 @@ public class MSNMoney extends Source {
     logger.debug(UNSUPPORTED);
   }
 
+  @Override
+  public int headerRows() {
+    return ZERO;
+  }
+
+  @Override
+  public boolean isStreamable() {
+    // JSON lines are transformed together
+    return false;
+  }
+
+  @Override
+  public boolean isParsed() {
+    // JSON is parsed as it is read
+    return true;
+  }
+
   @Override
   public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, ZERO, false);
+    // series are in chronological order
+    return new JsonTransformer(transform, true, "T", "Op", "Hp", "Lp", "P", "V");
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
+      private final Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+      private long           first    = Long.MIN_VALUE; // minutes since the Unix epoch
+
       @Override
-      public String transform(final String line) {
-        // TODO require JSON reader
-        return line;
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
+        // MSN Money JSON format (records of Series)
+        // {"Hp":0.0796758515,"Lp":0.0740647291,"Op":0.0740647291,"P":0.0796758515,"T":-14466240,"V":0}
+        // {"Hp":0.0959476433,"Lp":0.0740647291,"Op":0.0796758515,"P":0.0934226429,"T":44640,"V":0}
+        //
+        // T of the first bar is in minutes since 1 January 2000 UTC, and of the
+        // rest in minutes since the first bar
+
+        // JsonTransformer record format
+        // T,Op,Hp,Lp,P,V
+        // -14466240,0.0740647291,0.0796758515,0.0740647291,0.0796758515,0
+
+        // MetaStock CSV format
+        // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
+        // INTC,19720630,0.0740647291,0.0796758515,0.0740647291,0.0796758515,0
+
+        final int t = BufferTransforms.findNth(COMMA, line, ONE, ZERO);
+        if (t < ZERO) {
+          return false;
+        }
+        final long minutes = parseLong(line, t);
+        final long time;
+        if (first == Long.MIN_VALUE) {
+          time = first = MILLENNIUM + minutes;
+        }
+        else {
+          time = first + minutes;
+        }
+        calendar.setTimeInMillis(time * MINUTE);
+
+        out.append(symbol).append(COMMA)
+           .append(calendar.get(Calendar.YEAR) * 10000 +
+                   (calendar.get(Calendar.MONTH) + ONE) * 100 +
+                   calendar.get(Calendar.DATE))
+           .append(line, t, line.length()); // rest of record
+        return true;
       }
     };
   }
 
+  private static final long parseLong(final CharSequence line, final int end) {
+    final boolean negative = line.charAt(ZERO) == '-';
+    long value = ZERO;
+    for (int i = negative ? ONE : ZERO; i < end; ++i) {
+      value = value * 10 + Character.digit(line.charAt(i), 10);
+    }
+    return negative ? -value : value;
+  }
+
 }
@@ -5,9 +5,10 @@
  */
 package org.ikankechil.eod3.sources;
 
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
@@ -15,8 +16,9 @@ import java.util.Date;
 import java.util.Locale;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -228,15 +230,20 @@ public class Morningstar extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, TWO, false);
+  public int headerRows() {
+    return TWO;
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Morningstar CSV format
         // Citigroup Inc (C) Historical Prices
         // Date,Open,High,Low,Close,Volume
@@ -251,38 +258,27 @@ public class Morningstar extends Source {
 
         // locate comma before volume
         final int volumePosition = findNth(COMMA, line, FIVE, TEN) + ONE;
-        final int length = line.length();
-        final StringBuilder volume = new StringBuilder();
-        for (int j = volumePosition; j < length; ++j) {
+        out.append(symbol).append(COMMA)
+           .append(line, SIX, TEN)             // year
+           .append(line, ZERO, TWO)            // month
+           .append(line, THREE, FIVE)          // date
+           .append(line, TEN, volumePosition); // OHLC
+
+        // copy volume
+        final int volume = out.length();
+        for (int j = volumePosition; j < line.length(); ++j) {
           final char c = line.charAt(j);
           // filter double quotes (") and commas (,)
           if ((c != DOUBLE_QUOTE) && (c != COMMA)) {
-            volume.append(c);
+            out.append(c);
           }
         }
         // default to zero if volume is one or more non-digit characters
-        if (volume.length() == ZERO) {
-          volume.append(ZERO_STR);
-        }
-        else if (!Character.isDigit(volume.charAt(ZERO))) {
-          volume.replace(ZERO, volume.length(), ZERO_STR);
+        if (out.length() == volume || !Character.isDigit(out.charAt(volume))) {
+          out.setLength(volume);
+          out.append(ZERO_STR);
         }
-
-        final char[] characters = new char[symbol.length() + volumePosition - ONE + volume.length()];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-
-        // copy date
-        i = getChars(line, SIX, TEN, characters, ++i);  // year
-        i = getChars(line, ZERO, TWO, characters, i);   // month
-        i = getChars(line, THREE, FIVE, characters, i); // date
-
-        // copy OHLCV
-        i = getChars(line, TEN, volumePosition, characters, i); // OHLC
-        volume.getChars(ZERO, volume.length(), characters, i);  // volume
-
-        return String.valueOf(characters);
+        return true;
       }
     };
   }
@@ -8,16 +8,17 @@ package org.ikankechil.eod3.sources;
 import static org.ikankechil.eod3.sources.Exchanges.*;
 import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.EnumSet;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Locale;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
+import org.ikankechil.eod3.io.HtmlTableTransformer;
 import org.ikankechil.io.TextTransform;
 import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
@@ -98,95 +99,49 @@ public class MotleyFool extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform) {
-
-      private static final String DATA_START_TAG = "<div id=\"historical_quotes\">";
-      private static final String DATA_END_TAG   = "</div>";
-      private static final String ROW_START_TAG  = "<tr>";
-      private static final String ROW_END_TAG    = "</tr>";
-      private static final String CELL_END_TAG   = "</td>";
-
-      @Override
-      public List<String> transform(final List<String> lines) {
-        final List<String> newLines = new ArrayList<>(lines.size() >> THREE);
-
-        final Iterator<String> linesIterator = lines.iterator();
-        while (linesIterator.hasNext()) {
-          String line = linesIterator.next();
-
-          // data block
-          if (line.contains(DATA_START_TAG)) {
-            while (linesIterator.hasNext()) {
-              line = linesIterator.next();
-
-              // line
-              if (line.contains(ROW_START_TAG)) {
-                final StringBuilder newLine = new StringBuilder();
-                while (linesIterator.hasNext()) {
-                  line = linesIterator.next();
-
-                  // individual values
-                  final int valueEnd = line.lastIndexOf(CELL_END_TAG);
-                  if (valueEnd > -ONE) {
-                    final int valueStart = ONE + line.lastIndexOf(MORE_THAN, valueEnd);
-                    if ((valueStart > ZERO) && (valueStart < valueEnd)) {
-                      newLine.append(line.substring(valueStart, valueEnd))
-                             .append(COMMA);
-                    }
-                  }
-                  // EOL
-                  else if (line.contains(ROW_END_TAG)) {
-                    if (newLine.length() > ZERO) {
-                      final String transformedLine = transform.transform(newLine.toString());
-                      if (transformedLine.length() > ZERO) {
-                        newLines.add(transformedLine);
-                      }
-                    }
-                    break;
-                  }
-                }
-              }
-              // end of data block
-              else if (line.contains(DATA_END_TAG)) {
-                break;
-              }
-            }
-          }
-        }
-
-        lines.clear();
-        lines.addAll(newLines);
-        logger.info("Transformation complete");
-
-        return lines;
-      }
+  public boolean isStreamable() {
+    return false;
+  }
 
-    };
+  @Override
+  public TextTransformer newTransformer(final TextTransform transform) {
+    // date, open, high, low, close and volume cells of each row, header and
+    // form rows lacking them
+    return new HtmlTableTransformer(transform, null, null, ZERO, ONE, TWO, THREE, FOUR, FIVE);
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
-
-      private static final String COMMAS_AND_WHITESPACE = "[,\\s]";
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
 
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
-        // concatenate segments
-        final StringBuilder builder = new StringBuilder(symbol).append(COMMA);
-        builder.append(line.substring(SIX, TEN))          // year
-               .append(line.substring(ZERO, TWO))         // month
-               .append(line.substring(THREE, FIVE));      // date
-
-        final int volumeStart = ONE + findNth(COMMA, line, FIVE, TEN);
-        builder.append(line.substring(TEN, volumeStart)); // OHLC
-        builder.append(line.substring(volumeStart)        // volume
-                           .replaceAll(COMMAS_AND_WHITESPACE, EMPTY));
-
-        return builder.toString();
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
+        // HtmlTableTransformer record format
+        // 12/04/2015,34.11,35.02,34.00,34.94,24,900,994
+
+        // MetaStock CSV format
+        // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
+        // INTC,20151204,34.11,35.02,34.00,34.94,24900994
+
+        out.append(symbol).append(COMMA)
+           .append(line, SIX, TEN)     // year
+           .append(line, ZERO, TWO)    // month
+           .append(line, THREE, FIVE); // date
+
+        final int volumeStart = ONE + BufferTransforms.findNth(COMMA, line, FIVE, TEN);
+        out.append(line, TEN, volumeStart); // OHLC
+        for (int i = volumeStart; i < line.length(); ++i) {
+          final char c = line.charAt(i);
+          if (c != COMMA && !Character.isWhitespace(c)) {
+            out.append(c);                  // volume
+          }
+        }
+        return true;
       }
-
     };
   }
 
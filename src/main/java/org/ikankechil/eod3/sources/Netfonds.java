@@ -5,14 +5,17 @@
  */
 package org.ikankechil.eod3.sources;
 
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.util.Calendar;
 import java.util.EnumSet;
 import java.util.Set;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,9 +121,14 @@ public class Netfonds extends Source {
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Netfonds CSV format
         // quote_date,paper,exch,open,high,low,close,volume,value
         // 20151224,INTC,Nasdaq,35.07,35.26,34.96,34.98,5514034,193552193
@@ -131,16 +139,10 @@ public class Netfonds extends Source {
         final int last = findNthLast(COMMA, line, ONE);
         // locate third comma
         final int third = findNth(COMMA, line, THREE, EIGHT);
-        final char[] characters = new char[symbol.length() + EIGHT + (last - third) + ONE];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-        // copy date
-        i = getChars(line, ZERO, EIGHT, characters, ++i);
-        // copy OHLCV
-        line.getChars(third, last, characters, i);
-
-        return String.valueOf(characters);
+        out.append(symbol).append(COMMA)
+           .append(line, ZERO, EIGHT)  // date
+           .append(line, third, last); // OHLCV
+        return true;
       }
     };
   }
@@ -15,7 +15,6 @@ import java.util.Locale;
 
 import org.ikankechil.eod3.Frequencies;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,8 +77,9 @@ class OnVista extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, ONE, true);
+  public boolean isReversed() {
+    // sort in descending / reverse chronological order
+    return true;
   }
 
   @Override
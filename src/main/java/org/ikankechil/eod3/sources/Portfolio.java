@@ -5,14 +5,16 @@
  */
 package org.ikankechil.eod3.sources;
 
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.util.Calendar;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,16 +60,26 @@ public class Portfolio extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
+  public int headerRows() {
+    return THREE;
+  }
+
+  @Override
+  public boolean isReversed() {
     // sort in descending / reverse chronological order
-    return new TextTransformer(transform, THREE, true);
+    return true;
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Részvény: OTP
         //
         // Dátum Nyitó Záró  Minimum Maximum Forgalom (db)
@@ -87,34 +99,23 @@ public class Portfolio extends Source {
         // MetaStock CSV format
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
-        final char[] characters = new char[symbol.length() + line.length() - ONE];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-
-        // copy YYYYMMDD
-        i = getChars(line, ZERO, FOUR, characters, ++i);  // year
-        i = getChars(line, FIVE, SEVEN, characters, i);   // month
-        i = getChars(line, EIGHT, TEN, characters, i);    // date
-
         final int close = findNth(TAB, line, ONE, ELEVEN) + ONE;
         final int low = findNth(TAB, line, ONE, close) + ONE;
         final int high = findNth(TAB, line, ONE, low) + ONE;
         final int volume = findNth(TAB, line, ONE, high) + ONE;
 
-        // copy OHLCV
-        characters[i] = COMMA;
-        i = getChars(line, ELEVEN, close - ONE, characters, ++i); // open
-        characters[i] = COMMA;
-        i = getChars(line, high, volume - ONE, characters, ++i);  // high
-        characters[i] = COMMA;
-        i = getChars(line, low, high - ONE, characters, ++i);     // low
-        characters[i] = COMMA;
-        i = getChars(line, close, low - ONE, characters, ++i);    // close
-        characters[i] = COMMA;
-        line.getChars(volume, line.length(), characters, ++i);    // volume
-
-        return String.valueOf(characters);
+        out.append(symbol).append(COMMA)
+           // copy YYYYMMDD
+           .append(line, ZERO, FOUR)                           // year
+           .append(line, FIVE, SEVEN)                          // month
+           .append(line, EIGHT, TEN)                           // date
+           // copy OHLCV
+           .append(COMMA).append(line, ELEVEN, close - ONE)    // open
+           .append(COMMA).append(line, high, volume - ONE)     // high
+           .append(COMMA).append(line, low, high - ONE)        // low
+           .append(COMMA).append(line, close, low - ONE)       // close
+           .append(COMMA).append(line, volume, line.length()); // volume
+        return true;
       }
     };
   }
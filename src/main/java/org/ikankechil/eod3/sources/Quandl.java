@@ -5,15 +5,18 @@
  */
 package org.ikankechil.eod3.sources;
 
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Locale;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -179,9 +182,14 @@ public class Quandl extends Source {
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Quandl CSV format
         // Date,Open,High,Low,Close,Volume,Ex-Dividend,Split Ratio,Adj. Open,Adj. High,Adj. Low,Adj. Close,Adj. Volume
         // 2014-12-31,41.39,41.79,40.9,40.94,1421100.0,0.0,1.0,41.28820462370881,41.68722085587801,40.799409739301524,40.839311362518444,1421100.0
@@ -192,19 +200,11 @@ public class Quandl extends Source {
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
         final int comma = findNth(COMMA, line, SIX, TEN);
-        final char[] characters = new char[symbol.length() + comma - ONE];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-        // copy year
-        i = getChars(line, ZERO, FOUR, characters, ++i);
-        // copy month
-        i = getChars(line, FIVE, SEVEN, characters, i);
-        // copy rest of line
-        line.getChars(EIGHT, comma, characters, i);
-        final String result = String.valueOf(characters);
-
-        return result;
+        out.append(symbol).append(COMMA)
+           .append(line, ZERO, FOUR)    // year
+           .append(line, FIVE, SEVEN)   // month
+           .append(line, EIGHT, comma); // rest of line
+        return true;
       }
     };
   }
@@ -6,13 +6,16 @@
 package org.ikankechil.eod3.sources;
 
 import static java.util.Calendar.*;
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.util.Calendar;
 import java.util.EnumSet;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -195,9 +198,14 @@ public class QuoteMedia extends Source {
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // QuoteMedia CSV format
         // date,open,high,low,close,volume,changed,changep,adjclose,tradeval,tradevol
         // 2013-12-24,25.38,25.62,25.35,25.43,12157877,0.11,0.43%,25.43,310050677.73,44813
@@ -206,18 +214,11 @@ public class QuoteMedia extends Source {
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
         final int comma = findNthLast(COMMA, line, FIVE);
-        final char[] characters = new char[(symbol.length() + comma) - ONE];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-        // copy years
-        i = getChars(line, ZERO, FOUR, characters, ++i);
-        // copy month
-        i = getChars(line, FIVE, SEVEN, characters, i);
-        // copy rest of line
-        line.getChars(EIGHT, comma, characters, i);
-
-        return String.valueOf(characters);
+        out.append(symbol).append(COMMA)
+           .append(line, ZERO, FOUR)    // year
+           .append(line, FIVE, SEVEN)   // month
+           .append(line, EIGHT, comma); // rest of line
+        return true;
       }
     };
   }
@@ -5,14 +5,16 @@
  */
 package org.ikankechil.eod3.sources;
 
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.util.Calendar;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
-import org.ikankechil.io.TextTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,15 +61,21 @@ public class Rava extends Source {
   }
 
   @Override
-  public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, ONE, true);
+  public boolean isReversed() {
+    // sort in descending / reverse chronological order
+    return true;
   }
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Rava CSV format
         // fecha,apertura,maximo,minimo,cierre,volumen,openint
         // "2005-01-03","2.07791","2.08835","2.03614","2.03614","935662","0"
@@ -81,36 +89,27 @@ public class Rava extends Source {
         // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
 
         final int volumeEnd = findNthLast(COMMA, line, ONE) - ONE;
-        final char[] characters = new char[symbol.length() + volumeEnd - TWELVE];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-
-        // copy date
-        i = getChars(line, ONE, FIVE, characters, ++i); // year
-        i = getChars(line, SIX, EIGHT, characters, i);  // month
-        i = getChars(line, NINE, ELEVEN, characters, i);// date
-        characters[i] = COMMA;
+        out.append(symbol).append(COMMA)
+           // copy date
+           .append(line, ONE, FIVE)     // year
+           .append(line, SIX, EIGHT)    // month
+           .append(line, NINE, ELEVEN); // date
 
         // copy OHLC
         int doubleQuote = THIRTEEN;
         for (int j = ZERO; j < FOUR; ++j) {
-          i = getChars(line,
-                       ++doubleQuote,
-                       doubleQuote = findNth(DOUBLE_QUOTE,
-                                             line,
-                                             ONE,
-                                             doubleQuote),
-                       characters,
-                       ++i);
-          characters[i] = COMMA;
+          out.append(COMMA).append(line,
+                                   ++doubleQuote,
+                                   doubleQuote = findNth(DOUBLE_QUOTE,
+                                                         line,
+                                                         ONE,
+                                                         doubleQuote));
           doubleQuote += TWO;
         }
 
         // copy volume
-        i = getChars(line, ++doubleQuote, volumeEnd, characters, ++i);
-
-        return String.valueOf(characters);
+        out.append(COMMA).append(line, ++doubleQuote, volumeEnd);
+        return true;
       }
     };
   }
@@ -8,19 +8,31 @@ package org.ikankechil.eod3.sources;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.CharBuffer;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import org.ikankechil.eod3.BarSeries;
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
+import org.ikankechil.eod3.io.CachingTransport;
+import org.ikankechil.eod3.io.DiskCache;
+import org.ikankechil.eod3.io.JsonTransformer;
+import org.ikankechil.eod3.io.Transport;
+import org.ikankechil.eod3.io.URLConnector;
 import org.ikankechil.io.TextReader;
 import org.ikankechil.io.TextTransform;
 import org.ikankechil.io.TextTransformer;
@@ -53,12 +65,17 @@ public abstract class Source {
   // 2. allow for multiple base URLs for each source
 
   private final String                     base;
+  private final String                     host;
+  private final int                        deadline;
+  private final long                       cacheTTL;
   private final boolean                    isRFC2396Compliant;
   final Map<Exchanges, String>             exchanges;
 
   // Properties and constants
   private static final String              PROPERTIES_FILE   = "eod3.properties";
   private static final String              BASE_URL          = ".baseURL";
+  private static final String              DEADLINE          = ".deadline";
+  private static final String              CACHE_TTL         = ".cacheTTL";
 
   private static final String              UTF_8             = "UTF-8";
   static final String                      UNSUPPORTED       = "Unsupported operation";
@@ -103,6 +120,8 @@ public abstract class Source {
   static final int                         FIFTEEN           = 15;
 
   static final Frequencies                 DEFAULT_FREQUENCY = Frequencies.DAILY;
+  static final int                         DEFAULT_DEADLINE  = (int) TimeUnit.MINUTES.toMillis(1);
+  static final long                        DEFAULT_CACHE_TTL = TimeUnit.HOURS.toMillis(12);
 
   /**
    * Start date defaults to 1 January 1970 00:00:00.000 GMT.
@@ -110,6 +129,8 @@ public abstract class Source {
   static final Calendar                    DEFAULT_START;
 
   private static final Map<String, String> BASE_URLS         = new HashMap<>();
+  private static final Map<String, String> DEADLINES         = new HashMap<>();
+  private static final Map<String, String> CACHE_TTLS        = new HashMap<>();
 
   private static final Logger              logger            = LoggerFactory.getLogger(Source.class);
 
@@ -135,6 +156,12 @@ public abstract class Source {
             logger.warn("No base URL for: {}", sourceName);
           }
         }
+        else if (key.endsWith(DEADLINE)) {
+          DEADLINES.put(key.substring(ZERO, key.length() - DEADLINE.length()), properties.getProperty(key));
+        }
+        else if (key.endsWith(CACHE_TTL)) {
+          CACHE_TTLS.put(key.substring(ZERO, key.length() - CACHE_TTL.length()), properties.getProperty(key));
+        }
       }
     }
     catch (final IOException ioE) {
@@ -151,6 +178,9 @@ public abstract class Source {
       throw new IllegalArgumentException("Empty base URL");
     }
     this.base = base;
+    host = host(base);
+    deadline = (int) milliseconds(getClass().getName(), DEADLINE, DEADLINES, ONE, Integer.MAX_VALUE, DEFAULT_DEADLINE);
+    cacheTTL = milliseconds(getClass().getName(), CACHE_TTL, CACHE_TTLS, ZERO, Long.MAX_VALUE, DEFAULT_CACHE_TTL);
     isRFC2396Compliant = true;
     exchanges = new EnumMap<>(Exchanges.class);
   }
@@ -289,12 +319,215 @@ public abstract class Source {
     return new TextReader();
   }
 
+  /**
+   * @return a new <code>Transport</code> bounding each request by this
+   *         source's deadline, and caching responses in
+   *         <code>DiskCache.DEFAULT</code>, if any, for this source's cache
+   *         time-to-live
+   */
+  public Transport newTransport() {
+    final Transport transport = new URLConnector(deadline);
+    return (DiskCache.DEFAULT == null) ? transport : new CachingTransport(transport, DiskCache.DEFAULT, cacheTTL);
+  }
+
+  /**
+   * @return a new <code>TextTransformer</code> skipping
+   *         <code>headerRows()</code> and reversing lines if
+   *         <code>isReversed()</code>
+   */
   public TextTransformer newTransformer(final TextTransform transform) {
-    return new TextTransformer(transform, ONE, false);
+    return new TextTransformer(transform, headerRows(), isReversed());
+  }
+
+  /**
+   * @return number of header rows preceding the data
+   */
+  public int headerRows() {
+    return ONE;
+  }
+
+  /**
+   * @return true if the data is in chronological order and must be reversed
+   */
+  public boolean isReversed() {
+    return false;
+  }
+
+  /**
+   * Sources whose <code>TextTransformer</code> does more than skip header
+   * rows, transform each line and reverse must override this. Responses are
+   * only streamed when read by a plain <code>TextReader</code>; those read by
+   * another, e.g. a <code>ZipTextReader</code>, are read whole regardless.
+   *
+   * @return true if responses can be transformed a line at a time as they
+   *         are read, by skipping <code>headerRows()</code>, applying
+   *         <code>newTransform(String)</code> and reversing if
+   *         <code>isReversed()</code>
+   */
+  public boolean isStreamable() {
+    return true;
+  }
+
+  /**
+   * Sources whose <code>TextTransformer</code> is a
+   * <code>JsonTransformer</code> should override this. Like streaming, this
+   * applies only to responses read by a plain <code>TextReader</code>.
+   *
+   * @return true if responses can be parsed as they are read by
+   *         <code>newBarSeries(String, Reader)</code>, without being read
+   *         into lines first
+   */
+  public boolean isParsed() {
+    return false;
+  }
+
+  /**
+   * @return true if responses are large archives, worth probing for byte
+   *         range support so that they can be downloaded in concurrent ranges
+   */
+  public boolean isArchive() {
+    return false;
   }
 
   public abstract TextTransform newTransform(final String symbol);
 
+  /**
+   * Sources that can transform lines without allocating should override
+   * this, and adapt it for <code>newTransform(String)</code> with
+   * <code>BufferTransforms.text(BufferTransform)</code>.
+   *
+   * @return a <code>BufferTransform</code> for lines streamed, by default
+   *         adapting <code>newTransform(String)</code>
+   */
+  public BufferTransform newBufferTransform(final String symbol) {
+    return BufferTransforms.adapt(newTransform(symbol));
+  }
+
+  /**
+   * Transforms <code>lines</code> read from this source straight into bars.
+   * Streamable sources skip <code>headerRows()</code> and parse each line as
+   * <code>newBufferTransform(String)</code> transforms it, while others
+   * transform <code>lines</code> in place first.
+   *
+   * @param symbol
+   * @param lines as read, in any order
+   * @return the bars of <code>symbol</code> in chronological order
+   * @throws IOException if a transformed line cannot be parsed
+   */
+  public BarSeries newBarSeries(final String symbol, final List<String> lines) throws IOException {
+    final BarSeries.Builder bars = new BarSeries.Builder(symbol, lines.size());
+    if (isStreamable()) {
+      final BufferTransform transform = newBufferTransform(symbol);
+      final StringBuilder line = new StringBuilder();
+      for (final String read : lines.subList(Math.min(headerRows(), lines.size()), lines.size())) {
+        line.setLength(0);
+        if (transform.transform(CharBuffer.wrap(read), line)) {
+          bars.add(line);
+        }
+      }
+    }
+    else {
+      newTransformer(newTransform(symbol)).transform(lines);
+      bars.addAll(lines);
+    }
+    return bars.build();
+  }
+
+  /**
+   * Parses the response read from <code>in</code> into transformed lines with
+   * the <code>JsonTransformer</code> of a source that <code>isParsed()</code>.
+   *
+   * @param symbol
+   * @param in the response, left open
+   * @return the lines transformed, as <code>newTransformer</code> would
+   * @throws IOException if <code>in</code> cannot be read or parsed
+   * @throws UnsupportedOperationException if responses are not parsed
+   */
+  public List<String> parse(final String symbol, final Reader in) throws IOException {
+    final TextTransformer transformer = newTransformer(newTransform(symbol));
+    if (!isParsed() || !(transformer instanceof JsonTransformer)) {
+      throw new UnsupportedOperationException("Responses not parsed: " + getClass().getSimpleName());
+    }
+    return ((JsonTransformer) transformer).transform(in);
+  }
+
+  /**
+   * Parses the response read from <code>in</code> straight into bars.
+   *
+   * @param symbol
+   * @param in the response, left open
+   * @return the bars of <code>symbol</code> in chronological order
+   * @throws IOException if <code>in</code> cannot be read or parsed
+   * @throws UnsupportedOperationException if responses are not parsed
+   * @see #parse(String, Reader)
+   */
+  public BarSeries newBarSeries(final String symbol, final Reader in) throws IOException {
+    return new BarSeries.Builder(symbol).addAll(parse(symbol, in)).build();
+  }
+
+  /**
+   * @return the host serving this source's base URL, or the base URL itself if
+   *         it has no recognisable host
+   */
+  public String host() {
+    return host;
+  }
+
+  private static final String host(final String base) {
+    String host;
+    try {
+      host = new URL(base).getHost();
+    }
+    catch (final MalformedURLException murlE) {
+      logger.debug("Bad base URL: {}", base, murlE);
+      host = EMPTY;
+    }
+    return host.isEmpty() ? base : host;
+  }
+
+  /**
+   * Time allowed for each request to this source, as set by the
+   * <code>&lt;source&gt;.deadline</code> system or eod3.properties property.
+   *
+   * @return deadline in milliseconds
+   */
+  public int deadline() {
+    return deadline;
+  }
+
+  /**
+   * How long responses from this source may be served from the response
+   * cache, as set by the <code>&lt;source&gt;.cacheTTL</code> system or
+   * eod3.properties property.
+   *
+   * @return time-to-live in milliseconds; zero if not cached
+   */
+  public long cacheTTL() {
+    return cacheTTL;
+  }
+
+  private static final long milliseconds(final String sourceName,
+                                         final String suffix,
+                                         final Map<String, String> properties,
+                                         final long minimum,
+                                         final long maximum,
+                                         final long defaultValue) {
+    final String value = System.getProperty(sourceName + suffix, properties.get(sourceName));
+    if (value != null) {
+      try {
+        final long milliseconds = Long.parseLong(value.trim());
+        if (milliseconds >= minimum && milliseconds <= maximum) {
+          return milliseconds;
+        }
+      }
+      catch (final NumberFormatException nfE) {
+        logger.debug("Bad {}: {}", suffix, value, nfE);
+      }
+      logger.warn("Invalid {} for {}: {}", suffix, sourceName, value);
+    }
+    return defaultValue;
+  }
+
   public String directory() {
     return getClass().getSimpleName();
   }
@@ -7,18 +7,18 @@ package org.ikankechil.eod3.sources;
 
 import static org.ikankechil.eod3.sources.Exchanges.*;
 import static org.ikankechil.eod3.sources.Tiingo.Formats.*;
-import static org.ikankechil.eod3.sources.Tiingo.JsonElements.*;
 import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Collections;
-import java.util.List;
 import java.util.Locale;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
+import org.ikankechil.eod3.io.JsonTransformer;
 import org.ikankechil.io.TextTransform;
 import org.ikankechil.io.TextTransformer;
 
@@ -106,106 +106,37 @@ public class Tiingo extends Source {
     }
   }
 
-  enum JsonElements {
-    DATE(3), OPEN(2), HIGH(2), LOW(2), CLOSE(2), VOLUME(2);
-
-    private final String name;
-    private final int    offset;
-
-    JsonElements(final int offset) {
-      name = name().toLowerCase();
-      this.offset = name.length() + offset;
-    }
-
-    @Override
-    public String toString() {
-      return name;
-    }
-
-    public int offset() {
-      return offset;
-    }
-  }
-
   public enum Formats {
     JSON {
       @Override
       public TextTransformer newTransformer(final TextTransform transform) {
-        return new TextTransformer(transform) {
-          @Override
-          public List<String> transform(final List<String> lines) {
-            final List<String> newLines = new ArrayList<>();
-
-            for (final String line : lines) {
-              for (int i = ZERO; i < line.length(); ++i) {
-                final int start = findNth(OPEN_BRACE, line, ONE, i) + ONE;
-                if (start >= i) {
-                  final int end = findNth(CLOSE_BRACE, line, ONE, i = start);
-                  final String substring = line.substring(start, i = end);
-                  newLines.add(transform.transform(substring));
-                }
-              }
-            }
-
-            lines.clear();
-            lines.addAll(newLines);
-            Collections.reverse(lines);
-
-            return lines;
-          }
-        };
+        // prices are in chronological order
+        return new JsonTransformer(transform, true, "date", "open", "high", "low", "close", "volume");
       }
 
       @Override
       public TextTransform newTransform(final String symbol) {
-        return new TextTransform() {
+        return BufferTransforms.text(new BufferTransform() {
           @Override
-          public String transform(final String line) {
-            // Tiingo JSON format (after pre-processing)
-            // {"date":"1980-03-17T00:00:00.000Z","close":62.5,"high":63.5,"low":62.5,"open":62.5,"volume":56900,"adjClose":0.2190423356,"adjHigh":0.2225470129,"adjLow":0.2190423356,"adjOpen":0.2190423356,"adjVolume":199,"divCash":0.0,"splitFactor":1.0},
-            // {"date":"1980-03-18T00:00:00.000Z","close":62.0,"high":63.0,"low":62.0,"open":62.5,"volume":88900,"adjClose":0.2172899969,"adjHigh":0.2207946743,"adjLow":0.2172899969,"adjOpen":0.2190423356,"adjVolume":311,"divCash":0.0,"splitFactor":1.0},
-            // {"date":"1980-03-19T00:00:00.000Z","close":63.5,"high":64.5,"low":63.5,"open":63.5,"volume":96400,"adjClose":0.2225470129,"adjHigh":0.2260516903,"adjLow":0.2225470129,"adjOpen":0.2225470129,"adjVolume":337,"divCash":0.0,"splitFactor":1.0}
+          public boolean transform(final CharBuffer line, final StringBuilder out) {
+            // Tiingo JSON format
+            // {"date":"1980-03-17T00:00:00.000Z","close":62.5,"high":63.5,"low":62.5,"open":62.5,"volume":56900,"adjClose":0.2190423356,"adjHigh":0.2225470129,"adjLow":0.2190423356,"adjOpen":0.2190423356,"adjVolume":199,"divCash":0.0,"splitFactor":1.0}
+
+            // JsonTransformer record format
+            // 1980-03-17T00:00:00.000Z,62.5,63.5,62.5,62.5,56900
 
             // MetaStock CSV format
             // Symbol,YYYYMMDD,Open,High,Low,Close,Volume
-            // INTC,19800319,63.5,64.5,63.5,63.5,96400
-            // INTC,19800318,62.5,63.0,62.0,62.0,88900
             // INTC,19800317,62.5,63.5,62.5,62.5,56900
 
-            // indices
-            final int ds = line.indexOf(DATE.toString())       + DATE.offset();
-            final int de = line.indexOf(COMMA, ds);
-            final int cs = line.indexOf(CLOSE.toString(),  de) + CLOSE.offset();
-            final int ce = line.indexOf(COMMA, cs);
-            final int hs = line.indexOf(HIGH.toString(),   ce) + HIGH.offset();
-            final int he = line.indexOf(COMMA, hs);
-            final int ls = line.indexOf(LOW.toString(),    he) + LOW.offset();
-            final int le = line.indexOf(COMMA, ls);
-            final int os = line.indexOf(OPEN.toString(),   le) + OPEN.offset();
-            final int oe = line.indexOf(COMMA, os);
-            final int vs = line.indexOf(VOLUME.toString(), oe) + VOLUME.offset();
-            final int ve = line.indexOf(COMMA, vs);
-
-            // concatenate segments
-            final StringBuilder builder = new StringBuilder(symbol).append(COMMA);
-            final String date = line.substring(ds, de);
-            builder.append(date.substring(ZERO, FOUR))  // year
-                   .append(date.substring(FIVE, SEVEN)) // month
-                   .append(date.substring(EIGHT, TEN))  // date
-                   .append(COMMA);
-            builder.append(line.substring(os, oe))      // open
-                   .append(COMMA);
-            builder.append(line.substring(hs, he))      // high
-                   .append(COMMA);
-            builder.append(line.substring(ls, le))      // low
-                   .append(COMMA);
-            builder.append(line.substring(cs, ce))      // close
-                   .append(COMMA);
-            builder.append(line.substring(vs, ve));     // volume
-
-            return builder.toString();
+            out.append(symbol).append(COMMA)
+               .append(line, ZERO, FOUR)   // year
+               .append(line, FIVE, SEVEN)  // month
+               .append(line, EIGHT, TEN)   // date
+               .append(line, BufferTransforms.findNth(COMMA, line, ONE, TEN), line.length()); // rest of record
+            return true;
           }
-        };
+        });
       }
     },
     CSV {
@@ -273,6 +204,24 @@ public class Tiingo extends Source {
     return format.newTransformer(transform);
   }
 
+  @Override
+  public boolean isStreamable() {
+    // JSON lines are transformed together
+    return format == Formats.CSV;
+  }
+
+  @Override
+  public boolean isParsed() {
+    // JSON is parsed as it is read
+    return format == Formats.JSON;
+  }
+
+  @Override
+  public boolean isReversed() {
+    // CSV is sorted in descending / reverse chronological order
+    return format == Formats.CSV;
+  }
+
   @Override
   public TextTransform newTransform(final String symbol) {
     return format.newTransform(symbol);
@@ -244,6 +244,11 @@ public class WallStreetJournal extends Source {
     url.append(ROWS);
   }
 
+  @Override
+  public boolean isStreamable() {
+    return false;
+  }
+
   @Override
   public TextTransformer newTransformer(final TextTransform transform) {
     return new TextTransformer(transform) {
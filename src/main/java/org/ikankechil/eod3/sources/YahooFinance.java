@@ -6,13 +6,16 @@
 package org.ikankechil.eod3.sources;
 
 import static java.util.Calendar.*;
+import static org.ikankechil.eod3.io.BufferTransforms.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
-import static org.ikankechil.util.StringUtility.*;
 
+import java.nio.CharBuffer;
 import java.util.Calendar;
 import java.util.EnumSet;
 
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.io.TextTransform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -182,7 +185,12 @@ public class YahooFinance extends Source {
 
   @Override
   public TextTransform newTransform(final String symbol) {
-    return new TextTransform() {
+    return BufferTransforms.text(newBufferTransform(symbol));
+  }
+
+  @Override
+  public BufferTransform newBufferTransform(final String symbol) {
+    return new BufferTransform() {
       /**
        * Transforms the specified line from Yahoo! Finance CSV into MetaStock CSV
        * format.
@@ -193,7 +201,7 @@ public class YahooFinance extends Source {
        * @param line the line to be transformed
        */
       @Override
-      public String transform(final String line) {
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
         // Yahoo! Finance CSV format
         // Date(YYYY-MM-DD),Open,High,Low,Close,Volume,Adj Close
         // 2013-12-20,25.11,25.35,25.04,25.06,55380100,25.06
@@ -205,18 +213,11 @@ public class YahooFinance extends Source {
 
         // locate last comma (if no volume column, e.g. in FX)
         final int comma = findNth(COMMA, line, SIX, TEN);
-        final char[] characters = new char[symbol.length() + comma - ONE];
-        // set row name
-        int i = getChars(symbol, ZERO, symbol.length(), characters, ZERO);
-        characters[i] = COMMA;
-        // copy year
-        i = getChars(line, ZERO, FOUR, characters, ++i);
-        // copy month
-        i = getChars(line, FIVE, SEVEN, characters, i);
-        // copy rest of line
-        line.getChars(EIGHT, comma, characters, i);
-
-        return String.valueOf(characters);
+        out.append(symbol).append(COMMA)
+           .append(line, ZERO, FOUR)    // year
+           .append(line, FIVE, SEVEN)   // month
+           .append(line, EIGHT, comma); // rest of line
+        return true;
       }
     };
   }
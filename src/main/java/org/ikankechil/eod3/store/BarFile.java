@@ -0,0 +1,408 @@
+/**
+ * BarFile.java  v0.1  19 October 2026 2:14:47 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.ikankechil.eod3.BarSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Price and volume data of a symbol in a memory-mapped binary file, one
+ * fixed-width row per date in chronological order, so that a series is read
+ * without parsing.
+ * <p>
+ * A 16-byte header holding a magic number, version, row count and capacity
+ * is followed by a column per field, each reserving room for
+ * <code>capacity</code> rows: int dates (YYYYMMDD), double open, high, low and
+ * close prices and long volumes. Updates later than the last row are appended
+ * in place past the committed rows, and the row count, which is written last,
+ * commits them. Updates of earlier dates would overwrite committed rows, so
+ * they are merged into a rewritten file replacing this one, as are files
+ * outgrowing their capacity, which are rewritten with twice the capacity. The
+ * mapping of a file is released before it is replaced, which some platforms
+ * refuse while a file is mapped.
+ * <p>
+ * Not thread-safe.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class BarFile implements Closeable {
+
+  private final File          file;
+  private FileChannel         channel;
+  private MappedByteBuffer    buffer;
+  private int                 size;             // rows
+  private int                 capacity;         // rows
+
+  public static final String  EXTENSION       = ".bars";
+
+  // header
+  private static final int    MAGIC           = 0x454F4433; // EOD3
+  private static final int    VERSION         = 1;
+  private static final int    HEADER          = 16;         // bytes
+  private static final int    SIZE_OFFSET     = 8;
+  private static final int    CAPACITY_OFFSET = 12;
+
+  private static final int    ROW             = 4 + 4 * 8 + 8; // bytes
+  private static final int    MIN_CAPACITY    = 64;          // rows
+  private static final String TEMPORARY       = ".tmp";
+
+  private static final Logger logger          = LoggerFactory.getLogger(BarFile.class);
+
+  private BarFile(final File file) throws IOException {
+    this.file = file;
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      map();
+    }
+    catch (final IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private final void map() throws IOException {
+    final long length = channel.size();
+    if (length < HEADER) {
+      throw new IOException("Not a bar file: " + file);
+    }
+    buffer = channel.map(MapMode.READ_WRITE, 0, length);
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a bar file: " + file);
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IOException("Unsupported version " + buffer.getInt(4) + ": " + file);
+    }
+    size = buffer.getInt(SIZE_OFFSET);
+    capacity = buffer.getInt(CAPACITY_OFFSET);
+    if (size < 0 || size > capacity || length < length(capacity)) {
+      throw new IOException("Corrupt bar file: " + file);
+    }
+  }
+
+  /**
+   * Maps <code>file</code> for reading and updating.
+   *
+   * @param file
+   * @return the bar file
+   * @throws IOException if <code>file</code> cannot be mapped or is not a bar
+   *           file
+   */
+  public static BarFile open(final File file) throws IOException {
+    return new BarFile(file);
+  }
+
+  /**
+   * Writes <code>lines</code> to <code>file</code>, replacing it.
+   *
+   * @param file
+   * @param lines in MetaStock format, i.e. Symbol,YYYYMMDD,Open,High,Low,
+   *          Close[,Volume], preferably in reverse chronological order
+   * @return number of rows written
+   * @throws IOException if a line cannot be parsed or <code>file</code>
+   *           written
+   */
+  public static int write(final File file, final Iterable<String> lines) throws IOException {
+    return write(file, BarSeries.parse(null, lines));
+  }
+
+  /**
+   * Writes <code>bars</code> to <code>file</code>, replacing it.
+   *
+   * @param file
+   * @param bars
+   * @return number of rows written
+   * @throws IOException if <code>file</code> cannot be written
+   */
+  public static int write(final File file, final BarSeries bars) throws IOException {
+    write(file.toPath().toAbsolutePath(), bars, capacity(bars.size()));
+    return bars.size();
+  }
+
+  private static final void write(final Path target, final BarSeries bars, final int capacity)
+      throws IOException {
+    final Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMPORARY);
+    try {
+      try (final FileChannel out = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        // extends the file to its full length
+        final MappedByteBuffer mapped = out.map(MapMode.READ_WRITE, 0, length(capacity));
+        mapped.putInt(MAGIC).putInt(VERSION).putInt(bars.size()).putInt(capacity);
+        put(mapped, capacity, 0, bars);
+        mapped.force();
+      }
+      Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    finally {
+      Files.deleteIfExists(temporary); // unless moved
+    }
+  }
+
+  /**
+   * Merges <code>lines</code> into this file, replacing rows of the same
+   * dates. Lines later than the last row are appended in place.
+   *
+   * @param lines in MetaStock format, preferably in reverse chronological
+   *          order
+   * @return number of rows after merging
+   * @throws IOException if a line cannot be parsed or this file written
+   */
+  public int merge(final Iterable<String> lines) throws IOException {
+    return merge(BarSeries.parse(null, lines));
+  }
+
+  /**
+   * Merges <code>updates</code> into this file, replacing rows of the same
+   * dates. Updates later than the last row are appended in place; otherwise
+   * this file is rewritten, so that committed rows are never overwritten in
+   * place.
+   *
+   * @param updates
+   * @return number of rows after merging
+   * @throws IOException if this file cannot be written
+   */
+  public int merge(final BarSeries updates) throws IOException {
+    if (updates.isEmpty()) {
+      return size;
+    }
+
+    final int from = lowerBound(updates.firstDate());
+    if (from == size && size + updates.size() <= capacity) { // past the committed rows
+      put(buffer, capacity, size, updates);
+      buffer.force();
+      buffer.putInt(SIZE_OFFSET, size += updates.size()); // commit
+      buffer.force();
+    }
+    else {
+      final BarSeries merged = read(null, 0).merge(updates);
+      rewrite(merged, (merged.size() > capacity) ? capacity(Math.max(merged.size(), capacity << 1)) : capacity);
+    }
+    logger.debug("Merged {} rows into: {} ({} rows)", updates.size(), file, size);
+    return size;
+  }
+
+  /**
+   * Replaces this file with <code>bars</code>, releasing its mapping first.
+   */
+  private final void rewrite(final BarSeries bars, final int capacity) throws IOException {
+    final boolean grown = capacity > this.capacity;
+    channel.close();
+    unmap(buffer);
+    buffer = null;
+    try {
+      write(file.toPath().toAbsolutePath(), bars, capacity);
+    }
+    finally { // left as it was should writing fail
+      channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+      map();
+    }
+    if (grown) {
+      logger.debug("Grown to {} rows: {}", capacity, file);
+    }
+  }
+
+  /**
+   * Releases the mapping of <code>buffer</code> now rather than once it is
+   * garbage collected. Best effort: where the JDK offers no way of releasing
+   * it, the mapping is left to the garbage collector.
+   */
+  private final void unmap(final MappedByteBuffer buffer) {
+    try {
+      try { // Java 9 and later
+        final Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+        final Field theUnsafe = unsafe.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        unsafe.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+      }
+      catch (final NoSuchMethodException nsmE) { // Java 8
+        final Method cleaner = buffer.getClass().getMethod("cleaner");
+        cleaner.setAccessible(true);
+        final Object clean = cleaner.invoke(buffer);
+        if (clean != null) {
+          clean.getClass().getMethod("clean").invoke(clean);
+        }
+      }
+    }
+    catch (final ReflectiveOperationException | RuntimeException e) {
+      logger.debug("Cannot unmap: {}", file, e);
+    }
+  }
+
+  /**
+   * Reads all rows into memory.
+   *
+   * @param symbol of the bars, which this file does not record
+   * @return the bars in chronological order
+   */
+  public BarSeries read(final String symbol) {
+    return read(symbol, 0);
+  }
+
+  private final BarSeries read(final String symbol, final int from) {
+    final BarSeries.Builder bars = new BarSeries.Builder(symbol, size - from);
+    for (int row = from; row < size; ++row) {
+      bars.add(date(row), open(row), high(row), low(row), close(row), volume(row));
+    }
+    return bars.build();
+  }
+
+  private static final void put(final ByteBuffer buffer,
+                                final int capacity,
+                                final int at,
+                                final BarSeries bars) {
+    final int dates = HEADER;
+    final int opens = dates + 4 * capacity;
+    final int highs = opens + 8 * capacity;
+    final int lows = highs + 8 * capacity;
+    final int closes = lows + 8 * capacity;
+    final int volumes = closes + 8 * capacity;
+    for (int i = 0, row = at; i < bars.size(); ++i, ++row) {
+      buffer.putInt(dates + 4 * row, bars.date(i));
+      buffer.putDouble(opens + 8 * row, bars.open(i));
+      buffer.putDouble(highs + 8 * row, bars.high(i));
+      buffer.putDouble(lows + 8 * row, bars.low(i));
+      buffer.putDouble(closes + 8 * row, bars.close(i));
+      buffer.putLong(volumes + 8 * row, bars.volume(i));
+    }
+  }
+
+  private static final int capacity(final int rows) {
+    // a multiple of 8 keeps the 8-byte columns aligned
+    return (Math.max(rows, MIN_CAPACITY) + 7) & ~7;
+  }
+
+  private static final long length(final int capacity) {
+    return HEADER + (long) ROW * capacity;
+  }
+
+  /**
+   * @param date YYYYMMDD
+   * @return index of the first row on or after <code>date</code>, or
+   *         <code>size()</code> if none
+   */
+  public int lowerBound(final int date) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (date(middle) < date) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the latest date, or 0 if empty
+   */
+  public int latestDate() {
+    return (size == 0) ? 0 : date(size - 1);
+  }
+
+  public int date(final int row) {
+    return buffer.getInt(HEADER + 4 * check(row));
+  }
+
+  public double open(final int row) {
+    return buffer.getDouble(HEADER + 4 * capacity + 8 * check(row));
+  }
+
+  public double high(final int row) {
+    return buffer.getDouble(HEADER + 12 * capacity + 8 * check(row));
+  }
+
+  public double low(final int row) {
+    return buffer.getDouble(HEADER + 20 * capacity + 8 * check(row));
+  }
+
+  public double close(final int row) {
+    return buffer.getDouble(HEADER + 28 * capacity + 8 * check(row));
+  }
+
+  public long volume(final int row) {
+    return buffer.getLong(HEADER + 36 * capacity + 8 * check(row));
+  }
+
+  private final int check(final int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+    }
+    return row;
+  }
+
+  /**
+   * @return a read-only view of the dates, valid until this file is updated
+   *         or closed
+   */
+  public IntBuffer dates() {
+    return column(HEADER, 4).asIntBuffer();
+  }
+
+  public DoubleBuffer opens() {
+    return column(HEADER + 4 * capacity, 8).asDoubleBuffer();
+  }
+
+  public DoubleBuffer highs() {
+    return column(HEADER + 12 * capacity, 8).asDoubleBuffer();
+  }
+
+  public DoubleBuffer lows() {
+    return column(HEADER + 20 * capacity, 8).asDoubleBuffer();
+  }
+
+  public DoubleBuffer closes() {
+    return column(HEADER + 28 * capacity, 8).asDoubleBuffer();
+  }
+
+  public LongBuffer volumes() {
+    return column(HEADER + 36 * capacity, 8).asLongBuffer();
+  }
+
+  private final ByteBuffer column(final int offset, final int width) {
+    final ByteBuffer column = buffer.asReadOnlyBuffer();
+    column.limit(offset + width * size).position(offset);
+    return column.slice();
+  }
+
+  public File file() {
+    return file;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  @Override
+  public String toString() {
+    return file + " (" + size + " rows)";
+  }
+
+}
@@ -47,6 +47,7 @@ public class EOD3 extends AbstractCommandLineInterface<String, List<File>> {
   private final OptionSpec<Void>        download;
   private final OptionSpec<Void>        update;
   private final OptionSpec<Void>        merge;
+  private final OptionSpec<Void>        share;
 
   // parameters
   private final OptionSpec<File>        outputDir;
@@ -80,6 +81,7 @@ public class EOD3 extends AbstractCommandLineInterface<String, List<File>> {
     // -x exchange
     // -u update
     // -m merge output files
+    // -w share symbols files with other workers
 
     // Configuring command-line options
     // input symbols
@@ -89,6 +91,8 @@ public class EOD3 extends AbstractCommandLineInterface<String, List<File>> {
     download = parser.accepts("d", "Download only, no conversion");
     update = parser.accepts("u", "Update");
     merge = parser.accepts("m", "Merge output files");
+    share = parser.accepts("w", "Share input symbols files with other workers writing to the same output directory")
+                  .availableIf(inputSymbolsFile);
 
     // parameters
     outputDir = parser.accepts("o", "Output directory")
@@ -187,17 +191,16 @@ public class EOD3 extends AbstractCommandLineInterface<String, List<File>> {
       // illegal: -i -d -s -e -f
       checkIllegalOptions(options, inputSymbolsFile, download, startDate, endDate, exchange);
       final File outputParentDirectory = options.valueOf(outputDir);
-      // merge unmerged files first (if any) before updating
+      // merge unmerged files first (if any) before updating, then merge
+      // updates straight into each file
       if (hasFrequency) {
         final Frequencies f = options.valueOf(frequency);
         converter.merge(outputParentDirectory, f);
-        converter.update(outputParentDirectory, f);
-        destinations.add(converter.merge(outputParentDirectory, f));
+        destinations.add(converter.updateAndMerge(outputParentDirectory, f));
       }
       else {
         converter.merge(outputParentDirectory);
-        converter.update(outputParentDirectory);
-        destinations.add(converter.merge(outputParentDirectory));
+        destinations.add(converter.updateAndMerge(outputParentDirectory));
       }
     }
     else {
@@ -220,22 +223,23 @@ public class EOD3 extends AbstractCommandLineInterface<String, List<File>> {
         logger.info("Option ignored: {} {}", exchange, options.valueOf(exchange));
       }
 
+      final boolean shared = options.has(share);
       if (options.has(download)) {
         for (final String symbolsFile : symbols) {
           final File file = new File(symbolsFile);
-          destinations.add(converter.download(file,
-                                              interval,
-                                              (outputDirectory != null) ? outputDirectory         // -i -d -o <outputDir> <inputSymbolsFiles...>
-                                                                        : file.getParentFile())); // -i -d <inputSymbolsFiles...>
+          final File directory = (outputDirectory != null) ? outputDirectory         // -i -d -o <outputDir> <inputSymbolsFiles...>
+                                                           : file.getParentFile();   // -i -d <inputSymbolsFiles...>
+          destinations.add(shared ? converter.downloadSharded(file, interval, directory)  // -i -d -w
+                                  : converter.download(file, interval, directory));
         }
       }
       else {
         for (final String symbolsFile : symbols) {
           final File file = new File(symbolsFile);
-          destinations.add(converter.convert(file,
-                                             interval,
-                                             (outputDirectory != null) ? outputDirectory          // -i -o <outputDir> <inputSymbolsFiles...>
-                                                                       : file.getParentFile()));  // -i <inputSymbolsFiles...>
+          final File directory = (outputDirectory != null) ? outputDirectory         // -i -o <outputDir> <inputSymbolsFiles...>
+                                                           : file.getParentFile();   // -i <inputSymbolsFiles...>
+          destinations.add(shared ? converter.convertSharded(file, interval, directory)   // -i -w
+                                  : converter.convert(file, interval, directory));
         }
       }
     }
@@ -0,0 +1,176 @@
+/**
+ * BarSeriesTest.java  v0.1  19 October 2026 5:48:26 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.GregorianCalendar;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>BarSeries</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class BarSeriesTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  private static final double    DELTA  = 0.0;
+
+  @Test
+  public void parseLinesInReverseChronologicalOrder() throws Exception {
+    final BarSeries bars = BarSeries.parse(null, Arrays.asList("C,20151007,1.5,2.5,0.5,2,300",
+                                                                "",
+                                                                "C,20151006,1.25,2.25,0.25,1.75,200",
+                                                                "C,20151005,1,2,0.125,1.5,100"));
+    assertEquals("C", bars.symbol());
+    assertEquals(3, bars.size());
+    assertEquals(20151005, bars.firstDate());
+    assertEquals(20151007, bars.latestDate());
+    assertEquals(1.25, bars.open(1), DELTA);
+    assertEquals(2.25, bars.high(1), DELTA);
+    assertEquals(0.25, bars.low(1), DELTA);
+    assertEquals(1.75, bars.close(1), DELTA);
+    assertEquals(200, bars.volume(1));
+  }
+
+  @Test
+  public void sortBarsOutOfOrderKeepingFirstOfDuplicateDates() throws Exception {
+    final BarSeries bars = BarSeries.parse("C", Arrays.asList("C,20151006,6,6,6,6,6",
+                                                               "C,20151005,5,5,5,5,5",
+                                                               "C,20151007,7,7,7,7,7",
+                                                               "C,20151006,0,0,0,0,0"));
+    assertEquals(3, bars.size());
+    assertEquals(20151006, bars.date(1));
+    assertEquals(6, bars.close(1), DELTA);
+  }
+
+  @Test
+  public void growBuilder() {
+    final BarSeries.Builder builder = new BarSeries.Builder("C", 1);
+    for (int day = 1; day <= 100; ++day) {
+      builder.add(20150000 + day, day, day, day, day, day);
+    }
+    assertEquals(100, builder.size());
+    final BarSeries bars = builder.build();
+    assertEquals(100, bars.size());
+    assertEquals(20150100, bars.latestDate());
+  }
+
+  @Test
+  public void parseLenientLines() throws Exception {
+    final BarSeries bars = BarSeries.parse("C", Arrays.asList("C,2015-10-07 00:00:00,1.1,1.2,1.0,1.15",
+                                                               "C,20151006,,1.2,1.0,1.15,1.5E3,42",
+                                                               "C,20151005,1.1,1.2,1.0,1.15,"));
+    assertEquals(20151007, bars.latestDate());
+    assertEquals(0, bars.volume(2));
+    assertTrue(Double.isNaN(bars.open(1)));
+    assertEquals(1500, bars.volume(1));
+    assertEquals(0, bars.volume(0));
+  }
+
+  @Test
+  public void cannotParseLinesWithoutDates() throws Exception {
+    thrown.expect(IOException.class);
+    thrown.expectMessage("Unparseable line");
+    BarSeries.parse("C", Arrays.asList("C,201510071,1,2,0.5,1.5,100"));
+  }
+
+  @Test
+  public void cannotParseTruncatedLines() throws Exception {
+    thrown.expect(IOException.class);
+    BarSeries.parse("C", Arrays.asList("C,20151007,1,2,0.5"));
+  }
+
+  @Test
+  public void cannotReadPastSize() {
+    final BarSeries bars = new BarSeries.Builder("C").add(20151007, 1, 2, 0.5, 1.5, 100).build();
+
+    thrown.expect(IndexOutOfBoundsException.class);
+    bars.close(1);
+  }
+
+  @Test
+  public void trimToDates() throws Exception {
+    final BarSeries bars = BarSeries.parse("C", Arrays.asList("C,20151008,0,0,0,0,8",
+                                                               "C,20151006,0,0,0,0,6",
+                                                               "C,20151004,0,0,0,0,4"));
+    assertEquals(0, bars.lowerBound(20151001));
+    assertEquals(1, bars.lowerBound(20151005));
+    assertEquals(1, bars.lowerBound(20151006));
+    assertEquals(3, bars.lowerBound(20151009));
+
+    final BarSeries between = bars.between(20151005, 20151008);
+    assertEquals(2, between.size());
+    assertEquals(6, between.volume(0));
+    assertSame(bars, bars.between(20151004, 20151008));
+    assertTrue(bars.between(20151009, 20151010).isEmpty());
+
+    final Interval interval = new Interval(new GregorianCalendar(2015, 9, 5), new GregorianCalendar(2015, 9, 6), null);
+    assertEquals(1, bars.between(interval).size());
+    assertSame(bars, bars.between(Interval.SINCE_INCEPTION));
+  }
+
+  @Test
+  public void mergeReplacingDates() throws Exception {
+    final BarSeries bars = BarSeries.parse("C", Arrays.asList("C,20151008,0,0,0,0,0",
+                                                               "C,20151006,0,0,0,0,0",
+                                                               "C,20151004,0,0,0,0,0"));
+    final BarSeries merged = bars.merge(BarSeries.parse("C", Arrays.asList("C,20151007,7,7,7,7,7",
+                                                                            "C,20151006,6,6,6,6,6",
+                                                                            "C,20151005,5,5,5,5,5")));
+    assertEquals(5, merged.size());
+    for (int bar = 0; bar < merged.size(); ++bar) {
+      assertEquals(20151004 + bar, merged.date(bar));
+    }
+    assertEquals(6, merged.volume(2));
+    assertEquals(0, merged.volume(4));
+    assertSame(bars, bars.merge(new BarSeries.Builder("C").build()));
+  }
+
+  @Test
+  public void resampleWeeklyAndMonthly() throws Exception {
+    // Thursday 29 October to Tuesday 3 November 2015
+    final BarSeries bars = BarSeries.parse("C", Arrays.asList("C,20151103,5,9,4,8,50",
+                                                               "C,20151102,4,5,3,5,40",
+                                                               "C,20151030,3,6,2,4,30",
+                                                               "C,20151029,2,3,1,3,20"));
+    assertSame(bars, bars.resample(Frequencies.DAILY));
+
+    final BarSeries weekly = bars.resample(Frequencies.WEEKLY);
+    assertEquals(Arrays.asList("C,20151103,4,9,3,8,90", "C,20151030,2,6,1,4,50"), weekly.toLines());
+
+    final BarSeries monthly = bars.resample(Frequencies.MONTHLY);
+    assertEquals(Arrays.asList("C,20151103,4,9,3,8,90", "C,20151030,2,6,1,4,50"), monthly.toLines());
+
+    final BarSeries sundays = BarSeries.parse("C", Arrays.asList("C,20151108,2,2,2,2,2", "C,20151101,1,1,1,1,1"));
+    assertEquals(2, sundays.resample(Frequencies.WEEKLY).size());
+    final BarSeries years = BarSeries.parse("C", Arrays.asList("C,20160101,2,2,2,2,2", "C,20151231,1,1,1,1,1"));
+    assertEquals(1, years.resample(Frequencies.WEEKLY).size());
+    assertEquals(2, years.resample(Frequencies.MONTHLY).size());
+  }
+
+  @Test
+  public void writeInReverseChronologicalOrder() throws Exception {
+    final BarSeries bars = BarSeries.parse("EURUSD", Arrays.asList("EURUSD,20151006,1.1,1.2,0.00001,1.15,1.5E3",
+                                                                    "EURUSD,20151007,,1.25,1.05,1E20,0"));
+    final StringBuilder out = new StringBuilder();
+    bars.writeTo(out);
+    assertEquals("EURUSD,20151007,,1.25,1.05,100000000000000000000,0\n" +
+                 "EURUSD,20151006,1.1,1.2,0.00001,1.15,1500\n",
+                 out.toString());
+    assertEquals(Arrays.asList(out.toString().split("\n")), bars.toLines());
+  }
+
+}
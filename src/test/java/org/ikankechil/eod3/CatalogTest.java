@@ -0,0 +1,186 @@
+/**
+ * CatalogTest.java  v0.1  19 October 2026 12:48:37 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ikankechil.eod3.io.LineTally;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>Catalog</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class CatalogTest {
+
+  private File                   directory;
+  private File                   daily;
+  private File                   weekly;
+
+  @Rule
+  public final ExpectedException thrown   = ExpectedException.none();
+
+  private static final String    EXCHANGE = "NYSE";
+  private static final String    DAILY    = "C,20151007,1,2,0.5,1.5,100\nC,20151006,1,2,0.5,1.5,200\n\nC,20151005,1,2,0.5,1.5,300\n";
+  private static final String    WEEKLY   = "D,20151009,3,4,2.5,3.5,1000\n";
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(CatalogTest.class.getSimpleName()).toFile();
+    daily = write(new File(directory, "C.csv"), DAILY);
+    weekly = write(new File(directory, "D_w.csv"), WEEKLY);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (final File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void recordDatesAndRows() throws Exception {
+    final Catalog.Entry entry = new Catalog(directory).record(daily, EXCHANGE, tally(DAILY));
+    assertEquals("C", entry.symbol);
+    assertEquals(EXCHANGE, entry.exchange);
+    assertEquals(Frequencies.DAILY, entry.frequency);
+    assertEquals("20151005", entry.first);
+    assertEquals("20151007", entry.last);
+    assertEquals(3, entry.rows);
+    assertEquals(daily.length(), entry.size);
+  }
+
+  @Test
+  public void cannotRecordEmptyFile() throws Exception {
+    thrown.expect(IOException.class);
+    new Catalog(directory).record(write(new File(directory, "E.csv"), "\n"), EXCHANGE, new LineTally());
+  }
+
+  @Test
+  public void readSavedEntries() throws Exception {
+    final Catalog catalog = new Catalog(directory);
+    catalog.record(daily, EXCHANGE, tally(DAILY));
+    catalog.record(weekly, null, tally(WEEKLY));
+    catalog.save();
+    assertTrue(catalog.file().isFile());
+
+    final Catalog read = new Catalog(directory);
+    assertEquals(2, read.size());
+    final Catalog.Entry entry = read.get(weekly.toPath());
+    assertEquals("D", entry.symbol);
+    assertNull(entry.exchange);
+    assertEquals(Frequencies.WEEKLY, entry.frequency);
+    assertEquals("20151009", entry.first);
+    assertEquals("20151009", entry.last);
+    assertEquals(1, entry.rows);
+    assertEquals(EXCHANGE, read.get(daily.toPath()).exchange);
+  }
+
+  @Test
+  public void keepExchangeRecordedBefore() throws Exception {
+    final Catalog catalog = new Catalog(directory);
+    catalog.record(daily, EXCHANGE, tally(DAILY));
+    assertEquals(EXCHANGE, catalog.record(daily, null, tally(DAILY)).exchange);
+  }
+
+  @Test
+  public void invalidateChangedFiles() throws Exception {
+    final Catalog catalog = new Catalog(directory);
+    catalog.record(daily, EXCHANGE, tally(DAILY));
+    catalog.record(weekly, EXCHANGE, tally(WEEKLY));
+    assertNotNull(catalog.get(daily.toPath()));
+
+    final String appended = "C,20151002,1,2,0.5,1.5,400\n";
+    Files.write(daily.toPath(), appended.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    assertNull(catalog.get(daily.toPath()));
+    assertEquals("20151002", catalog.record(daily, null, tally(DAILY + appended)).first);
+
+    weekly.delete();
+    assertNull(catalog.get(weekly.toPath()));
+  }
+
+  @Test
+  public void ignoreMalformedEntries() throws Exception {
+    final Catalog catalog = new Catalog(directory);
+    catalog.record(daily, EXCHANGE, tally(DAILY));
+    catalog.save();
+    Files.write(catalog.file().toPath(),
+                "torn\nD_w.csv\tD\t\tHOURLY\t20151009\t20151009\t1\t1\t1\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+    final Catalog read = new Catalog(directory);
+    assertEquals(1, read.size());
+    assertNotNull(read.get(daily.toPath()));
+  }
+
+  @Test
+  public void saveOnlyWhenChanged() throws Exception {
+    final Catalog catalog = new Catalog(directory);
+    catalog.save();
+    assertFalse(catalog.file().exists());
+
+    catalog.record(daily, EXCHANGE, tally(DAILY));
+    catalog.remove(weekly); // not recorded
+    catalog.save();
+    final long saved = catalog.file().lastModified();
+    catalog.file().setLastModified(saved - 10000);
+    catalog.save();
+    assertEquals(saved - 10000, catalog.file().lastModified());
+
+    catalog.remove(daily);
+    catalog.save();
+    assertEquals(0, new Catalog(directory).size());
+  }
+
+  @Test
+  public void keepEntryOfRenamedFile() throws Exception {
+    final Catalog catalog = new Catalog(directory);
+    catalog.record(daily, EXCHANGE, tally(DAILY));
+    final File renamed = new File(directory, "C_d.csv");
+    assertTrue(daily.renameTo(renamed));
+    catalog.rename(daily, renamed);
+
+    assertEquals(1, catalog.size());
+    final Catalog.Entry entry = catalog.get(renamed.toPath());
+    assertEquals("20151007", entry.last);
+    assertEquals(3, entry.rows);
+  }
+
+  /**
+   * @return the tally of the non-empty lines of <code>content</code>, as
+   *         written
+   */
+  private static final LineTally tally(final String content) {
+    final List<String> lines = new ArrayList<>();
+    for (final String line : content.split("\n")) {
+      if (!line.isEmpty()) {
+        lines.add(line);
+      }
+    }
+    return new LineTally(lines);
+  }
+
+  private static final File write(final File file, final String content) throws IOException {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * ConversionJournalTest.java  v0.1  18 October 2026 2:44:10 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static java.util.Calendar.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Calendar;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test for <code>ConversionJournal</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class ConversionJournalTest {
+
+  private File                  directory;
+  private File                  file1;
+  private File                  file2;
+
+  private static final String   ACTION   = "convert";
+  private static final String   EXCHANGE = "NYSE";
+  private static final String   SYMBOL1  = "C";
+  private static final String   SYMBOL2  = "D";
+  private static final Interval INTERVAL;
+
+  static {
+    final Calendar start = Calendar.getInstance();
+    start.set(2015, OCTOBER, 1);
+    final Calendar end = (Calendar) start.clone();
+    end.add(DATE, 6);
+    INTERVAL = new Interval(start, end, Frequencies.DAILY);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(ConversionJournalTest.class.getSimpleName()).toFile();
+    final File subdir = new File(directory, EXCHANGE);
+    subdir.mkdir();
+    file1 = write(new File(subdir, FilenameConvention.getFilename(SYMBOL1, INTERVAL)), "20151007,1,2,0.5,1.5,100");
+    file2 = write(new File(subdir, FilenameConvention.getFilename(SYMBOL2, INTERVAL)), "20151007,3,4,2.5,3.5,200");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (final File subdir : directory.listFiles()) {
+      if (subdir.isDirectory()) {
+        for (final File file : subdir.listFiles()) {
+          file.delete();
+        }
+      }
+      subdir.delete();
+    }
+    directory.delete();
+  }
+
+  private static final File write(final File file, final String line) throws Exception {
+    Files.write(file.toPath(), Arrays.asList(line), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  @Test
+  public void newJournalHasNothingCompleted() throws Exception {
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL)) {
+      assertTrue(journal.file().isFile());
+      assertEquals(0, journal.completed());
+      assertFalse(journal.isCompleted(file1));
+    }
+  }
+
+  @Test
+  public void resumeRecordedSymbols() throws Exception {
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL)) {
+      journal.record(EXCHANGE, SYMBOL1, file1);
+      assertTrue(journal.isCompleted(file1));
+    }
+
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL)) {
+      assertEquals(1, journal.completed());
+      assertTrue(journal.isCompleted(file1));
+      assertFalse(journal.isCompleted(file2));
+    }
+  }
+
+  @Test
+  public void redoModifiedOrMissingFiles() throws Exception {
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL)) {
+      journal.record(EXCHANGE, SYMBOL1, file1);
+      journal.record(EXCHANGE, SYMBOL2, file2);
+    }
+    final long modified = file1.lastModified();
+    write(file1, "20151007,1,2,0.5,1.5,101"); // same size
+    file1.setLastModified(modified + 2000);
+    file2.delete();
+
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL)) {
+      assertEquals(2, journal.completed());
+      assertFalse(journal.isCompleted(file1));
+      assertFalse(journal.isCompleted(file2));
+    }
+  }
+
+  @Test
+  public void discardJournalOfAnotherJob() throws Exception {
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL)) {
+      journal.record(EXCHANGE, SYMBOL1, file1);
+    }
+
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, Interval.SINCE_INCEPTION)) {
+      assertEquals(0, journal.completed());
+      assertFalse(journal.isCompleted(file1));
+    }
+  }
+
+  @Test
+  public void skipTornRecords() throws Exception {
+    final File file;
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL)) {
+      journal.record(EXCHANGE, SYMBOL1, file1);
+      file = journal.file();
+    }
+    Files.write(file.toPath(), (EXCHANGE + '\t' + SYMBOL2 + '\t').getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+    try (final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL)) {
+      assertEquals(1, journal.completed());
+      assertTrue(journal.isCompleted(file1));
+    }
+  }
+
+  @Test
+  public void deleteCompletedJournal() throws Exception {
+    final ConversionJournal journal = new ConversionJournal(directory, ACTION, INTERVAL);
+    journal.record(EXCHANGE, SYMBOL1, file1);
+    journal.delete();
+
+    assertFalse(journal.file().exists());
+  }
+
+  @Test
+  public void resumeFromJournalsOfOtherWorkers() throws Exception {
+    final String shard = ACTION + ".NYSE.0";
+    final File other;
+    try (final ConversionJournal journal = new ConversionJournal(directory, shard, "worker1", INTERVAL)) {
+      journal.record(EXCHANGE, SYMBOL1, file1);
+      other = journal.file();
+    }
+
+    final ConversionJournal journal = new ConversionJournal(directory, shard, "worker2", INTERVAL);
+    assertNotEquals(other, journal.file());
+    assertEquals(1, journal.completed());
+    assertTrue(journal.isCompleted(file1));
+    journal.record(EXCHANGE, SYMBOL2, file2);
+
+    // other workers' journals are read but never written
+    assertEquals(2, Files.readAllLines(other.toPath(), StandardCharsets.UTF_8).size());
+
+    journal.delete();
+    assertFalse(journal.file().exists());
+    assertFalse(other.exists());
+  }
+
+}
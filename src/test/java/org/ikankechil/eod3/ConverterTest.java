@@ -9,8 +9,13 @@ import static java.util.Calendar.*;
 import static org.ikankechil.eod3.Interval.*;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -24,12 +29,22 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.ikankechil.eod3.ConversionListener.Timings;
+import org.ikankechil.eod3.io.BufferTransform;
+import org.ikankechil.eod3.io.BufferTransforms;
 import org.ikankechil.eod3.io.SymbolsReaderTest;
+import org.ikankechil.eod3.io.Transport;
 import org.ikankechil.eod3.sources.Exchanges;
+import org.ikankechil.eod3.sources.GlobalView;
 import org.ikankechil.eod3.sources.Morningstar;
 import org.ikankechil.eod3.sources.Source;
 import org.ikankechil.eod3.sources.SourceTest;
+import org.ikankechil.io.TextTransform;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -122,6 +137,24 @@ public class ConverterTest {
 
   // Convert
 
+  @Test
+  public void cannotInstantiateWithNullSources() {
+    thrown.expect(NullPointerException.class);
+    converter = new Converter((List<Source>) null, null, null);
+  }
+
+  @Test
+  public void cannotInstantiateWithNoSources() {
+    thrown.expect(IllegalArgumentException.class);
+    converter = new Converter(Collections.<Source> emptyList(), null, null);
+  }
+
+  @Test
+  public void cannotInstantiateWithNullFallbackSource() {
+    thrown.expect(NullPointerException.class);
+    converter = new Converter(Arrays.asList(SOURCE, null), null, null);
+  }
+
   @Test
   public void cannotConvertEmptySymbol() throws Exception {
     thrown.expect(IllegalArgumentException.class);
@@ -204,6 +237,9 @@ public class ConverterTest {
       final File[] actualFiles = actualExchange.listFiles();
       for (final File actualFile : actualFiles) {
         assertTrue(actualFile.isFile());
+        if (Catalog.FILENAME.equals(actualFile.getName())) {
+          continue;
+        }
 
         final String actualSymbol = FilenameConvention.getSymbolFrom(actualFile.getName());
         assertTrue(expectedSymbols.contains(actualSymbol));
@@ -229,6 +265,43 @@ public class ConverterTest {
     delete(actualFiles);
   }
 
+  @Test
+  public void cannotAddNullListener() {
+    thrown.expect(NullPointerException.class);
+    converter.addListener(null);
+  }
+
+  @Test
+  public void notifyListenerOfEachSymbol() throws Exception {
+    final Map<String, File> successes = new HashMap<>();
+    final Map<String, Throwable> failures = new HashMap<>();
+    converter.addListener(new ConversionListener() {
+      @Override
+      public void onSuccess(final String symbol, final Exchanges exchange, final File file, final Timings timings) {
+        assertEquals(EXCHANGE, exchange);
+        assertTrue(timings.total(TimeUnit.NANOSECONDS) >= timings.running(TimeUnit.NANOSECONDS));
+        successes.put(symbol, file);
+      }
+
+      @Override
+      public void onFailure(final String symbol, final Exchanges exchange, final Throwable cause, final Timings timings) {
+        assertEquals(EXCHANGE, exchange);
+        failures.put(symbol, cause);
+      }
+    });
+
+    final List<File> actualFiles = converter.convert(Arrays.asList(SYMBOL1, SYMBOL2, SYMBOL3),
+                                                     EXCHANGE,
+                                                     INTERVAL_20151001_20151007_d,
+                                                     OUTPUT_DIRECTORY);
+
+    assertEquals(actualFiles.size(), successes.size());
+    assertTrue(successes.values().containsAll(actualFiles));
+    assertEquals(3, successes.size() + failures.size());
+
+    delete(actualFiles);
+  }
+
   @Test
   public void convertSymbolSeriesOverInterval() throws Exception {
     final List<File> actualFiles = converter.convert(Arrays.asList(SYMBOL1, SYMBOL2, SYMBOL3),
@@ -347,6 +420,213 @@ public class ConverterTest {
     converter.merge((File) null, (File) null);
   }
 
+  @Test
+  public void writeTransformedLinesVerbatim() throws Exception {
+    // prices with trailing zeros and no volume, as Global-View serves
+    final byte[] response = ("Date,High,Low,Close\n" +
+                             "20151006,1.3180,1.3100,1.3150\n" +
+                             "20151005,10.00,9.80,10.20\n").getBytes(StandardCharsets.UTF_8);
+    final Source source = new GlobalView() {
+      @Override
+      public URL url(final String symbol,
+                     final Exchanges exchange,
+                     final Calendar start,
+                     final Calendar end,
+                     final Frequencies frequency)
+          throws MalformedURLException {
+        return new URL("http://localhost/" + symbol);
+      }
+
+      @Override
+      public int headerRows() {
+        return 1;
+      }
+
+      @Override
+      public boolean isReversed() {
+        return false;
+      }
+
+      @Override
+      public boolean isStreamable() {
+        return false;
+      }
+
+      @Override
+      public TextTransform newTransform(final String symbol) {
+        return new TextTransform() {
+          @Override
+          public String transform(final String line) {
+            return symbol + "," + line;
+          }
+        };
+      }
+
+      @Override
+      public BufferTransform newBufferTransform(final String symbol) {
+        return BufferTransforms.adapt(newTransform(symbol));
+      }
+
+      @Override
+      public Transport newTransport() {
+        return new ResponseTransport(response);
+      }
+    };
+    converter.stop();
+    converter = new Converter(source);
+
+    final File directory = Files.createTempDirectory(ConverterTest.class.getSimpleName()).toFile();
+    try {
+      final File converted = converter.convert("EURUSD", Exchanges.FX, INTERVAL_20151001_20151007_d, directory);
+      assertEquals(Arrays.asList("EURUSD,20151006,1.3180,1.3100,1.3150",
+                                 "EURUSD,20151005,10.00,9.80,10.20"),
+                   Files.readAllLines(converted.toPath(), StandardCharsets.UTF_8));
+
+      final File target = new File(directory, "EURUSD_merged.csv");
+      Files.write(target.toPath(), "EURUSD,20151002,1.2900,1.2800,1.2850\n".getBytes(StandardCharsets.UTF_8));
+      converter.mergeUpdate("EURUSD", Exchanges.FX, INTERVAL_20151001_20151007_d, target);
+      assertEquals("EURUSD,20151006,1.3180,1.3100,1.3150\n" +
+                   "EURUSD,20151005,10.00,9.80,10.20\n" +
+                   "EURUSD,20151002,1.2900,1.2800,1.2850\n",
+                   new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+    finally {
+      delete(Collections.singleton(directory));
+    }
+  }
+
+  @Test
+  public void failTasksOverrunningDeadline() throws Exception {
+    final int deadline = 200;
+    final CountDownLatch unblocked = new CountDownLatch(1);
+    final Source source = new GlobalView() {
+      @Override
+      public URL url(final String symbol,
+                     final Exchanges exchange,
+                     final Calendar start,
+                     final Calendar end,
+                     final Frequencies frequency)
+          throws MalformedURLException {
+        return new URL("http://localhost/" + symbol);
+      }
+
+      @Override
+      public int deadline() {
+        return deadline;
+      }
+
+      @Override
+      public Transport newTransport() {
+        // blocks as a read that can neither be aborted nor interrupted
+        return new ResponseTransport(new byte[0]) {
+          @Override
+          public InputStream open(final URL url) throws IOException {
+            boolean interrupted = false;
+            while (true) {
+              try {
+                unblocked.await();
+                break;
+              }
+              catch (final InterruptedException iE) {
+                interrupted = true;
+              }
+            }
+            if (interrupted) {
+              Thread.currentThread().interrupt();
+            }
+            return super.open(url);
+          }
+        };
+      }
+    };
+    converter.stop();
+    converter = new Converter(source);
+
+    final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+    converter.addListener(new ConversionListener() {
+      @Override
+      public void onSuccess(final String symbol, final Exchanges exchange, final File file, final Timings timings) {
+        fail("Not overdue: " + symbol);
+      }
+
+      @Override
+      public void onFailure(final String symbol, final Exchanges exchange, final Throwable cause, final Timings timings) {
+        failures.put(symbol, cause);
+      }
+    });
+
+    final File directory = Files.createTempDirectory(ConverterTest.class.getSimpleName()).toFile();
+    try {
+      final long start = System.nanoTime();
+      final List<File> actualFiles = converter.convert(Arrays.asList(SYMBOL1, SYMBOL2),
+                                                       Exchanges.FX,
+                                                       INTERVAL_20151001_20151007_d,
+                                                       directory);
+      assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(10 * deadline));
+      assertTrue(actualFiles.isEmpty());
+      assertEquals(2, failures.size());
+      for (final Throwable cause : failures.values()) {
+        assertTrue(cause instanceof TimeoutException);
+      }
+    }
+    finally {
+      try {
+        delete(Collections.singleton(directory));
+      }
+      finally {
+        unblocked.countDown();
+      }
+    }
+  }
+
+  /**
+   * Serves the same response for every <code>URL</code>.
+   */
+  static class ResponseTransport implements Transport {
+
+    private final byte[] response;
+
+    ResponseTransport(final byte[] response) {
+      this.response = response;
+    }
+
+    @Override
+    public InputStream open(final URL url) throws IOException {
+      return new ByteArrayInputStream(response);
+    }
+
+    @Override
+    public Response open(final URL url, final Validators validators) throws IOException {
+      return new Response(open(url), null);
+    }
+
+    @Override
+    public InputStream open(final URL url, final long first, final long last) throws IOException {
+      throw new IOException("Byte range not served: " + url);
+    }
+
+    @Override
+    public long rangeLength(final URL url) {
+      return -1;
+    }
+
+    @Override
+    public boolean abort(final Thread thread) {
+      return false;
+    }
+
+    @Override
+    public void discard(final URL url) {
+      // nothing kept
+    }
+
+    @Override
+    public Timings timings() {
+      return new Timings(0, 0, 0, 0, 0);
+    }
+
+  }
+
   private static final void check(final File actualFile,
                                   final String symbol,
                                   final Calendar endDate,
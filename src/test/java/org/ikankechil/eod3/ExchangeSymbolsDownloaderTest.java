@@ -12,6 +12,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,6 +30,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.ikankechil.eod3.ExchangeSymbolsDownloader.SymbolsSource;
 import org.ikankechil.eod3.ExchangeSymbolsDownloader.SymbolsTaskHelper;
 import org.ikankechil.eod3.ExchangeSymbolsDownloader.SymbolsTransform;
 import org.ikankechil.eod3.sources.Exchanges;
@@ -54,6 +56,7 @@ public class ExchangeSymbolsDownloaderTest {
   private static final File                      MERGE_SYMBOLS_FILE1   = new File(DIRECTORY, "Symbols-Merge1.csv");
   private static final File                      MERGE_SYMBOLS_FILE2   = new File(DIRECTORY, "Symbols-Merge2.csv");
   private static final File                      OHLCV_DIRECTORY       = new File(DIRECTORY, "YahooFinance");
+  private static final File                      PAGES_DIRECTORY       = new File(DIRECTORY, "Pages");
 
   private static final ExchangeSymbolsDownloader ESD                   = new ExchangeSymbolsDownloader(SYMBOLS_FILE, true);
   private static final SymbolsTaskHelper         SYMBOLS_TASK_HELPER   = ESD.new SymbolsTaskHelper();
@@ -349,6 +352,48 @@ public class ExchangeSymbolsDownloaderTest {
     download(BVC);
   }
 
+  @Test
+  public void transformISE() throws Exception {
+    // symbol cell must end its row
+    assertEquals(Arrays.asList("BYVGY54", "BD1RP61"), transform(ISE, "ISE.html"));
+  }
+
+  @Test
+  public void transformATHEX() throws Exception {
+    assertEquals(Arrays.asList("AAAK", "AAAP"), transform(ATHEX, "ATHEX.html"));
+  }
+
+  @Test
+  public void transformBET() throws Exception {
+    // symbol is taken from row ID rather than ticker cell
+    assertEquals(Arrays.asList("MTELEKOM", "OTP"), transform(BET, "BET.html"));
+  }
+
+  @Test
+  public void transformAsma() throws Exception {
+    final List<String> expecteds = Arrays.asList("1010", "2222");
+    for (final Exchanges exchange : new Exchanges[] { TADAWUL, QSE, ADX, DFM, MSM, BHB }) {
+      assertEquals(exchange.toString(), expecteds, transform(exchange, "Asma.html"));
+    }
+  }
+
+  @Test
+  public void transformNGSE() throws Exception {
+    assertEquals(Arrays.asList("7UP", "ABBEYBDS", "ABCTRANS"), transform(NGSE, "NGSE.json"));
+  }
+
+  /**
+   * Transforms a page saved from <code>exchange</code>'s symbol source as it
+   * would be downloaded, without connecting to it.
+   */
+  private static final List<String> transform(final Exchanges exchange, final String page) throws IOException {
+    final SymbolsSource source = ExchangeSymbolsDownloader.source(exchange);
+    final List<String> lines = new ArrayList<>(Files.readAllLines(new File(PAGES_DIRECTORY, page).toPath(),
+                                                                  StandardCharsets.UTF_8));
+    while (lines.remove(EMPTY)) { /* remove all empty lines */ }
+    return source.transformer.transform(new ArrayList<>(lines.subList(source.skippedRows, lines.size())));
+  }
+
   private static final void download(final Exchanges exchange) throws IOException, InterruptedException {
     final Set<String> actuals = ESD.download(new Exchanges[] { exchange }).get(exchange.toString());
 
@@ -0,0 +1,108 @@
+/**
+ * ExecutorStrategiesTest.java  v0.1  18 October 2026 11:41:30 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.ikankechil.eod3.ExecutorStrategies.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.ikankechil.eod3.ExecutorStrategy.PoolSize;
+import org.junit.Test;
+
+/**
+ * JUnit test for <code>ExecutorStrategies</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class ExecutorStrategiesTest {
+
+  private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+  @Test
+  public void defaultIsPlatformThreads() {
+    assertEquals(PLATFORM_THREADS, DEFAULT);
+  }
+
+  @Test
+  public void platformThreadPoolsSizedByPoolSize() throws Exception {
+    for (final PoolSize size : new PoolSize[] { PoolSize.TINY, PoolSize.SMALL, PoolSize.LARGE }) {
+      final ExecutorService executor = PLATFORM_THREADS.newExecutor(size);
+      try {
+        assertTrue(executor instanceof ThreadPoolExecutor);
+        assertEquals(PROCESSORS * size.loadMultiplier, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        assertEquals(size.threads(), ((ThreadPoolExecutor) executor).getCorePoolSize());
+        assertEquals(size.threads(), PLATFORM_THREADS.maxConcurrency(size));
+      }
+      finally {
+        executor.shutdown();
+      }
+    }
+  }
+
+  @Test
+  public void elasticPlatformThreadPoolIsUnbounded() throws Exception {
+    final ExecutorService executor = PLATFORM_THREADS.newExecutor(PoolSize.ELASTIC);
+    try {
+      assertEquals(0, PoolSize.ELASTIC.threads());
+      assertEquals(Integer.MAX_VALUE, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+      assertEquals(Integer.MAX_VALUE, PLATFORM_THREADS.maxConcurrency(PoolSize.ELASTIC));
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void virtualThreadsExecuteTasks() throws Exception {
+    for (final PoolSize size : PoolSize.values()) {
+      final ExecutorService executor = VIRTUAL_THREADS.newExecutor(size);
+      try {
+        assertEquals(size.toString(), executor.submit(new Callable<String>() {
+          @Override
+          public String call() throws Exception {
+            return size.toString();
+          }
+        }).get());
+        // platform threads back CPU-bound tasks and runtimes without virtual threads
+        assertEquals(size == PoolSize.TINY || !virtualThreadsSupported(),
+                     executor instanceof ThreadPoolExecutor);
+        assertEquals(size == PoolSize.ELASTIC || (size != PoolSize.TINY && virtualThreadsSupported()),
+                     VIRTUAL_THREADS.maxConcurrency(size) == Integer.MAX_VALUE);
+      }
+      finally {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+      }
+    }
+  }
+
+  @Test
+  public void schedulersRunOnNamedDaemonThreads() throws Exception {
+    for (final ExecutorStrategies strategy : values()) {
+      final ScheduledExecutorService scheduler = strategy.newScheduler("Timer-" + strategy);
+      try {
+        final Thread thread = scheduler.schedule(new Callable<Thread>() {
+          @Override
+          public Thread call() throws Exception {
+            return Thread.currentThread();
+          }
+        }, 1, TimeUnit.MILLISECONDS).get();
+        assertTrue(thread.isDaemon());
+        assertEquals("Timer-" + strategy, thread.getName());
+      }
+      finally {
+        scheduler.shutdown();
+      }
+    }
+  }
+
+}
@@ -192,6 +192,11 @@ public class FilenameConventionTest {
     assertEquals(EXPECTED_FREQUENCY, getFrequencyFrom(FILENAME_WITH_DATES_AND_FREQUENCY));
   }
 
+  @Test
+  public void frequencyFromFilenameWithOtherExtension() {
+    assertEquals(EXPECTED_FREQUENCY, getFrequencyFrom(EXPECTED_SYMBOL + UNDERSCORE + EXPECTED_FREQUENCY.frequency() + ".bars"));
+  }
+
   @Test
   public void illegalFrequencyDefaultsToDaily() {
     assertEquals(DEFAULT_FREQUENCY, getFrequencyFrom(FILENAME_WITH_ILLEGAL_FREQUENCY));
@@ -351,6 +356,12 @@ public class FilenameConventionTest {
                  FilenameConvention.getFilenameRegex(false, null));
   }
 
+  @Test
+  public void regexWithOtherExtension() {
+    assertEquals("[A-Z0-9]+_w.bars",
+                 FilenameConvention.getFilenameRegex(false, Frequencies.WEEKLY, ".bars"));
+  }
+
   @Test
   public void regexWithDailyFrequency() {
     assertEquals(FILENAME_WITH_DAILY_REGEX,
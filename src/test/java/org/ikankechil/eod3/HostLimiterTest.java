@@ -0,0 +1,195 @@
+/**
+ * HostLimiterTest.java  v0.1  18 October 2026 10:02:17 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.ikankechil.eod3.HostLimiter.Outcome.*;
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.ikankechil.eod3.io.HttpStatusException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>HostLimiter</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class HostLimiterTest {
+
+  private HostLimiter            limiter;
+
+  @Rule
+  public final ExpectedException thrown        = ExpectedException.none();
+
+  private static final String    HOST          = "www.test.org";
+  private static final int       INITIAL_LIMIT = 8;
+  private static final int       MAX_LIMIT     = 16;
+  private static final long      LATENCY       = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Before
+  public void setUp() throws Exception {
+    limiter = new HostLimiter(HOST, INITIAL_LIMIT, MAX_LIMIT);
+  }
+
+  @Test
+  public void cannotInstantiateWithNullHost() {
+    thrown.expect(NullPointerException.class);
+    limiter = new HostLimiter(null, INITIAL_LIMIT, MAX_LIMIT);
+  }
+
+  @Test
+  public void cannotInstantiateWithZeroLimit() {
+    thrown.expect(IllegalArgumentException.class);
+    limiter = new HostLimiter(HOST, 0, MAX_LIMIT);
+  }
+
+  @Test
+  public void cannotInstantiateWithMaxBelowInitialLimit() {
+    thrown.expect(IllegalArgumentException.class);
+    limiter = new HostLimiter(HOST, MAX_LIMIT, INITIAL_LIMIT);
+  }
+
+  @Test
+  public void acquireUpToLimit() throws Exception {
+    for (int i = 0; i < INITIAL_LIMIT; ++i) {
+      limiter.acquire();
+    }
+    assertEquals(INITIAL_LIMIT, limiter.inFlight());
+    assertEquals(INITIAL_LIMIT, limiter.limit());
+  }
+
+  @Test
+  public void blockBeyondLimit() throws Exception {
+    for (int i = 0; i < INITIAL_LIMIT; ++i) {
+      limiter.acquire();
+    }
+
+    final Thread waiter = new Thread() {
+      @Override
+      public void run() {
+        try {
+          limiter.acquire();
+        }
+        catch (final InterruptedException iE) {
+          // expected
+        }
+      }
+    };
+    waiter.start();
+    waiter.join(TimeUnit.MILLISECONDS.toMillis(200));
+    assertTrue(waiter.isAlive());
+
+    limiter.release(LATENCY, SUCCESS);
+    waiter.join();
+    assertEquals(INITIAL_LIMIT, limiter.inFlight());
+  }
+
+  @Test
+  public void tryAcquireUntilTimeout() throws Exception {
+    for (int i = 0; i < INITIAL_LIMIT; ++i) {
+      assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+    }
+
+    final long start = System.nanoTime();
+    assertFalse(limiter.tryAcquire(100, TimeUnit.MILLISECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    assertEquals(INITIAL_LIMIT, limiter.inFlight());
+
+    limiter.release(LATENCY, SUCCESS);
+    assertTrue(limiter.tryAcquire(100, TimeUnit.MILLISECONDS));
+    assertEquals(INITIAL_LIMIT, limiter.inFlight());
+  }
+
+  @Test
+  public void throttlingHalvesLimit() throws Exception {
+    limiter.acquire();
+    limiter.release(LATENCY, THROTTLED);
+
+    assertEquals(INITIAL_LIMIT / 2, limiter.limit());
+    assertEquals(0, limiter.inFlight());
+  }
+
+  @Test
+  public void limitNeverFallsBelowOne() throws Exception {
+    for (int i = 0; i < Long.SIZE; ++i) {
+      limiter.acquire();
+      limiter.release(0, TIMEOUT);
+    }
+    assertEquals(1, limiter.limit());
+    assertEquals(Long.SIZE, limiter.timeouts());
+  }
+
+  @Test
+  public void fastSuccessesAtLimitIncreaseLimit() throws Exception {
+    for (int round = 0; round < INITIAL_LIMIT; ++round) {
+      for (int i = 0; i < limiter.limit(); ++i) {
+        limiter.acquire();
+      }
+      while (limiter.inFlight() > 0) {
+        limiter.release(LATENCY, SUCCESS);
+      }
+    }
+    assertTrue(limiter.limit() > INITIAL_LIMIT);
+    assertTrue(limiter.limit() <= MAX_LIMIT);
+  }
+
+  @Test
+  public void successesBelowLimitDoNotIncreaseLimit() throws Exception {
+    for (int i = 0; i < MAX_LIMIT; ++i) {
+      limiter.acquire();
+      limiter.release(LATENCY, SUCCESS);
+    }
+    assertEquals(INITIAL_LIMIT, limiter.limit());
+  }
+
+  @Test
+  public void slowResponsesDecreaseLimit() throws Exception {
+    limiter.acquire();
+    limiter.release(LATENCY, SUCCESS);
+    for (int i = 0; i < INITIAL_LIMIT; ++i) {
+      limiter.acquire();
+      limiter.release(LATENCY * 10, SUCCESS);
+    }
+    assertTrue(limiter.limit() < INITIAL_LIMIT);
+  }
+
+  @Test
+  public void ignoredFailuresLeaveLimitUnchanged() throws Exception {
+    limiter.acquire();
+    limiter.release(LATENCY, IGNORED);
+    assertEquals(INITIAL_LIMIT, limiter.limit());
+  }
+
+  @Test
+  public void classifyFailures() throws Exception {
+    final URL url = new URL("http://" + HOST);
+    assertEquals(TIMEOUT, HostLimiter.classify(new SocketTimeoutException()));
+    assertEquals(TIMEOUT, HostLimiter.classify(new TimeoutException()));
+    assertEquals(THROTTLED, HostLimiter.classify(new HttpStatusException(url, 429)));
+    assertEquals(THROTTLED, HostLimiter.classify(new HttpStatusException(url, 503)));
+    assertEquals(ERROR, HostLimiter.classify(new HttpStatusException(url, 500)));
+    assertEquals(IGNORED, HostLimiter.classify(new HttpStatusException(url, 403)));
+    assertEquals(IGNORED, HostLimiter.classify(new FileNotFoundException(url.toString())));
+    assertEquals(IGNORED, HostLimiter.classify(new IOException()));
+  }
+
+  @Test
+  public void doNotClassifyOnMessageText() {
+    assertEquals(IGNORED, HostLimiter.classify(new IOException("Server returned HTTP response code: 429 for URL: http://" + HOST)));
+    assertEquals(IGNORED, HostLimiter.classify(new IOException("response code: 503")));
+  }
+
+}
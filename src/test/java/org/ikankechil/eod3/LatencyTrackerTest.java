@@ -0,0 +1,90 @@
+/**
+ * LatencyTrackerTest.java  v0.1  18 October 2026 5:21:37 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>LatencyTracker</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class LatencyTrackerTest {
+
+  private LatencyTracker         tracker;
+
+  @Rule
+  public final ExpectedException thrown   = ExpectedException.none();
+
+  private static final int       CAPACITY = 100;
+
+  @Before
+  public void setUp() throws Exception {
+    tracker = new LatencyTracker(CAPACITY);
+  }
+
+  @Test
+  public void cannotInstantiateWithZeroCapacity() {
+    thrown.expect(IllegalArgumentException.class);
+    tracker = new LatencyTracker(0);
+  }
+
+  @Test
+  public void cannotComputeInvalidPercentile() {
+    thrown.expect(IllegalArgumentException.class);
+    tracker.percentile(101);
+  }
+
+  @Test
+  public void noPercentileWithoutLatencies() {
+    assertEquals(0, tracker.count());
+    assertEquals(-1, tracker.percentile(95));
+  }
+
+  @Test
+  public void percentiles() {
+    for (long latency = CAPACITY; latency > 0; --latency) {
+      tracker.record(latency);
+    }
+    assertEquals(CAPACITY, tracker.count());
+    assertEquals(1, tracker.percentile(0));
+    assertEquals(50, tracker.percentile(50));
+    assertEquals(95, tracker.percentile(95));
+    assertEquals(CAPACITY, tracker.percentile(100));
+  }
+
+  @Test
+  public void onlyMostRecentLatenciesCount() {
+    for (int i = 0; i < CAPACITY; ++i) {
+      tracker.record(1000);
+    }
+    for (int i = 0; i < CAPACITY; ++i) {
+      tracker.record(10);
+    }
+    assertEquals(CAPACITY, tracker.count());
+    assertEquals(10, tracker.percentile(100));
+  }
+
+  @Test
+  public void censoredLatenciesCount() {
+    for (int i = 0; i < 90; ++i) {
+      tracker.record(10);
+    }
+    for (int i = 0; i < 10; ++i) {
+      tracker.recordCensored(1000);
+    }
+    assertEquals(CAPACITY, tracker.count());
+    assertEquals(10, tracker.percentile(90));
+    assertEquals(1000, tracker.percentile(95));
+  }
+
+}
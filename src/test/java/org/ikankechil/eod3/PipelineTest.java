@@ -0,0 +1,220 @@
+/**
+ * PipelineTest.java  v0.1  19 October 2026 5:02:48 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.ikankechil.eod3.ExecutorStrategy.PoolSize.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.ikankechil.eod3.ConverterTest.ResponseTransport;
+import org.ikankechil.eod3.Pipeline.Output;
+import org.ikankechil.eod3.Pipeline.Request;
+import org.ikankechil.eod3.io.Transport;
+import org.ikankechil.eod3.sources.Exchanges;
+import org.ikankechil.eod3.sources.GlobalView;
+import org.ikankechil.eod3.sources.Source;
+import org.ikankechil.io.TextTransform;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>Pipeline</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class PipelineTest {
+
+  private ExecutorService           executor;
+  private Pipeline                  pipeline;
+
+  @Rule
+  public final ExpectedException    thrown   = ExpectedException.none();
+
+  private static final String       SYMBOL   = "EURUSD";
+  private static final byte[]       RESPONSE = ("Date,High,Low,Close\n" +
+                                                "20151006,1.3180,1.3100,1.3150\n" +
+                                                "20151005,10.00,9.80,10.20\n").getBytes(StandardCharsets.UTF_8);
+  private static final List<String> LINES    = Arrays.asList("EURUSD,20151006,1.3180,1.3100,1.3150",
+                                                             "EURUSD,20151005,10.00,9.80,10.20");
+  private static final int          LIMIT    = SMALL.threads(); // initial concurrency limit of each host
+  private static final int          DEADLINE = 200;
+
+  @Before
+  public void setUp() throws Exception {
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (pipeline != null) {
+      pipeline.stop();
+    }
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void readTransformedLines() throws Exception {
+    pipeline = newPipeline(new FxSource(new ResponseTransport(RESPONSE)));
+
+    assertFalse(pipeline.isHedged());
+    assertEquals(LINES, pipeline.read(SYMBOL, Exchanges.FX, Interval.SINCE_INCEPTION, Output.LINES));
+  }
+
+  @Test
+  public void failOverToFallbackSource() throws Exception {
+    final Source primary = new FxSource(new ResponseTransport(RESPONSE) {
+      @Override
+      public InputStream open(final URL url) throws IOException {
+        throw new IOException("Unavailable: " + url);
+      }
+    });
+    pipeline = newPipeline(primary, new FxSource(new ResponseTransport(RESPONSE)));
+
+    assertTrue(pipeline.isHedged());
+    assertFalse(pipeline.isStreamable());
+    assertEquals(LINES, pipeline.read(SYMBOL, Exchanges.FX, Interval.SINCE_INCEPTION, Output.LINES));
+    assertEquals(1, pipeline.hedges());
+    assertEquals(1, pipeline.fallbacksWon());
+  }
+
+  @Test
+  public void failRequestsAwaitingHostPastDeadline() throws Exception {
+    pipeline = newPipeline(new FxSource(new ResponseTransport(RESPONSE)));
+
+    // occupy every request the host admits
+    final CountDownLatch admitted = new CountDownLatch(LIMIT);
+    final CountDownLatch unblocked = new CountDownLatch(1);
+    for (int i = 0; i < LIMIT; ++i) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            pipeline.throttle(new Request<Void>() {
+              @Override
+              public Void execute() throws IOException {
+                admitted.countDown();
+                try {
+                  unblocked.await();
+                }
+                catch (final InterruptedException iE) {
+                  Thread.currentThread().interrupt();
+                }
+                return null;
+              }
+            }, SYMBOL);
+          }
+          catch (final IOException | InterruptedException e) {
+            // irrelevant
+          }
+        }
+      });
+    }
+
+    try {
+      assertTrue(admitted.await(10 * DEADLINE, TimeUnit.MILLISECONDS));
+
+      thrown.expect(SocketTimeoutException.class);
+      thrown.expectMessage("awaiting");
+      pipeline.throttle(new Request<Void>() {
+        @Override
+        public Void execute() {
+          fail("Admitted past deadline");
+          return null;
+        }
+      }, SYMBOL);
+    }
+    finally {
+      unblocked.countDown();
+    }
+  }
+
+  private final Pipeline newPipeline(final Source... sources) {
+    final List<Source> chain = Arrays.asList(sources);
+    return new Pipeline(chain,
+                        chain.get(0).newReader(),
+                        chain.get(0).newTransport(),
+                        ExecutorStrategies.DEFAULT,
+                        executor,
+                        executor);
+  }
+
+  /**
+   * Serves lines, prefixed with their symbol, from a <code>Transport</code>
+   * of the test's own.
+   */
+  private static class FxSource extends GlobalView {
+
+    private final Transport transport;
+
+    FxSource(final Transport transport) {
+      this.transport = transport;
+    }
+
+    @Override
+    public URL url(final String symbol,
+                   final Exchanges exchange,
+                   final Calendar start,
+                   final Calendar end,
+                   final Frequencies frequency)
+        throws MalformedURLException {
+      return new URL("http://localhost/" + symbol);
+    }
+
+    @Override
+    public int headerRows() {
+      return 1;
+    }
+
+    @Override
+    public boolean isReversed() {
+      return false;
+    }
+
+    @Override
+    public boolean isStreamable() {
+      return false;
+    }
+
+    @Override
+    public int deadline() {
+      return DEADLINE;
+    }
+
+    @Override
+    public TextTransform newTransform(final String symbol) {
+      return new TextTransform() {
+        @Override
+        public String transform(final String line) {
+          return symbol + "," + line;
+        }
+      };
+    }
+
+    @Override
+    public Transport newTransport() {
+      return transport;
+    }
+
+  }
+
+}
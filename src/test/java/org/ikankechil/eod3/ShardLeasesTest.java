@@ -0,0 +1,233 @@
+/**
+ * ShardLeasesTest.java  v0.1  18 October 2026 7:48:26 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.ikankechil.eod3.ShardLeases.Lease;
+import org.ikankechil.eod3.ShardLeases.Shard;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>ShardLeases</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class ShardLeasesTest {
+
+  private File                   directory;
+  private Path                   leases;
+  private List<Shard>            shards;
+
+  @Rule
+  public final ExpectedException thrown  = ExpectedException.none();
+
+  private static final String    JOB     = "convert Symbols.csv 20151001-20151007 DAILY";
+  private static final long      TTL     = 400;
+  private static final int       SIZE    = 2;
+  private static final int       WORKERS = 3;
+
+  private static final Map<String, Set<String>> MARKETS = new TreeMap<>();
+
+  static {
+    MARKETS.put("NYSE", new TreeSet<>(Arrays.asList("C", "D", "E", "F", "G")));
+    MARKETS.put("NASDAQ", new TreeSet<>(Arrays.asList("AAPL", "MSFT")));
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(ShardLeasesTest.class.getSimpleName()).toFile();
+    leases = new File(directory, Integer.toHexString(JOB.hashCode()) + ".shards").toPath();
+    shards = ShardLeases.shards(MARKETS, SIZE);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    final File[] files = leases.toFile().listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        file.delete();
+      }
+    }
+    leases.toFile().delete();
+    directory.delete();
+  }
+
+  @Test
+  public void cannotInstantiateWithNonPositiveTtl() throws Exception {
+    thrown.expect(IllegalArgumentException.class);
+    new ShardLeases(directory, JOB, 0);
+  }
+
+  @Test
+  public void cannotShardWithNonPositiveSize() {
+    thrown.expect(IllegalArgumentException.class);
+    ShardLeases.shards(MARKETS, 0);
+  }
+
+  @Test
+  public void shardsDivideSymbolsOfEachExchange() {
+    assertEquals(4, shards.size());
+    assertEquals("NASDAQ.0", shards.get(0).toString());
+    assertEquals(new TreeSet<>(Arrays.asList("AAPL", "MSFT")), shards.get(0).symbols);
+    assertEquals(new TreeSet<>(Arrays.asList("C", "D")), shards.get(1).symbols);
+    assertEquals(new TreeSet<>(Arrays.asList("E", "F")), shards.get(2).symbols);
+    assertEquals(new TreeSet<>(Arrays.asList("G")), shards.get(3).symbols);
+    assertEquals("NYSE.2", shards.get(3).toString());
+  }
+
+  @Test
+  public void cannotLeaseHeldShard() throws Exception {
+    try (final ShardLeases worker1 = new ShardLeases(directory, JOB, TTL);
+         final ShardLeases worker2 = new ShardLeases(directory, JOB, TTL)) {
+      final Shard shard = shards.get(0);
+      final Lease lease = worker1.acquire(shard);
+      assertNotNull(lease);
+      assertNull(worker2.acquire(shard));
+
+      // renewed by heartbeats beyond its time-to-live
+      Thread.sleep(2 * TTL);
+      assertNull(worker2.acquire(shard));
+      assertFalse(lease.isLost());
+    }
+  }
+
+  @Test
+  public void leaseReleasedShard() throws Exception {
+    try (final ShardLeases worker1 = new ShardLeases(directory, JOB, TTL);
+         final ShardLeases worker2 = new ShardLeases(directory, JOB, TTL)) {
+      final Shard shard = shards.get(0);
+      worker1.acquire(shard).close();
+      assertNotNull(worker2.acquire(shard));
+    }
+  }
+
+  @Test
+  public void cannotLeaseDoneShard() throws Exception {
+    try (final ShardLeases worker1 = new ShardLeases(directory, JOB, TTL);
+         final ShardLeases worker2 = new ShardLeases(directory, JOB, TTL)) {
+      final Shard shard = shards.get(0);
+      worker1.acquire(shard).complete();
+      assertTrue(worker2.isDone(shard));
+      assertNull(worker2.acquire(shard));
+    }
+  }
+
+  @Test
+  public void takeOverExpiredLease() throws Exception {
+    final Shard shard = shards.get(0);
+    // left behind by a dead worker
+    final Path lease = Files.createDirectories(leases).resolve(shard + ".0.lease");
+    Files.write(lease, "dead".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(lease, FileTime.fromMillis(System.currentTimeMillis() - 2 * TTL));
+
+    try (final ShardLeases worker = new ShardLeases(directory, JOB, TTL)) {
+      assertNotNull(worker.acquire(shard));
+      assertFalse(Files.exists(lease));
+      assertEquals(worker.toString(),
+                   new String(Files.readAllBytes(leases.resolve(shard + ".1.lease")), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void detectLostLease() throws Exception {
+    try (final ShardLeases worker = new ShardLeases(directory, JOB, TTL)) {
+      final Shard shard = shards.get(0);
+      final Lease lease = worker.acquire(shard);
+      // taken over by another worker
+      Files.write(leases.resolve(shard + ".1.lease"), "other".getBytes(StandardCharsets.UTF_8));
+
+      final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (!lease.isLost() && System.nanoTime() < end) {
+        Thread.sleep(worker.heartbeat());
+      }
+      assertTrue(lease.isLost());
+
+      // neither completes nor releases the other worker's lease
+      lease.complete();
+      assertFalse(worker.isDone(shard));
+      assertTrue(Files.exists(leases.resolve(shard + ".1.lease")));
+    }
+  }
+
+  @Test
+  public void processesShareShards() throws Exception {
+    final String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+    final List<Process> processes = new ArrayList<>();
+    for (int i = 0; i < WORKERS; ++i) {
+      processes.add(new ProcessBuilder(java,
+                                       "-cp",
+                                       System.getProperty("java.class.path"),
+                                       Worker.class.getName(),
+                                       directory.getPath()).redirectError(ProcessBuilder.Redirect.INHERIT)
+                                                           .start());
+    }
+
+    // each shard is done by exactly one worker
+    final List<String> done = new ArrayList<>();
+    for (final Process process : processes) {
+      try (final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                                                                                   StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          done.add(line);
+        }
+      }
+      assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+      assertEquals(0, process.exitValue());
+    }
+    final Set<String> expected = new HashSet<>();
+    for (final Shard shard : shards) {
+      expected.add(shard.toString());
+    }
+    assertEquals(shards.size(), done.size());
+    assertEquals(expected, new HashSet<>(done));
+  }
+
+  /**
+   * Completes every shard it can lease, printing each to standard output.
+   */
+  public static final class Worker {
+
+    public static void main(final String... arguments) throws Exception {
+      final List<Shard> shards = ShardLeases.shards(MARKETS, SIZE);
+      try (final ShardLeases leases = new ShardLeases(new File(arguments[0]), JOB, TTL)) {
+        for (final Shard shard : shards) {
+          final Lease lease = leases.acquire(shard);
+          if (lease != null) {
+            Thread.sleep(TTL / 4); // overlap with other workers
+            lease.complete();
+            System.out.println(shard);
+          }
+        }
+      }
+    }
+
+  }
+
+}
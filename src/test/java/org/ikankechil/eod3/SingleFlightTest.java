@@ -0,0 +1,122 @@
+/**
+ * SingleFlightTest.java  v0.1  18 October 2026 5:58:21 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>SingleFlight</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class SingleFlightTest {
+
+  private SingleFlight<String>   flights;
+  private ExecutorService        executor;
+
+  @Rule
+  public final ExpectedException thrown  = ExpectedException.none();
+
+  private static final String    KEY     = "http://www.test.org/C";
+  private static final String    RESULT  = "C";
+  private static final int       CALLERS = 8;
+
+  @Before
+  public void setUp() throws Exception {
+    flights = new SingleFlight<>();
+    executor = Executors.newFixedThreadPool(CALLERS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void concurrentCallsShareOneExecution() throws Exception {
+    final AtomicInteger executions = new AtomicInteger();
+    final CountDownLatch release = new CountDownLatch(1);
+    final Callable<String> call = new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        executions.incrementAndGet();
+        release.await();
+        return RESULT;
+      }
+    };
+
+    final List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; ++i) {
+      results.add(executor.submit(new Callable<String>() {
+        @Override
+        public String call() throws Exception {
+          return flights.execute(KEY, call);
+        }
+      }));
+    }
+    // wait for all but the first caller to join the flight
+    final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (flights.shared() < CALLERS - 1 && System.nanoTime() < end) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+
+    for (final Future<String> result : results) {
+      assertSame(RESULT, result.get());
+    }
+    assertEquals(1, executions.get());
+    assertEquals(CALLERS - 1, flights.shared());
+  }
+
+  @Test
+  public void sequentialCallsExecuteSeparately() throws Exception {
+    final AtomicInteger executions = new AtomicInteger();
+    final Callable<String> call = new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        executions.incrementAndGet();
+        return RESULT;
+      }
+    };
+
+    assertEquals(RESULT, flights.execute(KEY, call));
+    assertEquals(RESULT, flights.execute(KEY, call));
+    assertEquals(2, executions.get());
+    assertEquals(0, flights.shared());
+  }
+
+  @Test
+  public void failuresPropagate() throws Exception {
+    thrown.expect(ExecutionException.class);
+    thrown.expectCause(org.hamcrest.CoreMatchers.isA(IOException.class));
+    flights.execute(KEY, new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        throw new IOException(KEY);
+      }
+    });
+  }
+
+}
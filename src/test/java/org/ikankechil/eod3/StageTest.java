@@ -0,0 +1,166 @@
+/**
+ * StageTest.java  v0.1  18 October 2026 6:47:09 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>Stage</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class StageTest {
+
+  private ExecutorService        executor;
+  private ExecutorService        submitters;
+  private Stage                  stage;
+
+  @Rule
+  public final ExpectedException thrown   = ExpectedException.none();
+
+  private static final String    NAME     = "transform";
+  private static final int       THREADS  = 1;
+  private static final int       CAPACITY = 2;
+  private static final long      TIMEOUT  = 10;
+
+  @Before
+  public void setUp() throws Exception {
+    executor = Executors.newFixedThreadPool(THREADS);
+    submitters = Executors.newCachedThreadPool();
+    stage = new Stage(NAME, executor, THREADS, CAPACITY);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    submitters.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void cannotInstantiateWithNullExecutor() {
+    thrown.expect(NullPointerException.class);
+    new Stage(NAME, null, THREADS, CAPACITY);
+  }
+
+  @Test
+  public void cannotInstantiateWithNonPositiveThreads() {
+    thrown.expect(IllegalArgumentException.class);
+    new Stage(NAME, executor, 0, CAPACITY);
+  }
+
+  @Test
+  public void cannotInstantiateWithCapacityBelowThreads() {
+    thrown.expect(IllegalArgumentException.class);
+    new Stage(NAME, executor, CAPACITY, THREADS);
+  }
+
+  @Test
+  public void callReturnsResult() throws Exception {
+    assertEquals(NAME, stage.call(new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        return NAME;
+      }
+    }));
+    // bookkept by the worker after the result is returned
+    final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+    while (stage.active() > 0 && System.nanoTime() < end) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, stage.queued());
+    assertEquals(0, stage.active());
+    assertTrue(stage.utilisation() > 0);
+    assertTrue(stage.utilisation() <= 1);
+  }
+
+  @Test
+  public void callPropagatesFailure() throws Exception {
+    thrown.expect(ExecutionException.class);
+    thrown.expectCause(org.hamcrest.CoreMatchers.isA(IOException.class));
+    stage.call(new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        throw new IOException(NAME);
+      }
+    });
+  }
+
+  @Test
+  public void blockSubmittersWhenFull() throws Exception {
+    final CountDownLatch running = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final Callable<Boolean> blocked = new Callable<Boolean>() {
+      @Override
+      public Boolean call() throws Exception {
+        running.countDown();
+        return release.await(TIMEOUT, TimeUnit.SECONDS);
+      }
+    };
+
+    // fill the stage: one running, one queued
+    final Future<Boolean> first = submit(blocked);
+    assertTrue(running.await(TIMEOUT, TimeUnit.SECONDS));
+    final Future<Boolean> second = submit(blocked);
+    waitFor(1);
+    assertEquals(1, stage.active());
+
+    // the next submitter blocks
+    final Future<Boolean> third = submit(blocked);
+    try {
+      third.get(200, TimeUnit.MILLISECONDS);
+      fail("Submitter not blocked");
+    }
+    catch (final TimeoutException tE) {
+      assertEquals(1, stage.queued());
+    }
+
+    release.countDown();
+    assertTrue(first.get(TIMEOUT, TimeUnit.SECONDS));
+    assertTrue(second.get(TIMEOUT, TimeUnit.SECONDS));
+    assertTrue(third.get(TIMEOUT, TimeUnit.SECONDS));
+    assertEquals(0, stage.queued());
+  }
+
+  @Test
+  public void utilisationIsZeroBeforeFirstTask() {
+    assertEquals(0, stage.utilisation(), 0);
+  }
+
+  private final Future<Boolean> submit(final Callable<Boolean> call) {
+    return submitters.submit(new Callable<Boolean>() {
+      @Override
+      public Boolean call() throws Exception {
+        return stage.call(call);
+      }
+    });
+  }
+
+  private final void waitFor(final int queued) throws InterruptedException {
+    final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+    while (stage.queued() < queued && System.nanoTime() < end) {
+      Thread.sleep(10);
+    }
+    assertEquals(queued, stage.queued());
+  }
+
+}
@@ -0,0 +1,98 @@
+/**
+ * BufferTransformsTest.java  v0.1  19 October 2026 3:47:05 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.nio.CharBuffer;
+
+import org.ikankechil.io.TextTransform;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>BufferTransforms</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class BufferTransformsTest {
+
+  @Rule
+  public final ExpectedException       thrown    = ExpectedException.none();
+
+  private static final BufferTransform TRANSFORM = new BufferTransform() {
+    @Override
+    public boolean transform(final CharBuffer line, final StringBuilder out) {
+      if (line.length() == 0 || line.charAt(0) == '#') {
+        return false;
+      }
+      out.append("C,").append(line, 0, 4).append(line, 5, 7).append(line, 8, line.length());
+      return true;
+    }
+  };
+
+  @Test
+  public void cannotAdaptNullTextTransform() {
+    thrown.expect(NullPointerException.class);
+    BufferTransforms.adapt(null);
+  }
+
+  @Test
+  public void cannotAdaptNullBufferTransform() {
+    thrown.expect(NullPointerException.class);
+    BufferTransforms.text(null);
+  }
+
+  @Test
+  public void adaptTextTransform() {
+    final BufferTransform transform = BufferTransforms.adapt(new TextTransform() {
+      @Override
+      public String transform(final String line) {
+        return line.startsWith("#") ? null : line.toUpperCase();
+      }
+    });
+    final CharBuffer line = CharBuffer.wrap("xx#yy,zz");
+    line.position(2);
+    final StringBuilder out = new StringBuilder("a");
+    assertFalse(transform.transform(line, out));
+    line.position(3);
+    assertTrue(transform.transform(line, out));
+    assertEquals("aYY,ZZ", out.toString());
+  }
+
+  @Test
+  public void adaptBufferTransform() {
+    final TextTransform transform = BufferTransforms.text(TRANSFORM);
+    assertEquals("C,20151005,1,2", transform.transform("2015-10-05,1,2"));
+    assertNull(transform.transform("#2015-10-05,1,2"));
+    assertEquals("C,20151006,3", transform.transform("2015-10-06,3"));
+  }
+
+  @Test
+  public void unwrapAdaptedBufferTransform() {
+    assertSame(TRANSFORM, BufferTransforms.adapt(BufferTransforms.text(TRANSFORM)));
+  }
+
+  @Test
+  public void findNth() {
+    final CharSequence line = CharBuffer.wrap("2015-10-05,1,2,3");
+    assertEquals(10, BufferTransforms.findNth(',', line, 1, 0));
+    assertEquals(10, BufferTransforms.findNth(',', line, 1, 10));
+    assertEquals(14, BufferTransforms.findNth(',', line, 2, 11));
+    assertEquals(-1, BufferTransforms.findNth(',', line, 4, 0));
+  }
+
+  @Test
+  public void findNthLast() {
+    final CharSequence line = CharBuffer.wrap("2015-10-05,1,2,3");
+    assertEquals(14, BufferTransforms.findNthLast(',', line, 1));
+    assertEquals(10, BufferTransforms.findNthLast(',', line, 3));
+    assertEquals(-1, BufferTransforms.findNthLast('"', line, 1));
+  }
+
+}
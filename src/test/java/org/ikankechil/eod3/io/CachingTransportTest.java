@@ -0,0 +1,225 @@
+/**
+ * CachingTransportTest.java  v0.1  18 October 2026 9:58:36 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ikankechil.eod3.io.Transport.Response;
+import org.ikankechil.eod3.io.Transport.Validators;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>CachingTransport</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class CachingTransportTest {
+
+  private File                   directory;
+  private DiskCache              cache;
+  private final AtomicInteger    fetches   = new AtomicInteger();
+  private volatile String        etag      = V1;
+  private final Transport        transport = new Transport() {
+    @Override
+    public InputStream open(final URL url) throws IOException {
+      return open(url, null);
+    }
+
+    @Override
+    public Response open(final URL url, final Validators validators) throws IOException {
+      fetches.incrementAndGet();
+      if (validators != null && etag.equals(validators.etag())) {
+        return null;
+      }
+      return new Response(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.US_ASCII)),
+                          new Validators(etag, null));
+    }
+
+    @Override
+    public InputStream open(final URL url, final long first, final long last) throws IOException {
+      throw new IOException("Byte ranges not supported: " + url);
+    }
+
+    @Override
+    public long rangeLength(final URL url) {
+      return -1;
+    }
+
+    @Override
+    public boolean abort(final Thread thread) {
+      return false;
+    }
+
+    @Override
+    public void discard(final URL url) {
+      // nothing kept
+    }
+
+    @Override
+    public Timings timings() {
+      return new Timings(fetches.get(), 0, 0, 0, 0);
+    }
+  };
+
+  @Rule
+  public final ExpectedException thrown    = ExpectedException.none();
+
+  private static final String    CSV       = "Date,Open,High,Low,Close,Volume\n20151007,1,2,0.5,1.5,100\n";
+  private static final long      TTL       = TimeUnit.HOURS.toMillis(1);
+  private static final long      MAX_SIZE  = 1 << 20;
+  private static final String    V1        = "\"v1\"";
+  private static final String    V2        = "\"v2\"";
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(CachingTransportTest.class.getSimpleName()).toFile();
+    cache = new DiskCache(directory, MAX_SIZE, false);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (final File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void cannotInstantiateWithNullTransport() {
+    thrown.expect(NullPointerException.class);
+    new CachingTransport(null, cache, TTL);
+  }
+
+  @Test
+  public void cannotInstantiateWithNullCache() {
+    thrown.expect(NullPointerException.class);
+    new CachingTransport(transport, null, TTL);
+  }
+
+  @Test
+  public void cannotInstantiateWithNegativeTtl() {
+    thrown.expect(IllegalArgumentException.class);
+    new CachingTransport(transport, cache, -1);
+  }
+
+  @Test
+  public void serveRepeatedRequestsFromCache() throws Exception {
+    final CachingTransport caching = new CachingTransport(transport, cache, TTL);
+    final URL url = new URL("http://www.test.org/C.csv");
+    assertEquals(CSV, DiskCacheTest.read(caching.open(url)));
+    assertEquals(CSV, DiskCacheTest.read(caching.open(url)));
+
+    assertEquals(1, fetches.get());
+    assertEquals(1, caching.hits());
+    assertEquals(1, caching.misses());
+    assertEquals(1, caching.timings().requests());
+  }
+
+  @Test
+  public void bypassCacheWithoutTtl() throws Exception {
+    final CachingTransport caching = new CachingTransport(transport, cache, 0);
+    final URL url = new URL("http://www.test.org/C.csv");
+    assertEquals(CSV, DiskCacheTest.read(caching.open(url)));
+    assertEquals(CSV, DiskCacheTest.read(caching.open(url)));
+
+    assertEquals(2, fetches.get());
+    assertEquals(0, directory.listFiles().length);
+  }
+
+  @Test
+  public void revalidateExpiredResponses() throws Exception {
+    final CachingTransport caching = new CachingTransport(transport, cache, TTL);
+    final URL url = new URL("http://www.test.org/C.csv");
+    DiskCacheTest.read(caching.open(url));
+    expire(url);
+
+    // not modified
+    try (final Response response = caching.open(url)) {
+      assertEquals(CSV, DiskCacheTest.read(response));
+      assertEquals(V1, response.validators().etag());
+    }
+    assertEquals(2, fetches.get());
+    assertEquals(1, caching.revalidations());
+
+    // renewed
+    DiskCacheTest.read(caching.open(url));
+    assertEquals(2, fetches.get());
+    assertEquals(1, caching.hits());
+  }
+
+  @Test
+  public void refetchModifiedResponses() throws Exception {
+    final CachingTransport caching = new CachingTransport(transport, cache, TTL);
+    final URL url = new URL("http://www.test.org/C.csv");
+    DiskCacheTest.read(caching.open(url));
+    expire(url);
+    etag = V2;
+
+    try (final Response response = caching.open(url, new Validators(V1, null))) {
+      assertEquals(CSV, DiskCacheTest.read(response));
+      assertEquals(V2, response.validators().etag());
+    }
+    assertEquals(0, caching.revalidations());
+    assertEquals(V2, cache.get(url, TTL).validators().etag());
+  }
+
+  @Test
+  public void notModifiedSinceValidatorsOfCaller() throws Exception {
+    final CachingTransport caching = new CachingTransport(transport, cache, TTL);
+    assertNull(caching.open(new URL("http://www.test.org/C.csv"), new Validators(V1, null)));
+    assertEquals(1, caching.misses());
+  }
+
+  @Test
+  public void refetchDiscardedResponses() throws Exception {
+    final CachingTransport caching = new CachingTransport(transport, cache, TTL);
+    final URL url = new URL("http://www.test.org/C.csv");
+    DiskCacheTest.read(caching.open(url));
+    assertTrue(Files.exists(cache.entry(url)));
+
+    // rejected by the transform
+    caching.discard(url);
+    assertFalse(Files.exists(cache.entry(url)));
+    assertEquals(CSV, DiskCacheTest.read(caching.open(url)));
+    assertEquals(2, fetches.get());
+    assertEquals(2, caching.misses());
+  }
+
+  private final void expire(final URL url) throws IOException {
+    Files.setLastModifiedTime(cache.entry(url), FileTime.fromMillis(System.currentTimeMillis() - 2 * TTL));
+  }
+
+  @Test
+  public void replayOffline() throws Exception {
+    final URL url = new URL("http://www.test.org/C.csv");
+    DiskCacheTest.read(new CachingTransport(transport, cache, TTL).open(url));
+
+    final CachingTransport offline = new CachingTransport(transport, new DiskCache(directory, MAX_SIZE, true), 0);
+    assertEquals(CSV, DiskCacheTest.read(offline.open(url)));
+    assertEquals(1, fetches.get());
+
+    thrown.expect(FileNotFoundException.class);
+    offline.open(new URL("http://www.test.org/D.csv"));
+  }
+
+}
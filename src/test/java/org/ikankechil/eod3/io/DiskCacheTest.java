@@ -0,0 +1,186 @@
+/**
+ * DiskCacheTest.java  v0.1  18 October 2026 9:41:03 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import org.ikankechil.eod3.io.Transport.Response;
+import org.ikankechil.eod3.io.Transport.Validators;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>DiskCache</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class DiskCacheTest {
+
+  private File                   directory;
+  private DiskCache              cache;
+
+  @Rule
+  public final ExpectedException thrown   = ExpectedException.none();
+
+  private static final URL       URL1;
+  private static final URL       URL2;
+  private static final String    CSV      = "Date,Open,High,Low,Close,Volume\n20151007,1,2,0.5,1.5,100\n";
+  private static final long      TTL      = TimeUnit.HOURS.toMillis(1);
+  private static final long      MAX_SIZE = 3 * CSV.length() - 1; // two entries but not three
+
+  static {
+    try {
+      URL1 = new URL("http://www.test.org/C.csv");
+      URL2 = new URL("http://www.test.org/D.csv");
+    }
+    catch (final IOException ioE) {
+      throw new ExceptionInInitializerError(ioE);
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(DiskCacheTest.class.getSimpleName()).toFile();
+    cache = new DiskCache(directory, MAX_SIZE, false);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (final File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void cannotInstantiateWithNonPositiveSize() throws Exception {
+    thrown.expect(IllegalArgumentException.class);
+    new DiskCache(directory, 0, false);
+  }
+
+  @Test
+  public void cacheResponsesReadToTheEnd() throws Exception {
+    assertNull(cache.get(URL1, TTL));
+    assertEquals(CSV, read(cache.put(URL1, response())));
+    assertEquals(CSV, read(cache.get(URL1, TTL)));
+
+    // shared with other instances
+    assertEquals(CSV, read(new DiskCache(directory, MAX_SIZE, false).get(URL1, TTL)));
+  }
+
+  @Test
+  public void cacheValidatorsWithResponses() throws Exception {
+    final Validators validators = new Validators("\"v1\"", "Wed, 07 Oct 2015 08:00:00 GMT");
+    read(cache.put(URL1, response(), validators));
+    try (final Response response = cache.get(URL1, TTL)) {
+      assertEquals(validators, response.validators());
+      assertEquals(CSV, read(response));
+    }
+
+    read(cache.put(URL2, response(), null));
+    try (final Response response = cache.get(URL2, TTL)) {
+      assertTrue(response.validators().isEmpty());
+    }
+  }
+
+  @Test
+  public void cacheDerivedContent() throws Exception {
+    final URL parsed = new URL(URL1, "#symbols");
+    final Validators validators = new Validators(null, "Wed, 07 Oct 2015 08:00:00 GMT");
+    cache.put(parsed, "C\nD\n".getBytes(StandardCharsets.US_ASCII), validators);
+
+    assertNull(cache.get(URL1, TTL));
+    try (final Response response = cache.get(parsed, TTL)) {
+      assertEquals(validators, response.validators());
+      assertEquals("C\nD\n", read(response));
+    }
+  }
+
+  @Test
+  public void refreshRevalidatedEntries() throws Exception {
+    assertFalse(cache.refresh(URL1));
+    read(cache.put(URL1, response()));
+    Files.setLastModifiedTime(cache.entry(URL1), FileTime.fromMillis(System.currentTimeMillis() - 2 * TTL));
+    assertNull(cache.get(URL1, TTL));
+
+    assertTrue(cache.refresh(URL1));
+    assertEquals(CSV, read(cache.get(URL1, TTL)));
+  }
+
+  @Test
+  public void doNotCachePartialResponses() throws Exception {
+    try (final InputStream stream = cache.put(URL1, response())) {
+      assertEquals('D', stream.read());
+    }
+    assertNull(cache.get(URL1, TTL));
+    assertEquals(0, directory.listFiles().length);
+  }
+
+  @Test
+  public void expireEntries() throws Exception {
+    read(cache.put(URL1, response()));
+    Files.setLastModifiedTime(cache.entry(URL1), FileTime.fromMillis(System.currentTimeMillis() - 2 * TTL));
+    assertNull(cache.get(URL1, TTL));
+
+    // except when offline
+    assertEquals(CSV, read(new DiskCache(directory, MAX_SIZE, true).get(URL1, TTL)));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsedEntries() throws Exception {
+    final long now = System.currentTimeMillis();
+    read(cache.put(URL1, response()));
+    read(cache.put(URL2, response()));
+    Files.setAttribute(cache.entry(URL1), "lastAccessTime", FileTime.fromMillis(now - 2000));
+    Files.setAttribute(cache.entry(URL2), "lastAccessTime", FileTime.fromMillis(now - 1000));
+    read(cache.get(URL1, TTL)); // now more recently used than URL2
+
+    // exceeds maximum size
+    read(cache.put(new URL("http://www.test.org/E.csv"), response()));
+    assertNotNull(cache.get(URL1, TTL));
+    assertNull(cache.get(URL2, TTL));
+  }
+
+  @Test
+  public void doNotCacheWhenOffline() throws Exception {
+    final DiskCache offline = new DiskCache(directory, MAX_SIZE, true);
+    assertTrue(offline.isOffline());
+    assertEquals(CSV, read(offline.put(URL1, response())));
+    assertNull(offline.get(URL1, TTL));
+  }
+
+  private static final InputStream response() {
+    return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  static final String read(final InputStream stream) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final InputStream in = stream) {
+      final byte[] buffer = new byte[16];
+      int read;
+      while ((read = in.read(buffer)) > -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+  }
+
+}
@@ -0,0 +1,176 @@
+/**
+ * FileDownloaderTest.java  v0.1  18 October 2026 11:58:14 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>FileDownloader</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class FileDownloaderTest {
+
+  private File                   directory;
+  private File                   destination;
+  private ExecutorService        executor;
+  private URL                    url;
+  private final AtomicInteger    whole     = new AtomicInteger();
+  private final AtomicInteger    ranges    = new AtomicInteger();
+  private volatile boolean       rangeable = true;
+  private volatile int           truncated;                      // bytes short per range
+  private final Transport        transport = new Transport() {
+    @Override
+    public InputStream open(final URL url) {
+      whole.incrementAndGet();
+      return new ByteArrayInputStream(CONTENT);
+    }
+
+    @Override
+    public Response open(final URL url, final Validators validators) {
+      return new Response(open(url), null);
+    }
+
+    @Override
+    public InputStream open(final URL url, final long first, final long last) throws IOException {
+      if (!rangeable) {
+        throw new IOException("Byte range not served: " + url);
+      }
+      ranges.incrementAndGet();
+      return new ByteArrayInputStream(CONTENT, (int) first, (int) (last - first + 1) - truncated);
+    }
+
+    @Override
+    public long rangeLength(final URL url) {
+      return rangeable ? CONTENT.length : -1;
+    }
+
+    @Override
+    public boolean abort(final Thread thread) {
+      return false;
+    }
+
+    @Override
+    public void discard(final URL url) {
+      // nothing kept
+    }
+
+    @Override
+    public Timings timings() {
+      return new Timings(0, 0, 0, 0, 0);
+    }
+  };
+
+  @Rule
+  public final ExpectedException thrown    = ExpectedException.none();
+
+  private static final byte[]    CONTENT   = new byte[1000003];
+  private static final long      MIN_RANGE = 100000;
+
+  static {
+    new Random(7).nextBytes(CONTENT);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(FileDownloaderTest.class.getSimpleName()).toFile();
+    destination = new File(directory, "EUR_USD_Week4.zip");
+    executor = Executors.newCachedThreadPool();
+    url = new URL("http://localhost/EUR_USD_Week4.zip");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+    for (final File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void cannotInstantiateWithNonPositiveRanges() {
+    thrown.expect(IllegalArgumentException.class);
+    new FileDownloader(transport, executor, 0, MIN_RANGE);
+  }
+
+  @Test
+  public void downloadInRanges() throws Exception {
+    assertEquals(CONTENT.length, new FileDownloader(transport, executor, 4, MIN_RANGE).download(url, destination, true));
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    assertEquals(4, ranges.get());
+    assertEquals(0, whole.get());
+    assertEquals(1, directory.listFiles().length); // no temporary files left behind
+  }
+
+  @Test
+  public void doNotSplitBelowMinimumRange() throws Exception {
+    assertEquals(CONTENT.length, new FileDownloader(transport, executor, 100, MIN_RANGE).download(url, destination, true));
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    assertEquals(CONTENT.length / MIN_RANGE, ranges.get());
+  }
+
+  @Test
+  public void fallBackToSingleStreamWithoutRanges() throws Exception {
+    rangeable = false;
+    assertEquals(CONTENT.length, new FileDownloader(transport, executor, 4, MIN_RANGE).download(url, destination, true));
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    assertEquals(0, ranges.get());
+    assertEquals(1, whole.get());
+  }
+
+  @Test
+  public void doNotProbeUnlessRanged() throws Exception {
+    new FileDownloader(transport, executor, 4, MIN_RANGE).download(url, destination, false);
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+    assertEquals(0, ranges.get());
+  }
+
+  @Test
+  public void replaceLongerDestination() throws Exception {
+    // previously left with stale bytes beyond the end of shorter content
+    final byte[] longer = Arrays.copyOf(CONTENT, 2 * CONTENT.length);
+    Files.write(destination.toPath(), longer);
+    new FileDownloader(transport, executor, 4, MIN_RANGE).download(url, destination, false);
+    assertArrayEquals(CONTENT, Files.readAllBytes(destination.toPath()));
+  }
+
+  @Test
+  public void doNotReplaceDestinationWithTruncatedRange() throws Exception {
+    Files.write(destination.toPath(), new byte[] { 1 });
+    truncated = 1;
+    try {
+      new FileDownloader(transport, executor, 4, MIN_RANGE).download(url, destination, true);
+      fail("Truncated range not detected");
+    }
+    catch (final EOFException eofE) {
+      // expected
+    }
+    assertArrayEquals(new byte[] { 1 }, Files.readAllBytes(destination.toPath()));
+    assertEquals(1, directory.listFiles().length);
+  }
+
+}
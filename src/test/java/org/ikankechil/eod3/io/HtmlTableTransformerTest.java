@@ -0,0 +1,125 @@
+/**
+ * HtmlTableTransformerTest.java  v0.1  19 October 2026 8:31:44 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.ikankechil.io.TextTransform;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>HtmlTableTransformer</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class HtmlTableTransformerTest {
+
+  @Rule
+  public final ExpectedException    thrown   = ExpectedException.none();
+
+  private static final TextTransform IDENTITY = new TextTransform() {
+    @Override
+    public String transform(final String line) {
+      return line;
+    }
+  };
+
+  private static final String       PAGE     = "<html><head><script>if (a<b) { document.write('<tr><td>x</td></tr>'); }</script></head>\n" +
+                                               "<body><table>\n" +
+                                               "<tr><th>Date</th><th>Open</th><th>Close</th><th>Volume</th></tr>\n" +
+                                               "<!-- <tr><td>commented</td></tr> -->\n" +
+                                               "<TR class=\"row\">\n" +
+                                               "  <td class=\"date\">Oct 07, 2015</td>\n" +
+                                               "  <td>1.5</td><td><b>2.5</b></td>\n" +
+                                               "  <td>1,000</td>\n" +
+                                               "</TR>\n" +
+                                               "<tr class=\"row\"><td>Oct 06, 2015<td>1&#46;25<td>2.25<td>900\n" +
+                                               "<tr class=\"dividend\"><td>Oct 05, 2015</td><td colspan=\"3\">0.1 Dividend</td></tr>\n" +
+                                               "</table></body></html>\n";
+
+  @Test
+  public void cannotTransformWithoutCells() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("No cells");
+    new HtmlTableTransformer(IDENTITY, null, null);
+  }
+
+  @Test
+  public void transformSelectedCellsOfRows() {
+    final List<String> lines = new ArrayList<>(Arrays.asList(PAGE.split("\n")));
+    final List<String> transformed = new HtmlTableTransformer(IDENTITY, null, null, 0, 2, 1).transform(lines);
+    assertSame(lines, transformed);
+    assertEquals(Arrays.asList("Oct 07, 2015,2.5,1.5", "Oct 06, 2015,2.25,1.25"), lines);
+  }
+
+  @Test
+  public void transformSelectedRowsCountingBackFromLastCell() throws Exception {
+    assertEquals(Arrays.asList("1,000", "900"),
+                 new HtmlTableTransformer(IDENTITY, "class=\"row\"", null, -1).transform(new StringReader(PAGE)));
+    assertEquals(Arrays.asList("Oct 07, 2015"),
+                 new HtmlTableTransformer(IDENTITY, null, "class=\"date\"", 0).transform(new StringReader(PAGE)));
+  }
+
+  @Test
+  public void countBackFromLastCellOnlyIfSelected() throws Exception {
+    final String page = "<table><tr><td>AIB</td><td class=\"code\">BYVGY54</td></tr>" +
+                        "<tr><td class=\"code\">NOTCODE</td><td>CRH</td></tr></table>";
+    assertEquals(Arrays.asList("BYVGY54"),
+                 new HtmlTableTransformer(IDENTITY, null, "class=\"code\"", -1).transform(new StringReader(page)));
+    assertEquals(Arrays.asList("BYVGY54", "NOTCODE"),
+                 new HtmlTableTransformer(IDENTITY, null, "class=\"code\"", 0).transform(new StringReader(page)));
+  }
+
+  @Test
+  public void cannotTransformWithoutAttribute() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("No attribute");
+    HtmlTableTransformer.rowAttribute(IDENTITY, null, "");
+  }
+
+  @Test
+  public void transformRowAttributes() throws Exception {
+    final String page = "<table><tr class=\"header\"><th>Paper</th></tr>" +
+                        "<tr data-id=\"X\" id=\"P_MTELEKOM\" class=\"\"><td>Magyar Telekom</td></tr>" +
+                        "<tr class='' id = 'P_OTP'><td>OTP Bank</td></tr>" +
+                        "<tr id=P_MOL><td>MOL</td></tr>" +
+                        "<tr id=\"\"><td>Empty</td></tr></table>";
+    assertEquals(Arrays.asList("P_MTELEKOM", "P_OTP", "P_MOL"),
+                 HtmlTableTransformer.rowAttribute(IDENTITY, null, "id").transform(new StringReader(page)));
+    assertEquals(Arrays.asList("P_MTELEKOM"),
+                 HtmlTableTransformer.rowAttribute(IDENTITY, "class=\"\"", "id").transform(new StringReader(page)));
+  }
+
+  @Test
+  public void skipEmptyRowsAndResolveReferences() throws Exception {
+    final String page = "<table><tr><td> </td><td>&nbsp;</td></tr>" +
+                        "<tr><td>A&amp;B</td><td>&lt;&#x41;&gt; &unknown; &#1114112; a<br>b</td></tr></table>";
+    assertEquals(Arrays.asList("A&B,<A> &unknown; &#1114112; a b"),
+                 new HtmlTableTransformer(IDENTITY, null, null, 0, 1).transform(new StringReader(page)));
+  }
+
+  @Test
+  public void transformRecordsWithBufferTransform() throws Exception {
+    final HtmlTableTransformer transformer = new HtmlTableTransformer(BufferTransforms.text(new BufferTransform() {
+      @Override
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
+        out.append("C,").append(line);
+        return line.charAt(5) != '6';
+      }
+    }), null, null, 0, 3);
+    assertEquals(Arrays.asList("C,Oct 07, 2015,1,000"), transformer.transform(new StringReader(PAGE)));
+  }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * JsonParserTest.java  v0.1  19 October 2026 7:02:44 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.ikankechil.eod3.io.JsonParser.Token.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.ikankechil.eod3.io.JsonParser.Token;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>JsonParser</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class JsonParserTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void cannotParseNullReader() {
+    thrown.expect(NullPointerException.class);
+    new JsonParser((StringReader) null);
+  }
+
+  @Test
+  public void pullTokens() throws Exception {
+    final JsonParser parser = new JsonParser(new StringReader("[{\"a\":\"x\",\"b\":-1.5E3,\"c\":[true,false,null]},{}]"));
+    assertNull(parser.token());
+
+    assertEquals(START_ARRAY, parser.next());
+    assertEquals(START_OBJECT, parser.next());
+    assertEquals(2, parser.depth());
+    assertEquals(NAME, parser.next());
+    assertTrue(parser.isName("a"));
+    assertEquals(STRING, parser.next());
+    assertFalse(parser.isName("x"));
+    assertEquals("x", parser.text().toString());
+    assertEquals(NAME, parser.next());
+    assertEquals(NUMBER, parser.next());
+    assertEquals("-1.5E3", parser.text().toString());
+    assertEquals(NAME, parser.next());
+    assertEquals(START_ARRAY, parser.next());
+    assertEquals(TRUE, parser.next());
+    assertEquals(FALSE, parser.next());
+    assertEquals(NULL, parser.next());
+    assertEquals(END_ARRAY, parser.next());
+    assertEquals(END_OBJECT, parser.next());
+    assertEquals(START_OBJECT, parser.next());
+    assertEquals(END_OBJECT, parser.next());
+    assertEquals(END_ARRAY, parser.next());
+    assertEquals(0, parser.depth());
+    assertEquals(END, parser.next());
+    assertEquals(END, parser.next());
+  }
+
+  @Test
+  public void stringsAreNamesOnlyBeforeColons() throws Exception {
+    final JsonParser parser = new JsonParser(new StringReader("{\"a\":[\"b\",\"c\"],\"d\":{\"e\":\"f\"}}"));
+    final Token[] expected = { START_OBJECT, NAME, START_ARRAY, STRING, STRING, END_ARRAY,
+                               NAME, START_OBJECT, NAME, STRING, END_OBJECT, END_OBJECT, END };
+    for (final Token token : expected) {
+      assertEquals(token, parser.next());
+    }
+  }
+
+  @Test
+  public void unescapeStrings() throws Exception {
+    final JsonParser parser = new JsonParser(new StringReader("\"\\/Date(1463138552218)\\/ \\\"\\\\\\n\\u00e9\""));
+    assertEquals(STRING, parser.next());
+    assertEquals("/Date(1463138552218)/ \"\\\n\u00e9", parser.text().toString());
+  }
+
+  @Test
+  public void parseLinesAcrossBuffers() throws Exception {
+    final StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 10000; ++i) {
+      value.append(i % 10);
+    }
+    final JsonParser parser = new JsonParser(Arrays.asList("{\"a\":", "\"" + value + "\"", "}"));
+    assertEquals(START_OBJECT, parser.next());
+    assertEquals(NAME, parser.next());
+    assertEquals(STRING, parser.next());
+    assertEquals(value.toString(), parser.text().toString());
+    assertEquals(END_OBJECT, parser.next());
+    assertEquals(END, parser.next());
+  }
+
+  @Test
+  public void skipValues() throws Exception {
+    final JsonParser parser = new JsonParser(new StringReader("{\"a\":{\"b\":[1,{\"c\":2}]},\"d\":3,\"e\":[]}"));
+    parser.next();
+    parser.next();
+    parser.skipValue();
+    assertEquals(NAME, parser.next());
+    assertTrue(parser.isName("d"));
+    parser.skipValue();
+    assertEquals(NAME, parser.next());
+    assertEquals(START_ARRAY, parser.next());
+    parser.skipValue();
+    assertEquals(END_OBJECT, parser.next());
+  }
+
+  @Test
+  public void cannotParseMismatchedBrackets() throws Exception {
+    final JsonParser parser = new JsonParser(new StringReader("[1}"));
+    parser.next();
+    parser.next();
+
+    thrown.expect(IOException.class);
+    thrown.expectMessage("at character 3");
+    parser.next();
+  }
+
+  @Test
+  public void cannotParseTruncatedText() throws Exception {
+    final JsonParser parser = new JsonParser(new StringReader("{\"a\":\"b"));
+    parser.next();
+    parser.next();
+
+    thrown.expect(IOException.class);
+    thrown.expectMessage("Unterminated string");
+    parser.next();
+  }
+
+  @Test
+  public void cannotParseBadLiterals() throws Exception {
+    final JsonParser parser = new JsonParser(new StringReader("[nul]"));
+    parser.next();
+
+    thrown.expect(IOException.class);
+    thrown.expectMessage("Bad literal");
+    parser.skipValue();
+  }
+
+}
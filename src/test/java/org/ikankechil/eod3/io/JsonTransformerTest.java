@@ -0,0 +1,87 @@
+/**
+ * JsonTransformerTest.java  v0.1  19 October 2026 7:15:38 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.ikankechil.io.TextTransform;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>JsonTransformer</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class JsonTransformerTest {
+
+  @Rule
+  public final ExpectedException    thrown   = ExpectedException.none();
+
+  private static final TextTransform IDENTITY = new TextTransform() {
+    @Override
+    public String transform(final String line) {
+      return line;
+    }
+  };
+
+  @Test
+  public void cannotTransformWithoutFields() {
+    thrown.expect(IllegalArgumentException.class);
+    new JsonTransformer(IDENTITY, false);
+  }
+
+  @Test
+  public void transformRecordsInFieldOrder() {
+    final List<String> lines = new ArrayList<>(Arrays.asList("{\"symbol\":\"C\",\"historicals\":[",
+                                                             "{\"date\":\"2015-10-05\",\"close\":1.5,\"open\":1,\"volume\":100,\"adjusted\":true},",
+                                                             "{\"date\":\"2015-10-06\",\"open\":2,\"volume\":null,\"close\":2.5},",
+                                                             "{\"date\":\"2015-10-07\",\"open\":3}",
+                                                             "]}"));
+    final List<String> transformed = new JsonTransformer(IDENTITY, true, "date", "open", "close", "volume").transform(lines);
+    assertSame(lines, transformed);
+    assertEquals(Arrays.asList("2015-10-06,2,2.5,", "2015-10-05,1,1.5,100"), lines);
+  }
+
+  @Test
+  public void transformRecordsNamedByKey() {
+    final List<String> lines = new ArrayList<>(Arrays.asList("{\"Meta Data\":{\"1. open\":\"info\"},",
+                                                             " \"Time Series\":{",
+                                                             "  \"2015-10-07\":{\"1. open\":\"3\",\"2. close\":\"3.5\"},",
+                                                             "  \"2015-10-06\":{\"1. open\":\"2\",\"2. close\":\"2.5\"}}}"));
+    new JsonTransformer(BufferTransforms.text(new BufferTransform() {
+      @Override
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
+        out.append("C,").append(line);
+        return line.charAt(0) != '2' || line.charAt(9) != '6';
+      }
+    }), false, null, "1. open", "2. close").transform(lines);
+    assertEquals(Arrays.asList("C,2015-10-07,3,3.5"), lines);
+  }
+
+  @Test
+  public void transformRecordsAsRead() throws Exception {
+    final String text = "[{\"date\":\"2015-10-05\",\"close\":1.5},\n{\"date\":\"2015-10-06\",\"close\":2.5}]";
+    assertEquals(Arrays.asList("2015-10-06,2.5", "2015-10-05,1.5"),
+                 new JsonTransformer(IDENTITY, true, "date", "close").transform(new StringReader(text)));
+  }
+
+  @Test
+  public void cannotTransformMalformedJson() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Malformed JSON");
+    new JsonTransformer(IDENTITY, false, "a").transform(new ArrayList<>(Arrays.asList("[{\"a\":1]")));
+  }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * LineScannerTest.java  v0.1  19 October 2026 4:58:12 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>LineScanner</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class LineScannerTest {
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  private static final byte      COMMA  = ',';
+
+  @Test
+  public void cannotScanNullChannel() {
+    thrown.expect(NullPointerException.class);
+    new LineScanner((ReadableByteChannel) null);
+  }
+
+  @Test
+  public void scanLinesEndedByLFCROrBoth() throws Exception {
+    final String text = "C,20151007,1\nC,20151006,2\r\nC,20151005,3\r\rC,20151004,4";
+    final List<String> expected = Arrays.asList("C,20151007,1", "C,20151006,2", "C,20151005,3", "", "C,20151004,4");
+    for (int bufferSize = 1; bufferSize <= text.length() + 1; ++bufferSize) { // across buffer boundaries
+      assertEquals("buffer size " + bufferSize, expected, lines(text, bufferSize));
+    }
+  }
+
+  @Test
+  public void lastLineMayEndWithTerminator() throws Exception {
+    assertEquals(Arrays.asList("a", "b"), lines("a\r\nb\r\n", 2));
+    assertEquals(Arrays.asList("a", ""), lines("a\n\n", 2));
+    assertEquals(new ArrayList<String>(), lines("", 2));
+  }
+
+  @Test
+  public void scanFields() throws Exception {
+    final LineScanner scanner = scanner("MSFT,20151007,1.5,2\n", 4);
+    assertTrue(scanner.next());
+    assertEquals(0, scanner.start());
+    assertEquals(19, scanner.length());
+    assertEquals(0, scanner.field(0, COMMA));
+    assertEquals(5, scanner.field(1, COMMA));
+    assertEquals(13, scanner.fieldEnd(scanner.field(1, COMMA), COMMA));
+    assertEquals(19, scanner.fieldEnd(scanner.field(3, COMMA), COMMA));
+    assertEquals(-1, scanner.field(4, COMMA));
+    assertEquals(13, scanner.indexOf(COMMA, 5));
+    assertEquals(-1, scanner.indexOf((byte) ';', 0));
+    assertFalse(scanner.next());
+    assertTrue(scanner.isEmpty());
+  }
+
+  @Test
+  public void compareUnsignedBytes() {
+    final byte[] bytes = "20151007,20151008,2015100".getBytes(StandardCharsets.UTF_8);
+    assertEquals(0, LineScanner.compare(bytes, 0, 8, bytes, 0, 8));
+    assertTrue(LineScanner.compare(bytes, 0, 8, bytes, 9, 17) < 0);
+    assertTrue(LineScanner.compare(bytes, 9, 17, bytes, 0, 8) > 0);
+    assertTrue(LineScanner.compare(bytes, 18, 25, bytes, 0, 8) < 0);
+
+    final byte[] high = { (byte) 0xC3 };
+    assertTrue(LineScanner.compare(high, 0, 1, bytes, 0, 1) > 0);
+  }
+
+  @Test
+  public void decodeOnlyLinesNotAscii() throws Exception {
+    final LineScanner scanner = scanner("C,1\nCAC,Soci\u00e9t\u00e9 G\u00e9n\u00e9rale\n", 8);
+    assertTrue(scanner.next());
+    assertTrue(scanner.isAscii());
+    assertTrue(scanner.next());
+    assertFalse(scanner.isAscii());
+    assertEquals("CAC,Soci\u00e9t\u00e9 G\u00e9n\u00e9rale", scanner.toString());
+    assertEquals(scanner.length(), scanner.line().remaining());
+  }
+
+  @Test
+  public void writeLinesEndedByLF() throws Exception {
+    final LineScanner scanner = scanner("a,1\r\nb,2\r", 3);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    while (scanner.next()) {
+      scanner.writeTo(out);
+    }
+    assertEquals("a,1\nb,2\n", out.toString(StandardCharsets.UTF_8.name()));
+  }
+
+  private static final LineScanner scanner(final String text, final int bufferSize) {
+    return new LineScanner(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))),
+                           bufferSize);
+  }
+
+  private static final List<String> lines(final String text, final int bufferSize) throws Exception {
+    final List<String> lines = new ArrayList<>();
+    try (final LineScanner scanner = scanner(text, bufferSize)) {
+      while (scanner.next()) {
+        lines.add(scanner.toString());
+      }
+    }
+    return lines;
+  }
+
+}
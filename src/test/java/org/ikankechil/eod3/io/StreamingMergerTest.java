@@ -0,0 +1,164 @@
+/**
+ * StreamingMergerTest.java  v0.1  19 October 2026 1:24:09 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test for <code>StreamingMerger</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class StreamingMergerTest {
+
+  private File                         directory;
+  private File                         updates;
+  private File                         target;
+
+  private static final StreamingMerger MERGER = new StreamingMerger();
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(StreamingMergerTest.class.getSimpleName()).toFile();
+    updates = new File(directory, "C_20151006-20151008.csv");
+    target = new File(directory, "C.csv");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (final File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void mergeWithUpdatesWinning() throws Exception {
+    write(updates, "C,20151008,8", "C,20151007,7", "", "C,20151006,6");
+    write(target, "C,20151006,0", "C,20151005,5", "C,20151002,2");
+
+    final LineTally tally = new LineTally();
+    assertEquals(5, MERGER.merge(updates, target, tally));
+    assertEquals(Arrays.asList("C,20151008,8", "C,20151007,7", "C,20151006,6", "C,20151005,5", "C,20151002,2"),
+                 lines(target));
+    assertEquals(5, tally.lines());
+    assertEquals("C,20151008,8", tally.first());
+    assertEquals("C,20151002,2", tally.last());
+    assertEquals(2, directory.listFiles().length); // no temporary files left behind
+  }
+
+  @Test
+  public void mergeLinesWithoutUpdateFile() throws Exception {
+    write(target, "C,20151006,0", "C,20151005,5");
+
+    assertEquals(3, MERGER.merge(Arrays.asList("C,20151007,7", "C,20151006,6"), target));
+    assertEquals(Arrays.asList("C,20151007,7", "C,20151006,6", "C,20151005,5"), lines(target));
+    assertEquals(1, directory.listFiles().length);
+  }
+
+  @Test
+  public void sortLinesOutOfOrder() throws Exception {
+    write(target, "C,20151006,0", "C,20151005,5");
+
+    final LineTally tally = new LineTally();
+    assertEquals(3, MERGER.merge(Arrays.asList("C,20151006,6", "C,20151007,7"), target, tally));
+    assertEquals(Arrays.asList("C,20151007,7", "C,20151006,6", "C,20151005,5"), lines(target));
+    assertEquals(3, tally.lines());
+    assertEquals("C,20151007,7", tally.first());
+    assertEquals("C,20151005,5", tally.last());
+  }
+
+  @Test
+  public void interleaveDates() throws Exception {
+    write(updates, "C,20151009,9", "C,20151007,7", "C,20151005,5");
+    write(target, "C,20151008,0", "C,20151006,0", "C,20151004,0");
+
+    assertEquals(6, MERGER.merge(updates, target));
+    assertEquals(Arrays.asList("C,20151009,9", "C,20151008,0", "C,20151007,7", "C,20151006,0", "C,20151005,5", "C,20151004,0"),
+                 lines(target));
+  }
+
+  @Test
+  public void keepFirstOfDuplicateDates() throws Exception {
+    write(updates, "C,20151007,7", "C,20151007,1");
+    write(target, "C,20151007,0", "C,20151006,6", "C,20151006,0");
+
+    assertEquals(2, MERGER.merge(updates, target));
+    assertEquals(Arrays.asList("C,20151007,7", "C,20151006,6"), lines(target));
+  }
+
+  @Test
+  public void mergeIntoMissingTarget() throws Exception {
+    write(updates, "C,20151007,7", "C,20151006,6");
+
+    assertEquals(2, MERGER.merge(updates, target));
+    assertEquals(Arrays.asList("C,20151007,7", "C,20151006,6"), lines(target));
+  }
+
+  @Test
+  public void sortFilesOutOfOrder() throws Exception {
+    write(updates, "C,20151006,6", "C,20151008,8");
+    write(target, "C,20151005,5", "C,20151007,0", "C,20151006,0");
+
+    assertEquals(4, MERGER.merge(updates, target));
+    assertEquals(Arrays.asList("C,20151008,8", "C,20151007,0", "C,20151006,6", "C,20151005,5"), lines(target));
+    assertEquals(2, directory.listFiles().length);
+  }
+
+  @Test
+  public void mergeLargeFiles() throws Exception {
+    final List<String> even = new ArrayList<>();
+    final List<String> odd = new ArrayList<>();
+    final List<String> expected = new ArrayList<>();
+    for (int day = 99999; day >= 0; --day) {
+      final String line = "C," + (10000000 + day) + ",1,2,0.5,1.5," + day;
+      ((day % 2 == 0) ? even : odd).add(line);
+      expected.add(line);
+    }
+    write(updates, even.toArray(new String[even.size()]));
+    write(target, odd.toArray(new String[odd.size()]));
+
+    assertEquals(expected.size(), MERGER.merge(updates, target));
+    assertEquals(expected, lines(target));
+  }
+
+  @Test
+  public void compareDatesInPlace() {
+    assertEquals(0, compareDates("C,20151007,1", "MSFT,20151007,2"));
+    assertTrue(compareDates("C,20151008,1", "C,20151007,1") > 0);
+    assertTrue(compareDates("C,20151007,1", "C,20151107,1") < 0);
+    assertTrue(compareDates("C,201510071", "C,20151007,1") > 0);
+    final byte[] lines = "xC,20151007,1\nC,20151006,1".getBytes(StandardCharsets.UTF_8);
+    assertTrue(StreamingMerger.compareDates(lines, 1, 13, lines, 14, lines.length) > 0);
+  }
+
+  private static final int compareDates(final String line1, final String line2) {
+    final byte[] bytes1 = line1.getBytes(StandardCharsets.UTF_8);
+    final byte[] bytes2 = line2.getBytes(StandardCharsets.UTF_8);
+    return StreamingMerger.compareDates(bytes1, 0, bytes1.length, bytes2, 0, bytes2.length);
+  }
+
+  private static final void write(final File file, final String... lines) throws Exception {
+    Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+  }
+
+  private static final List<String> lines(final File file) throws Exception {
+    return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+  }
+
+}
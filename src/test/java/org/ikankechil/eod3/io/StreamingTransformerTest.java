@@ -0,0 +1,189 @@
+/**
+ * StreamingTransformerTest.java  v0.1  18 October 2026 11:36:18 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.ikankechil.io.TextTransform;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>StreamingTransformer</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class StreamingTransformerTest {
+
+  private File                        directory;
+  private File                        destination;
+
+  @Rule
+  public final ExpectedException      thrown    = ExpectedException.none();
+
+  private static final String         HEADER    = "Date,Open,High,Low,Close,Volume";
+  private static final String         SYMBOL    = "C";
+  private static final TextTransform  TRANSFORM = new TextTransform() {
+    @Override
+    public String transform(final String line) {
+      return line.startsWith("#") ? null : SYMBOL + ',' + line.replace("-", "");
+    }
+  };
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(StreamingTransformerTest.class.getSimpleName()).toFile();
+    destination = new File(directory, "C.csv");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (final File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void cannotInstantiateWithNullTransform() {
+    thrown.expect(NullPointerException.class);
+    new StreamingTransformer((BufferTransform) null, 1, false);
+  }
+
+  @Test
+  public void cannotInstantiateWithNullTextTransform() {
+    thrown.expect(NullPointerException.class);
+    new StreamingTransformer((TextTransform) null, 1, false);
+  }
+
+  @Test
+  public void cannotInstantiateWithNegativeHeaderRows() {
+    thrown.expect(IllegalArgumentException.class);
+    new StreamingTransformer(TRANSFORM, -1, false);
+  }
+
+  @Test
+  public void transformInOrder() throws Exception {
+    final String text = HEADER + "\n2015-10-05,1,2,0.5,1.5,100\n\n#comment\n2015-10-06,1,2,0.5,1.5,200\n";
+    assertEquals(2, new StreamingTransformer(TRANSFORM, 1, false).transform(stream(text), destination));
+    assertEquals(Arrays.asList("C,20151005,1,2,0.5,1.5,100", "C,20151006,1,2,0.5,1.5,200"), lines());
+    assertEquals(1, directory.listFiles().length); // no temporary files left behind
+  }
+
+  @Test
+  public void transformInBuffers() throws Exception {
+    final BufferTransform transform = new BufferTransform() {
+      @Override
+      public boolean transform(final CharBuffer line, final StringBuilder out) {
+        if (line.charAt(0) == '#') {
+          return false;
+        }
+        out.append(SYMBOL).append(',').append(line, 0, 4).append(line, 5, 7).append(line, 8, line.length());
+        return true;
+      }
+    };
+    final String text = HEADER + "\r\n2015-10-05,1,2,0.5,1.5,100\r\n#comment\r2015-10-06,1,2,0.5,1.5,200\r\r\n";
+    final LineTally tally = new LineTally();
+    assertEquals(2, new StreamingTransformer(transform, 1, true).transform(stream(text), destination, tally));
+    assertEquals(Arrays.asList("C,20151006,1,2,0.5,1.5,200", "C,20151005,1,2,0.5,1.5,100"), lines());
+    // as written
+    assertEquals(2, tally.lines());
+    assertEquals("C,20151006,1,2,0.5,1.5,200", tally.first());
+    assertEquals("C,20151005,1,2,0.5,1.5,100", tally.last());
+  }
+
+  @Test
+  public void transformLinesLongerThanBuffers() throws Exception {
+    final char[] padding = new char[200000];
+    Arrays.fill(padding, '\u00e9'); // two bytes each
+    final String longLine = "2015-10-06," + new String(padding) + "\ud83d\ude00";
+    final String text = HEADER + "\n2015-10-05,1\n" + longLine + "\n2015-10-07,1";
+
+    assertEquals(3, new StreamingTransformer(TRANSFORM, 1, false).transform(stream(text), destination));
+    assertEquals(Arrays.asList("C,20151005,1", TRANSFORM.transform(longLine), "C,20151007,1"), lines());
+  }
+
+  @Test
+  public void reverseInMemory() throws Exception {
+    final List<String> expected = dates(10);
+    assertEquals(10, new StreamingTransformer(TRANSFORM, 1, true).transform(stream(HEADER, 10), destination));
+    Collections.reverse(expected);
+    assertEquals(expected, lines());
+  }
+
+  @Test
+  public void reverseSpilledToDisk() throws Exception {
+    // spans several blocks of the spill file
+    final int count = 5000;
+    final List<String> expected = dates(count);
+    assertEquals(count, new StreamingTransformer(TRANSFORM, 1, true, 100).transform(stream(HEADER, count), destination));
+    Collections.reverse(expected);
+    assertEquals(expected, lines());
+    assertEquals(1, directory.listFiles().length);
+  }
+
+  @Test
+  public void reverseLinesLongerThanBlocks() throws Exception {
+    final StringBuilder text = new StringBuilder(HEADER).append('\n');
+    final char[] padding = new char[100000];
+    Arrays.fill(padding, '0');
+    final String longLine = "2015-10-06," + new String(padding);
+    text.append("2015-10-05,1\n").append(longLine).append("\n2015-10-07,1\n");
+
+    assertEquals(3, new StreamingTransformer(TRANSFORM, 1, true, 1).transform(stream(text.toString()), destination));
+    assertEquals(Arrays.asList("C,20151007,1", TRANSFORM.transform(longLine), "C,20151005,1"), lines());
+  }
+
+  @Test
+  public void doNotReplaceDestinationWithoutLines() throws Exception {
+    Files.write(destination.toPath(), "C,20151005,1\n".getBytes(StandardCharsets.UTF_8));
+    assertEquals(0, new StreamingTransformer(TRANSFORM, 1, true).transform(stream(HEADER + "\n"), destination));
+    assertEquals(Arrays.asList("C,20151005,1"), lines());
+    assertEquals(1, directory.listFiles().length);
+  }
+
+  private static final List<String> dates(final int count) {
+    final List<String> lines = new ArrayList<>(count);
+    for (int i = 0; i < count; ++i) {
+      lines.add(SYMBOL + ',' + (20150000 + i) + ",1,2,0.5,1.5," + i);
+    }
+    return lines;
+  }
+
+  private static final InputStream stream(final String header, final int count) {
+    final StringBuilder text = new StringBuilder(header).append('\n');
+    for (final String line : dates(count)) {
+      final String date = line.substring(2, 10);
+      text.append(date, 0, 4).append('-').append(date, 4, 6).append('-').append(date, 6, 8)
+          .append(line.substring(10)).append('\n');
+    }
+    return stream(text.toString());
+  }
+
+  private static final InputStream stream(final String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private final List<String> lines() throws Exception {
+    return Files.readAllLines(destination.toPath(), StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,494 @@
+/**
+ * URLConnectorTest.java  v0.1  18 October 2026 4:02:45 PM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.io;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>URLConnector</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class URLConnectorTest {
+
+  private ServerSocket           server;
+  private URL                    url;
+  private ExecutorService        executor;
+  private final CountDownLatch   accepted = new CountDownLatch(1);
+
+  @Rule
+  public final ExpectedException thrown   = ExpectedException.none();
+
+  private static final int       TIMEOUT  = (int) TimeUnit.SECONDS.toMillis(10);
+  private static final String    HEADERS  = "HTTP/1.1 200 OK\r\nContent-Length: 100\r\n\r\n";
+  private static final String    OK       = "HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nOK";
+  private static final String    MISSING  = "HTTP/1.1 404 Not Found\r\nContent-Length: 7\r\n\r\nMissing";
+  private static final String    BUSY     = "HTTP/1.1 429 Too Many Requests\r\nContent-Length: 4\r\n\r\nBusy";
+  private static final String    CSV      = "Date,Open,High,Low,Close,Volume\n20151007,1,2,0.5,1.5,100\n";
+  private static final String    GZIP     = "gzip";
+  private static final String    DEFLATE  = "deflate";
+  private static final String    RAW      = "raw";
+  private static final String    ETAG     = "\"v1\"";
+  private static final String    MODIFIED = "Wed, 07 Oct 2015 08:00:00 GMT";
+
+  @Before
+  public void setUp() throws Exception {
+    // responds with headers but withholds the body
+    server = new ServerSocket(0);
+    url = new URL("http://localhost:" + server.getLocalPort() + "/stuck");
+    executor = Executors.newCachedThreadPool();
+    executor.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        while (!server.isClosed()) {
+          final Socket socket = server.accept();
+          final OutputStream out = socket.getOutputStream();
+          out.write(HEADERS.getBytes(StandardCharsets.US_ASCII));
+          out.flush();
+          accepted.countDown();
+        }
+        return null;
+      }
+    });
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void cannotInstantiateWithNonPositiveTimeout() {
+    thrown.expect(IllegalArgumentException.class);
+    new URLConnector(0);
+  }
+
+  @Test
+  public void abortUnblocksRead() throws Exception {
+    final URLConnector connector = new URLConnector(TIMEOUT);
+    final Thread[] reader = new Thread[1];
+    final CountDownLatch tracked = new CountDownLatch(1);
+    final Future<Integer> read = executor.submit(new Callable<Integer>() {
+      @Override
+      public Integer call() throws Exception {
+        reader[0] = Thread.currentThread();
+        try (final Socket socket = connector.track(new Socket(url.getHost(), url.getPort()))) {
+          tracked.countDown();
+          final InputStream stream = socket.getInputStream();
+          while (stream.read() > -1) {
+            // skip headers and wait for the withheld body
+          }
+          return -1;
+        }
+      }
+    });
+
+    // wait for the reader to block on the withheld body
+    assertTrue(tracked.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    assertTrue(accepted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    Thread.sleep(200);
+    assertTrue(connector.abort(reader[0]));
+
+    try {
+      read.get(TIMEOUT / 5, TimeUnit.MILLISECONDS);
+      fail("Read not aborted");
+    }
+    catch (final ExecutionException eE) {
+      assertTrue(eE.getCause() instanceof IOException);
+    }
+    assertFalse(connector.abort(reader[0]));
+  }
+
+  @Test
+  public void abortWhileAwaitingResponse() throws Exception {
+    try (final ServerSocket silent = new ServerSocket(0)) {
+      final CountDownLatch connected = new CountDownLatch(1);
+      executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          try (final Socket socket = silent.accept()) { // never responds
+            connected.countDown();
+            while (socket.getInputStream().read() > -1) {
+              // skip request
+            }
+          }
+          return null;
+        }
+      });
+
+      final URLConnector connector = new URLConnector(TIMEOUT);
+      final Thread[] reader = new Thread[1];
+      final Future<InputStream> open = executor.submit(new Callable<InputStream>() {
+        @Override
+        public InputStream call() throws Exception {
+          reader[0] = Thread.currentThread();
+          return connector.open(new URL("http://localhost:" + silent.getLocalPort() + "/silent"));
+        }
+      });
+
+      // plain HTTP sockets are not tracked, but awaiting connections are
+      assertTrue(connected.await(TIMEOUT, TimeUnit.MILLISECONDS));
+      Thread.sleep(200);
+      assertTrue(connector.abort(reader[0]));
+
+      try {
+        open.get(TIMEOUT / 5, TimeUnit.MILLISECONDS);
+        fail("Request not aborted");
+      }
+      catch (final ExecutionException eE) {
+        assertTrue(eE.getCause() instanceof IOException);
+      }
+      assertFalse(connector.abort(reader[0]));
+    }
+  }
+
+  @Test
+  public void cannotAbortPlainHttpBody() throws Exception {
+    final int timeout = 500;
+    final URLConnector connector = new URLConnector(timeout);
+    final Thread[] reader = new Thread[1];
+    final CountDownLatch opened = new CountDownLatch(1);
+    final Future<Integer> read = executor.submit(new Callable<Integer>() {
+      @Override
+      public Integer call() throws Exception {
+        reader[0] = Thread.currentThread();
+        try (final InputStream stream = connector.open(url)) {
+          opened.countDown();
+          return stream.read(); // body withheld
+        }
+      }
+    });
+
+    assertTrue(opened.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    assertFalse(connector.abort(reader[0]));
+
+    // bounded by the read time-out instead
+    try {
+      read.get(TIMEOUT, TimeUnit.MILLISECONDS);
+      fail("Read not timed out");
+    }
+    catch (final ExecutionException eE) {
+      assertTrue(eE.getCause() instanceof SocketTimeoutException);
+    }
+  }
+
+  @Test
+  public void abortWithoutConnection() {
+    assertFalse(new URLConnector(TIMEOUT).abort(Thread.currentThread()));
+  }
+
+  @Test
+  public void reuseKeptAliveConnections() throws Exception {
+    final AtomicInteger connections = new AtomicInteger();
+    try (final ServerSocket keepAlive = new ServerSocket(0)) {
+      executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          while (!keepAlive.isClosed()) {
+            final Socket socket = keepAlive.accept();
+            connections.incrementAndGet();
+            executor.submit(new Callable<Void>() {
+              @Override
+              public Void call() throws Exception {
+                return respond(socket);
+              }
+            });
+          }
+          return null;
+        }
+      });
+
+      final URLConnector connector = new URLConnector(TIMEOUT);
+      final String base = "http://localhost:" + keepAlive.getLocalPort();
+      for (int i = 0; i < 3; ++i) {
+        try (final InputStream stream = connector.open(new URL(base + "/ok"))) {
+          assertEquals('O', stream.read());
+          assertEquals('K', stream.read());
+          assertEquals(-1, stream.read());
+        }
+        // error responses are read to the end so that the connection is kept alive
+        try (final InputStream stream = connector.open(new URL(base + "/missing"))) {
+          fail("Not missing");
+        }
+        catch (final FileNotFoundException fnfE) {
+          // expected
+        }
+      }
+
+      // error statuses are typed
+      try (final InputStream stream = connector.open(new URL(base + "/busy"))) {
+        fail("Not busy");
+      }
+      catch (final HttpStatusException hsE) {
+        assertEquals(429, hsE.statusCode());
+        assertEquals(new URL(base + "/busy"), hsE.url());
+      }
+
+      assertEquals(1, connections.get());
+      final Transport.Timings timings = connector.timings();
+      assertEquals(3, timings.requests());
+      assertEquals(0, timings.connections()); // only new HTTPS connections are counted
+      assertTrue(timings.body(TimeUnit.NANOSECONDS) > 0);
+    }
+  }
+
+  private static final Void respond(final Socket socket) throws IOException {
+    try (final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                                StandardCharsets.US_ASCII))) {
+      final OutputStream out = socket.getOutputStream();
+      String request;
+      while ((request = reader.readLine()) != null) {
+        String header;
+        while ((header = reader.readLine()) != null && !header.isEmpty()) {
+          // skip request headers
+        }
+        out.write((request.contains("missing") ? MISSING : request.contains("busy") ? BUSY : OK).getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void requestConditionally() throws Exception {
+    try (final ServerSocket conditional = new ServerSocket(0)) {
+      executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          while (!conditional.isClosed()) {
+            final Socket socket = conditional.accept();
+            executor.submit(new Callable<Void>() {
+              @Override
+              public Void call() throws Exception {
+                return revalidate(socket);
+              }
+            });
+          }
+          return null;
+        }
+      });
+
+      final URLConnector connector = new URLConnector(TIMEOUT);
+      final URL csv = new URL("http://localhost:" + conditional.getLocalPort() + "/csv");
+      final Transport.Validators validators;
+      try (final Transport.Response response = connector.open(csv, Transport.Validators.NONE)) {
+        assertEquals(CSV, read(response));
+        validators = response.validators();
+      }
+      assertEquals(ETAG, validators.etag());
+      assertEquals(MODIFIED, validators.lastModified());
+
+      assertNull(connector.open(csv, validators));
+      assertNull(connector.open(csv, new Transport.Validators(ETAG, null)));
+      try (final Transport.Response response = connector.open(csv, new Transport.Validators("\"v0\"", null))) {
+        assertEquals(CSV, read(response));
+      }
+      assertEquals(4, connector.timings().requests());
+    }
+  }
+
+  private static final Void revalidate(final Socket socket) throws IOException {
+    try (final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                                StandardCharsets.US_ASCII))) {
+      final OutputStream out = socket.getOutputStream();
+      while (reader.readLine() != null) {
+        boolean notModified = false;
+        String header;
+        while ((header = reader.readLine()) != null && !header.isEmpty()) {
+          notModified |= header.equalsIgnoreCase("If-None-Match: " + ETAG);
+        }
+        out.write((notModified ? "HTTP/1.1 304 Not Modified\r\nETag: " + ETAG + "\r\n\r\n"
+                               : "HTTP/1.1 200 OK\r\nETag: " + ETAG + "\r\nLast-Modified: " + MODIFIED +
+                                 "\r\nContent-Length: " + CSV.length() + "\r\n\r\n" + CSV).getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void requestByteRanges() throws Exception {
+    try (final ServerSocket ranged = new ServerSocket(0)) {
+      executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          while (!ranged.isClosed()) {
+            final Socket socket = ranged.accept();
+            executor.submit(new Callable<Void>() {
+              @Override
+              public Void call() throws Exception {
+                return serveRanges(socket);
+              }
+            });
+          }
+          return null;
+        }
+      });
+
+      final URLConnector connector = new URLConnector(TIMEOUT);
+      final String base = "http://localhost:" + ranged.getLocalPort();
+      final URL csv = new URL(base + "/ranged");
+      assertEquals(CSV.length(), connector.rangeLength(csv));
+      try (final InputStream range = connector.open(csv, 5, 9)) {
+        assertEquals(CSV.substring(5, 10), read(range));
+      }
+
+      // served whole
+      final URL whole = new URL(base + "/whole");
+      assertEquals(-1, connector.rangeLength(whole));
+      try (final InputStream range = connector.open(whole, 5, 9)) {
+        fail("Range served");
+      }
+      catch (final IOException ioE) {
+        // expected
+      }
+    }
+  }
+
+  private static final Void serveRanges(final Socket socket) throws IOException {
+    try (final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                                StandardCharsets.US_ASCII))) {
+      final OutputStream out = socket.getOutputStream();
+      String request;
+      while ((request = reader.readLine()) != null) {
+        final boolean ranged = request.contains("ranged");
+        String range = null;
+        String header;
+        while ((header = reader.readLine()) != null && !header.isEmpty()) {
+          if (header.toLowerCase().startsWith("range: bytes=")) {
+            range = header.substring(header.indexOf('=') + 1);
+          }
+        }
+        if (request.startsWith("HEAD")) {
+          out.write(("HTTP/1.1 200 OK\r\n" + (ranged ? "Accept-Ranges: bytes\r\n" : "") +
+                     "Content-Length: " + CSV.length() + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        else if (ranged && range != null) {
+          final int first = Integer.parseInt(range.substring(0, range.indexOf('-')));
+          final int last = Integer.parseInt(range.substring(range.indexOf('-') + 1));
+          out.write(("HTTP/1.1 206 Partial Content\r\nContent-Range: bytes " + first + '-' + last + '/' + CSV.length() +
+                     "\r\nContent-Length: " + (last - first + 1) + "\r\n\r\n" + CSV.substring(first, last + 1)).getBytes(StandardCharsets.US_ASCII));
+        }
+        else {
+          out.write(("HTTP/1.1 200 OK\r\nContent-Length: " + CSV.length() + "\r\n\r\n" + CSV).getBytes(StandardCharsets.US_ASCII));
+        }
+        out.flush();
+      }
+    }
+    return null;
+  }
+
+  @Test
+  public void decompressGzipResponses() throws Exception {
+    final String[] acceptEncoding = new String[1];
+    try (final ServerSocket gzip = new ServerSocket(0)) {
+      executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          try (final Socket socket = gzip.accept();
+               final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                                      StandardCharsets.US_ASCII))) {
+            String header;
+            while ((header = reader.readLine()) != null && !header.isEmpty()) {
+              if (header.toLowerCase().startsWith("accept-encoding:")) {
+                acceptEncoding[0] = header.substring(header.indexOf(':') + 1).trim();
+              }
+            }
+            final byte[] body = compress(GZIP);
+            final OutputStream out = socket.getOutputStream();
+            out.write(("HTTP/1.1 200 OK\r\nContent-Encoding: gzip\r\nContent-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(body);
+            out.flush();
+          }
+          return null;
+        }
+      });
+
+      try (final InputStream stream = new URLConnector(TIMEOUT).open(new URL("http://localhost:" + gzip.getLocalPort() + "/gzip"))) {
+        assertEquals(CSV, read(stream));
+      }
+      assertEquals("gzip, deflate", acceptEncoding[0]);
+    }
+  }
+
+  @Test
+  public void decodeDeflate() throws Exception {
+    // zlib-wrapped, as specified
+    assertEquals(CSV, read(URLConnector.decode(DEFLATE, new ByteArrayInputStream(compress(DEFLATE)))));
+    // raw, as sent by some servers
+    assertEquals(CSV, read(URLConnector.decode("Deflate", new ByteArrayInputStream(compress(RAW)))));
+  }
+
+  @Test
+  public void decodeIdentity() throws Exception {
+    final InputStream stream = new ByteArrayInputStream(CSV.getBytes(StandardCharsets.US_ASCII));
+    assertSame(stream, URLConnector.decode(null, stream));
+    assertSame(stream, URLConnector.decode("identity", stream));
+  }
+
+  private static final byte[] compress(final String encoding) throws IOException {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (final DeflaterOutputStream out = GZIP.equals(encoding) ? new GZIPOutputStream(compressed) :
+                                          DEFLATE.equals(encoding) ? new DeflaterOutputStream(compressed) :
+                                          new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+      out.write(CSV.getBytes(StandardCharsets.US_ASCII));
+    }
+    return compressed.toByteArray();
+  }
+
+  private static final String read(final InputStream stream) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[16];
+    int read;
+    while ((read = stream.read(buffer)) > -1) {
+      out.write(buffer, 0, read);
+    }
+    stream.close();
+    return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+  }
+
+  @Test
+  public void readTimesOut() throws Exception {
+    thrown.expect(SocketTimeoutException.class);
+    try (final InputStream stream = new URLConnector(200).open(url)) {
+      stream.read();
+    }
+  }
+
+}
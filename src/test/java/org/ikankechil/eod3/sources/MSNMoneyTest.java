@@ -136,12 +136,12 @@ public class MSNMoneyTest extends SourceTest {
 
     readOriginalLinesFromJsonFile();
 
-    transformedLines.addAll(Arrays.asList("INTC,20151207,54.77,54.88,53.91,54.40,15077326",
-                                          "INTC,20151204,53.66,55.33,53.52,55.09,21463021",
-                                          "INTC,20151203,54.42,54.60,53.35,53.51,0",
-                                          "INTC,20151202,54.99,55.02,54.03,54.14,0",
-                                          "INTC,20151201,54.40,54.91,54.25,54.88,0",
-                                          "INTC,20151130,54.34,54.46,53.97,54.09,14603058"));
+    transformedLines.addAll(Arrays.asList("INTC,20160512,30.45,30.69,29.52,29.76,184985045",
+                                          "INTC,20160429,32.27,32.47,30.1,30.28,515836836",
+                                          "INTC,20160331,29.93,32.75,29.75,32.35,463536942",
+                                          "INTC,19720831,0.0934226429,0.1178303259,0.0934226429,0.1096944347,0",
+                                          "INTC,19720731,0.0796758515,0.0959476433,0.0740647291,0.0934226429,0",
+                                          "INTC,19720630,0.0740647291,0.0796758515,0.0740647291,0.0796758515,0"));
   }
 
   @Override
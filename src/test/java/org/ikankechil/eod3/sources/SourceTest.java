@@ -10,14 +10,18 @@ import static org.ikankechil.eod3.Frequencies.*;
 import static org.ikankechil.eod3.Interval.*;
 import static org.ikankechil.eod3.sources.Exchanges.*;
 import static org.junit.Assert.*;
+import static org.junit.Assume.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,7 +32,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
+import org.ikankechil.eod3.BarSeries;
 import org.ikankechil.eod3.Frequencies;
+import org.ikankechil.eod3.io.StreamingTransformer;
 import org.ikankechil.io.TextTransform;
 import org.ikankechil.io.TextTransformer;
 import org.junit.After;
@@ -424,6 +430,48 @@ public abstract class SourceTest {
     assertArrayEquals(transformedLines.toArray(), actuals.toArray());
   }
 
+  @Test
+  public void transformStreamedLines() throws Exception {
+    assumeTrue(source.isStreamable());
+    final StringBuilder text = new StringBuilder();
+    for (final String line : originalLines) {
+      text.append(line).append('\n');
+    }
+    final File destination = File.createTempFile(SYMBOL, EMPTY);
+    try {
+      new StreamingTransformer(source.newBufferTransform(SYMBOL), source.headerRows(), source.isReversed())
+          .transform(new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)), destination);
+
+      assertEquals(transformedLines, Files.readAllLines(destination.toPath(), StandardCharsets.UTF_8));
+    }
+    finally {
+      destination.delete();
+    }
+  }
+
+  @Test
+  public void barSeriesOfTransformedLines() throws Exception {
+    final BarSeries expecteds = BarSeries.parse(SYMBOL, transformedLines);
+
+    final BarSeries actuals = source.newBarSeries(SYMBOL, new ArrayList<>(originalLines));
+
+    assertEquals(expecteds.toLines(), actuals.toLines());
+  }
+
+  @Test
+  public void barSeriesOfParsedResponses() throws Exception {
+    assumeTrue(source.isParsed());
+    final StringBuilder text = new StringBuilder();
+    for (final String line : originalLines) {
+      text.append(line).append('\n');
+    }
+    final BarSeries expecteds = BarSeries.parse(SYMBOL, transformedLines);
+
+    final BarSeries actuals = source.newBarSeries(SYMBOL, new StringReader(text.toString()));
+
+    assertEquals(expecteds.toLines(), actuals.toLines());
+  }
+
   @Test
   public void connectivity() throws Exception {
     final String symbol;
@@ -0,0 +1,232 @@
+/**
+ * BarFileTest.java  v0.1  19 October 2026 2:41:18 AM
+ *
+ * Copyright © 2026 Daniel Kuan.  All rights reserved.
+ */
+package org.ikankechil.eod3.store;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.ikankechil.eod3.BarSeries;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * JUnit test for <code>BarFile</code>.
+ *
+ * @author Daniel Kuan
+ * @version 0.1
+ */
+public class BarFileTest {
+
+  private File                   directory;
+  private File                   file;
+
+  @Rule
+  public final ExpectedException thrown = ExpectedException.none();
+
+  private static final double    DELTA  = 0.0;
+
+  @Before
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory(BarFileTest.class.getSimpleName()).toFile();
+    file = new File(directory, "C" + BarFile.EXTENSION);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (final File f : directory.listFiles()) {
+      f.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void writeAndRead() throws Exception {
+    assertEquals(3, BarFile.write(file, Arrays.asList("C,20151007,1.5,2.5,0.5,2,300",
+                                                      "",
+                                                      "C,20151006,1.25,2.25,0.25,1.75,200",
+                                                      "C,20151005,1,2,0.125,1.5,100")));
+    assertEquals(1, directory.listFiles().length); // no temporary files left behind
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(3, bars.size());
+      assertEquals(20151005, bars.date(0));
+      assertEquals(20151007, bars.latestDate());
+      assertEquals(1.25, bars.open(1), DELTA);
+      assertEquals(2.25, bars.high(1), DELTA);
+      assertEquals(0.25, bars.low(1), DELTA);
+      assertEquals(1.75, bars.close(1), DELTA);
+      assertEquals(200, bars.volume(1));
+      assertEquals(300, bars.volume(2));
+    }
+  }
+
+  @Test
+  public void sortLinesOutOfOrderKeepingFirstOfDuplicateDates() throws Exception {
+    assertEquals(3, BarFile.write(file, Arrays.asList("C,20151006,6,6,6,6,6",
+                                                      "C,20151005,5,5,5,5,5",
+                                                      "C,20151007,7,7,7,7,7",
+                                                      "C,20151006,0,0,0,0,0")));
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(20151005, bars.date(0));
+      assertEquals(20151006, bars.date(1));
+      assertEquals(6, bars.close(1), DELTA);
+      assertEquals(20151007, bars.date(2));
+    }
+  }
+
+  @Test
+  public void readLinesWithoutVolume() throws Exception {
+    BarFile.write(file, Arrays.asList("EURUSD,20151007,1.1,1.2,1.0,1.15", "EURUSD,20151006,1.1,1.2,1.0,1.15,1.5E3"));
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(1500, bars.volume(0));
+      assertEquals(0, bars.volume(1));
+    }
+  }
+
+  @Test
+  public void cannotWriteUnparseableLines() throws Exception {
+    thrown.expect(IOException.class);
+    BarFile.write(file, Arrays.asList("C,20151007,1,2,0.5"));
+  }
+
+  @Test
+  public void appendLaterDatesInPlace() throws Exception {
+    BarFile.write(file, Arrays.asList("C,20151006,6,6,6,6,6", "C,20151005,5,5,5,5,5"));
+    final Object key = fileKey();
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(4, bars.merge(Arrays.asList("C,20151008,8,8,8,8,8", "C,20151007,7,7,7,7,7")));
+      assertEquals(20151008, bars.latestDate());
+      assertEquals(4, bars.merge(new ArrayList<String>()));
+    }
+    assertEquals(key, fileKey()); // not rewritten
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(4, bars.size());
+      assertEquals(5, bars.volume(0));
+      assertEquals(8, bars.volume(3));
+    }
+  }
+
+  @Test
+  public void mergeReplacingDatesByRewriting() throws Exception {
+    BarFile.write(file, Arrays.asList("C,20151006,0,0,0,0,0", "C,20151005,5,5,5,5,5"));
+    final long length = file.length();
+    final Object key = fileKey();
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(4, bars.merge(Arrays.asList("C,20151008,8,8,8,8,8", "C,20151007,7,7,7,7,7", "C,20151006,6,6,6,6,6")));
+      assertEquals(20151008, bars.latestDate());
+      assertEquals(6, bars.close(1), DELTA);
+    }
+    // committed rows never overwritten in place
+    assertNotEquals(key, fileKey());
+    assertEquals(length, file.length());
+    assertEquals(1, directory.listFiles().length);
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(4, bars.size());
+      assertEquals(5, bars.volume(0));
+      assertEquals(8, bars.volume(3));
+    }
+  }
+
+  @Test
+  public void interleaveDates() throws Exception {
+    BarFile.write(file, Arrays.asList("C,20151008,0,0,0,0,0", "C,20151006,0,0,0,0,0", "C,20151004,0,0,0,0,0"));
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(5, bars.merge(Arrays.asList("C,20151007,7,7,7,7,7", "C,20151005,5,5,5,5,5")));
+      final IntBuffer dates = bars.dates();
+      assertEquals(5, dates.remaining());
+      for (int row = 0; row < dates.remaining(); ++row) {
+        assertEquals(20151004 + row, dates.get(row));
+      }
+      assertEquals(0, bars.lowerBound(20151001));
+      assertEquals(2, bars.lowerBound(20151006));
+      assertEquals(5, bars.lowerBound(20151009));
+      assertEquals(7, bars.closes().get(3), DELTA);
+    }
+  }
+
+  @Test
+  public void growPastCapacity() throws Exception {
+    BarFile.write(file, Arrays.asList("C,10000000,0,0,0,0,0"));
+    final long length = file.length();
+
+    final List<String> lines = new ArrayList<>();
+    for (int day = 1000; day > 0; --day) {
+      lines.add("C," + (10000000 + day) + ",1,2,0.5,1.5," + day);
+    }
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(1001, bars.merge(lines));
+      assertEquals(10001000, bars.latestDate());
+      assertEquals(999, bars.volume(999));
+    }
+    assertTrue(file.length() > length);
+    assertEquals(1, directory.listFiles().length);
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(1001, bars.size());
+      for (int row = 0; row < bars.size(); ++row) {
+        assertEquals(10000000 + row, bars.date(row));
+      }
+    }
+  }
+
+  private final Object fileKey() throws IOException {
+    return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+  }
+
+  @Test
+  public void writeAndReadBarSeries() throws Exception {
+    final BarSeries written = BarSeries.parse("C", Arrays.asList("C,20151007,1.5,2.5,0.5,2,300", "C,20151005,1,2,0.125,1.5,100"));
+    assertEquals(2, BarFile.write(file, written));
+
+    try (final BarFile bars = BarFile.open(file)) {
+      assertEquals(3, bars.merge(BarSeries.parse("C", Arrays.asList("C,20151006,1.25,2.25,0.25,1.75,200"))));
+      final BarSeries read = bars.read("C");
+      assertEquals(Arrays.asList("C,20151007,1.5,2.5,0.5,2,300",
+                                 "C,20151006,1.25,2.25,0.25,1.75,200",
+                                 "C,20151005,1,2,0.125,1.5,100"),
+                   read.toLines());
+    }
+  }
+
+  @Test
+  public void cannotReadPastSize() throws Exception {
+    BarFile.write(file, Arrays.asList("C,20151007,1,2,0.5,1.5,100"));
+
+    thrown.expect(IndexOutOfBoundsException.class);
+    try (final BarFile bars = BarFile.open(file)) {
+      bars.date(1);
+    }
+  }
+
+  @Test
+  public void cannotOpenOtherFiles() throws Exception {
+    Files.write(file.toPath(), "C,20151007,1,2,0.5,1.5,100\n".getBytes(StandardCharsets.UTF_8));
+
+    thrown.expect(IOException.class);
+    thrown.expectMessage("Not a bar file");
+    BarFile.open(file);
+  }
+
+}
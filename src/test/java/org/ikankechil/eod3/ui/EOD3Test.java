@@ -65,6 +65,7 @@ public class EOD3Test {
   private static final String       X                = "-x";
   private static final String       U                = "-u";
   private static final String       M                = "-m";
+  private static final String       W                = "-w";
 
   // command-line parameters
   private static final String       NYSE             = "NYSE";
@@ -199,6 +200,11 @@ public class EOD3Test {
     assertTrue(CLI.execute(option, null).isEmpty());
   }
 
+  @Test
+  public void shareRequiresInputSymbolsFile() throws Exception {
+    assertTrue(CLI.execute(W, X, NYSE, AIC).isEmpty());
+  }
+
   @Test
   public void cannotUpdateWithIllegalOptions() throws Exception {
     final String[] illegalOptions = { I, D, F, X };
@@ -236,6 +242,13 @@ public class EOD3Test {
     assertEquals(1, actuals.size());
   }
 
+  @Test
+  public void updateAndMerge() throws Exception {
+    final List<File> actuals = CLI.execute(U, M, O, OUTPUT_DIRECTORY.getPath());
+    assertEquals(OUTPUT_DIRECTORY, actuals.get(0));
+    assertEquals(1, actuals.size());
+  }
+
   @Test
   public void cannotConvertWithoutSymbols() throws Exception {
     assertTrue(CLI.execute(X, NYSE).isEmpty());